@@ -0,0 +1,30 @@
+package com.reynaud.wonders.config;
+
+import com.reynaud.wonders.dao.GameDAO;
+import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.dao.LogStackTraceDAO;
+import com.reynaud.wonders.dao.LogTemplateDAO;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.persistenceunit.ManagedClassNameFilter;
+
+/**
+ * Persistence for game state, on the datasource configured by Spring Boot.
+ * Log entities and repositories are left to {@link LogPersistenceConfig}, so the
+ * game database never holds log tables.
+ */
+@Configuration
+@EnableJpaRepositories(
+        basePackageClasses = GameDAO.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = {LogDAO.class, LogTemplateDAO.class, LogStackTraceDAO.class}))
+public class GamePersistenceConfig {
+
+    @Bean
+    public ManagedClassNameFilter gameEntityFilter() {
+        return className -> !LogPersistenceConfig.LOG_ENTITIES.contains(className);
+    }
+}
@@ -0,0 +1,26 @@
+package com.reynaud.wonders.config;
+
+import com.reynaud.wonders.util.LogContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Clears the {@link LogContext} bound by a controller once the request completes,
+ * so it never leaks to the next request served by the same thread.
+ */
+@Component
+public class LogContextInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        LogContext.clear();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        LogContext.clear();
+    }
+}
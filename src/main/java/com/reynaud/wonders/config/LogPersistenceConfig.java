@@ -0,0 +1,93 @@
+package com.reynaud.wonders.config;
+
+import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.dao.LogStackTraceDAO;
+import com.reynaud.wonders.dao.LogTemplateDAO;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.entity.LogStackTrace;
+import com.reynaud.wonders.entity.LogTemplate;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistence for logs, kept apart from game state.
+ * Logs get their own H2 file, connection pool, entity manager and transaction manager,
+ * so log writes never share a transaction or a lock with game writes, and each store
+ * can be compacted or reset on its own.
+ * None of these beans are default candidates: anything that does not ask for the
+ * "logs" qualifier keeps using the game datasource configured by Spring Boot.
+ */
+@Configuration
+@EnableJpaRepositories(
+        basePackageClasses = LogDAO.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = {LogDAO.class, LogTemplateDAO.class, LogStackTraceDAO.class}),
+        entityManagerFactoryRef = LogPersistenceConfig.ENTITY_MANAGER_FACTORY,
+        transactionManagerRef = LogPersistenceConfig.TRANSACTION_MANAGER)
+public class LogPersistenceConfig {
+
+    public static final String LOGS = "logs";
+    public static final String ENTITY_MANAGER_FACTORY = "logEntityManagerFactory";
+    public static final String TRANSACTION_MANAGER = "logTransactionManager";
+
+    static final List<String> LOG_ENTITIES = List.of(
+            LogEntry.class.getName(), LogTemplate.class.getName(), LogStackTrace.class.getName());
+
+    @Bean(defaultCandidate = false)
+    @Qualifier(LOGS)
+    @ConfigurationProperties("wonders.logging.datasource")
+    public HikariDataSource logDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean(name = ENTITY_MANAGER_FACTORY, defaultCandidate = false)
+    @Qualifier(LOGS)
+    public LocalContainerEntityManagerFactoryBean logEntityManagerFactory(
+            @Qualifier(LOGS) DataSource dataSource,
+            @Value("${wonders.logging.jpa.ddl-auto:update}") String ddlAuto,
+            @Value("${spring.jpa.show-sql:false}") boolean showSql) {
+        HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
+        vendorAdapter.setShowSql(showSql);
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setPersistenceUnitName(LOGS);
+        factory.setDataSource(dataSource);
+        factory.setJpaVendorAdapter(vendorAdapter);
+        factory.setManagedTypes(PersistenceManagedTypes.of(LOG_ENTITIES, List.of()));
+        // Same column naming as the game store, where Spring Boot applies it
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", ddlAuto,
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        return factory;
+    }
+
+    @Bean(name = TRANSACTION_MANAGER, defaultCandidate = false)
+    @Qualifier(LOGS)
+    public JpaTransactionManager logTransactionManager(@Qualifier(LOGS) EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean(defaultCandidate = false)
+    @Qualifier(LOGS)
+    public JdbcTemplate logJdbcTemplate(@Qualifier(LOGS) DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+}
@@ -0,0 +1,12 @@
+package com.reynaud.wonders.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs such as log retention.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
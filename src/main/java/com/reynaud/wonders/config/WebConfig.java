@@ -0,0 +1,23 @@
+package com.reynaud.wonders.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final LogContextInterceptor logContextInterceptor;
+
+    public WebConfig(LogContextInterceptor logContextInterceptor) {
+        this.logContextInterceptor = logContextInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(logContextInterceptor);
+    }
+}
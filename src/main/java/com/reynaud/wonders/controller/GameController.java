@@ -6,6 +6,7 @@ import com.reynaud.wonders.entity.UserEntity;
 import com.reynaud.wonders.manager.GameInitManager;
 import com.reynaud.wonders.manager.GameStateManager;
 import com.reynaud.wonders.model.GameStatus;
+import com.reynaud.wonders.service.GameActionExecutor;
 import com.reynaud.wonders.service.GameService;
 import com.reynaud.wonders.service.LoggingService;
 import com.reynaud.wonders.service.UserService;
@@ -27,15 +28,17 @@ public class GameController {
     private final GameStateManager gameStateManager;
     private final UserService userService;
     private final LoggingService loggingService;
+    private final GameActionExecutor gameActions;
 
     public GameController(GameService gameService, GameInitManager gameInitManager,
                           GameStateManager gameStateManager, UserService userService,
-                          LoggingService loggingService) {
+                          LoggingService loggingService, GameActionExecutor gameActions) {
         this.gameService = gameService;
         this.gameInitManager = gameInitManager;
         this.gameStateManager = gameStateManager;
         this.userService = userService;
         this.loggingService = loggingService;
+        this.gameActions = gameActions;
     }
 
     // Web pages
@@ -130,6 +133,10 @@ public class GameController {
     @GetMapping("/api/{id}")
     @ResponseBody
     public ResponseEntity<GameDTO> getGame(@PathVariable Long id) {
+        return gameActions.call(id, () -> getGameInSession(id));
+    }
+
+    private ResponseEntity<GameDTO> getGameInSession(Long id) {
         GameEntity game = gameService.getGameById(id);
         if (game == null) {
             return ResponseEntity.notFound().build();
@@ -205,7 +212,10 @@ public class GameController {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+        return gameActions.call(id, () -> startGameInSession(id));
+    }
 
+    private ResponseEntity<GameDTO> startGameInSession(Long id) {
         try {
             GameEntity game = gameService.getGameById(id);
             if (game == null) {
@@ -226,7 +236,10 @@ public class GameController {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+        return gameActions.call(id, () -> cancelGameInSession(id));
+    }
 
+    private ResponseEntity<GameDTO> cancelGameInSession(Long id) {
         try {
             GameEntity game = gameService.getGameById(id);
             if (game == null) {
@@ -6,13 +6,17 @@ import com.reynaud.wonders.entity.PlayerStateEntity;
 import com.reynaud.wonders.entity.UserEntity;
 import com.reynaud.wonders.entity.WonderEntity;
 import com.reynaud.wonders.manager.CardPlayManager;
+import com.reynaud.wonders.manager.PlayabilityManager;
 import com.reynaud.wonders.manager.TurnManager;
 import com.reynaud.wonders.manager.WonderBuildManager;
+import com.reynaud.wonders.model.CardPlayability;
 import com.reynaud.wonders.model.GameStatus;
+import com.reynaud.wonders.service.GameActionExecutor;
 import com.reynaud.wonders.service.GameService;
 import com.reynaud.wonders.service.LoggingService;
 import com.reynaud.wonders.service.PlayerStateService;
 import com.reynaud.wonders.service.UserService;
+import com.reynaud.wonders.util.LogContext;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.ResponseEntity.BodyBuilder;
@@ -36,11 +40,14 @@ public class GameStateApiController {
     private final WonderBuildManager wonderBuildManager;
     private final TurnManager turnManager;
     private final LoggingService loggingService;
+    private final GameActionExecutor gameActions;
+    private final PlayabilityManager playabilityManager;
 
     public GameStateApiController(GameService gameService, PlayerStateService playerStateService,
                                   UserService userService, CardPlayManager cardPlayManager,
                                   WonderBuildManager wonderBuildManager, TurnManager turnManager,
-                                  LoggingService loggingService) {
+                                  LoggingService loggingService, GameActionExecutor gameActions,
+                                  PlayabilityManager playabilityManager) {
         this.gameService = gameService;
         this.playerStateService = playerStateService;
         this.userService = userService;
@@ -48,6 +55,15 @@ public class GameStateApiController {
         this.wonderBuildManager = wonderBuildManager;
         this.turnManager = turnManager;
         this.loggingService = loggingService;
+        this.gameActions = gameActions;
+        this.playabilityManager = playabilityManager;
+    }
+
+    /**
+     * Game id of a JSON request body, or null when missing so the action reports it itself
+     */
+    private static Long gameIdOf(Map<String, Object> request) {
+        return request.get("gameId") instanceof Number gameId ? gameId.longValue() : null;
     }
 
     /**
@@ -59,6 +75,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, List<String>>> getHand(
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getHandInSession(gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, List<String>>> getHandInSession(Long gameId, Authentication authentication) {
         loggingService.warning("Deprecated function","GameStateApiController.getHand");
         if (authentication == null) {
             loggingService.warning("Unauthorized hand request - No authentication - GameID: " + gameId, "GameStateApiController.getHand");
@@ -93,6 +113,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, String>> getWonder(
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getWonderInSession(gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, String>> getWonderInSession(Long gameId, Authentication authentication) {
         loggingService.warning("Deprecated function","GameStateApiController.getWonder");
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -127,6 +151,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, List<String>>> getCardBacks(
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getCardBacksInSession(gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, List<String>>> getCardBacksInSession(Long gameId, Authentication authentication) {
         loggingService.warning("Deprecated function","GameStateApiController.getCardBacks");
 
         if (authentication == null) {
@@ -162,6 +190,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, Integer>> getCoins(
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getCoinsInSession(gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, Integer>> getCoinsInSession(Long gameId, Authentication authentication) {
         loggingService.warning("Deprecated function","GameStateApiController.getCoins");
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -191,6 +223,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, List<String>>> getPlayedCards(
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getPlayedCardsInSession(gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, List<String>>> getPlayedCardsInSession(Long gameId, Authentication authentication) {
         loggingService.warning("Deprecated function","GameStateApiController.getPlayedCards");
 
         if (authentication == null) {
@@ -225,6 +261,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, List<Map<String, Object>>>> getDiscardedCards(
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getDiscardedCardsInSession(gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, List<Map<String, Object>>>> getDiscardedCardsInSession(Long gameId, Authentication authentication) {
         loggingService.warning("Deprecated function","GameStateApiController.getDiscardedCards");
 
         if (authentication == null) {
@@ -259,6 +299,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, List<Map<String, String>>>> getPlayers(
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getPlayersInSession(gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, List<Map<String, String>>>> getPlayersInSession(Long gameId, Authentication authentication) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
@@ -298,6 +342,10 @@ public class GameStateApiController {
             @PathVariable String playerId,
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getPlayerStateInSession(playerId, gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, Object>> getPlayerStateInSession(String playerId, Long gameId, Authentication authentication) {
         loggingService.warning("Deprecated function","GameStateApiController.getPlayerState");
 
         if (authentication == null) {
@@ -315,8 +363,12 @@ public class GameStateApiController {
             playerState = playerStateService.getPlayerStateByGameIdAndUserId(gameId, currentUser.getId());
         } else {
             try {
+                // Look the player up among the game's own, so a session game answers from memory
                 Long playerStateId = Long.parseLong(playerId);
-                playerState = playerStateService.getPlayerStateById(playerStateId);
+                playerState = playerStateService.getPlayerStatesByGameId(gameId).stream()
+                        .filter(ps -> playerStateId.equals(ps.getId()))
+                        .findFirst()
+                        .orElse(null);
             } catch (NumberFormatException e) {
                 return ResponseEntity.badRequest().build();
             }
@@ -358,6 +410,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, Object>> cardAction(
             @RequestBody Map<String, Object> request,
             Authentication authentication) {
+        return gameActions.call(gameIdOf(request), () -> cardActionInSession(request, authentication));
+    }
+
+    private ResponseEntity<Map<String, Object>> cardActionInSession(Map<String, Object> request, Authentication authentication) {
         if (authentication == null) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -392,6 +448,7 @@ public class GameStateApiController {
             errorResponse.put("message", "Player state not found");
             return ((BodyBuilder) ResponseEntity.notFound()).body(errorResponse);
         }
+        LogContext.bind(gameId, playerState.getId(), user.getId(), action);
 
         GameEntity game = gameService.getGameById(gameId);
         if (game == null) {
@@ -473,6 +530,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, Boolean>> getHasPlayedThisTurn(
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getHasPlayedThisTurnInSession(gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, Boolean>> getHasPlayedThisTurnInSession(Long gameId, Authentication authentication) {
         loggingService.warning("Deprecated function","GameStateApiController.getHasPlayedThisTurn");
 
         if (authentication == null) {
@@ -500,6 +561,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, List<String>>> getAvailableActions(
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getAvailableActionsInSession(gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, List<String>>> getAvailableActionsInSession(Long gameId, Authentication authentication) {
         loggingService.warning("Deprecated function","GameStateApiController.getAvailableActions");
 
         if (authentication == null) {
@@ -519,6 +584,18 @@ public class GameStateApiController {
         if (!playerState.getHasPlayedThisTurn()) {
             Map<String, List<String>> response = new HashMap<>();
             response.put("availableActions", List.of("play", "build", "discard"));
+            GameEntity game = gameService.getGameById(gameId);
+            if (game != null) {
+                Map<Long, CardPlayability> playability = playabilityManager.getPlayability(game, playerState);
+                response.put("playableCards", playability.values().stream()
+                        .filter(CardPlayability::isPlayable)
+                        .map(card -> card.getCardId().toString())
+                        .collect(Collectors.toList()));
+                response.put("buildableCards", playability.values().stream()
+                        .filter(CardPlayability::isBuildable)
+                        .map(card -> card.getCardId().toString())
+                        .collect(Collectors.toList()));
+            }
             return ResponseEntity.ok(response);
         }
 
@@ -545,6 +622,10 @@ public class GameStateApiController {
             @RequestParam Long cardId,
             @RequestParam String action,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> selectDiscardCardInSession(gameId, cardId, action, authentication));
+    }
+
+    private ResponseEntity<Map<String, String>> selectDiscardCardInSession(Long gameId, Long cardId, String action, Authentication authentication) {
         loggingService.warning("Deprecated function","GameStateApiController.selectDiscardCard");
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -571,6 +652,7 @@ public class GameStateApiController {
         if (playerState == null) {
             return ResponseEntity.notFound().build();
         }
+        LogContext.bind(gameId, playerState.getId(), user.getId(), action + "-from-discard");
 
         // Find the card in the discard pile
         CardEntity cardToUse = game.getDiscard().stream()
@@ -667,6 +749,24 @@ public class GameStateApiController {
         return state;
     }
 
+    /**
+     * What the player can do with each card of their hand, with the coins it costs
+     */
+    private List<Map<String, Object>> getCardOptions(GameEntity game, PlayerStateEntity playerState) {
+        return playabilityManager.getPlayability(game, playerState).values().stream()
+                .map(card -> {
+                    Map<String, Object> cardData = new HashMap<>();
+                    cardData.put("id", card.getCardId());
+                    cardData.put("play", card.isPlayable());
+                    cardData.put("playCost", card.getPlayCost());
+                    cardData.put("build", card.isBuildable());
+                    cardData.put("buildCost", card.getBuildCost());
+                    cardData.put("discard", card.isDiscardable());
+                    return cardData;
+                })
+                .collect(Collectors.toList());
+    }
+
     /**
      * GET /api/get-player-game-state
      * Returns all game state information needed by the frontend in a single call.
@@ -680,6 +780,8 @@ public class GameStateApiController {
      * - cardBacks: Cards used to build the wonder
      * - discarded: Cards in the discard pile (id, image)
      * - availableActions: List of actions the player can take (play, build, discard, build_from_discard)
+     * - cardOptions: Before the player has played this turn, for each hand card (id): whether it can be
+     *   played, built or discarded, with playCost and buildCost in coins
      * - players: Array of other players with:
      *   - id: Player state ID
      *   - name: Player username
@@ -690,6 +792,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, Object>> getPlayerGameState(
             @RequestParam Long gameId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> getPlayerGameStateInSession(gameId, authentication));
+    }
+
+    private ResponseEntity<Map<String, Object>> getPlayerGameStateInSession(Long gameId, Authentication authentication) {
 
         if (authentication == null) {   
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -712,6 +818,9 @@ public class GameStateApiController {
 
         // Get this player's state
         Map<String, Object> response = new HashMap<>(getPlayerState(playerState));
+        if (!playerState.getHasPlayedThisTurn()) {
+            response.put("cardOptions", getCardOptions(game, playerState));
+        }
 
         List<Map<String, Object>> discardedCards = game.getDiscard().stream()
             .map(card -> {
@@ -757,6 +866,10 @@ public class GameStateApiController {
     public ResponseEntity<Map<String, Object>> playCard(
             @RequestBody Map<String, Object> request,
             Authentication authentication) {
+        return gameActions.call(gameIdOf(request), () -> playCardInSession(request, authentication));
+    }
+
+    private ResponseEntity<Map<String, Object>> playCardInSession(Map<String, Object> request, Authentication authentication) {
         
         if (authentication == null) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -802,6 +915,7 @@ public class GameStateApiController {
             errorResponse.put("message", "Player state not found");
             return ResponseEntity.badRequest().body(errorResponse);
         }
+        LogContext.bind(gameId, playerState.getId(), user.getId(), Boolean.TRUE.equals(fromDiscard) ? action + "-from-discard" : action);
 
         GameEntity game = gameService.getGameById(gameId);
         if (game == null) {
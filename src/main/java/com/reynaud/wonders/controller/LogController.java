@@ -1,17 +1,37 @@
 package com.reynaud.wonders.controller;
 
+import com.reynaud.wonders.dto.LogCursor;
 import com.reynaud.wonders.dto.LogEntryDTO;
+import com.reynaud.wonders.dto.LogFilter;
 import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.entity.LogStackTrace;
 import com.reynaud.wonders.model.LogLevel;
+import com.reynaud.wonders.service.AsyncLogWriter;
+import com.reynaud.wonders.service.LogExportService;
+import com.reynaud.wonders.service.LogRetentionService;
+import com.reynaud.wonders.service.LogSearchService;
+import com.reynaud.wonders.service.LogStatistics;
+import com.reynaud.wonders.service.LogStackTraceService;
+import com.reynaud.wonders.service.LogStreamService;
+import com.reynaud.wonders.service.LogTemplateService;
+import com.reynaud.wonders.service.LogThrottle;
 import com.reynaud.wonders.service.LoggingService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,138 +46,287 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasRole('ADMIN')")
 public class LogController {
 
+    private static final DateTimeFormatter EXPORT_FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     private final LoggingService loggingService;
+    private final AsyncLogWriter logWriter;
+    private final LogRetentionService retentionService;
+    private final LogStreamService streamService;
+    private final LogTemplateService templateService;
+    private final LogStackTraceService stackTraceService;
+    private final LogStatistics statistics;
+    private final LogSearchService searchService;
+    private final LogExportService exportService;
 
     @Autowired
-    public LogController(LoggingService loggingService) {
+    public LogController(LoggingService loggingService, AsyncLogWriter logWriter,
+                         LogRetentionService retentionService, LogStreamService streamService,
+                         LogTemplateService templateService, LogStackTraceService stackTraceService,
+                         LogStatistics statistics, LogSearchService searchService,
+                         LogExportService exportService) {
         this.loggingService = loggingService;
+        this.logWriter = logWriter;
+        this.retentionService = retentionService;
+        this.streamService = streamService;
+        this.templateService = templateService;
+        this.stackTraceService = stackTraceService;
+        this.statistics = statistics;
+        this.searchService = searchService;
+        this.exportService = exportService;
     }
 
     /**
-     * Get all logs with pagination and optional exclusion filters
-     * GET /api/admin/logs?page=1&excludeLevels=DEBUG,INFO&excludeSources=MyService
+     * Get logs newest first, filtered in the database and paged with a keyset cursor.
+     * Pass the returned nextCursor to get the following (older) page.
+     * GET /api/admin/logs?size=50&levels=ERROR,CRITICAL&excludeSources=MyService&read=false&minutes=60&cursor=...
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllLogs(
-            @RequestParam(defaultValue = "1") int page,
-            @RequestParam(required = false) String excludeLevels,
-            @RequestParam(required = false) String excludeSources,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) List<LogLevel> levels,
+            @RequestParam(required = false) List<String> sources,
+            @RequestParam(required = false) List<LogLevel> excludeLevels,
+            @RequestParam(required = false) List<String> excludeSources,
+            @RequestParam(required = false) Boolean read,
+            @RequestParam(defaultValue = "0") int minutes,
             Authentication authentication) {
         
-        Page<LogEntry> logsPage = loggingService.getAllLogs(page);
-        
-        // Apply exclusion filters on the retrieved page
-        if ((excludeLevels != null && !excludeLevels.isEmpty()) || 
-            (excludeSources != null && !excludeSources.isEmpty())) {
-            logsPage = filterExclusions(logsPage, excludeLevels, excludeSources);
+        LogFilter filter = buildFilter(excludeLevels, excludeSources);
+        filter.setLevels(levels);
+        filter.setSources(sources);
+        filter.setReadByAdmin(read);
+        if (minutes > 0) {
+            filter.setSince(LocalDateTime.now().minusMinutes(minutes));
         }
         
-        return buildResponse(logsPage, authentication.getName());
+        return buildResponse(filter, cursor, size, authentication.getName(), new HashMap<>());
     }
 
     /**
      * Get logs filtered by severity level (with optional exclusions)
-     * GET /api/admin/logs/level/ERROR?page=1&excludeLevels=DEBUG&excludeSources=MyService
+     * GET /api/admin/logs/level/ERROR?size=50&excludeSources=MyService&cursor=...
      */
     @GetMapping("/level/{level}")
     public ResponseEntity<Map<String, Object>> getLogsByLevel(
             @PathVariable LogLevel level,
-            @RequestParam(defaultValue = "1") int page,
-            @RequestParam(required = false) String excludeLevels,
-            @RequestParam(required = false) String excludeSources,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) List<LogLevel> excludeLevels,
+            @RequestParam(required = false) List<String> excludeSources,
             Authentication authentication) {
         
-        Page<LogEntry> logsPage = loggingService.getLogsByLevel(level, page);
-        
-        // Apply exclusion filters on the retrieved page
-        if ((excludeLevels != null && !excludeLevels.isEmpty()) || 
-            (excludeSources != null && !excludeSources.isEmpty())) {
-            logsPage = filterExclusions(logsPage, excludeLevels, excludeSources);
-        }
+        LogFilter filter = buildFilter(excludeLevels, excludeSources);
+        filter.setLevels(List.of(level));
         
-        return buildResponse(logsPage, authentication.getName());
+        return buildResponse(filter, cursor, size, authentication.getName(), new HashMap<>());
     }
 
     /**
      * Get logs from a specific source (with optional exclusions)
-     * GET /api/admin/logs/source/GameService?page=1&excludeLevels=DEBUG&excludeSources=TestService
+     * GET /api/admin/logs/source/GameService?size=50&excludeLevels=DEBUG&cursor=...
      */
     @GetMapping("/source/{source}")
     public ResponseEntity<Map<String, Object>> getLogsBySource(
             @PathVariable String source,
-            @RequestParam(defaultValue = "1") int page,
-            @RequestParam(required = false) String excludeLevels,
-            @RequestParam(required = false) String excludeSources,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) List<LogLevel> excludeLevels,
+            @RequestParam(required = false) List<String> excludeSources,
             Authentication authentication) {
         
-        Page<LogEntry> logsPage = loggingService.getLogsBySource(source, page);
+        LogFilter filter = buildFilter(excludeLevels, excludeSources);
+        filter.setSources(List.of(source));
         
-        // Apply exclusion filters on the retrieved page
-        if ((excludeLevels != null && !excludeLevels.isEmpty()) || 
-            (excludeSources != null && !excludeSources.isEmpty())) {
-            logsPage = filterExclusions(logsPage, excludeLevels, excludeSources);
-        }
+        return buildResponse(filter, cursor, size, authentication.getName(), new HashMap<>());
+    }
+
+    /**
+     * Get logs recorded for a specific game, optionally narrowed to one player or level.
+     * Answered from the (game_id, timestamp, id) index rather than by searching messages.
+     * GET /api/admin/logs/game/12?playerStateId=40&levels=WARNING,ERROR&size=50&cursor=...
+     */
+    @GetMapping("/game/{gameId}")
+    public ResponseEntity<Map<String, Object>> getLogsByGame(
+            @PathVariable Long gameId,
+            @RequestParam(required = false) Long playerStateId,
+            @RequestParam(required = false) List<LogLevel> levels,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) List<LogLevel> excludeLevels,
+            @RequestParam(required = false) List<String> excludeSources,
+            Authentication authentication) {
+        
+        LogFilter filter = buildFilter(excludeLevels, excludeSources);
+        filter.setGameId(gameId);
+        filter.setPlayerStateId(playerStateId);
+        filter.setLevels(levels);
         
-        return buildResponse(logsPage, authentication.getName());
+        Map<String, Object> extra = new HashMap<>();
+        extra.put("gameId", gameId);
+        return buildResponse(filter, cursor, size, authentication.getName(), extra);
     }
 
     /**
-     * Get unread logs (logs not yet reviewed by admin, with optional exclusions)
-     * GET /api/admin/logs/unread?excludeLevels=DEBUG&excludeSources=MyService
+     * Get errors grouped by stack-trace fingerprint, most recently seen first
+     * GET /api/admin/logs/errors?hours=24&size=50
      */
-    @GetMapping("/unread")
-    public ResponseEntity<Map<String, Object>> getUnreadLogs(
-            @RequestParam(required = false) String excludeLevels,
-            @RequestParam(required = false) String excludeSources,
+    @GetMapping("/errors")
+    public ResponseEntity<Map<String, Object>> getErrorGroups(
+            @RequestParam(defaultValue = "0") int hours,
+            @RequestParam(defaultValue = "50") int size,
             Authentication authentication) {
-        List<LogEntry> unreadLogs = loggingService.getUnreadLogs();
-        List<LogEntryDTO> dtos = convertToDTO(unreadLogs);
         
-        // Apply exclusion filters
-        if ((excludeLevels != null && !excludeLevels.isEmpty()) || 
-            (excludeSources != null && !excludeSources.isEmpty())) {
-            dtos = filterExclusionsFromDTOList(dtos, excludeLevels, excludeSources);
-        }
+        LocalDateTime since = hours > 0 ? LocalDateTime.now().minusHours(hours) : null;
+        int limit = Math.min(Math.max(size, 1), LoggingService.MAX_PAGE_SIZE);
+        List<Map<String, Object>> groups = stackTraceService.findGroups(since, limit).stream()
+                .map(this::convertGroup)
+                .collect(Collectors.toList());
         
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", LocalDateTime.now());
         response.put("admin", authentication.getName());
-        response.put("totalUnread", dtos.size());
-        response.put("totalElements", dtos.size());
-        response.put("logs", dtos);
+        response.put("count", groups.size());
+        response.put("groups", groups);
         
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get one error group with its full trace and the logs that recorded it
+     * GET /api/admin/logs/errors/{fingerprint}?size=50&cursor=...
+     */
+    @GetMapping("/errors/{fingerprint}")
+    public ResponseEntity<Map<String, Object>> getErrorGroup(
+            @PathVariable String fingerprint,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            Authentication authentication) {
+        
+        LogStackTrace group = stackTraceService.findGroup(fingerprint);
+        if (group == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        LogFilter filter = new LogFilter();
+        filter.setStackFingerprint(fingerprint);
+        
+        Map<String, Object> extra = convertGroup(group);
+        extra.put("stackTrace", group.getStackTrace());
+        return buildResponse(filter, cursor, size, authentication.getName(), extra);
+    }
+
+    /**
+     * Search log messages by words (all required) and "quoted phrases", newest first.
+     * Answered from an in-memory index of the logs table; archived logs are not searched.
+     * GET /api/admin/logs/search?q=alice "great library"&size=50&cursor=...
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchLogs(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            Authentication authentication) {
+        
+        Slice<LogEntry> slice;
+        try {
+            slice = searchService.search(q, LogCursor.decode(cursor), size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        Map<String, Object> extra = new HashMap<>();
+        extra.put("query", q);
+        return buildSliceResponse(slice, authentication.getName(), extra);
+    }
+
+    /**
+     * Download logs as gzipped newline-delimited JSON, oldest first, streamed straight from the database.
+     * Both bounds are optional; since is inclusive and until exclusive.
+     * GET /api/admin/logs/export?since=2026-01-01T00:00:00&until=2026-01-02T00:00:00&levels=WARNING,ERROR
+     */
+    @GetMapping("/export")
+    public void exportLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+            @RequestParam(required = false) List<LogLevel> levels,
+            HttpServletResponse response) throws IOException {
+        
+        if (since != null && until != null && !since.isBefore(until)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "since must be before until");
+            return;
+        }
+        
+        String fileName = "wonders-logs-" + LocalDateTime.now().format(EXPORT_FILE_TIME) + ".ndjson.gz";
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        try {
+            exportService.export(since, until, levels, response.getOutputStream());
+        } catch (UncheckedIOException e) {
+            // Usually a client that stopped reading; the partial download is all it gets
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Get unread logs (logs not yet reviewed by admin, with optional exclusions)
+     * GET /api/admin/logs/unread?size=50&excludeLevels=DEBUG&excludeSources=MyService&cursor=...
+     */
+    @GetMapping("/unread")
+    public ResponseEntity<Map<String, Object>> getUnreadLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) List<LogLevel> excludeLevels,
+            @RequestParam(required = false) List<String> excludeSources,
+            Authentication authentication) {
+        
+        LogFilter filter = buildFilter(excludeLevels, excludeSources);
+        filter.setReadByAdmin(false);
+        
+        Map<String, Object> extra = new HashMap<>();
+        extra.put("totalUnread", loggingService.getUnreadLogsCount());
+        return buildResponse(filter, cursor, size, authentication.getName(), extra);
+    }
+
     /**
      * Get recent logs (since specified minutes ago, with optional exclusions)
-     * GET /api/admin/logs/recent?minutes=30&excludeLevels=DEBUG&excludeSources=MyService
+     * GET /api/admin/logs/recent?minutes=30&size=50&excludeLevels=DEBUG&excludeSources=MyService&cursor=...
      */
     @GetMapping("/recent")
     public ResponseEntity<Map<String, Object>> getRecentLogs(
             @RequestParam(defaultValue = "30") int minutes,
-            @RequestParam(required = false) String excludeLevels,
-            @RequestParam(required = false) String excludeSources,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) List<LogLevel> excludeLevels,
+            @RequestParam(required = false) List<String> excludeSources,
             Authentication authentication) {
         
-        LocalDateTime since = LocalDateTime.now().minusMinutes(minutes);
-        List<LogEntry> recentLogs = loggingService.getRecentLogs(since);
-        List<LogEntryDTO> dtos = convertToDTO(recentLogs);
-        
-        // Apply exclusion filters
-        if ((excludeLevels != null && !excludeLevels.isEmpty()) || 
-            (excludeSources != null && !excludeSources.isEmpty())) {
-            dtos = filterExclusionsFromDTOList(dtos, excludeLevels, excludeSources);
-        }
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now());
-        response.put("admin", authentication.getName());
-        response.put("sinceMintuesAgo", minutes);
-        response.put("totalElements", dtos.size());
-        response.put("logs", dtos);
+        LogFilter filter = buildFilter(excludeLevels, excludeSources);
+        filter.setSince(LocalDateTime.now().minusMinutes(minutes));
         
-        return ResponseEntity.ok(response);
+        Map<String, Object> extra = new HashMap<>();
+        extra.put("sinceMintuesAgo", minutes);
+        return buildResponse(filter, cursor, size, authentication.getName(), extra);
+    }
+
+    /**
+     * Stream new logs as Server-Sent Events ("log" events, id = buffer sequence).
+     * Served from memory: reconnecting clients resume from Last-Event-ID while it is still buffered.
+     * GET /api/admin/logs/stream?levels=ERROR,CRITICAL&excludeSources=MyService&replay=100
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLogs(
+            @RequestParam(required = false) List<LogLevel> levels,
+            @RequestParam(required = false) List<String> sources,
+            @RequestParam(required = false) List<LogLevel> excludeLevels,
+            @RequestParam(required = false) List<String> excludeSources,
+            @RequestParam(defaultValue = "100") int replay,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        
+        LogFilter filter = buildFilter(excludeLevels, excludeSources);
+        filter.setLevels(levels);
+        filter.setSources(trimSources(sources));
+        return streamService.subscribe(filter, lastEventId, replay);
     }
 
     /**
@@ -186,14 +355,13 @@ public class LogController {
      */
     @PostMapping("/mark-all-read")
     public ResponseEntity<Map<String, Object>> markAllAsRead(Authentication authentication) {
-        long unreadCount = loggingService.getUnreadLogsCount();
-        loggingService.markAllAsRead();
+        long markedCount = loggingService.markAllAsRead();
         
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", LocalDateTime.now());
         response.put("admin", authentication.getName());
         response.put("message", "Marked all logs as read");
-        response.put("logsMarked", unreadCount);
+        response.put("logsMarked", markedCount);
         
         return ResponseEntity.ok(response);
     }
@@ -214,6 +382,32 @@ public class LogController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get log volume per minute and level, with totals per level and for the busiest sources.
+     * Served from in-memory counters, so it is cheap enough to poll.
+     * GET /api/admin/logs/histogram?minutes=60&topSources=20
+     */
+    @GetMapping("/histogram")
+    public ResponseEntity<Map<String, Object>> getHistogram(
+            @RequestParam(defaultValue = "60") int minutes,
+            @RequestParam(defaultValue = "20") int topSources,
+            Authentication authentication) {
+        if (minutes <= 0 || topSources < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("admin", authentication.getName());
+        response.put("windowMinutes", statistics.getWindowMinutes());
+        response.put("buckets", statistics.getHistogram(minutes));
+        response.put("levels", statistics.getLevelTotals());
+        response.put("sources", statistics.getTopSources(topSources));
+        response.put("unreadCount", statistics.getUnreadCount());
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Clear old logs (older than X days)
      * DELETE /api/admin/logs/clear-old?days=30
@@ -234,6 +428,133 @@ public class LogController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get the number of days each level is kept
+     * GET /api/admin/logs/retention
+     */
+    @GetMapping("/retention")
+    public ResponseEntity<Map<String, Object>> getRetentionPolicy(Authentication authentication) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("admin", authentication.getName());
+        response.put("retentionDays", retentionService.getRetentionDays());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Apply the retention policy immediately instead of waiting for the schedule
+     * POST /api/admin/logs/retention/run
+     */
+    @PostMapping("/retention/run")
+    public ResponseEntity<Map<String, Object>> runRetention(Authentication authentication) {
+        Map<LogLevel, Long> deleted = retentionService.applyRetention();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("admin", authentication.getName());
+        response.put("logsDeleted", deleted);
+        response.put("totalDeleted", deleted.values().stream().mapToLong(Long::longValue).sum());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the default minimum level and the per-source overrides
+     * GET /api/admin/logs/levels
+     */
+    @GetMapping("/levels")
+    public ResponseEntity<Map<String, Object>> getLogLevels(Authentication authentication) {
+        return buildLevelsResponse(authentication.getName());
+    }
+
+    /**
+     * Set the minimum level for a source, or the default level when no source is given
+     * PUT /api/admin/logs/levels?source=CardPlayManager.canAffordCost&level=INFO
+     */
+    @PutMapping("/levels")
+    public ResponseEntity<Map<String, Object>> setLogLevel(
+            @RequestParam(required = false) String source,
+            @RequestParam LogLevel level,
+            Authentication authentication) {
+        
+        if (source == null || source.isBlank()) {
+            loggingService.setDefaultLevel(level);
+            loggingService.info("Default log level changed - Level: " + level + ", Admin: " + authentication.getName(), "LogController.setLogLevel");
+        } else {
+            loggingService.setSourceThreshold(source.trim(), level);
+            loggingService.info("Source log level changed - Source: " + source.trim() + ", Level: " + level + ", Admin: " + authentication.getName(), "LogController.setLogLevel");
+        }
+        
+        return buildLevelsResponse(authentication.getName());
+    }
+
+    /**
+     * Remove the override for a source so it falls back to its parent or the default
+     * DELETE /api/admin/logs/levels?source=CardPlayManager.canAffordCost
+     */
+    @DeleteMapping("/levels")
+    public ResponseEntity<Map<String, Object>> clearLogLevel(
+            @RequestParam String source,
+            Authentication authentication) {
+        
+        if (!loggingService.clearSourceThreshold(source.trim())) {
+            return ResponseEntity.notFound().build();
+        }
+        loggingService.info("Source log level cleared - Source: " + source.trim() + ", Admin: " + authentication.getName(), "LogController.clearLogLevel");
+        
+        return buildLevelsResponse(authentication.getName());
+    }
+
+    /**
+     * Get the per-source sampling and rate-limit rules
+     * GET /api/admin/logs/throttle
+     */
+    @GetMapping("/throttle")
+    public ResponseEntity<Map<String, Object>> getThrottleRules(Authentication authentication) {
+        return buildThrottleResponse(authentication.getName());
+    }
+
+    /**
+     * Sample and rate-limit a source (and the sources below it) up to a level
+     * PUT /api/admin/logs/throttle?source=CardPlayManager.canAffordCost&maxLevel=DEBUG&perSecond=50&sampleRate=0.1
+     */
+    @PutMapping("/throttle")
+    public ResponseEntity<Map<String, Object>> setThrottleRule(
+            @RequestParam String source,
+            @RequestParam(defaultValue = "DEBUG") LogLevel maxLevel,
+            @RequestParam(defaultValue = "0") double perSecond,
+            @RequestParam(required = false) Double burst,
+            @RequestParam(defaultValue = "1.0") double sampleRate,
+            Authentication authentication) {
+        
+        if (source.isBlank() || sampleRate < 0 || sampleRate > 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        LogThrottle.Rule rule = new LogThrottle.Rule(maxLevel, perSecond, burst != null ? burst : perSecond, sampleRate);
+        loggingService.setThrottleRule(source.trim(), rule);
+        loggingService.info("Log throttle changed - Source: " + source.trim() + ", MaxLevel: " + maxLevel + ", PerSecond: " + perSecond + ", SampleRate: " + sampleRate + ", Admin: " + authentication.getName(), "LogController.setThrottleRule");
+        
+        return buildThrottleResponse(authentication.getName());
+    }
+
+    /**
+     * Remove the throttle rule of a source
+     * DELETE /api/admin/logs/throttle?source=CardPlayManager.canAffordCost
+     */
+    @DeleteMapping("/throttle")
+    public ResponseEntity<Map<String, Object>> clearThrottleRule(
+            @RequestParam String source,
+            Authentication authentication) {
+        
+        if (!loggingService.clearThrottleRule(source.trim())) {
+            return ResponseEntity.notFound().build();
+        }
+        loggingService.info("Log throttle cleared - Source: " + source.trim() + ", Admin: " + authentication.getName(), "LogController.clearThrottleRule");
+        
+        return buildThrottleResponse(authentication.getName());
+    }
+
     /**
      * Health check endpoint - accessible only to admins
      * GET /api/admin/logs/health
@@ -245,22 +566,82 @@ public class LogController {
         response.put("timestamp", LocalDateTime.now());
         response.put("admin", authentication.getName());
         response.put("message", "Logging service is operational");
+        response.put("queuedEntries", logWriter.getQueueSize());
+        response.put("droppedEntries", logWriter.getDroppedCount());
+        response.put("liveSubscribers", streamService.getSubscriberCount());
+        response.put("messageTemplates", templateService.getTemplateCount());
+        response.put("throttledEntries", loggingService.getPendingThrottledCount());
+        response.put("sinks", logWriter.getSinkRouting());
+        response.put("searchTokens", searchService.getTokenCount());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Helper method to create a filter holding the exclusion criteria shared by all listings
+     */
+    private LogFilter buildFilter(List<LogLevel> excludeLevels, List<String> excludeSources) {
+        LogFilter filter = new LogFilter();
+        filter.setExcludedLevels(excludeLevels);
+        filter.setExcludedSources(trimSources(excludeSources));
+        return filter;
+    }
+
+    /**
+     * Helper method to run a keyset-paged query and build the response
+     */
+    private ResponseEntity<Map<String, Object>> buildResponse(LogFilter filter, String cursor, int size,
+                                                              String adminName, Map<String, Object> extra) {
+        LogCursor position;
+        try {
+            position = LogCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return buildSliceResponse(loggingService.findLogs(filter, position, size), adminName, extra);
+    }
+
+    /**
+     * Helper method to build the response for one page of logs
+     */
+    private ResponseEntity<Map<String, Object>> buildSliceResponse(Slice<LogEntry> slice, String adminName,
+                                                                   Map<String, Object> extra) {
+        List<LogEntry> logs = slice.getContent();
+        
+        Map<String, Object> response = new HashMap<>(extra);
+        response.put("timestamp", LocalDateTime.now());
+        response.put("admin", adminName);
+        response.put("pageSize", slice.getSize());
+        response.put("count", logs.size());
+        response.put("hasMore", slice.hasNext());
+        response.put("nextCursor", slice.hasNext() ? LogCursor.after(logs.get(logs.size() - 1)).encode() : null);
+        response.put("logs", convertToDTO(logs));
         
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Helper method to build paginated response
+     * Helper method to build the log level configuration response
      */
-    private ResponseEntity<Map<String, Object>> buildResponse(Page<LogEntry> page, String adminName) {
+    private ResponseEntity<Map<String, Object>> buildLevelsResponse(String adminName) {
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", LocalDateTime.now());
         response.put("admin", adminName);
-        response.put("page", page.getNumber() + 1);
-        response.put("pageSize", page.getSize());
-        response.put("totalPages", page.getTotalPages());
-        response.put("totalElements", page.getTotalElements());
-        response.put("logs", convertToDTO(page.getContent()));
+        response.put("defaultLevel", loggingService.getDefaultLevel());
+        response.put("sourceLevels", loggingService.getSourceThresholds());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Helper method to build the throttle rules response
+     */
+    private ResponseEntity<Map<String, Object>> buildThrottleResponse(String adminName) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("admin", adminName);
+        response.put("rules", loggingService.getThrottleRules());
         
         return ResponseEntity.ok(response);
     }
@@ -274,89 +655,42 @@ public class LogController {
             dto.setId(log.getId());
             dto.setTimestamp(log.getTimestamp());
             dto.setLogLevel(log.getLogLevel());
-            dto.setMessage(log.getMessage());
+            dto.setMessage(templateService.render(log));
             dto.setSource(log.getSource());
-            dto.setStackTrace(log.getStackTrace());
+            dto.setStackTrace(stackTraceService.resolveStackTrace(log));
+            dto.setStackFingerprint(log.getStackFingerprint());
             dto.setReadByAdmin(log.getReadByAdmin());
+            dto.setGameId(log.getGameId());
+            dto.setPlayerStateId(log.getPlayerStateId());
+            dto.setUserId(log.getUserId());
+            dto.setAction(log.getAction());
             return dto;
         }).collect(Collectors.toList());
     }
 
     /**
-     * Helper method to filter Page of LogEntry by excluded levels and sources
-     */
-    private Page<LogEntry> filterExclusions(Page<LogEntry> page, String excludeLevels, String excludeSources) {
-        List<LogEntry> filtered = page.getContent().stream()
-                .filter(log -> shouldIncludeLog(log, excludeLevels, excludeSources))
-                .collect(Collectors.toList());
-        
-        return new org.springframework.data.domain.PageImpl<>(
-                filtered,
-                page.getPageable(),
-                page.getTotalElements()
-        );
-    }
-
-    /**
-     * Helper method to filter List of LogEntryDTO by excluded levels and sources
-     */
-    private List<LogEntryDTO> filterExclusionsFromDTOList(List<LogEntryDTO> dtos, String excludeLevels, String excludeSources) {
-        return dtos.stream()
-                .filter(dto -> shouldIncludeDTO(dto, excludeLevels, excludeSources))
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Helper method to check if a LogEntry should be included (not excluded)
+     * Helper method to summarize an error group
      */
-    private boolean shouldIncludeLog(LogEntry log, String excludeLevels, String excludeSources) {
-        // Check if log level should be excluded
-        if (excludeLevels != null && !excludeLevels.isEmpty()) {
-            String[] levels = excludeLevels.split(",");
-            for (String level : levels) {
-                if (log.getLogLevel().toString().equalsIgnoreCase(level.trim())) {
-                    return false; // Exclude this log
-                }
-            }
-        }
-        
-        // Check if source should be excluded
-        if (excludeSources != null && !excludeSources.isEmpty()) {
-            String[] sources = excludeSources.split(",");
-            for (String source : sources) {
-                if (log.getSource() != null && log.getSource().equalsIgnoreCase(source.trim())) {
-                    return false; // Exclude this log
-                }
-            }
-        }
-        
-        return true; // Include this log
+    private Map<String, Object> convertGroup(LogStackTrace group) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("fingerprint", group.getFingerprint());
+        summary.put("exceptionClass", group.getExceptionClass());
+        summary.put("occurrences", group.getOccurrenceCount());
+        summary.put("firstSeen", group.getFirstSeen());
+        summary.put("lastSeen", group.getLastSeen());
+        return summary;
     }
 
     /**
-     * Helper method to check if a LogEntryDTO should be included (not excluded)
+     * Helper method to drop blank entries from a source list
      */
-    private boolean shouldIncludeDTO(LogEntryDTO dto, String excludeLevels, String excludeSources) {
-        // Check if log level should be excluded
-        if (excludeLevels != null && !excludeLevels.isEmpty()) {
-            String[] levels = excludeLevels.split(",");
-            for (String level : levels) {
-                if (dto.getLogLevel().toString().equalsIgnoreCase(level.trim())) {
-                    return false; // Exclude this log
-                }
-            }
-        }
-        
-        // Check if source should be excluded
-        if (excludeSources != null && !excludeSources.isEmpty()) {
-            String[] sources = excludeSources.split(",");
-            for (String source : sources) {
-                if (dto.getSource() != null && dto.getSource().equalsIgnoreCase(source.trim())) {
-                    return false; // Exclude this log
-                }
-            }
+    private List<String> trimSources(List<String> sources) {
+        if (sources == null) {
+            return null;
         }
-        
-        return true; // Include this log
+        return sources.stream()
+                .map(String::trim)
+                .filter(source -> !source.isEmpty())
+                .collect(Collectors.toList());
     }
 }
@@ -14,6 +14,7 @@ import org.springframework.ui.Model;
 import com.reynaud.wonders.entity.PlayerStateEntity;
 import com.reynaud.wonders.entity.UserEntity;
 import com.reynaud.wonders.entity.WonderEntity;
+import com.reynaud.wonders.service.GameActionExecutor;
 import com.reynaud.wonders.service.PlayerStateService;
 import com.reynaud.wonders.service.UserService;
 import com.reynaud.wonders.service.WonderService;
@@ -25,22 +26,24 @@ public class WonderDeciderController {
     private final UserService userService;
     private final PlayerStateService playerStateService;
     private final WonderService wonderService;
-    
+    private final GameActionExecutor gameActions;
 
-    public WonderDeciderController(PlayerStateService playerStateService, UserService userService, WonderService wonderService) {
+    public WonderDeciderController(PlayerStateService playerStateService, UserService userService, WonderService wonderService,
+                                   GameActionExecutor gameActions) {
         this.playerStateService = playerStateService;
         this.userService = userService;
         this.wonderService = wonderService;
+        this.gameActions = gameActions;
     }
 
     @GetMapping
     public String chooseWonderSidePage(@RequestParam Long gameId, Authentication authentication, Model model) {
-        return showChooseWonderSide(gameId, authentication, model);
+        return gameActions.call(gameId, () -> showChooseWonderSide(gameId, authentication, model));
     }
 
     @GetMapping("{gameId}")
     public String chooseWonderSidePagePath(@PathVariable Long gameId, Authentication authentication, Model model) {
-        return showChooseWonderSide(gameId, authentication, model);
+        return gameActions.call(gameId, () -> showChooseWonderSide(gameId, authentication, model));
     }
 
     @PostMapping
@@ -48,6 +51,10 @@ public class WonderDeciderController {
             @RequestParam Long gameId,
             @RequestParam Long wonderId,
             Authentication authentication) {
+        return gameActions.call(gameId, () -> chooseWonderSideInSession(gameId, wonderId, authentication));
+    }
+
+    private String chooseWonderSideInSession(Long gameId, Long wonderId, Authentication authentication) {
         if (authentication == null) {
             return "redirect:/login";
         }
@@ -2,23 +2,30 @@ package com.reynaud.wonders.dao;
 
 import com.reynaud.wonders.entity.LogEntry;
 import com.reynaud.wonders.model.LogLevel;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Admin listings go through {@link JpaSpecificationExecutor} with
+ * {@link LogSpecifications} so filtering and keyset paging happen in SQL.
+ * Bulk maintenance selects a bounded chunk of ids and then updates or deletes
+ * them in a single statement, so no entities are loaded and locks stay short.
+ */
 @Repository
-public interface LogDAO extends JpaRepository<LogEntry, Long> {
-
-    /**
-     * Find all logs ordered by timestamp (most recent first)
-     */
-    Page<LogEntry> findAllByOrderByTimestampDesc(Pageable pageable);
+public interface LogDAO extends JpaRepository<LogEntry, Long>, JpaSpecificationExecutor<LogEntry> {
 
     /**
      * Find logs by level and timestamp range
@@ -27,33 +34,80 @@ public interface LogDAO extends JpaRepository<LogEntry, Long> {
             LogLevel logLevel, LocalDateTime start, LocalDateTime end);
 
     /**
-     * Find logs by source
+     * Count unread logs
      */
-    Page<LogEntry> findBySourceOrderByTimestampDesc(String source, Pageable pageable);
+    long countByReadByAdminFalse();
 
     /**
-     * Find logs with minimum severity level
+     * Number of logs per level and source, as (level, source, count) rows
      */
-    @Query("SELECT l FROM LogEntry l WHERE l.logLevel IN :levels ORDER BY l.timestamp DESC")
-    Page<LogEntry> findByLogLevelIn(@Param("levels") List<LogLevel> levels, Pageable pageable);
+    @Query("SELECT l.logLevel, l.source, COUNT(l) FROM LogEntry l GROUP BY l.logLevel, l.source")
+    List<Object[]> countByLevelAndSource();
 
     /**
-     * Find unread logs by admin
+     * Number of logs per level and minute since the given time, as (level, date, hour, minute, count) rows
      */
-    List<LogEntry> findByReadByAdminFalseOrderByTimestampDesc();
+    @Query("SELECT l.logLevel, EXTRACT(DATE FROM l.timestamp), EXTRACT(HOUR FROM l.timestamp), EXTRACT(MINUTE FROM l.timestamp), COUNT(l) "
+            + "FROM LogEntry l WHERE l.timestamp >= :since "
+            + "GROUP BY l.logLevel, EXTRACT(DATE FROM l.timestamp), EXTRACT(HOUR FROM l.timestamp), EXTRACT(MINUTE FROM l.timestamp)")
+    List<Object[]> countByLevelAndMinuteSince(@Param("since") LocalDateTime since);
 
     /**
-     * Find logs since a specific time
+     * Highest id currently stored, or null when the table is empty
      */
-    List<LogEntry> findByTimestampAfterOrderByTimestampDesc(LocalDateTime timestamp);
+    @Query("SELECT MAX(l.id) FROM LogEntry l")
+    Long findMaxId();
 
     /**
-     * Find logs before a specific time
+     * Logs older than the cutoff, oldest first, for archiving
      */
-    List<LogEntry> findByTimestampBeforeOrderByTimestampDesc(LocalDateTime timestamp);
+    List<LogEntry> findByTimestampBeforeOrderByTimestampAscIdAsc(LocalDateTime cutoff, Limit limit);
 
     /**
-     * Count unread logs
+     * Stream logs of the given levels in [since, until), oldest first, for export.
+     * Rows are fetched from the database in chunks as the stream is consumed;
+     * it must be read and closed within a transaction.
      */
-    long countByReadByAdminFalse();
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM LogEntry l WHERE l.timestamp >= :since AND l.timestamp < :until AND l.logLevel IN :levels "
+            + "ORDER BY l.timestamp, l.id")
+    Stream<LogEntry> streamForExport(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until,
+                                     @Param("levels") Collection<LogLevel> levels);
+
+    /**
+     * Ids of logs older than the cutoff, lowest first
+     */
+    @Query("SELECT l.id FROM LogEntry l WHERE l.timestamp < :cutoff ORDER BY l.id")
+    List<Long> findIdsBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Ids of logs of one level older than the cutoff, lowest first
+     */
+    @Query("SELECT l.id FROM LogEntry l WHERE l.logLevel = :level AND l.timestamp < :cutoff ORDER BY l.id")
+    List<Long> findIdsByLevelBefore(@Param("level") LogLevel level, @Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Ids of unread logs up to the given id, lowest first
+     */
+    @Query("SELECT l.id FROM LogEntry l WHERE l.readByAdmin = false AND l.id <= :maxId ORDER BY l.id")
+    List<Long> findUnreadIdsUpTo(@Param("maxId") Long maxId, Limit limit);
+
+    /**
+     * Delete logs by id in one statement
+     */
+    @Modifying
+    @Query("DELETE FROM LogEntry l WHERE l.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Mark logs as read by id in one statement
+     *
+     * @return the number of logs that were unread
+     */
+    @Modifying
+    @Query("UPDATE LogEntry l SET l.readByAdmin = true WHERE l.id IN :ids AND l.readByAdmin = false")
+    int markReadByIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,157 @@
+package com.reynaud.wonders.dao;
+
+import com.reynaud.wonders.dto.LogCursor;
+import com.reynaud.wonders.dto.LogFilter;
+import com.reynaud.wonders.entity.LogEntry;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Query building blocks for {@link LogDAO}.
+ * Filters and the keyset cursor are translated into SQL predicates so that the
+ * database does the filtering and can walk the (timestamp, id) index.
+ * The same criteria can be evaluated in memory for entries that are not in the table.
+ */
+public final class LogSpecifications {
+
+    /**
+     * Newest first, with id as a tie-breaker so the order is total
+     */
+    public static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id"));
+
+    /**
+     * {@link #KEYSET_SORT} for entries held in memory
+     */
+    public static final Comparator<LogEntry> KEYSET_ORDER = Comparator.comparing(LogEntry::getTimestamp)
+            .thenComparing(LogEntry::getId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .reversed();
+
+    private LogSpecifications() {
+    }
+
+    public static Specification<LogEntry> matching(LogFilter filter, LogCursor cursor) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Path<LocalDateTime> timestamp = root.get("timestamp");
+            Path<Long> id = root.get("id");
+
+            if (filter != null) {
+                if (!filter.getLevels().isEmpty()) {
+                    predicates.add(root.get("logLevel").in(filter.getLevels()));
+                }
+                if (!filter.getExcludedLevels().isEmpty()) {
+                    predicates.add(cb.not(root.get("logLevel").in(filter.getExcludedLevels())));
+                }
+                if (!filter.getSources().isEmpty()) {
+                    predicates.add(root.get("source").in(filter.getSources()));
+                }
+                if (!filter.getExcludedSources().isEmpty()) {
+                    // Excluded sources ignore case, as the log page always has
+                    predicates.add(cb.or(
+                            cb.isNull(root.get("source")),
+                            cb.not(cb.lower(root.get("source")).in(lowerCase(filter.getExcludedSources())))));
+                }
+                if (filter.getReadByAdmin() != null) {
+                    predicates.add(cb.equal(root.get("readByAdmin"), filter.getReadByAdmin()));
+                }
+                if (filter.getSince() != null) {
+                    predicates.add(cb.greaterThan(timestamp, filter.getSince()));
+                }
+                if (filter.getUntil() != null) {
+                    predicates.add(cb.lessThan(timestamp, filter.getUntil()));
+                }
+                if (filter.getGameId() != null) {
+                    predicates.add(cb.equal(root.get("gameId"), filter.getGameId()));
+                }
+                if (filter.getPlayerStateId() != null) {
+                    predicates.add(cb.equal(root.get("playerStateId"), filter.getPlayerStateId()));
+                }
+                if (filter.getUserId() != null) {
+                    predicates.add(cb.equal(root.get("userId"), filter.getUserId()));
+                }
+                if (filter.getStackFingerprint() != null) {
+                    predicates.add(cb.equal(root.get("stackFingerprint"), filter.getStackFingerprint()));
+                }
+            }
+
+            if (cursor != null) {
+                predicates.add(cb.or(
+                        cb.lessThan(timestamp, cursor.getTimestamp()),
+                        cb.and(cb.equal(timestamp, cursor.getTimestamp()), cb.lessThan(id, cursor.getId()))));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Evaluate {@link #matching} on an entry in memory
+     */
+    public static boolean test(LogFilter filter, LogCursor cursor, LogEntry entry) {
+        if (filter != null) {
+            if (!filter.getLevels().isEmpty() && !filter.getLevels().contains(entry.getLogLevel())) {
+                return false;
+            }
+            if (filter.getExcludedLevels().contains(entry.getLogLevel())) {
+                return false;
+            }
+            if (!filter.getSources().isEmpty() && !filter.getSources().contains(entry.getSource())) {
+                return false;
+            }
+            if (entry.getSource() != null && isExcludedSource(filter, entry.getSource())) {
+                return false;
+            }
+            if (filter.getReadByAdmin() != null && !filter.getReadByAdmin().equals(entry.getReadByAdmin())) {
+                return false;
+            }
+            if (filter.getSince() != null && !entry.getTimestamp().isAfter(filter.getSince())) {
+                return false;
+            }
+            if (filter.getUntil() != null && !entry.getTimestamp().isBefore(filter.getUntil())) {
+                return false;
+            }
+            if (filter.getGameId() != null && !filter.getGameId().equals(entry.getGameId())) {
+                return false;
+            }
+            if (filter.getPlayerStateId() != null && !filter.getPlayerStateId().equals(entry.getPlayerStateId())) {
+                return false;
+            }
+            if (filter.getUserId() != null && !filter.getUserId().equals(entry.getUserId())) {
+                return false;
+            }
+            if (filter.getStackFingerprint() != null && !filter.getStackFingerprint().equals(entry.getStackFingerprint())) {
+                return false;
+            }
+        }
+        return cursor == null || isBefore(entry, cursor);
+    }
+
+    private static boolean isExcludedSource(LogFilter filter, String source) {
+        for (String excluded : filter.getExcludedSources()) {
+            if (source.equalsIgnoreCase(excluded)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> lowerCase(List<String> values) {
+        return values.stream().map(value -> value.toLowerCase(Locale.ROOT)).toList();
+    }
+
+    /**
+     * Whether the entry comes after the cursor in keyset order, i.e. is older
+     */
+    public static boolean isBefore(LogEntry entry, LogCursor cursor) {
+        int byTime = entry.getTimestamp().compareTo(cursor.getTimestamp());
+        return byTime < 0 || (byTime == 0 && entry.getId() != null && entry.getId() < cursor.getId());
+    }
+}
@@ -0,0 +1,43 @@
+package com.reynaud.wonders.dao;
+
+import com.reynaud.wonders.entity.LogStackTrace;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Access Object for deduplicated stack traces.
+ * Occurrence counts are written by the log writer with plain SQL; this DAO serves reads and cleanup.
+ */
+@Repository
+public interface LogStackTraceDAO extends JpaRepository<LogStackTrace, String> {
+
+    /**
+     * All known fingerprints, used to skip rendering traces that are already stored
+     */
+    @Query("SELECT t.fingerprint FROM LogStackTrace t")
+    List<String> findAllFingerprints();
+
+    /**
+     * Error groups, most recently seen first
+     */
+    List<LogStackTrace> findAllByOrderByLastSeenDesc(Limit limit);
+
+    /**
+     * Error groups seen since a given time, most recently seen first
+     */
+    List<LogStackTrace> findByLastSeenAfterOrderByLastSeenDesc(LocalDateTime since, Limit limit);
+
+    /**
+     * Delete traces that have not been seen since the cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM LogStackTrace t WHERE t.lastSeen < :cutoff")
+    int deleteByLastSeenBefore(@Param("cutoff") LocalDateTime cutoff);
+}
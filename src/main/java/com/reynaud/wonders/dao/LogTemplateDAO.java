@@ -0,0 +1,19 @@
+package com.reynaud.wonders.dao;
+
+import com.reynaud.wonders.entity.LogTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Data Access Object for interned log message templates.
+ */
+@Repository
+public interface LogTemplateDAO extends JpaRepository<LogTemplate, Long> {
+
+    /**
+     * Find a template by its exact pattern
+     */
+    Optional<LogTemplate> findByPattern(String pattern);
+}
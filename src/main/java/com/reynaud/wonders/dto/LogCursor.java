@@ -0,0 +1,62 @@
+package com.reynaud.wonders.dto;
+
+import com.reynaud.wonders.entity.LogEntry;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset position in the log stream, ordered by (timestamp DESC, id DESC).
+ * Encoded for clients as "timestamp_id", e.g. "2026-01-31T18:04:12.123456_4821".
+ */
+public class LogCursor {
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public LogCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    /**
+     * Cursor pointing just after the given entry
+     */
+    public static LogCursor after(LogEntry entry) {
+        return new LogCursor(entry.getTimestamp(), entry.getId());
+    }
+
+    /**
+     * Parse a cursor sent by a client
+     *
+     * @param value the encoded cursor, may be null or blank
+     * @return the cursor, or null if no cursor was given
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public static LogCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int separator = value.lastIndexOf('_');
+        if (separator <= 0 || separator == value.length() - 1) {
+            throw new IllegalArgumentException("Malformed log cursor: " + value);
+        }
+        try {
+            return new LogCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed log cursor: " + value, e);
+        }
+    }
+
+    public String encode() {
+        return timestamp + "_" + id;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
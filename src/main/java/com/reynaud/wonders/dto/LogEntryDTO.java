@@ -10,7 +10,12 @@ public class LogEntryDTO {
     private String message;
     private String source;
     private String stackTrace;
+    private String stackFingerprint;
     private Boolean readByAdmin;
+    private Long gameId;
+    private Long playerStateId;
+    private Long userId;
+    private String action;
 
     public LogEntryDTO() {
     }
@@ -73,6 +78,14 @@ public class LogEntryDTO {
         this.stackTrace = stackTrace;
     }
 
+    public String getStackFingerprint() {
+        return stackFingerprint;
+    }
+
+    public void setStackFingerprint(String stackFingerprint) {
+        this.stackFingerprint = stackFingerprint;
+    }
+
     public Boolean getReadByAdmin() {
         return readByAdmin;
     }
@@ -80,4 +93,36 @@ public class LogEntryDTO {
     public void setReadByAdmin(Boolean readByAdmin) {
         this.readByAdmin = readByAdmin;
     }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public Long getPlayerStateId() {
+        return playerStateId;
+    }
+
+    public void setPlayerStateId(Long playerStateId) {
+        this.playerStateId = playerStateId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
 }
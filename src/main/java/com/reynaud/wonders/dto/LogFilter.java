@@ -0,0 +1,117 @@
+package com.reynaud.wonders.dto;
+
+import com.reynaud.wonders.model.LogLevel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria for admin log queries. Empty lists and null values mean "no restriction".
+ * All criteria are applied in the database, before the page limit.
+ */
+public class LogFilter {
+    private List<LogLevel> levels = new ArrayList<>();
+    private List<LogLevel> excludedLevels = new ArrayList<>();
+    private List<String> sources = new ArrayList<>();
+    private List<String> excludedSources = new ArrayList<>();
+    private Boolean readByAdmin;
+    private LocalDateTime since;
+    private LocalDateTime until;
+    private Long gameId;
+    private Long playerStateId;
+    private Long userId;
+    private String stackFingerprint;
+
+    public LogFilter() {
+    }
+
+    // Getters and Setters
+    public List<LogLevel> getLevels() {
+        return levels;
+    }
+
+    public void setLevels(List<LogLevel> levels) {
+        this.levels = levels != null ? levels : new ArrayList<>();
+    }
+
+    public List<LogLevel> getExcludedLevels() {
+        return excludedLevels;
+    }
+
+    public void setExcludedLevels(List<LogLevel> excludedLevels) {
+        this.excludedLevels = excludedLevels != null ? excludedLevels : new ArrayList<>();
+    }
+
+    public List<String> getSources() {
+        return sources;
+    }
+
+    public void setSources(List<String> sources) {
+        this.sources = sources != null ? sources : new ArrayList<>();
+    }
+
+    public List<String> getExcludedSources() {
+        return excludedSources;
+    }
+
+    public void setExcludedSources(List<String> excludedSources) {
+        this.excludedSources = excludedSources != null ? excludedSources : new ArrayList<>();
+    }
+
+    public Boolean getReadByAdmin() {
+        return readByAdmin;
+    }
+
+    public void setReadByAdmin(Boolean readByAdmin) {
+        this.readByAdmin = readByAdmin;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public void setSince(LocalDateTime since) {
+        this.since = since;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public void setUntil(LocalDateTime until) {
+        this.until = until;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public Long getPlayerStateId() {
+        return playerStateId;
+    }
+
+    public void setPlayerStateId(Long playerStateId) {
+        this.playerStateId = playerStateId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getStackFingerprint() {
+        return stackFingerprint;
+    }
+
+    public void setStackFingerprint(String stackFingerprint) {
+        this.stackFingerprint = stackFingerprint;
+    }
+}
@@ -4,12 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
-import java.util.EnumMap;
-import java.util.Map;
-
 import com.reynaud.wonders.model.Age;
 import com.reynaud.wonders.model.CardType;
-import com.reynaud.wonders.model.Ressources;
+import com.reynaud.wonders.model.ResourceVector;
 
 @Entity
 @Table(name = "cards")
@@ -34,8 +31,8 @@ public class CardEntity {
     private Age age;
 
     @Column(length = 500)
-    @Convert(converter = RessourceCostConverter.class)
-    private Map<Ressources, Integer> cost = new EnumMap<>(Ressources.class);
+    @Convert(converter = ImmutableCostConverter.class)
+    private ResourceVector cost = ResourceVector.EMPTY;
 
     @Column(name = "coin_cost")
     private Integer coinCost = 0; // Coins required in addition to resources
@@ -58,7 +55,7 @@ public class CardEntity {
     }
 
     // Constructor with fields
-    public CardEntity(String name, CardType type, Age age, Map<Ressources, Integer> cost, Integer coinCost, Integer minPlayerCount, String incomingLinks, String outgoingLinks, String image) {
+    public CardEntity(String name, CardType type, Age age, ResourceVector cost, Integer coinCost, Integer minPlayerCount, String incomingLinks, String outgoingLinks, String image) {
         this.name = name;
         this.type = type;
         this.age = age;
@@ -103,16 +100,12 @@ public class CardEntity {
         this.age = age;
     }
 
-    public Map<Ressources, Integer> getCost() {
+    public ResourceVector getCost() {
         return cost;
     }
 
-    public void setCost(Map<Ressources, Integer> cost) {
-        if (cost == null) {
-            this.cost = new EnumMap<>(Ressources.class);
-        } else {
-            this.cost = new EnumMap<>(cost);
-        }
+    public void setCost(ResourceVector cost) {
+        this.cost = cost != null ? cost.immutableCopy() : ResourceVector.EMPTY;
     }
 
     public String getIncomingLinks() {
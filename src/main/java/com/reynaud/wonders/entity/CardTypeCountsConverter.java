@@ -0,0 +1,47 @@
+package com.reynaud.wonders.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reynaud.wonders.model.CardType;
+import com.reynaud.wonders.model.CardTypeCounts;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Map;
+
+/**
+ * Stores card type counts as a JSON object of the non-zero counts.
+ * A null column stays null, so rows written before the counts existed are recounted from the played cards.
+ */
+@Converter
+public class CardTypeCountsConverter implements AttributeConverter<CardTypeCounts, String> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Override
+    public String convertToDatabaseColumn(CardTypeCounts attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(attribute.toMap());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialize card type counts", e);
+        }
+    }
+
+    @Override
+    public CardTypeCounts convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return CardTypeCounts.of(OBJECT_MAPPER.readValue(dbData, new TypeReference<Map<CardType, Integer>>() {
+            }));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to deserialize card type counts", e);
+        }
+    }
+}
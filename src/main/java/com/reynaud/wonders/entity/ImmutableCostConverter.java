@@ -0,0 +1,19 @@
+package com.reynaud.wonders.entity;
+
+import com.reynaud.wonders.model.ResourceVector;
+
+import jakarta.persistence.Converter;
+
+/**
+ * Reads a resource vector as {@link RessourceCostConverter} does, but immutable.
+ * For fixed costs such as card costs and wonder starting resources: Hibernate sets fields directly,
+ * bypassing the setters, and these entities are shared by every game through the catalog.
+ */
+@Converter
+public class ImmutableCostConverter extends RessourceCostConverter {
+
+    @Override
+    public ResourceVector convertToEntityAttribute(String dbData) {
+        return super.convertToEntityAttribute(dbData).immutableCopy();
+    }
+}
@@ -7,8 +7,13 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "logs", indexes = {
         @Index(name = "idx_logs_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_logs_timestamp_id", columnList = "timestamp, id"),
         @Index(name = "idx_logs_level", columnList = "log_level"),
-        @Index(name = "idx_logs_source", columnList = "source")
+        @Index(name = "idx_logs_source", columnList = "source"),
+        @Index(name = "idx_logs_game", columnList = "game_id, timestamp, id"),
+        @Index(name = "idx_logs_player_state", columnList = "player_state_id"),
+        @Index(name = "idx_logs_user", columnList = "user_id"),
+        @Index(name = "idx_logs_stack_fingerprint", columnList = "stack_fingerprint, timestamp, id")
 })
 public class LogEntry {
 
@@ -29,12 +34,44 @@ public class LogEntry {
     @Column(length = 255)
     private String source;
 
+    // Only set on older rows and on the first occurrence of a trace; see LogStackTrace
     @Column(columnDefinition = "TEXT")
     private String stackTrace;
 
+    @Column(name = "stack_fingerprint", length = 64)
+    private String stackFingerprint;
+
     @Column(nullable = false)
     private Boolean readByAdmin = false;
 
+    // Structured context, filled from LogContext when the entry is written
+    @Column(name = "game_id")
+    private Long gameId;
+
+    @Column(name = "player_state_id")
+    private Long playerStateId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(length = 64)
+    private String action;
+
+    // Templated entries store an empty message and are rendered from the template on read
+    @Column(name = "template_id")
+    private Long templateId;
+
+    @Column(columnDefinition = "TEXT")
+    private String arguments;
+
+    // Pattern of a templated entry until the log writer interns it
+    @Transient
+    private String messageTemplate;
+
+    // Class of the attached throwable, kept even when the trace text is skipped
+    @Transient
+    private String exceptionClass;
+
     public LogEntry() {
     }
 
@@ -50,6 +87,30 @@ public class LogEntry {
         this.stackTrace = stackTrace;
     }
 
+    /**
+     * Copy of every field, including the transient ones
+     */
+    public LogEntry copy() {
+        LogEntry copy = new LogEntry();
+        copy.id = id;
+        copy.timestamp = timestamp;
+        copy.logLevel = logLevel;
+        copy.message = message;
+        copy.source = source;
+        copy.stackTrace = stackTrace;
+        copy.stackFingerprint = stackFingerprint;
+        copy.readByAdmin = readByAdmin;
+        copy.gameId = gameId;
+        copy.playerStateId = playerStateId;
+        copy.userId = userId;
+        copy.action = action;
+        copy.templateId = templateId;
+        copy.arguments = arguments;
+        copy.messageTemplate = messageTemplate;
+        copy.exceptionClass = exceptionClass;
+        return copy;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -99,6 +160,14 @@ public class LogEntry {
         this.stackTrace = stackTrace;
     }
 
+    public String getStackFingerprint() {
+        return stackFingerprint;
+    }
+
+    public void setStackFingerprint(String stackFingerprint) {
+        this.stackFingerprint = stackFingerprint;
+    }
+
     public Boolean getReadByAdmin() {
         return readByAdmin;
     }
@@ -107,6 +176,70 @@ public class LogEntry {
         this.readByAdmin = readByAdmin;
     }
 
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public Long getPlayerStateId() {
+        return playerStateId;
+    }
+
+    public void setPlayerStateId(Long playerStateId) {
+        this.playerStateId = playerStateId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public Long getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(Long templateId) {
+        this.templateId = templateId;
+    }
+
+    public String getArguments() {
+        return arguments;
+    }
+
+    public void setArguments(String arguments) {
+        this.arguments = arguments;
+    }
+
+    public String getMessageTemplate() {
+        return messageTemplate;
+    }
+
+    public void setMessageTemplate(String messageTemplate) {
+        this.messageTemplate = messageTemplate;
+    }
+
+    public String getExceptionClass() {
+        return exceptionClass;
+    }
+
+    public void setExceptionClass(String exceptionClass) {
+        this.exceptionClass = exceptionClass;
+    }
+
     @Override
     public String toString() {
         return "LogEntry{" +
@@ -115,6 +248,7 @@ public class LogEntry {
                 ", logLevel=" + logLevel +
                 ", message='" + message + '\'' +
                 ", source='" + source + '\'' +
+                ", gameId=" + gameId +
                 '}';
     }
 }
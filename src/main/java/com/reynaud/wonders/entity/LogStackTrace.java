@@ -0,0 +1,86 @@
+package com.reynaud.wonders.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A distinct stack trace, stored once and referenced by its fingerprint from every
+ * log entry that recorded it, with running occurrence counts.
+ */
+@Entity
+@Table(name = "log_stack_traces", indexes = {
+        @Index(name = "idx_log_stack_traces_last_seen", columnList = "last_seen")
+})
+public class LogStackTrace {
+
+    @Id
+    @Column(length = 64)
+    private String fingerprint;
+
+    @Column(name = "exception_class", length = 255)
+    private String exceptionClass;
+
+    @Column(name = "stack_trace", columnDefinition = "TEXT", nullable = false)
+    private String stackTrace;
+
+    @Column(name = "first_seen", nullable = false)
+    private LocalDateTime firstSeen;
+
+    @Column(name = "last_seen", nullable = false)
+    private LocalDateTime lastSeen;
+
+    @Column(name = "occurrence_count", nullable = false)
+    private Long occurrenceCount = 0L;
+
+    public LogStackTrace() {
+    }
+
+    // Getters and Setters
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getExceptionClass() {
+        return exceptionClass;
+    }
+
+    public void setExceptionClass(String exceptionClass) {
+        this.exceptionClass = exceptionClass;
+    }
+
+    public String getStackTrace() {
+        return stackTrace;
+    }
+
+    public void setStackTrace(String stackTrace) {
+        this.stackTrace = stackTrace;
+    }
+
+    public LocalDateTime getFirstSeen() {
+        return firstSeen;
+    }
+
+    public void setFirstSeen(LocalDateTime firstSeen) {
+        this.firstSeen = firstSeen;
+    }
+
+    public LocalDateTime getLastSeen() {
+        return lastSeen;
+    }
+
+    public void setLastSeen(LocalDateTime lastSeen) {
+        this.lastSeen = lastSeen;
+    }
+
+    public Long getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    public void setOccurrenceCount(Long occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
+}
@@ -0,0 +1,48 @@
+package com.reynaud.wonders.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * An interned log message pattern such as "Step3 - Buy plan - Resource: {}, Remaining: {}".
+ * Log entries written through the pattern overloads of LoggingService reference
+ * a template and store only their arguments.
+ */
+@Entity
+@Table(name = "log_templates", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_log_templates_pattern", columnNames = "pattern")
+})
+public class LogTemplate {
+
+    public static final int MAX_PATTERN_LENGTH = 1024;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = MAX_PATTERN_LENGTH)
+    private String pattern;
+
+    public LogTemplate() {
+    }
+
+    public LogTemplate(String pattern) {
+        this.pattern = pattern;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+}
@@ -8,7 +8,8 @@ import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
-import com.reynaud.wonders.model.Ressources;
+import com.reynaud.wonders.model.CardTypeCounts;
+import com.reynaud.wonders.model.ResourceVector;
 import com.reynaud.wonders.model.Science;
 
 @Entity
@@ -61,9 +62,14 @@ public class PlayerStateEntity {
     )
     private List<CardEntity> playedCards = new ArrayList<>();
 
+    // Kept in step with playedCards by addPlayedCard; null on rows saved before it existed
+    @Column(name = "played_card_types", length = 200)
+    @Convert(converter = CardTypeCountsConverter.class)
+    private CardTypeCounts playedCardTypes = CardTypeCounts.empty();
+
     @Column(length = 500)
     @Convert(converter = RessourceCostConverter.class)
-    private Map<Ressources, Integer> resources = new EnumMap<>(Ressources.class);
+    private ResourceVector resources = ResourceVector.empty();
 
     @Column(length = 500)
     @Convert(converter = ScienceConverter.class)
@@ -215,14 +221,46 @@ public class PlayerStateEntity {
 
     public void setPlayedCards(List<CardEntity> playedCards) {
         this.playedCards = playedCards;
+        this.playedCardTypes = null;
+    }
+
+    /**
+     * Add a card to the played cards and count it by type
+     */
+    public void addPlayedCard(CardEntity card) {
+        getPlayedCardTypes().add(card.getType());
+        playedCards.add(card);
+    }
+
+    /**
+     * Number of played cards of each type. Counted from the played cards only when missing.
+     */
+    public CardTypeCounts getPlayedCardTypes() {
+        if (playedCardTypes == null) {
+            CardTypeCounts counts = CardTypeCounts.empty();
+            if (playedCards != null) {
+                for (CardEntity card : playedCards) {
+                    counts.add(card.getType());
+                }
+            }
+            playedCardTypes = counts;
+        }
+        return playedCardTypes;
+    }
+
+    public void setPlayedCardTypes(CardTypeCounts playedCardTypes) {
+        this.playedCardTypes = playedCardTypes;
     }
 
-    public Map<Ressources, Integer> getResources() {
+    public ResourceVector getResources() {
         return resources;
     }
 
-    public void setResources(Map<Ressources, Integer> resources) {
-        this.resources = resources;
+    /**
+     * Replace the player's resources with a mutable copy of the given ones
+     */
+    public void setResources(ResourceVector resources) {
+        this.resources = resources != null ? resources.mutableCopy() : ResourceVector.empty();
     }
 
     public Map<Science, Integer> getScience() {
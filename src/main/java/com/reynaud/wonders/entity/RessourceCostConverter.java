@@ -3,6 +3,7 @@ package com.reynaud.wonders.entity;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reynaud.wonders.model.ResourceVector;
 import com.reynaud.wonders.model.Ressources;
 
 import jakarta.persistence.AttributeConverter;
@@ -11,25 +12,37 @@ import jakarta.persistence.Converter;
 import java.util.EnumMap;
 import java.util.Map;
 
+/**
+ * Stores a resource vector as a JSON object of its non-zero counts.
+ * Also reads the older "RESOURCE:count,..." format. Reads mutable vectors, for player resources;
+ * fixed costs use {@link ImmutableCostConverter}.
+ */
 @Converter
-public class RessourceCostConverter implements AttributeConverter<Map<Ressources, Integer>, String> {
+public class RessourceCostConverter implements AttributeConverter<ResourceVector, String> {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     @Override
-    public String convertToDatabaseColumn(Map<Ressources, Integer> attribute) {
+    public String convertToDatabaseColumn(ResourceVector attribute) {
         if (attribute == null || attribute.isEmpty()) {
             return "{}";
         }
         try {
-            return OBJECT_MAPPER.writeValueAsString(attribute);
+            return OBJECT_MAPPER.writeValueAsString(attribute.toMap());
         } catch (JsonProcessingException e) {
             throw new IllegalArgumentException("Unable to serialize card cost", e);
         }
     }
 
     @Override
-    public Map<Ressources, Integer> convertToEntityAttribute(String dbData) {
+    public ResourceVector convertToEntityAttribute(String dbData) {
+        return ResourceVector.of(parse(dbData));
+    }
+
+    /**
+     * Parse a stored cost into a map, accepting both JSON and the legacy format
+     */
+    private static Map<Ressources, Integer> parse(String dbData) {
         if (dbData == null || dbData.trim().isEmpty()) {
             return new EnumMap<>(Ressources.class);
         }
@@ -45,7 +58,7 @@ public class RessourceCostConverter implements AttributeConverter<Map<Ressources
         }
     }
 
-    private Map<Ressources, Integer> parseLegacyFormat(String raw) {
+    private static Map<Ressources, Integer> parseLegacyFormat(String raw) {
         EnumMap<Ressources, Integer> result = new EnumMap<>(Ressources.class);
         String content = raw.trim();
         if (content.startsWith("{") && content.endsWith("}")) {
@@ -77,7 +90,7 @@ public class RessourceCostConverter implements AttributeConverter<Map<Ressources
         return result;
     }
 
-    private Ressources toRessource(String rawKey) {
+    private static Ressources toRessource(String rawKey) {
         if (rawKey == null) {
             return null;
         }
@@ -94,7 +107,7 @@ public class RessourceCostConverter implements AttributeConverter<Map<Ressources
         }
     }
 
-    private Integer parseQuantity(String rawValue) {
+    private static Integer parseQuantity(String rawValue) {
         if (rawValue == null || rawValue.trim().isEmpty()) {
             return null;
         }
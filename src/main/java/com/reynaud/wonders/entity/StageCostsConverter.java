@@ -3,6 +3,7 @@ package com.reynaud.wonders.entity;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reynaud.wonders.model.ResourceVector;
 import com.reynaud.wonders.model.Ressources;
 
 import jakarta.persistence.AttributeConverter;
@@ -14,28 +15,28 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Converter for List of resource cost maps (used for wonder stage costs)
+ * Converter for List of resource costs (used for wonder stage costs)
  * Preserves the order of stages in the list (position 0 remains at position 0)
  */
 @Converter
-public class StageCostsConverter implements AttributeConverter<List<Map<Ressources, Integer>>, String> {
+public class StageCostsConverter implements AttributeConverter<List<ResourceVector>, String> {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     @Override
-    public String convertToDatabaseColumn(List<Map<Ressources, Integer>> attribute) {
+    public String convertToDatabaseColumn(List<ResourceVector> attribute) {
         if (attribute == null || attribute.isEmpty()) {
             return "[]";
         }
         try {
-            return OBJECT_MAPPER.writeValueAsString(attribute);
+            return OBJECT_MAPPER.writeValueAsString(attribute.stream().map(ResourceVector::toMap).toList());
         } catch (JsonProcessingException e) {
             throw new IllegalArgumentException("Unable to serialize stage costs", e);
         }
     }
 
     @Override
-    public List<Map<Ressources, Integer>> convertToEntityAttribute(String dbData) {
+    public List<ResourceVector> convertToEntityAttribute(String dbData) {
         if (dbData == null || dbData.trim().isEmpty()) {
             return new ArrayList<>();
         }
@@ -46,8 +47,8 @@ public class StageCostsConverter implements AttributeConverter<List<Map<Ressourc
                 return new ArrayList<>();
             }
             
-            // Convert raw map to EnumMap with Ressources enum keys, preserving order
-            List<Map<Ressources, Integer>> result = new ArrayList<>();
+            // Convert raw map to a vector with Ressources enum keys, preserving order
+            List<ResourceVector> result = new ArrayList<>();
             for (Map<String, Integer> rawMap : rawList) {
                 Map<Ressources, Integer> enumMap = new EnumMap<>(Ressources.class);
                 if (rawMap != null) {
@@ -59,7 +60,7 @@ public class StageCostsConverter implements AttributeConverter<List<Map<Ressourc
                         }
                     }
                 }
-                result.add(enumMap);
+                result.add(ResourceVector.of(enumMap).immutableCopy());
             }
             return result;
         } catch (JsonProcessingException e) {
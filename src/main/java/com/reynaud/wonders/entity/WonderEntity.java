@@ -5,11 +5,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 
-import com.reynaud.wonders.model.Ressources;
+import com.reynaud.wonders.model.ResourceVector;
 
 @Entity
 @Table(name = "wonders")
@@ -28,12 +26,12 @@ public class WonderEntity {
     private String face; // "A" or "B"
 
     @Column(name = "starting_resources", length = 500)
-    @Convert(converter = RessourceCostConverter.class)
-    private Map<Ressources, Integer> startingResources = new EnumMap<>(Ressources.class);
+    @Convert(converter = ImmutableCostConverter.class)
+    private ResourceVector startingResources = ResourceVector.EMPTY;
 
     @Column(name = "stage_costs", length = 2000)
     @Convert(converter = StageCostsConverter.class)
-    private List<Map<Ressources, Integer>> stageCosts = new ArrayList<>();
+    private List<ResourceVector> stageCosts = new ArrayList<>();
 
     @Column(name = "number_of_stages", nullable = false)
     @NotNull
@@ -78,20 +76,22 @@ public class WonderEntity {
         this.face = face;
     }
 
-    public Map<Ressources, Integer> getStartingResources() {
+    public ResourceVector getStartingResources() {
         return startingResources;
     }
 
-    public void setStartingResources(Map<Ressources, Integer> startingResources) {
-        this.startingResources = startingResources;
+    public void setStartingResources(ResourceVector startingResources) {
+        this.startingResources = startingResources != null ? startingResources.immutableCopy() : ResourceVector.EMPTY;
     }
 
-    public List<Map<Ressources, Integer>> getStageCosts() {
+    public List<ResourceVector> getStageCosts() {
         return stageCosts;
     }
 
-    public void setStageCosts(List<Map<Ressources, Integer>> stageCosts) {
-        this.stageCosts = stageCosts;
+    public void setStageCosts(List<ResourceVector> stageCosts) {
+        this.stageCosts = stageCosts != null
+                ? new ArrayList<>(stageCosts.stream().map(ResourceVector::immutableCopy).toList())
+                : new ArrayList<>();
     }
 
     public Integer getNumberOfStages() {
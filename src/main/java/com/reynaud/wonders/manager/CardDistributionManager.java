@@ -4,8 +4,7 @@ import com.reynaud.wonders.entity.CardEntity;
 import com.reynaud.wonders.entity.GameEntity;
 import com.reynaud.wonders.entity.PlayerStateEntity;
 import com.reynaud.wonders.model.Age;
-import com.reynaud.wonders.model.CardType;
-import com.reynaud.wonders.service.CardService;
+import com.reynaud.wonders.service.GameCatalog;
 import com.reynaud.wonders.service.LoggingService;
 import com.reynaud.wonders.service.PlayerStateService;
 import org.springframework.stereotype.Component;
@@ -25,19 +24,19 @@ import java.util.stream.Collectors;
 public class CardDistributionManager {
 
     private final PlayerStateService playerStateService;
-    private final CardService cardService;
+    private final GameCatalog gameCatalog;
     private final LoggingService loggingService;
 
-    public CardDistributionManager(PlayerStateService playerStateService, CardService cardService,
+    public CardDistributionManager(PlayerStateService playerStateService, GameCatalog gameCatalog,
                                    LoggingService loggingService) {
         this.playerStateService = playerStateService;
-        this.cardService = cardService;
+        this.gameCatalog = gameCatalog;
         this.loggingService = loggingService;
     }
 
     /**
      * Distribute cards to all players for the current age.
-     * Handles special logic for Age III (violet cards).
+     * Deals from the catalog's deck for the player count; Age III adds random guilds (violet cards).
      * 
      * @param game the game entity containing the current age
      */
@@ -45,29 +44,19 @@ public class CardDistributionManager {
     public void distributeCards(GameEntity game) {
         loggingService.info("Distributing cards - GameID: " + game.getId() + ", Age: " + game.getCurrentAge(), "CardDistributionManager.distributeCards");
         List<PlayerStateEntity> players = playerStateService.getPlayerStatesByGameId(game.getId());
-        List<CardEntity> ageDeck = cardService.getCardsByAge(game.getCurrentAge());
-        loggingService.debug("Initial deck size - DeckSize: " + ageDeck.size() + ", Players: " + players.size() + ", GameID: " + game.getId(), "CardDistributionManager.distributeCards");
-        
-        ageDeck = ageDeck.stream()
-                .filter(card -> card.getMinPlayerCount() <= players.size())
-                .collect(Collectors.toList());
-        loggingService.debug("Deck size after player count filter - DeckSize: " + ageDeck.size() + ", GameID: " + game.getId(), "CardDistributionManager.distributeCards");
+        List<CardEntity> ageDeck = new ArrayList<>(gameCatalog.getDeck(game.getCurrentAge(), players.size()));
+        loggingService.debug("Deck size for player count - DeckSize: " + ageDeck.size() + ", Players: " + players.size() + ", GameID: " + game.getId(), "CardDistributionManager.distributeCards");
 
         if (game.getCurrentAge() == Age.AGE_III) {
             loggingService.debug("Age III detected - handling violet cards selection - GameID: " + game.getId(), "CardDistributionManager.distributeCards");
-            
-            ageDeck = ageDeck.stream()
-                    .filter(card -> card.getType() != CardType.VIOLET)
-                    .collect(Collectors.toList());
-            
-            List<CardEntity> violetCards = ageDeck.stream()
-                    .filter(card -> card.getType() == CardType.VIOLET)
-                    .collect(Collectors.toList());
+
+            // The guilds fill the deck up to 7 cards per player
+            List<CardEntity> violetCards = new ArrayList<>(gameCatalog.getGuilds());
             Collections.shuffle(violetCards);
-            violetCards = violetCards.subList(0, ageDeck.size() - (players.size() * 7));
+            int guildCount = Math.max(0, Math.min(violetCards.size(), players.size() * 7 - ageDeck.size()));
+            violetCards = violetCards.subList(0, guildCount);
             loggingService.debug("Violet cards selected - Count: " + violetCards.size() + ", GameID: " + game.getId(), "CardDistributionManager.distributeCards");
-            
-            
+
             ageDeck.addAll(violetCards);
             loggingService.debug("Deck size after violet cards handling - DeckSize: " + ageDeck.size() + ", GameID: " + game.getId(), "CardDistributionManager.distributeCards");
         }
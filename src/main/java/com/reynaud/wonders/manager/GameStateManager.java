@@ -1,12 +1,12 @@
 package com.reynaud.wonders.manager;
 
-import com.reynaud.wonders.dao.GameDAO;
 import com.reynaud.wonders.entity.GameEntity;
 import com.reynaud.wonders.entity.PlayerStateEntity;
 import com.reynaud.wonders.model.EffectTiming;
 import com.reynaud.wonders.model.GameStatus;
 import com.reynaud.wonders.service.EffectExecutorService;
 import com.reynaud.wonders.service.GameScoringService;
+import com.reynaud.wonders.service.GameService;
 import com.reynaud.wonders.service.LoggingService;
 import com.reynaud.wonders.service.PlayerStateService;
 
@@ -29,14 +29,14 @@ import java.util.List;
 @Component
 public class GameStateManager {
 
-    private final GameDAO gameDAO;
+    private final GameService gameService;
     private final PlayerStateService playerStateService;
     private final EffectExecutorService effectExecutor;
     private final GameScoringService gameScoringService;
     private final LoggingService loggingService;
 
-    public GameStateManager(GameDAO gameDAO, PlayerStateService playerStateService, EffectExecutorService effectExecutor, GameScoringService gameScoringService, LoggingService loggingService) {
-        this.gameDAO = gameDAO;
+    public GameStateManager(GameService gameService, PlayerStateService playerStateService, EffectExecutorService effectExecutor, GameScoringService gameScoringService, LoggingService loggingService) {
+        this.gameService = gameService;
         this.playerStateService = playerStateService;
         this.effectExecutor = effectExecutor;
         this.gameScoringService = gameScoringService;
@@ -63,7 +63,7 @@ public class GameStateManager {
         game.setStatus(GameStatus.STARTING);
         game.setStartedAt(LocalDateTime.now());
         loggingService.info("Game started successfully - GameID: " + game.getId() + ", StartedAt: " + game.getStartedAt(), "GameStateManager.startGame");
-        return gameDAO.save(game);
+        return gameService.updateGame(game);
     }
 
     /**
@@ -105,7 +105,7 @@ public class GameStateManager {
         game.setWinner(winner.getUser());
 
         loggingService.info("Game finished successfully - GameID: " + game.getId() + ", FinishedAt: " + game.getFinishedAt(), "GameStateManager.finishGame");
-        return gameDAO.save(game);
+        return gameService.updateGame(game);
     }
 
     /**
@@ -120,7 +120,7 @@ public class GameStateManager {
         game.setStatus(GameStatus.CANCELLED);
         game.setFinishedAt(LocalDateTime.now());
         loggingService.info("Game cancelled successfully - GameID: " + game.getId() + ", CancelledAt: " + game.getFinishedAt(), "GameStateManager.cancelGame");
-        return gameDAO.save(game);
+        return gameService.updateGame(game);
     }
 
     @Transactional
@@ -128,7 +128,7 @@ public class GameStateManager {
         loggingService.info("Setting game to WAITING state - GameID: " + game.getId() + ", CurrentStatus: " + game.getStatus(), "GameStateManager.setGameToWaiting");
         game.setStatus(GameStatus.WAITING);
         loggingService.info("Game set to WAITING state successfully - GameID: " + game.getId(), "GameStateManager.setGameToWaiting");
-        return gameDAO.save(game);
+        return gameService.updateGame(game);
     }
 
     private void applyPendingEffects(Long gameId, EnumSet<EffectTiming> timings) {
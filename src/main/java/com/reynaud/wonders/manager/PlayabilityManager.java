@@ -0,0 +1,85 @@
+package com.reynaud.wonders.manager;
+
+import com.reynaud.wonders.entity.CardEntity;
+import com.reynaud.wonders.entity.GameEntity;
+import com.reynaud.wonders.entity.PlayerStateEntity;
+import com.reynaud.wonders.model.Age;
+import com.reynaud.wonders.model.CardPlayability;
+import com.reynaud.wonders.service.GameSession;
+import com.reynaud.wonders.service.GameSessionRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manager answering which cards of a player's hand can be played, built or discarded, and at what price.
+ * Answers are cached per player for the current turn. An entry stays valid while the game's age and turn
+ * and the change versions of the player and both neighbors are the ones it was computed with
+ * (see {@link GameSession#markChanged}), so polling the state between actions is a map lookup.
+ * Entries belong to a game session and go away with it; games without a session are computed each time.
+ */
+@Component
+public class PlayabilityManager {
+
+    private final CardPlayManager cardPlayManager;
+    private final WonderBuildManager wonderBuildManager;
+    private final GameSessionRegistry gameSessions;
+    private final Map<GameSession, Map<Long, Entry>> entries = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public PlayabilityManager(CardPlayManager cardPlayManager, WonderBuildManager wonderBuildManager,
+                              GameSessionRegistry gameSessions) {
+        this.cardPlayManager = cardPlayManager;
+        this.wonderBuildManager = wonderBuildManager;
+        this.gameSessions = gameSessions;
+    }
+
+    /**
+     * Playability of every card in the player's hand, by card id, in hand order
+     *
+     * @param game the player's game
+     * @param playerState the player state entity
+     */
+    public Map<Long, CardPlayability> getPlayability(GameEntity game, PlayerStateEntity playerState) {
+        GameSession session = gameSessions.get(game.getId());
+        if (session == null || !session.holds(playerState)) {
+            return compute(playerState);
+        }
+
+        Stamp stamp = new Stamp(game.getCurrentAge(), game.getCurrentTurn(), session.getVersion(playerState),
+                session.getVersion(playerState.getLeftNeighbor()), session.getVersion(playerState.getRightNeighbor()));
+        Map<Long, Entry> players = entries.computeIfAbsent(session, s -> new ConcurrentHashMap<>());
+        Entry entry = players.get(playerState.getId());
+        if (entry == null || !entry.stamp().equals(stamp)) {
+            entry = new Entry(stamp, compute(playerState));
+            players.put(playerState.getId(), entry);
+        }
+        return entry.cards();
+    }
+
+    private Map<Long, CardPlayability> compute(PlayerStateEntity playerState) {
+        // The wonder stage costs the same whichever card is used for it
+        boolean buildable = wonderBuildManager.canBuildWonderWithCard(playerState);
+        int buildCost = buildable ? wonderBuildManager.planNextStage(playerState).getTotalCost() : 0;
+
+        Map<Long, CardPlayability> cards = new LinkedHashMap<>();
+        for (CardEntity card : playerState.getHand()) {
+            boolean playable = cardPlayManager.canPlayCard(playerState, card);
+            int playCost = 0;
+            if (playable) {
+                playCost = card.getCoinCost() > 0 ? card.getCoinCost() : cardPlayManager.planPurchase(playerState, card.getCost()).getTotalCost();
+            }
+            cards.put(card.getId(), new CardPlayability(card.getId(), playable, playCost, buildable, buildCost));
+        }
+        return Collections.unmodifiableMap(cards);
+    }
+
+    private record Stamp(Age age, Integer turn, long playerVersion, long leftVersion, long rightVersion) {
+    }
+
+    private record Entry(Stamp stamp, Map<Long, CardPlayability> cards) {
+    }
+}
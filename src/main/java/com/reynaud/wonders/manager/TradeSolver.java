@@ -0,0 +1,311 @@
+package com.reynaud.wonders.manager;
+
+import com.reynaud.wonders.entity.PlayerStateEntity;
+import com.reynaud.wonders.model.PurchasePlan;
+import com.reynaud.wonders.model.ResourceVector;
+import com.reynaud.wonders.model.Ressources;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finds the cheapest way for a player to cover a resource cost.
+ * Own single resources are used first, since they are free and serve one resource only.
+ * Every remaining unit is then taken from one source: an own mutable pair or wildcard (free),
+ * or a neighbor's resource or pair (at that side's price). A memoized search over the remaining
+ * sources gives the exact minimum, where per-resource greedy choices can waste a pair or a
+ * wildcard, or buy from the wrong side. Neighbor wildcards cannot be bought.
+ * Plans only depend on their inputs, so they are cached by value: checking a card and then
+ * paying for it, or checking the same hand again during the turn, solves it only once.
+ */
+@Component
+public class TradeSolver {
+
+    private static final Ressources[] TRADABLE = Arrays.stream(Ressources.values())
+            .filter(Ressources::isRessource)
+            .toArray(Ressources[]::new);
+    private static final Ressources[] MUTABLE_PAIRS = Arrays.stream(Ressources.values())
+            .filter(Ressources::isMutablePair)
+            .toArray(Ressources[]::new);
+
+    private static final int PAIR_COUNT = MUTABLE_PAIRS.length;
+
+    // Sources a unit can come from, in the order ties are broken: own first, then left, then right
+    private static final int OWN_PAIRS = 0;
+    private static final int OWN_MUTABLE_BASE = OWN_PAIRS + PAIR_COUNT;
+    private static final int OWN_MUTABLE_ADVANCED = OWN_MUTABLE_BASE + 1;
+    private static final int LEFT_FIXED = OWN_MUTABLE_ADVANCED + 1;
+    private static final int LEFT_PAIRS = LEFT_FIXED + 1;
+    private static final int RIGHT_FIXED = LEFT_PAIRS + PAIR_COUNT;
+    private static final int RIGHT_PAIRS = RIGHT_FIXED + 1;
+    private static final int SOURCES = RIGHT_PAIRS + PAIR_COUNT;
+
+    // Search state: the stock left in each source, then the resource being covered,
+    // the units of it still missing and the lowest source it may still use
+    private static final int RESOURCE = SOURCES;
+    private static final int REMAINING = RESOURCE + 1;
+    private static final int MIN_SOURCE = REMAINING + 1;
+    private static final int STATE_SIZE = MIN_SOURCE + 1;
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+    private static final int CACHE_SIZE = 4096;
+
+    // pairSupplies[i][r]: whether mutable pair i can stand for tradable resource r
+    private static final boolean[][] PAIR_SUPPLIES = new boolean[PAIR_COUNT][TRADABLE.length];
+
+    static {
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            for (Ressources option : MUTABLE_PAIRS[i].getPairOptions()) {
+                PAIR_SUPPLIES[i][Arrays.asList(TRADABLE).indexOf(option)] = true;
+            }
+        }
+    }
+
+    private final Map<Query, PurchasePlan> plans = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Query, PurchasePlan> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    });
+
+    /**
+     * Cheapest plan for the player to cover the cost with their resources and their neighbors'
+     */
+    public PurchasePlan plan(PlayerStateEntity playerState, ResourceVector cost) {
+        return plan(cost, playerState.getResources(),
+                resourcesOf(playerState.getLeftNeighbor()), resourcesOf(playerState.getRightNeighbor()),
+                playerState.getLeftBaseRessourcePriceMultiplier(), playerState.getRightBaseRessourcePriceMultiplier(),
+                playerState.getLeftAdvancedRessourcePriceMultiplier(), playerState.getRightAdvancedRessourcePriceMultiplier());
+    }
+
+    /**
+     * Cheapest plan to cover the cost
+     *
+     * @param own the buyer's resources
+     * @param left the left neighbor's resources
+     * @param right the right neighbor's resources
+     * @return the plan, {@link PurchasePlan#INFEASIBLE} when no combination covers the cost
+     */
+    public PurchasePlan plan(ResourceVector cost, ResourceVector own, ResourceVector left, ResourceVector right,
+                             int leftBasePrice, int rightBasePrice, int leftAdvancedPrice, int rightAdvancedPrice) {
+        Query query = new Query(cost.immutableCopy(), own.immutableCopy(), left.immutableCopy(), right.immutableCopy(),
+                leftBasePrice, rightBasePrice, leftAdvancedPrice, rightAdvancedPrice);
+        PurchasePlan plan = plans.get(query);
+        if (plan == null) {
+            plan = new Search(query).solve();
+            plans.put(query, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Number of plans currently cached
+     */
+    public int getCachedPlanCount() {
+        return plans.size();
+    }
+
+    private static ResourceVector resourcesOf(PlayerStateEntity neighbor) {
+        return neighbor == null || neighbor.getResources() == null ? ResourceVector.EMPTY : neighbor.getResources();
+    }
+
+    private record Query(ResourceVector cost, ResourceVector own, ResourceVector left, ResourceVector right,
+                         int leftBasePrice, int rightBasePrice, int leftAdvancedPrice, int rightAdvancedPrice) {
+    }
+
+    /**
+     * Search state used as a memo key; the array is never modified once created
+     */
+    private static final class State {
+        private final int[] values;
+
+        private State(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof State state && Arrays.equals(values, state.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+
+    /**
+     * One minimum-cost search. Units of a resource take sources in non-decreasing order,
+     * so each way of splitting them over the sources is visited once.
+     */
+    private static final class Search {
+        private final Query query;
+        private final int[] need = new int[TRADABLE.length];
+        private final int[] leftPrice = new int[TRADABLE.length];
+        private final int[] rightPrice = new int[TRADABLE.length];
+        private final Map<State, Integer> memo = new HashMap<>();
+
+        private Search(Query query) {
+            this.query = query;
+            for (int r = 0; r < TRADABLE.length; r++) {
+                Ressources resource = TRADABLE[r];
+                need[r] = Math.max(0, query.cost().get(resource) - Math.max(0, query.own().get(resource)));
+                boolean base = resource.isBaseRessource();
+                leftPrice[r] = base ? query.leftBasePrice() : query.leftAdvancedPrice();
+                rightPrice[r] = base ? query.rightBasePrice() : query.rightAdvancedPrice();
+            }
+        }
+
+        private PurchasePlan solve() {
+            ResourceVector fromOwn = ResourceVector.empty();
+            int totalNeed = 0;
+            for (int r = 0; r < TRADABLE.length; r++) {
+                fromOwn.set(TRADABLE[r], query.cost().get(TRADABLE[r]) - need[r]);
+                totalNeed += need[r];
+            }
+            ResourceVector fromPairs = ResourceVector.empty();
+            ResourceVector fromWildcards = ResourceVector.empty();
+            ResourceVector boughtFromLeft = ResourceVector.empty();
+            ResourceVector boughtFromRight = ResourceVector.empty();
+            if (totalNeed == 0) {
+                return new PurchasePlan(true, fromOwn, fromPairs, fromWildcards, boughtFromLeft, boughtFromRight, 0, 0);
+            }
+
+            // Stocks beyond the total need can never be used up, capping them keeps memo keys shared
+            int[] start = new int[STATE_SIZE];
+            for (int i = 0; i < PAIR_COUNT; i++) {
+                start[OWN_PAIRS + i] = Math.min(totalNeed, Math.max(0, query.own().get(MUTABLE_PAIRS[i])));
+                start[LEFT_PAIRS + i] = Math.min(totalNeed, Math.max(0, query.left().get(MUTABLE_PAIRS[i])));
+                start[RIGHT_PAIRS + i] = Math.min(totalNeed, Math.max(0, query.right().get(MUTABLE_PAIRS[i])));
+            }
+            start[OWN_MUTABLE_BASE] = Math.min(totalNeed, Math.max(0, query.own().get(Ressources.MUTABLE_BASE)));
+            start[OWN_MUTABLE_ADVANCED] = Math.min(totalNeed, Math.max(0, query.own().get(Ressources.MUTABLE_ADVANCED)));
+            start[RESOURCE] = -1;
+            advance(start);
+
+            if (cost(start) >= UNREACHABLE) {
+                return PurchasePlan.INFEASIBLE;
+            }
+
+            // Walk the memo back to recover the choices behind the minimum
+            int coinsToLeft = 0;
+            int coinsToRight = 0;
+            int[] state = start;
+            while (state != null) {
+                int r = state[RESOURCE];
+                int target = cost(state);
+                for (int source = state[MIN_SOURCE]; source < SOURCES; source++) {
+                    if (!supplies(state, source, r)) {
+                        continue;
+                    }
+                    int[] next = take(state, source);
+                    int price = price(source, r);
+                    if (price + cost(next) != target) {
+                        continue;
+                    }
+                    Ressources resource = TRADABLE[r];
+                    if (source < OWN_MUTABLE_BASE) {
+                        fromPairs.add(resource, 1);
+                    } else if (source < LEFT_FIXED) {
+                        fromWildcards.add(resource, 1);
+                    } else if (source < RIGHT_FIXED) {
+                        boughtFromLeft.add(resource, 1);
+                        coinsToLeft += price;
+                    } else {
+                        boughtFromRight.add(resource, 1);
+                        coinsToRight += price;
+                    }
+                    state = next;
+                    break;
+                }
+            }
+            return new PurchasePlan(true, fromOwn, fromPairs, fromWildcards, boughtFromLeft, boughtFromRight, coinsToLeft, coinsToRight);
+        }
+
+        /**
+         * Minimum coins to cover everything still missing from this state; null means nothing is
+         */
+        private int cost(int[] state) {
+            if (state == null) {
+                return 0;
+            }
+            State key = new State(state);
+            Integer cached = memo.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            int r = state[RESOURCE];
+            int best = UNREACHABLE;
+            for (int source = state[MIN_SOURCE]; source < SOURCES; source++) {
+                if (supplies(state, source, r)) {
+                    int rest = cost(take(state, source));
+                    if (rest < UNREACHABLE) {
+                        best = Math.min(best, price(source, r) + rest);
+                    }
+                }
+            }
+            memo.put(key, best);
+            return best;
+        }
+
+        /**
+         * Copy of the state after taking one unit from the source, or null when nothing is missing anymore
+         */
+        private int[] take(int[] state, int source) {
+            int[] next = state.clone();
+            next[source]--;
+            next[REMAINING]--;
+            next[MIN_SOURCE] = source;
+            return advance(next) ? next : null;
+        }
+
+        /**
+         * Move to the next missing resource once the current one is covered, loading the neighbors'
+         * single resources for it; false when every resource is covered
+         */
+        private boolean advance(int[] state) {
+            while (state[REMAINING] == 0) {
+                int r = ++state[RESOURCE];
+                if (r == TRADABLE.length) {
+                    return false;
+                }
+                state[REMAINING] = need[r];
+                state[LEFT_FIXED] = Math.min(need[r], Math.max(0, query.left().get(TRADABLE[r])));
+                state[RIGHT_FIXED] = Math.min(need[r], Math.max(0, query.right().get(TRADABLE[r])));
+                state[MIN_SOURCE] = 0;
+            }
+            return true;
+        }
+
+        private static boolean supplies(int[] state, int source, int r) {
+            if (state[source] == 0) {
+                return false;
+            }
+            if (source == OWN_MUTABLE_BASE) {
+                return TRADABLE[r].isBaseRessource();
+            }
+            if (source == OWN_MUTABLE_ADVANCED) {
+                return TRADABLE[r].isAdvancedRessource();
+            }
+            if (source == LEFT_FIXED || source == RIGHT_FIXED) {
+                return true;
+            }
+            int pair = source < OWN_MUTABLE_BASE ? source - OWN_PAIRS
+                    : source < RIGHT_FIXED ? source - LEFT_PAIRS
+                    : source - RIGHT_PAIRS;
+            return PAIR_SUPPLIES[pair][r];
+        }
+
+        private int price(int source, int r) {
+            if (source < LEFT_FIXED) {
+                return 0;
+            }
+            return source < RIGHT_FIXED ? leftPrice[r] : rightPrice[r];
+        }
+    }
+}
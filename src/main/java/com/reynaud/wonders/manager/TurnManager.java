@@ -6,8 +6,10 @@ import com.reynaud.wonders.model.Age;
 import com.reynaud.wonders.model.EffectTiming;
 import com.reynaud.wonders.model.GameStatus;
 import com.reynaud.wonders.service.EffectExecutorService;
+import com.reynaud.wonders.service.GameSessionRegistry;
 import com.reynaud.wonders.service.LoggingService;
 import com.reynaud.wonders.service.PlayerStateService;
+import com.reynaud.wonders.util.LogContext;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,15 +29,17 @@ public class TurnManager {
     private final LoggingService loggingService;
     private final EffectExecutorService effectExecutor;
     private final GameStateManager gameStateManager;
+    private final GameSessionRegistry gameSessions;
 
     public TurnManager(PlayerStateService playerStateService, CardDistributionManager cardDistributionManager,
                        LoggingService loggingService, EffectExecutorService effectExecutor,
-                       GameStateManager gameStateManager) {
+                       GameStateManager gameStateManager, GameSessionRegistry gameSessions) {
         this.playerStateService = playerStateService;
         this.cardDistributionManager = cardDistributionManager;
         this.loggingService = loggingService;
         this.effectExecutor = effectExecutor;
         this.gameStateManager = gameStateManager;
+        this.gameSessions = gameSessions;
     }
 
     /**
@@ -50,11 +54,19 @@ public class TurnManager {
      */
     @Transactional
     public void handleEndOfTurn(GameEntity game, Long gameId, PlayerStateEntity playerState) {
+        try (LogContext.Scope scope = LogContext.open(gameId, playerState.getId(), playerState.getUser().getId(), "end-of-turn")) {
+            processEndOfTurn(game, gameId, playerState);
+        }
+    }
+
+    private void processEndOfTurn(GameEntity game, Long gameId, PlayerStateEntity playerState) {
         int remainingCards = playerState.getHand().size();
         loggingService.debug("End of turn check - GameID: " + gameId + ", Player: " + playerState.getUser().getUsername() + ", RemainingCards: " + remainingCards + ", CurrentAge: " + game.getCurrentAge(), "TurnManager.handleEndOfTurn");
         
         if (playerStateService.allPlayersHavePlayedThisTurn(gameId)) {
             loggingService.info("All players completed turn - GameID: " + gameId + ", CurrentAge: " + game.getCurrentAge(), "TurnManager.handleEndOfTurn");
+            // Whatever this turn changes is written once the current action completes
+            gameSessions.turnEnded(gameId);
             // Reset for next turn
             loggingService.debug("Resetting turn flags for all players - GameID: " + gameId, "TurnManager.handleEndOfTurn");
             for (PlayerStateEntity ps : playerStateService.getPlayerStatesByGameId(gameId)) {
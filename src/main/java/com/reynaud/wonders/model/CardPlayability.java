@@ -0,0 +1,61 @@
+package com.reynaud.wonders.model;
+
+/**
+ * What a player can do with one card of their hand this turn, and at what price in coins.
+ * Prices are only meaningful when the matching action is possible. Immutable.
+ */
+public final class CardPlayability {
+
+    private final Long cardId;
+    private final boolean playable;
+    private final int playCost;
+    private final boolean buildable;
+    private final int buildCost;
+
+    public CardPlayability(Long cardId, boolean playable, int playCost, boolean buildable, int buildCost) {
+        this.cardId = cardId;
+        this.playable = playable;
+        this.playCost = playCost;
+        this.buildable = buildable;
+        this.buildCost = buildCost;
+    }
+
+    public Long getCardId() {
+        return cardId;
+    }
+
+    public boolean isPlayable() {
+        return playable;
+    }
+
+    /**
+     * Coins the card costs to play: its coin cost, or what buying the missing resources costs
+     */
+    public int getPlayCost() {
+        return playCost;
+    }
+
+    /**
+     * Whether the card can be used to build the next wonder stage
+     */
+    public boolean isBuildable() {
+        return buildable;
+    }
+
+    public int getBuildCost() {
+        return buildCost;
+    }
+
+    /**
+     * A card in hand can always be discarded for coins
+     */
+    public boolean isDiscardable() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CardPlayability{cardId=" + cardId + ", playable=" + playable + ", playCost=" + playCost
+                + ", buildable=" + buildable + ", buildCost=" + buildCost + "}";
+    }
+}
@@ -0,0 +1,109 @@
+package com.reynaud.wonders.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Number of played cards of each {@link CardType}, stored in an int array indexed by ordinal.
+ * A player keeps one up to date as cards are played, so guild and commerce effects
+ * read a count instead of walking the played cards. Mutable.
+ */
+public final class CardTypeCounts implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final CardType[] TYPES = CardType.values();
+
+    private final int[] counts;
+
+    private CardTypeCounts(int[] counts) {
+        this.counts = counts;
+    }
+
+    /**
+     * New counts with every type at zero
+     */
+    public static CardTypeCounts empty() {
+        return new CardTypeCounts(new int[TYPES.length]);
+    }
+
+    /**
+     * New counts holding the values of a map; null maps and values count as zero
+     */
+    public static CardTypeCounts of(Map<CardType, Integer> map) {
+        CardTypeCounts result = empty();
+        if (map != null) {
+            map.forEach((type, count) -> {
+                if (type != null && count != null) {
+                    result.counts[type.ordinal()] = count;
+                }
+            });
+        }
+        return result;
+    }
+
+    public CardTypeCounts copy() {
+        return new CardTypeCounts(counts.clone());
+    }
+
+    public int get(CardType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Total over the given types
+     */
+    public int get(Collection<CardType> types) {
+        int total = 0;
+        for (CardType type : types) {
+            total += counts[type.ordinal()];
+        }
+        return total;
+    }
+
+    public CardTypeCounts add(CardType type) {
+        counts[type.ordinal()]++;
+        return this;
+    }
+
+    public int total() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * The non-zero counts as a map, for persistence
+     */
+    public Map<CardType, Integer> toMap() {
+        Map<CardType, Integer> map = new EnumMap<>(CardType.class);
+        for (int i = 0; i < TYPES.length; i++) {
+            if (counts[i] != 0) {
+                map.put(TYPES[i], counts[i]);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof CardTypeCounts typeCounts && Arrays.equals(counts, typeCounts.counts));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,102 @@
+package com.reynaud.wonders.model;
+
+/**
+ * How a player covers a resource cost at the lowest price: which units come from their own
+ * resources, pairs and wildcards, and which are bought from each neighbor for how many coins.
+ * Computed once by {@link com.reynaud.wonders.manager.TradeSolver} and used both to check
+ * affordability and to pay, so the two can never disagree. Immutable.
+ */
+public final class PurchasePlan {
+
+    /**
+     * Plan of a cost that cannot be covered, whatever the coins
+     */
+    public static final PurchasePlan INFEASIBLE = new PurchasePlan(false, ResourceVector.EMPTY, ResourceVector.EMPTY,
+            ResourceVector.EMPTY, ResourceVector.EMPTY, ResourceVector.EMPTY, 0, 0);
+
+    private final boolean feasible;
+    private final ResourceVector fromOwn;
+    private final ResourceVector fromPairs;
+    private final ResourceVector fromWildcards;
+    private final ResourceVector boughtFromLeft;
+    private final ResourceVector boughtFromRight;
+    private final int coinsToLeft;
+    private final int coinsToRight;
+
+    public PurchasePlan(boolean feasible, ResourceVector fromOwn, ResourceVector fromPairs, ResourceVector fromWildcards,
+                        ResourceVector boughtFromLeft, ResourceVector boughtFromRight, int coinsToLeft, int coinsToRight) {
+        this.feasible = feasible;
+        this.fromOwn = fromOwn.immutableCopy();
+        this.fromPairs = fromPairs.immutableCopy();
+        this.fromWildcards = fromWildcards.immutableCopy();
+        this.boughtFromLeft = boughtFromLeft.immutableCopy();
+        this.boughtFromRight = boughtFromRight.immutableCopy();
+        this.coinsToLeft = coinsToLeft;
+        this.coinsToRight = coinsToRight;
+    }
+
+    /**
+     * Whether the cost can be covered at all, ignoring the player's coins
+     */
+    public boolean isFeasible() {
+        return feasible;
+    }
+
+    /**
+     * Whether the cost can be covered with the given coins
+     */
+    public boolean isAffordable(int coins) {
+        return feasible && getTotalCost() <= coins;
+    }
+
+    public int getTotalCost() {
+        return coinsToLeft + coinsToRight;
+    }
+
+    public int getCoinsToLeft() {
+        return coinsToLeft;
+    }
+
+    public int getCoinsToRight() {
+        return coinsToRight;
+    }
+
+    /**
+     * Units covered by the player's own single resources
+     */
+    public ResourceVector getFromOwn() {
+        return fromOwn;
+    }
+
+    /**
+     * Units covered by the player's own mutable pairs, by the resource they stand for
+     */
+    public ResourceVector getFromPairs() {
+        return fromPairs;
+    }
+
+    /**
+     * Units covered by the player's MUTABLE_BASE and MUTABLE_ADVANCED wildcards, by the resource they stand for
+     */
+    public ResourceVector getFromWildcards() {
+        return fromWildcards;
+    }
+
+    public ResourceVector getBoughtFromLeft() {
+        return boughtFromLeft;
+    }
+
+    public ResourceVector getBoughtFromRight() {
+        return boughtFromRight;
+    }
+
+    @Override
+    public String toString() {
+        if (!feasible) {
+            return "PurchasePlan{infeasible}";
+        }
+        return "PurchasePlan{own=" + fromOwn + ", pairs=" + fromPairs + ", wildcards=" + fromWildcards
+                + ", left=" + boughtFromLeft + " for " + coinsToLeft
+                + ", right=" + boughtFromRight + " for " + coinsToRight + "}";
+    }
+}
@@ -0,0 +1,222 @@
+package com.reynaud.wonders.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Count of each {@link Ressources}, stored in an int array indexed by ordinal.
+ * Replaces {@code Map<Ressources, Integer>} wherever resources are checked or paid,
+ * so those loops work on plain ints instead of boxed map lookups and streams.
+ * Operations write into this vector (or a target passed in) and allocate nothing.
+ * A vector is either mutable, like a player's resources, or immutable, like a card cost;
+ * modifying an immutable one throws {@link UnsupportedOperationException}.
+ * Maps are only built at the edges: persistence converters and DTOs.
+ */
+public final class ResourceVector implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final Ressources[] RESSOURCES = Ressources.values();
+
+    /**
+     * Number of resource kinds, i.e. the length of every vector
+     */
+    public static final int SIZE = RESSOURCES.length;
+
+    public static final ResourceVector EMPTY = new ResourceVector(new int[SIZE], false);
+
+    private final int[] counts;
+    private final boolean mutable;
+
+    private ResourceVector(int[] counts, boolean mutable) {
+        this.counts = counts;
+        this.mutable = mutable;
+    }
+
+    /**
+     * A new mutable vector with every count at zero
+     */
+    public static ResourceVector empty() {
+        return new ResourceVector(new int[SIZE], true);
+    }
+
+    /**
+     * A new mutable vector holding the counts of a map; null maps and values count as zero
+     */
+    public static ResourceVector of(Map<Ressources, Integer> map) {
+        ResourceVector vector = empty();
+        if (map != null) {
+            map.forEach((resource, count) -> {
+                if (resource != null && count != null) {
+                    vector.counts[resource.ordinal()] = count;
+                }
+            });
+        }
+        return vector;
+    }
+
+    public ResourceVector mutableCopy() {
+        return new ResourceVector(counts.clone(), true);
+    }
+
+    /**
+     * An immutable vector with the same counts; immutable vectors return themselves
+     */
+    public ResourceVector immutableCopy() {
+        return mutable ? new ResourceVector(counts.clone(), false) : this;
+    }
+
+    public boolean isMutable() {
+        return mutable;
+    }
+
+    public int get(Ressources resource) {
+        return counts[resource.ordinal()];
+    }
+
+    public ResourceVector set(Ressources resource, int count) {
+        checkMutable();
+        counts[resource.ordinal()] = count;
+        return this;
+    }
+
+    public ResourceVector add(Ressources resource, int count) {
+        checkMutable();
+        counts[resource.ordinal()] += count;
+        return this;
+    }
+
+    public ResourceVector add(ResourceVector other) {
+        checkMutable();
+        for (int i = 0; i < SIZE; i++) {
+            counts[i] += other.counts[i];
+        }
+        return this;
+    }
+
+    /**
+     * Subtract the other vector's counts; counts may become negative
+     */
+    public ResourceVector subtract(ResourceVector other) {
+        checkMutable();
+        for (int i = 0; i < SIZE; i++) {
+            counts[i] -= other.counts[i];
+        }
+        return this;
+    }
+
+    /**
+     * Overwrite every count with the other vector's
+     */
+    public ResourceVector setAll(ResourceVector other) {
+        checkMutable();
+        System.arraycopy(other.counts, 0, counts, 0, SIZE);
+        return this;
+    }
+
+    public ResourceVector clear() {
+        checkMutable();
+        Arrays.fill(counts, 0);
+        return this;
+    }
+
+    /**
+     * Whether this vector has at least as much of every resource as the other
+     */
+    public boolean dominates(ResourceVector other) {
+        for (int i = 0; i < SIZE; i++) {
+            if (counts[i] < other.counts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write into the target what this vector lacks to cover the cost, resource by resource
+     *
+     * @param target a mutable vector, overwritten; may be this vector
+     * @return the target
+     */
+    public ResourceVector deficit(ResourceVector cost, ResourceVector target) {
+        target.checkMutable();
+        for (int i = 0; i < SIZE; i++) {
+            target.counts[i] = Math.max(0, cost.counts[i] - counts[i]);
+        }
+        return target;
+    }
+
+    public int sum() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Total of the base resources (stone, wood, ore, brick)
+     */
+    public int sumBase() {
+        return counts[Ressources.STONE.ordinal()] + counts[Ressources.WOOD.ordinal()]
+                + counts[Ressources.ORE.ordinal()] + counts[Ressources.BRICK.ordinal()];
+    }
+
+    /**
+     * Total of the advanced resources (glass, paper, textile)
+     */
+    public int sumAdvanced() {
+        return counts[Ressources.GLASS.ordinal()] + counts[Ressources.PAPER.ordinal()]
+                + counts[Ressources.TEXTILE.ordinal()];
+    }
+
+    public boolean isEmpty() {
+        for (int count : counts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The non-zero counts as a map, for persistence and DTOs
+     */
+    public Map<Ressources, Integer> toMap() {
+        Map<Ressources, Integer> map = new EnumMap<>(Ressources.class);
+        for (int i = 0; i < SIZE; i++) {
+            if (counts[i] != 0) {
+                map.put(RESSOURCES[i], counts[i]);
+            }
+        }
+        return map;
+    }
+
+    private void checkMutable() {
+        if (!mutable) {
+            throw new UnsupportedOperationException("Resource vector is immutable");
+        }
+    }
+
+    /**
+     * Vectors are equal when their counts are, whether mutable or not
+     */
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof ResourceVector vector && Arrays.equals(counts, vector.counts));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,18 @@
+package com.reynaud.wonders.model;
+
+/**
+ * When changes made to an in-memory game session are written back to the database.
+ */
+public enum SessionDurability {
+    /**
+     * Written once per turn, before the action that ended the turn returns
+     * (a crash loses at most the moves of the turn in progress)
+     */
+    TURN_END,
+
+    /**
+     * Written only by the background flush every few seconds, never by an action
+     * (a crash loses at most one flush interval of play)
+     */
+    PERIODIC
+}
@@ -0,0 +1,157 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background writer that persists log entries in batches.
+ * Callers enqueue entries without blocking; a dedicated thread drains the queue
+ * and hands each batch to the sinks configured for each level (see {@link LogSinkRouter}).
+ * Entries still queued at shutdown are flushed before the context closes.
+ */
+@Component
+public class AsyncLogWriter {
+
+    private static final String SOURCE = "AsyncLogWriter";
+
+    private final LogSinkRouter sinkRouter;
+    private final BlockingQueue<LogEntry> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AsyncLogWriter(LogSinkRouter sinkRouter,
+                          @Value("${wonders.logging.writer.queue-capacity:10000}") int queueCapacity,
+                          @Value("${wonders.logging.writer.batch-size:200}") int batchSize,
+                          @Value("${wonders.logging.writer.flush-interval-ms:500}") long flushIntervalMs,
+                          @Value("${wonders.logging.writer.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.sinkRouter = sinkRouter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runLoop, "log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stop accepting work and flush everything still queued.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            System.err.println("Log writer did not drain within " + shutdownTimeoutMs + " ms, " + queue.size() + " entries lost");
+        }
+        sinkRouter.flush();
+    }
+
+    /**
+     * Hand an entry to the writer. Never blocks: when the queue is full the entry is
+     * dropped and counted, and once the writer is stopped entries are written inline.
+     *
+     * @param entry the log entry to persist
+     * @return true if the entry was accepted
+     */
+    public boolean submit(LogEntry entry) {
+        if (!running) {
+            writeBatch(List.of(entry));
+            return true;
+        }
+        if (!queue.offer(entry)) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Get the names of the sinks each level is written to
+     */
+    public Map<LogLevel, List<String>> getSinkRouting() {
+        return sinkRouter.getRouting();
+    }
+
+    private void runLoop() {
+        List<LogEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Collect entries until the batch is full or the flush interval has elapsed.
+     */
+    private void fillBatch(List<LogEntry> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            LogEntry entry = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (entry == null) {
+                return;
+            }
+            batch.add(entry);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void writeBatch(List<LogEntry> batch) {
+        List<LogEntry> toWrite = batch;
+        long dropped = droppedCount.getAndSet(0);
+        if (dropped > 0) {
+            toWrite = new ArrayList<>(batch);
+            toWrite.add(new LogEntry(LogLevel.WARNING, "Log queue full - Dropped " + dropped + " entries", SOURCE));
+        }
+        sinkRouter.write(toWrite);
+    }
+}
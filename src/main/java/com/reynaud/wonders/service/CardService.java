@@ -1,6 +1,5 @@
 package com.reynaud.wonders.service;
 
-import com.reynaud.wonders.dao.CardDAO;
 import com.reynaud.wonders.entity.CardEntity;
 import com.reynaud.wonders.model.Age;
 import com.reynaud.wonders.model.CardType;
@@ -8,15 +7,17 @@ import com.reynaud.wonders.model.CardType;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Read access to the cards, answered from the in-memory {@link GameCatalog}
+ */
 @Service
 public class CardService {
 
-    private final CardDAO cardDAO;
+    private final GameCatalog gameCatalog;
 
-    public CardService(CardDAO cardDAO) {
-        this.cardDAO = cardDAO;
+    public CardService(GameCatalog gameCatalog) {
+        this.gameCatalog = gameCatalog;
     }
 
     /**
@@ -24,52 +25,41 @@ public class CardService {
      * Returns a Map<Age, Map<CardType, List<CardEntity>>>
      */
     public Map<Age, Map<CardType, List<CardEntity>>> getCardsByAgeAndType() {
-        List<CardEntity> allCards = cardDAO.findAll();
-        
-        return allCards.stream()
-                .collect(Collectors.groupingBy(
-                        CardEntity::getAge,
-                        Collectors.groupingBy(
-                                CardEntity::getType,
-                                Collectors.toList()
-                        )
-                ))
-                .entrySet()
-                .stream()
-                .sorted(Comparator.comparing(e -> e.getKey().ordinal()))
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (a, b) -> a,
-                        LinkedHashMap::new
-                ));
+        return gameCatalog.getCardsByAgeAndType();
     }
 
     /**
      * Get all cards
      */
     public List<CardEntity> getAllCards() {
-        return cardDAO.findAll();
+        return gameCatalog.getAllCards();
     }
 
     /**
      * Get card by ID
      */
     public CardEntity getCardById(Long id) {
-        return cardDAO.findById(id).orElse(null);
+        return gameCatalog.getCard(id);
     }
 
     /**
      * Get cards by IDs
      */
     public List<CardEntity> getCardsByIds(List<Long> ids) {
-        return cardDAO.findAllById(ids);
+        List<CardEntity> cards = new ArrayList<>();
+        for (Long id : ids) {
+            CardEntity card = gameCatalog.getCard(id);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
     }
 
     /**
      * Get cards by Age
      */
     public List<CardEntity> getCardsByAge(Age age) {
-        return cardDAO.findByAge(age);
+        return gameCatalog.getCardsByAge(age);
     }
 }
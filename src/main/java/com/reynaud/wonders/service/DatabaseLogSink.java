@@ -0,0 +1,163 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.config.LogPersistenceConfig;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.entity.LogTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sink that inserts entries into the logs table, one transaction per batch.
+ * Templated entries are written as a template id and arguments instead of the full text,
+ * and stack traces are counted per fingerprint in the same transaction as the batch.
+ * Entries are copied first: the originals are already published to {@link LogRingBuffer}
+ * and read by other threads, so resolving templates and reading back generated ids
+ * only ever touches the copies, which then go to {@link LogStatistics} and the search index.
+ */
+@Component
+public class DatabaseLogSink implements LogSink {
+
+    public static final String NAME = "database";
+
+    private static final String INSERT_SQL = "INSERT INTO logs (timestamp, log_level, message, source, stack_trace, read_by_admin, "
+            + "game_id, player_state_id, user_id, action, template_id, arguments, stack_fingerprint) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String[] GENERATED_COLUMNS = {"id"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LogTemplateService templateService;
+    private final LogStackTraceService stackTraceService;
+    private final LogStatistics statistics;
+    private final LogSearchService searchService;
+
+    public DatabaseLogSink(@Qualifier(LogPersistenceConfig.LOGS) JdbcTemplate jdbcTemplate,
+                           @Qualifier(LogPersistenceConfig.LOGS) PlatformTransactionManager transactionManager,
+                           LogTemplateService templateService, LogStackTraceService stackTraceService,
+                           LogStatistics statistics, LogSearchService searchService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.templateService = templateService;
+        this.stackTraceService = stackTraceService;
+        this.statistics = statistics;
+        this.searchService = searchService;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void write(List<LogEntry> batch) {
+        List<LogEntry> entries = new ArrayList<>(batch.size());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (LogEntry published : batch) {
+            LogEntry entry = published.copy();
+            resolveTemplate(entry);
+            entries.add(entry);
+            rows.add(toRow(entry));
+        }
+
+        try {
+            KeyHolder keys = new GeneratedKeyHolder();
+            transactionTemplate.executeWithoutResult(status -> {
+                stackTraceService.recordOccurrences(entries);
+                jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, GENERATED_COLUMNS),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                                new ArgumentPreparedStatementSetter(rows.get(i)).setValues(statement);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return rows.size();
+                            }
+                        }, keys);
+            });
+            assignIds(entries, keys);
+            statistics.record(entries);
+            searchService.index(entries);
+        } catch (DataAccessException e) {
+            // The logging pipeline cannot log its own failures to the database
+            System.err.println("Failed to write " + rows.size() + " log entries: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Column values of an entry, in INSERT_SQL order
+     */
+    static Object[] toRow(LogEntry entry) {
+        return new Object[] {
+                Timestamp.valueOf(entry.getTimestamp()),
+                entry.getLogLevel().name(),
+                entry.getMessage(),
+                entry.getSource(),
+                // Traces with a fingerprint live in log_stack_traces
+                entry.getStackFingerprint() != null ? null : entry.getStackTrace(),
+                entry.getReadByAdmin(),
+                entry.getGameId(),
+                entry.getPlayerStateId(),
+                entry.getUserId(),
+                entry.getAction(),
+                entry.getTemplateId(),
+                entry.getArguments(),
+                entry.getStackFingerprint()
+        };
+    }
+
+    /**
+     * Copy the generated ids back onto the entries, in insertion order
+     */
+    private static void assignIds(List<LogEntry> entries, KeyHolder keys) {
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        if (keyList.size() != entries.size()) {
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            Object id = keyList.get(i).values().iterator().next();
+            entries.get(i).setId(((Number) id).longValue());
+        }
+    }
+
+    /**
+     * Swap the pattern of a templated copy for its interned id.
+     * Interning commits on its own, before the batch transaction starts.
+     * Patterns that cannot be interned are rendered and stored in full.
+     */
+    private void resolveTemplate(LogEntry entry) {
+        String pattern = entry.getMessageTemplate();
+        if (pattern == null || entry.getTemplateId() != null) {
+            return;
+        }
+        if (pattern.length() <= LogTemplate.MAX_PATTERN_LENGTH) {
+            try {
+                entry.setTemplateId(templateService.intern(pattern));
+                return;
+            } catch (DataAccessException e) {
+                System.err.println("Failed to intern log template: " + e.getMessage());
+            }
+        }
+        entry.setMessage(templateService.render(entry));
+        entry.setMessageTemplate(null);
+        entry.setArguments(null);
+    }
+}
@@ -0,0 +1,303 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.EffectDAO;
+import com.reynaud.wonders.entity.CardEntity;
+import com.reynaud.wonders.entity.EffectEntity;
+import com.reynaud.wonders.entity.WonderEntity;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every effect, loaded from the effects table in one query once the initial data is in place,
+ * and bound directly to the cards and wonder stages of the {@link GameCatalog} that trigger it.
+ * Playing a card or building a stage then finds its effect by id, with no string building and no query.
+ * The index is immutable; it is rebuilt only by {@link #load()}.
+ */
+@Service
+public class EffectCatalog {
+
+    private final EffectDAO effectDAO;
+    private final GameCatalog gameCatalog;
+    private final LoggingService loggingService;
+    private volatile Index index;
+
+    public EffectCatalog(EffectDAO effectDAO, GameCatalog gameCatalog, LoggingService loggingService) {
+        this.effectDAO = effectDAO;
+        this.gameCatalog = gameCatalog;
+        this.loggingService = loggingService;
+    }
+
+    /**
+     * Build the index from the effects table and the game catalog's cards and wonders.
+     * Runs at startup before anything else uses the catalog; the first lookup loads it if needed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void load() {
+        Map<String, EffectEntity> byEffectId = new HashMap<>();
+        for (EffectEntity effect : effectDAO.findAll()) {
+            byEffectId.put(effect.getEffectId(), effect);
+        }
+
+        Map<Long, EffectEntity> byCardId = new HashMap<>();
+        int unboundCards = 0;
+        for (CardEntity card : gameCatalog.getAllCards()) {
+            EffectEntity effect = byEffectId.get(mapCardToEffectId(card.getName()));
+            if (effect != null) {
+                byCardId.put(card.getId(), effect);
+            } else {
+                unboundCards++;
+                loggingService.warning("No effect for card: " + card.getName(), "EffectCatalog.load");
+            }
+        }
+
+        Map<Long, List<EffectEntity>> byWonderId = new HashMap<>();
+        for (WonderEntity wonder : gameCatalog.getAllWonders()) {
+            int stages = wonder.getNumberOfStages() == null ? 0 : wonder.getNumberOfStages();
+            // Indexed by stage number, which starts at 1; slot 0 and missing stages hold null
+            EffectEntity[] stageEffects = new EffectEntity[stages + 1];
+            for (int stage = 1; stage <= stages; stage++) {
+                stageEffects[stage] = byEffectId.get(mapWonderStageToEffectId(wonder.getName(), wonder.getFace(), stage));
+            }
+            byWonderId.put(wonder.getId(), Collections.unmodifiableList(Arrays.asList(stageEffects)));
+        }
+
+        index = new Index(Map.copyOf(byEffectId), Map.copyOf(byCardId), Map.copyOf(byWonderId));
+        loggingService.info("Effect catalog loaded - Effects: " + byEffectId.size() + ", Cards: " + byCardId.size() +
+                          ", UnboundCards: " + unboundCards + ", Wonders: " + byWonderId.size(), "EffectCatalog.load");
+    }
+
+    /**
+     * @return the effect with this ID, or null if there is none
+     */
+    public EffectEntity getEffect(String effectId) {
+        return effectId == null ? null : index().byEffectId().get(effectId);
+    }
+
+    /**
+     * @return the effect triggered by playing the card, or null if it has none
+     */
+    public EffectEntity getCardEffect(CardEntity card) {
+        return index().byCardId().get(card.getId());
+    }
+
+    /**
+     * @param stage the stage number, starting at 1
+     * @return the effect triggered by building this stage of the wonder, or null if it has none
+     */
+    public EffectEntity getWonderStageEffect(WonderEntity wonder, int stage) {
+        List<EffectEntity> stageEffects = index().byWonderId().get(wonder.getId());
+        if (stageEffects == null || stage < 0 || stage >= stageEffects.size()) {
+            return null;
+        }
+        return stageEffects.get(stage);
+    }
+
+    public Collection<EffectEntity> getAllEffects() {
+        return index().byEffectId().values();
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    load();
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+
+    private record Index(Map<String, EffectEntity> byEffectId, Map<Long, EffectEntity> byCardId,
+                         Map<Long, List<EffectEntity>> byWonderId) {
+    }
+
+    /**
+     * Maps card name to effect ID.
+     * 
+     * @param cardName the name of the card
+     * @return the effect ID, or null if no mapping exists
+     */
+    private static String mapCardToEffectId(String cardName) {
+        return switch (cardName) {
+            // BROWN CARDS
+            case "Lumber Yard" -> "LUMBER_YARD_WOOD_1";
+            case "Clay Pool" -> "CLAY_POOL_BRICK_1";
+            case "Stone Pit" -> "STONE_PIT_STONE_1";
+            case "Ore Vein" -> "ORE_VEIN_ORE_1";
+            case "Timber Yard" -> "TIMBER_YARD_STONE_WOOD_1";
+            case "Clay Pit" -> "CLAY_PIT_ORE_BRICK_1";
+            case "Sawmill" -> "SAWMILL_WOOD_2";
+            case "Foundry" -> "FOUNDRY_ORE_2";
+            case "Quarry" -> "QUARRY_STONE_2";
+            case "Brickyard" -> "BRICKYARD_BRICK_2";
+            
+            // GREY CARDS
+            case "Glassworks" -> "GLASSWORKS_GLASS_1";
+            case "Press" -> "PRESS_PAPER_1";
+            case "Loom" -> "LOOM_TEXTILE_1";
+            
+            // BLUE CARDS
+            case "Altar" -> "ALTAR_VP_2";
+            case "Theater" -> "THEATER_VP_2";
+            case "Bath" -> "BATH_VP_3";
+            case "Courthouse" -> "COURTHOUSE_VP_4";
+            case "Temple" -> "TEMPLE_VP_3";
+            case "Statue" -> "STATUE_VP_4";
+            case "Aqueduct" -> "AQUEDUCT_VP_5";
+            case "Gardens" -> "GARDENS_VP_5";
+            case "Senate" -> "SENATE_VP_6";
+            case "Town Hall" -> "TOWN_HALL_VP_6";
+            case "Pantheon" -> "PANTHEON_VP_7";
+            case "Palace" -> "PALACE_VP_8";
+            
+            // YELLOW CARDS
+            case "West Trading Post" -> "WEST_TRADING_POST";
+            case "East Trading Post" -> "EAST_TRADING_POST";
+            case "Marketplace" -> "MARKETPLACE";
+            case "Caravansery" -> "CARAVANSERY_MUTABLE_BASE_1";
+            case "Forum" -> "FORUM_MUTABLE_ADVANCED_1";
+            case "Vineyard" -> "VINEYARD_COINS_BROWN";
+            case "Lighthouse" -> "LIGHTHOUSE_COINS_YELLOW";
+            case "Haven" -> "HAVEN_COINS_BROWN";
+            case "Chamber of Commerce" -> "CHAMBER_OF_COMMERCE_COINS_YELLOW";
+            
+            // RED CARDS
+            case "Guard Tower" -> "GUARD_TOWER_MILITARY_1";
+            case "Barracks" -> "BARRACKS_MILITARY_1";
+            case "Stockade" -> "STOCKADE_MILITARY_1";
+            case "Stables" -> "STABLES_MILITARY_2";
+            case "Archery Range" -> "ARCHERY_RANGE_MILITARY_2";
+            case "Walls" -> "WALLS_MILITARY_2";
+            case "Arsenal" -> "ARSENAL_MILITARY_3";
+            case "Siege Workshop" -> "SIEGE_WORKSHOP_MILITARY_3";
+            case "Fortifications" -> "FORTIFICATIONS_MILITARY_3";
+            
+            // GREEN CARDS
+            case "Scriptorium" -> "SCRIPTORIUM_TABLET_1";
+            case "Apothecary" -> "APOTHECARY_COMPASS_1";
+            case "Workshop" -> "WORKSHOP_GEAR_1";
+            case "Dispensary" -> "DISPENSARY_COMPASS_1";
+            case "Laboratory" -> "LABORATORY_GEAR_1";
+            case "Library" -> "LIBRARY_TABLET_1";
+            case "School" -> "SCHOOL_TABLET_1";
+            case "University" -> "UNIVERSITY_TABLET_1";
+            case "Study" -> "STUDY_GEAR_1";
+            case "Lodge" -> "LODGE_COMPASS_1";
+            case "Academy" -> "ACADEMY_COMPASS_1";
+            case "Observatory" -> "OBSERVATORY_GEAR_1";
+            
+            // VIOLET CARDS
+            case "Workers Guild" -> "WORKERS_GUILD_VP_BROWN";
+            case "Craftsmens Guild" -> "CRAFTSMENS_GUILD_VP_GREY";
+            case "Magistrates Guild" -> "MAGISTRATES_GUILD_VP_BLUE";
+            case "Traders Guild" -> "TRADERS_GUILD_VP_YELLOW";
+            case "Spies Guild" -> "SPIES_GUILD_VP_RED";
+            case "Philosophers Guild" -> "PHILOSOPHERS_GUILD_VP_GREEN";
+            case "Shipowners Guild" -> "SHIPOWNERS_GUILD_VP_BROWN_GREY_VIOLET";
+            case "Scientists Guild" -> "SCIENTISTS_GUILD_MUTABLE";
+            case "Decorators Guild" -> "DECORATORS_GUILD_VP_WONDER";
+            case "Builders Guild" -> "BUILDERS_GUILD_VP_WONDER";
+            
+            default -> null;
+        };
+    }
+
+    /**
+     * Maps wonder name, face, and stage to effect ID.
+     * 
+     * @param wonderName the name of the wonder
+     * @param face the face (A or B)
+     * @param stage the stage number (1-based)
+     * @return the effect ID, or null if no mapping exists
+     */
+    private static String mapWonderStageToEffectId(String wonderName, String face, int stage) {
+        String key = wonderName.toUpperCase() + "_" + face + "_STAGE_" + stage;
+        
+        return switch (key) {
+            // Alexandria A
+            case "ALEXANDRIA_A_STAGE_1" -> "ALEXANDRIA_A_STAGE_1_VP_3";
+            case "ALEXANDRIA_A_STAGE_2" -> "ALEXANDRIA_A_STAGE_2_MUTABLE_BASE_1";
+            case "ALEXANDRIA_A_STAGE_3" -> "ALEXANDRIA_A_STAGE_3_VP_7";
+            
+            // Alexandria B
+            case "ALEXANDRIA_B_STAGE_1" -> "ALEXANDRIA_B_STAGE_1_MUTABLE_BASE_1";
+            case "ALEXANDRIA_B_STAGE_2" -> "ALEXANDRIA_B_STAGE_2_MUTABLE_ADVANCED_1";
+            case "ALEXANDRIA_B_STAGE_3" -> "ALEXANDRIA_B_STAGE_3_VP_7";
+            
+            // Babylon A
+            case "BABYLON_A_STAGE_1" -> "BABYLON_A_STAGE_1_VP_3";
+            case "BABYLON_A_STAGE_2" -> "BABYLON_A_STAGE_2_MUTABLE_SCIENCE_1";
+            case "BABYLON_A_STAGE_3" -> "BABYLON_A_STAGE_3_VP_7";
+            
+            // Babylon B
+            case "BABYLON_B_STAGE_1" -> "BABYLON_B_STAGE_1_VP_3";
+            case "BABYLON_B_STAGE_2" -> "BABYLON_B_STAGE_2_PLAY_LAST_CARDS";
+            case "BABYLON_B_STAGE_3" -> "BABYLON_B_STAGE_3_MUTABLE_SCIENCE_1";
+            
+            // Ephesos A
+            case "EPHESOS_A_STAGE_1" -> "EPHESOS_A_STAGE_1_VP_3";
+            case "EPHESOS_A_STAGE_2" -> "EPHESOS_A_STAGE_2_COINS_9";
+            case "EPHESOS_A_STAGE_3" -> "EPHESOS_A_STAGE_3_VP_7";
+            
+            // Ephesos B
+            case "EPHESOS_B_STAGE_1" -> "EPHESOS_B_STAGE_1_VP_2_COINS_4_MILITARY_1";
+            case "EPHESOS_B_STAGE_2" -> "EPHESOS_B_STAGE_2_VP_3_COINS_4_MILITARY_1";
+            case "EPHESOS_B_STAGE_3" -> "EPHESOS_B_STAGE_3_VP_5_COINS_4_MILITARY_1";
+            
+            // Gizah A
+            case "GIZAH_A_STAGE_1" -> "GIZAH_A_STAGE_1_VP_3";
+            case "GIZAH_A_STAGE_2" -> "GIZAH_A_STAGE_2_VP_5";
+            case "GIZAH_A_STAGE_3" -> "GIZAH_A_STAGE_3_VP_7";
+            
+            // Gizah B
+            case "GIZAH_B_STAGE_1" -> "GIZAH_B_STAGE_1_VP_3";
+            case "GIZAH_B_STAGE_2" -> "GIZAH_B_STAGE_2_VP_5";
+            case "GIZAH_B_STAGE_3" -> "GIZAH_B_STAGE_3_VP_5";
+            case "GIZAH_B_STAGE_4" -> "GIZAH_B_STAGE_4_VP_7";
+            
+            // Halikarnassos A
+            case "HALIKARNASSOS_A_STAGE_1" -> "HALIKARNASSOS_A_STAGE_1_VP_3";
+            case "HALIKARNASSOS_A_STAGE_2" -> "HALIKARNASSOS_A_STAGE_2_BUILD_DISCARD";
+            case "HALIKARNASSOS_A_STAGE_3" -> "HALIKARNASSOS_A_STAGE_3_VP_7";
+            
+            // Halikarnassos B
+            case "HALIKARNASSOS_B_STAGE_1" -> "HALIKARNASSOS_B_STAGE_1_BUILD_DISCARD";
+            case "HALIKARNASSOS_B_STAGE_2" -> "HALIKARNASSOS_B_STAGE_2_BUILD_DISCARD";
+            case "HALIKARNASSOS_B_STAGE_3" -> "HALIKARNASSOS_B_STAGE_3_BUILD_DISCARD";
+            
+            // Olympia A
+            case "OLYMPIA_A_STAGE_1" -> "OLYMPIA_A_STAGE_1_VP_3";
+            case "OLYMPIA_A_STAGE_2" -> "OLYMPIA_A_STAGE_2_FIRST_CARD_FREE";
+            case "OLYMPIA_A_STAGE_3" -> "OLYMPIA_A_STAGE_3_VP_7";
+            
+            // Olympia B
+            case "OLYMPIA_B_STAGE_1" -> "OLYMPIA_B_STAGE_1_BASE_PRICE_1";
+            case "OLYMPIA_B_STAGE_2" -> "OLYMPIA_B_STAGE_2_VP_5";
+            case "OLYMPIA_B_STAGE_3" -> "OLYMPIA_B_STAGE_3_COPY_VIOLET";
+            
+            // Rhodes A
+            case "RHODES_A_STAGE_1" -> "RHODES_A_STAGE_1_VP_3";
+            case "RHODES_A_STAGE_2" -> "RHODES_A_STAGE_2_MILITARY_2";
+            case "RHODES_A_STAGE_3" -> "RHODES_A_STAGE_3_VP_7";
+            
+            // Rhodes B
+            case "RHODES_B_STAGE_1" -> "RHODES_B_STAGE_1_VP_3_COINS_3_MILITARY_1";
+            case "RHODES_B_STAGE_2" -> "RHODES_B_STAGE_2_VP_4_COINS_4_MILITARY_1";
+            
+            default -> null;
+        };
+    }
+}
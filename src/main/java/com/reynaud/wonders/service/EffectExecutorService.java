@@ -1,14 +1,20 @@
 package com.reynaud.wonders.service;
 
-import com.reynaud.wonders.dao.EffectDAO;
 import com.reynaud.wonders.entity.EffectEntity;
 import com.reynaud.wonders.entity.PlayerStateEntity;
 import com.reynaud.wonders.model.CardType;
-import com.reynaud.wonders.model.Ressources;
-import com.reynaud.wonders.model.Science;
+import com.reynaud.wonders.service.EffectOperation.*;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Service responsible for executing game effects.
  * Handles the application of card and wonder stage effects to players.
@@ -23,37 +29,77 @@ import org.springframework.transaction.annotation.Transactional;
  * - index:count = Resources or Science (index based on enum order)
  * - PRICE:side:price = Price multiplier (side: 0=LEFT, 1=RIGHT, 2=BOTH)
  * - keyword = Special effects (VINEYARD, BUILD_FROM_DISCARD, etc.)
+ * 
+ * Parameters are compiled once per effect into an {@link EffectProgram}, cached by effect ID.
+ * Every effect is compiled at startup, and unknown or malformed parameters are reported then.
  */
 @Service
 public class EffectExecutorService {
 
-    private final EffectDAO effectDAO;
+    private final EffectCatalog effectCatalog;
     private final PlayerStateService playerStateService;
     private final GameScoringService gameScoringService;
     private final LoggingService loggingService;
+    private final Map<String, EffectProgram> programs = new ConcurrentHashMap<>();
 
-    // Resource enum order: STONE(0), WOOD(1), ORE(2), BRICK(3), GLASS(4), PAPER(5), TEXTILE(6), MUTABLE_BASE(7), MUTABLE_ADVANCED(8)
-    private static final Ressources[] RESOURCE_ORDER = {
-        Ressources.STONE, Ressources.WOOD, Ressources.ORE, Ressources.BRICK,
-        Ressources.GLASS, Ressources.PAPER, Ressources.TEXTILE,
-        Ressources.MUTABLE_BASE, Ressources.MUTABLE_ADVANCED
-    };
-
-    // Science enum order: TABLET(0), COMPASS(1), GEAR(2), MUTABLE(3)
-    private static final Science[] SCIENCE_ORDER = {
-        Science.TABLET, Science.COMPASS, Science.GEAR, Science.MUTABLE
-    };
-
-    public EffectExecutorService(EffectDAO effectDAO, PlayerStateService playerStateService, GameScoringService gameScoringService, LoggingService loggingService) {
-        this.effectDAO = effectDAO;
+    public EffectExecutorService(EffectCatalog effectCatalog, PlayerStateService playerStateService, GameScoringService gameScoringService, LoggingService loggingService) {
+        this.effectCatalog = effectCatalog;
         this.playerStateService = playerStateService;
         this.gameScoringService = gameScoringService;
         this.loggingService = loggingService;
     }
 
+    /**
+     * Compile every effect once the initial data is loaded and report the ones with problems
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void compileAllEffects() {
+        Map<String, List<String>> report = validateEffects();
+        loggingService.info("Effects compiled - Total: " + programs.size() + ", WithProblems: " + report.size(), "EffectExecutorService.compileAllEffects");
+    }
+
+    /**
+     * Compile every effect of the catalog and list the problems found, by effect ID.
+     * Effects without problems are left out.
+     * 
+     * @return the problems of each effect that has some
+     */
+    public Map<String, List<String>> validateEffects() {
+        Map<String, List<String>> report = new LinkedHashMap<>();
+        for (EffectEntity effect : effectCatalog.getAllEffects()) {
+            EffectProgram program = getProgram(effect);
+            if (!program.getProblems().isEmpty()) {
+                report.put(effect.getEffectId(), program.getProblems());
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Compiled program of an effect, compiled on first use.
+     * A cached program is reused as long as the effect's parameters are the ones it was compiled from.
+     * 
+     * @param effect the effect
+     * @return the compiled program
+     */
+    public EffectProgram getProgram(EffectEntity effect) {
+        EffectProgram program = programs.get(effect.getEffectId());
+        if (program != null && Objects.equals(program.getSource(), effect.getParameters())) {
+            return program;
+        }
+        program = EffectProgram.compile(effect.getEffectId(), effect.getParameters());
+        if (!program.getProblems().isEmpty()) {
+            loggingService.warning("Effect compiled with problems - Effect: " + effect.getEffectId() +
+                                 ", Parameters: " + effect.getParameters() +
+                                 ", Problems: " + program.getProblems(), "EffectExecutorService.getProgram");
+        }
+        programs.put(effect.getEffectId(), program);
+        return program;
+    }
+
     /**
      * Apply an effect to a player.
-     * This is the main method that routes the effect to the appropriate handler based on its parameters.
+     * Runs the effect's compiled program; invalid programs are not applied at all.
      * 
      * @param playerState the player to apply the effect to
      * @param effect the effect to apply
@@ -70,19 +116,16 @@ public class EffectExecutorService {
                            ", Effect: " + effect.getEffectId() + 
                            ", Timing: " + effect.getTiming(), "EffectExecutorService.applyEffect");
 
-        String params = effect.getParameters();
-        if (params == null || params.isEmpty()) {
-            loggingService.warning("Effect has no parameters: " + effect.getEffectId(), "EffectExecutorService.applyEffect");
+        EffectProgram program = getProgram(effect);
+        if (!program.isValid()) {
+            loggingService.warning("Effect not applied, invalid parameters - Effect: " + effect.getEffectId() +
+                                 ", Problems: " + program.getProblems(), "EffectExecutorService.applyEffect");
             return false;
         }
 
         try {
-            // Handle multiple parameters separated by |
-            String[] paramParts = params.split("\\|");
-            for (String param : paramParts) {
-                if (!applySingleParameter(playerState, effect.getEffectId(), param.trim())) {
-                    return false;
-                }
+            for (EffectOperation operation : program.getOperations()) {
+                execute(playerState, operation);
             }
 
             loggingService.info("Effect applied successfully - Player: " + playerState.getUser().getUsername() + 
@@ -98,122 +141,52 @@ public class EffectExecutorService {
     }
 
     /**
-     * Apply a single parameter from an effect.
+     * Run one compiled operation on a player.
      * 
      * @param playerState the player to apply to
-     * @param effectId the effect ID for logging
-     * @param param the parameter string
-     * @return true if applied successfully
+     * @param operation the operation
      */
-    private boolean applySingleParameter(PlayerStateEntity playerState, String effectId, String param) {
-        try {
-            // Victory Points: VP:n
-            if (param.startsWith("VP:")) {
-                int vp = Integer.parseInt(param.substring(3));
-                playerState.setVictoryPoints(playerState.getVictoryPoints() + vp);
-                loggingService.debug("Applied VP - Player: " + playerState.getUser().getUsername() + ", Amount: " + vp, "EffectExecutorService");
-                return true;
-            }
-
-            // Coins: COINS:n
-            if (param.startsWith("COINS:")) {
-                int coins = Integer.parseInt(param.substring(6));
-                playerState.setCoins(playerState.getCoins() + coins);
-                loggingService.debug("Applied COINS - Player: " + playerState.getUser().getUsername() + ", Amount: " + coins, "EffectExecutorService");
-                return true;
-            }
-
-            // Military: MIL:n
-            if (param.startsWith("MIL:")) {
-                int mil = Integer.parseInt(param.substring(4));
-                playerState.setMilitaryPoints(playerState.getMilitaryPoints() + mil);
-                loggingService.debug("Applied MIL - Player: " + playerState.getUser().getUsername() + ", Amount: " + mil, "EffectExecutorService");
-                return true;
-            }
-
-            // Price multiplier: PRICE:side:price
-            if (param.startsWith("PRICE:")) {
-                String[] parts = param.substring(6).split(":");
-                int side = Integer.parseInt(parts[0]);
-                int price = Integer.parseInt(parts[1]);
-                applyPriceMultiplier(playerState, side, price);
-                return true;
+    private void execute(PlayerStateEntity playerState, EffectOperation operation) {
+        switch (operation) {
+            case AddVictoryPoints(int amount) ->
+                    playerState.setVictoryPoints(playerState.getVictoryPoints() + amount);
+            case AddCoins(int amount) ->
+                    playerState.setCoins(playerState.getCoins() + amount);
+            case AddMilitary(int amount) ->
+                    playerState.setMilitaryPoints(playerState.getMilitaryPoints() + amount);
+            case SetPrice(int side, int price) ->
+                    applyPriceMultiplier(playerState, side, price);
+            case AddResource(var resource, int count) ->
+                    playerState.getResources().add(resource, count);
+            case AddScience(var science, int count) ->
+                    playerState.getScience().merge(science, count, Integer::sum);
+            case CoinsPerCard(var type, int coinsPerCard, boolean own, boolean neighbors) -> {
+                int count = countCards(playerState, List.of(type), own, neighbors);
+                if (count > 0) {
+                    playerState.setCoins(playerState.getCoins() + count * coinsPerCard);
+                }
             }
-
-            // Resource/Science with index:count format
-            if (param.contains(":") && !param.startsWith("VP:") && !param.startsWith("COINS:") && 
-                !param.startsWith("MIL:") && !param.startsWith("PRICE:")) {
-                String[] parts = param.split(":");
-                
-                // Handle mutable pairs like "0_1:1" for STONE_WOOD
-                if (parts[0].contains("_")) {
-                    // This is a mutable pair - map to appropriate Ressources enum
-                    String[] indices = parts[0].split("_");
-                    int count = Integer.parseInt(parts[1]);
-                    Ressources resource = mapMutablePair(Integer.parseInt(indices[0]), Integer.parseInt(indices[1]));
-                    if (resource != null) {
-                        playerState.getResources().merge(resource, count, Integer::sum);
-                        loggingService.debug("Applied resource (mutable) - Player: " + playerState.getUser().getUsername() + 
-                                           ", Resource: " + resource + ", Amount: " + count, "EffectExecutorService");
-                        return true;
-                    }
-                } else {
-                    int index = Integer.parseInt(parts[0]);
-                    int count = Integer.parseInt(parts[1]);
-
-                    // Try as resource first (indices 0-8)
-                    if (index >= 0 && index < RESOURCE_ORDER.length) {
-                        Ressources resource = RESOURCE_ORDER[index];
-                        playerState.getResources().merge(resource, count, Integer::sum);
-                        loggingService.debug("Applied resource - Player: " + playerState.getUser().getUsername() + 
-                                           ", Resource: " + resource + ", Amount: " + count, "EffectExecutorService");
-                        return true;
-                    }
-
-                    // Try as science (indices 9-12 using offset of 9)
-                    if (index >= 9 && index < 9 + SCIENCE_ORDER.length) {
-                        Science science = SCIENCE_ORDER[index - 9];
-                        playerState.getScience().merge(science, count, Integer::sum);
-                        loggingService.debug("Applied science - Player: " + playerState.getUser().getUsername() + 
-                                           ", Science: " + science + ", Amount: " + count, "EffectExecutorService");
-                        return true;
-                    }
+            case VictoryPointsPerCard(var types, int pointsPerCard, boolean own, boolean neighbors) ->
+                    playerStateService.addVictoryPoints(playerState, pointsPerCard * countCards(playerState, types, own, neighbors));
+            case VictoryPointsForCompleteWonder(int points) -> {
+                if (playerState.getWonder() != null
+                        && playerState.getWonderStage() >= playerState.getWonder().getNumberOfStages() - 1) {
+                    playerStateService.addVictoryPoints(playerState, points);
                 }
             }
-
-            // Special keywords (END_OF_TURN coin effects, etc.)
-            if (applySpecialKeyword(playerState, param)) {
-                return true;
+            case VictoryPointsPerWonderStage() ->
+                    playerStateService.addVictoryPoints(playerState,
+                            playerStateService.getWonderStageOrZero(playerState)
+                                    + playerStateService.getWonderStageOrZero(playerState.getLeftNeighbor())
+                                    + playerStateService.getWonderStageOrZero(playerState.getRightNeighbor()));
+            case CopyNeighborGuild() ->
+                    gameScoringService.applyBestCopiedGuild(playerState);
+            case Marker(String keyword) -> {
+                // Mark that this player needs to select a card from discard, play last cards, etc.
+                // The game flow reads the pending effect itself
             }
-
-            // Unknown keyword
-            loggingService.debug("Special effect parameter (unhandled) - Player: " + playerState.getUser().getUsername() + 
-                               ", Param: " + param, "EffectExecutorService");
-            return true;
-
-        } catch (Exception e) {
-            loggingService.warning("Failed to parse parameter: " + param + " for effect: " + effectId + 
-                                 ", Error: " + e.getMessage(), "EffectExecutorService.applySingleParameter");
-            return false;
         }
-    }
-
-    /**
-     * Map two resource indices to a mutable pair Ressources enum.
-     * 
-     * @param index1 first resource index
-     * @param index2 second resource index
-     * @return the mutable pair Ressources, or null if invalid
-     */
-    private Ressources mapMutablePair(int index1, int index2) {
-        // 0=STONE, 1=WOOD, 2=ORE, 3=BRICK
-        if ((index1 == 0 && index2 == 1) || (index1 == 1 && index2 == 0)) return Ressources.STONE_WOOD;
-        if ((index1 == 0 && index2 == 2) || (index1 == 2 && index2 == 0)) return Ressources.STONE_ORE;
-        if ((index1 == 0 && index2 == 3) || (index1 == 3 && index2 == 0)) return Ressources.STONE_BRICK;
-        if ((index1 == 1 && index2 == 2) || (index1 == 2 && index2 == 1)) return Ressources.WOOD_ORE;
-        if ((index1 == 1 && index2 == 3) || (index1 == 3 && index2 == 1)) return Ressources.WOOD_BRICK;
-        if ((index1 == 2 && index2 == 3) || (index1 == 3 && index2 == 2)) return Ressources.ORE_BRICK;
-        return null;
+        loggingService.debug(() -> "Applied " + operation + " - Player: " + playerState.getUser().getUsername(), "EffectExecutorService");
     }
 
     /**
@@ -228,122 +201,31 @@ public class EffectExecutorService {
         switch (side) {
             case 0: // LEFT
                 playerState.setLeftBaseRessourcePriceMultiplier(price);
-                loggingService.debug("Applied left base price - Player: " + playerState.getUser().getUsername() + 
-                                   ", Price: " + price, "EffectExecutorService");
                 break;
             case 1: // RIGHT
                 playerState.setRightBaseRessourcePriceMultiplier(price);
-                loggingService.debug("Applied right base price - Player: " + playerState.getUser().getUsername() + 
-                                   ", Price: " + price, "EffectExecutorService");
                 break;
             case 2: // BOTH
                 playerState.setLeftAdvancedRessourcePriceMultiplier(price);
                 playerState.setRightAdvancedRessourcePriceMultiplier(price);
-                loggingService.debug("Applied both advanced prices - Player: " + playerState.getUser().getUsername() + 
-                                   ", Price: " + price, "EffectExecutorService");
                 break;
         }
     }
 
-    private boolean applySpecialKeyword(PlayerStateEntity playerState, String param) {
-        switch (param) {
-            case "VINEYARD": {
-                int brownCount = countCardsByType(playerState, CardType.BROWN)
-                        + countCardsByType(playerState.getLeftNeighbor(), CardType.BROWN)
-                        + countCardsByType(playerState.getRightNeighbor(), CardType.BROWN);
-                if (brownCount > 0) {
-                    playerState.setCoins(playerState.getCoins() + brownCount);
-                }
-                return true;
-            }
-            case "LIGHTHOUSE": {
-                int yellowCount = countCardsByType(playerState, CardType.YELLOW);
-                if (yellowCount > 0) {
-                    playerState.setCoins(playerState.getCoins() + yellowCount);
-                }
-                return true;
-            }
-            case "HAVEN": {
-                int brownCount = countCardsByType(playerState, CardType.BROWN);
-                if (brownCount > 0) {
-                    playerState.setCoins(playerState.getCoins() + brownCount);
-                }
-                return true;
-            }
-            case "CHAMBER_OF_COMMERCE": {
-                int yellowCount = countCardsByType(playerState, CardType.YELLOW);
-                if (yellowCount > 0) {
-                    playerState.setCoins(playerState.getCoins() + (yellowCount * 2));
-                }
-                return true;
-            }
-            case "BUILD_FROM_DISCARD":
-                // Mark that this player needs to select a card from discard
-                // The game will be paused after all end-of-turn effects are applied
-                return true;
-            case "WORKERS_GUILD":
-                playerStateService.addVictoryPoints(playerState,
-                        countCardsByType(playerState.getLeftNeighbor(), CardType.BROWN)
-                                + countCardsByType(playerState.getRightNeighbor(), CardType.BROWN));
-                return true;
-            case "CRAFTSMENS_GUILD":
-                playerStateService.addVictoryPoints(playerState,
-                        2 * (countCardsByType(playerState.getLeftNeighbor(), CardType.GREY)
-                                + countCardsByType(playerState.getRightNeighbor(), CardType.GREY)));
-                return true;
-            case "MAGISTRATES_GUILD":
-                playerStateService.addVictoryPoints(playerState,
-                        countCardsByType(playerState.getLeftNeighbor(), CardType.BLUE)
-                                + countCardsByType(playerState.getRightNeighbor(), CardType.BLUE));
-                return true;
-            case "TRADERS_GUILD":
-                playerStateService.addVictoryPoints(playerState,
-                        countCardsByType(playerState.getLeftNeighbor(), CardType.YELLOW)
-                                + countCardsByType(playerState.getRightNeighbor(), CardType.YELLOW));
-                return true;
-            case "SPIES_GUILD":
-                playerStateService.addVictoryPoints(playerState,
-                        countCardsByType(playerState.getLeftNeighbor(), CardType.RED)
-                                + countCardsByType(playerState.getRightNeighbor(), CardType.RED));
-                return true;
-            case "PHILOSOPHERS_GUILD":
-                playerStateService.addVictoryPoints(playerState,
-                        countCardsByType(playerState.getLeftNeighbor(), CardType.GREEN)
-                                + countCardsByType(playerState.getRightNeighbor(), CardType.GREEN));
-                return true;
-            case "SHIPOWNERS_GUILD":
-                playerStateService.addVictoryPoints(playerState,
-                        countCardsByType(playerState, CardType.BROWN)
-                                + countCardsByType(playerState, CardType.GREY)
-                                + countCardsByType(playerState, CardType.VIOLET));
-                return true;
-            case "DECORATORS_GUILD":
-                if (playerState.getWonder() != null
-                        && playerState.getWonderStage() >= playerState.getWonder().getNumberOfStages() - 1) {
-                    playerStateService.addVictoryPoints(playerState, 7);
-                }
-                return true;
-            case "BUILDERS_GUILD":
-                playerStateService.addVictoryPoints(playerState,
-                        playerStateService.getWonderStageOrZero(playerState)
-                                + playerStateService.getWonderStageOrZero(playerState.getLeftNeighbor())
-                                + playerStateService.getWonderStageOrZero(playerState.getRightNeighbor()));
-                return true;
-            case "COPY_VIOLET":
-                gameScoringService.applyBestCopiedGuild(playerState);
-                return true;
-            default:
-                return false;
+    /**
+     * Played cards of the given types, on the player and/or both neighbors
+     */
+    private int countCards(PlayerStateEntity playerState, List<CardType> types, boolean own, boolean neighbors) {
+        int count = own ? countCardsByType(playerState, types) : 0;
+        if (neighbors) {
+            count += countCardsByType(playerState.getLeftNeighbor(), types)
+                    + countCardsByType(playerState.getRightNeighbor(), types);
         }
+        return count;
     }
 
-    private int countCardsByType(PlayerStateEntity playerState, CardType type) {
-        if (playerState == null || playerState.getPlayedCards() == null) {
-            return 0;
-        }
-        return (int) playerState.getPlayedCards().stream()
-                .filter(card -> card.getType() == type)
-                .count();
+    private int countCardsByType(PlayerStateEntity playerState, List<CardType> types) {
+        return playerState == null ? 0 : playerState.getPlayedCardTypes().get(types);
     }
 
     /**
@@ -393,12 +275,12 @@ public class EffectExecutorService {
     }
 
     /**
-     * Get an effect by its ID from the database.
+     * Get an effect by its ID from the effect catalog.
      * 
      * @param effectId the unique identifier of the effect
      * @return the EffectEntity if found, null otherwise
      */
     public EffectEntity getEffectById(String effectId) {
-        return effectDAO.findByEffectId(effectId).orElse(null);
+        return effectCatalog.getEffect(effectId);
     }
 }
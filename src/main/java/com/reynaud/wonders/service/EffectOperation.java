@@ -0,0 +1,89 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.model.CardType;
+import com.reynaud.wonders.model.Ressources;
+import com.reynaud.wonders.model.Science;
+
+import java.util.List;
+
+/**
+ * One step of a compiled effect, decoded once from an effect's parameter string.
+ * {@link EffectExecutorService} runs these without any string handling.
+ */
+public sealed interface EffectOperation {
+
+    /**
+     * VP:n
+     */
+    record AddVictoryPoints(int amount) implements EffectOperation {
+    }
+
+    /**
+     * COINS:n
+     */
+    record AddCoins(int amount) implements EffectOperation {
+    }
+
+    /**
+     * MIL:n
+     */
+    record AddMilitary(int amount) implements EffectOperation {
+    }
+
+    /**
+     * PRICE:side:price, side 0=LEFT base, 1=RIGHT base, 2=BOTH advanced
+     */
+    record SetPrice(int side, int price) implements EffectOperation {
+    }
+
+    /**
+     * index:count for a resource, or a_b:count for a mutable pair
+     */
+    record AddResource(Ressources resource, int count) implements EffectOperation {
+    }
+
+    /**
+     * index:count for a science symbol (indices from 9)
+     */
+    record AddScience(Science science, int count) implements EffectOperation {
+    }
+
+    /**
+     * Coins for each played card of a type, counted on the player and/or their neighbors
+     */
+    record CoinsPerCard(CardType type, int coinsPerCard, boolean own, boolean neighbors) implements EffectOperation {
+    }
+
+    /**
+     * Victory points for each played card of the given types, counted on the player and/or their neighbors
+     */
+    record VictoryPointsPerCard(List<CardType> types, int pointsPerCard, boolean own, boolean neighbors) implements EffectOperation {
+        public VictoryPointsPerCard {
+            types = List.copyOf(types);
+        }
+    }
+
+    /**
+     * Victory points once every stage of the player's wonder is built
+     */
+    record VictoryPointsForCompleteWonder(int points) implements EffectOperation {
+    }
+
+    /**
+     * One victory point per wonder stage built by the player and their neighbors
+     */
+    record VictoryPointsPerWonderStage() implements EffectOperation {
+    }
+
+    /**
+     * Copy the best guild of a neighbor
+     */
+    record CopyNeighborGuild() implements EffectOperation {
+    }
+
+    /**
+     * Keyword with no direct effect, resolved elsewhere from the pending effect (e.g. BUILD_FROM_DISCARD)
+     */
+    record Marker(String keyword) implements EffectOperation {
+    }
+}
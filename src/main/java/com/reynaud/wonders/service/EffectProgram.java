@@ -0,0 +1,195 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.model.CardType;
+import com.reynaud.wonders.model.Ressources;
+import com.reynaud.wonders.model.Science;
+import com.reynaud.wonders.service.EffectOperation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An effect's parameter string compiled into typed operations, see {@link EffectOperation}.
+ * Compiling also collects problems: malformed parameters make the program invalid so it is never run,
+ * unknown keywords are skipped. Immutable.
+ */
+public final class EffectProgram {
+
+    // Resource enum order: STONE(0), WOOD(1), ORE(2), BRICK(3), GLASS(4), PAPER(5), TEXTILE(6), MUTABLE_BASE(7), MUTABLE_ADVANCED(8)
+    private static final Ressources[] RESOURCE_ORDER = {
+        Ressources.STONE, Ressources.WOOD, Ressources.ORE, Ressources.BRICK,
+        Ressources.GLASS, Ressources.PAPER, Ressources.TEXTILE,
+        Ressources.MUTABLE_BASE, Ressources.MUTABLE_ADVANCED
+    };
+
+    // Science enum order: TABLET(0), COMPASS(1), GEAR(2), MUTABLE(3), numbered from 9 after the resources
+    private static final Science[] SCIENCE_ORDER = {
+        Science.TABLET, Science.COMPASS, Science.GEAR, Science.MUTABLE
+    };
+    private static final int SCIENCE_OFFSET = RESOURCE_ORDER.length;
+
+    private static final Map<String, EffectOperation> KEYWORDS = Map.ofEntries(
+            Map.entry("VINEYARD", new CoinsPerCard(CardType.BROWN, 1, true, true)),
+            Map.entry("LIGHTHOUSE", new CoinsPerCard(CardType.YELLOW, 1, true, false)),
+            Map.entry("HAVEN", new CoinsPerCard(CardType.BROWN, 1, true, false)),
+            Map.entry("CHAMBER_OF_COMMERCE", new CoinsPerCard(CardType.YELLOW, 2, true, false)),
+            Map.entry("WORKERS_GUILD", new VictoryPointsPerCard(List.of(CardType.BROWN), 1, false, true)),
+            Map.entry("CRAFTSMENS_GUILD", new VictoryPointsPerCard(List.of(CardType.GREY), 2, false, true)),
+            Map.entry("MAGISTRATES_GUILD", new VictoryPointsPerCard(List.of(CardType.BLUE), 1, false, true)),
+            Map.entry("TRADERS_GUILD", new VictoryPointsPerCard(List.of(CardType.YELLOW), 1, false, true)),
+            Map.entry("SPIES_GUILD", new VictoryPointsPerCard(List.of(CardType.RED), 1, false, true)),
+            Map.entry("PHILOSOPHERS_GUILD", new VictoryPointsPerCard(List.of(CardType.GREEN), 1, false, true)),
+            Map.entry("SHIPOWNERS_GUILD", new VictoryPointsPerCard(List.of(CardType.BROWN, CardType.GREY, CardType.VIOLET), 1, true, false)),
+            Map.entry("DECORATORS_GUILD", new VictoryPointsForCompleteWonder(7)),
+            Map.entry("BUILDERS_GUILD", new VictoryPointsPerWonderStage()),
+            Map.entry("COPY_VIOLET", new CopyNeighborGuild()),
+            // Resolved by the game flow from the pending effect itself
+            Map.entry("BUILD_FROM_DISCARD", new Marker("BUILD_FROM_DISCARD")),
+            Map.entry("FIRST_CARD_FREE", new Marker("FIRST_CARD_FREE")),
+            Map.entry("BABYLON_B_PLAY_LAST", new Marker("BABYLON_B_PLAY_LAST"))
+    );
+
+    private final String effectId;
+    private final String source;
+    private final List<EffectOperation> operations;
+    private final List<String> problems;
+    private final boolean valid;
+
+    private EffectProgram(String effectId, String source, List<EffectOperation> operations, List<String> problems, boolean valid) {
+        this.effectId = effectId;
+        this.source = source;
+        this.operations = List.copyOf(operations);
+        this.problems = List.copyOf(problems);
+        this.valid = valid;
+    }
+
+    /**
+     * Compile the parameters of an effect: parts separated by |, each VP:n, COINS:n, MIL:n,
+     * PRICE:side:price, index:count, a_b:count or a keyword
+     */
+    public static EffectProgram compile(String effectId, String parameters) {
+        List<EffectOperation> operations = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        boolean valid = true;
+        if (parameters == null || parameters.isEmpty()) {
+            problems.add("no parameters");
+            return new EffectProgram(effectId, parameters, operations, problems, false);
+        }
+
+        for (String part : parameters.split("\\|")) {
+            String param = part.trim();
+            if (param.isEmpty()) {
+                continue;
+            }
+            try {
+                EffectOperation operation = compileParameter(param);
+                if (operation != null) {
+                    operations.add(operation);
+                } else {
+                    problems.add("unknown parameter '" + param + "'");
+                }
+            } catch (RuntimeException e) {
+                problems.add("malformed parameter '" + param + "': " + e.getMessage());
+                valid = false;
+            }
+        }
+        return new EffectProgram(effectId, parameters, operations, problems, valid);
+    }
+
+    /**
+     * @return the operation, or null if the parameter is not recognized
+     * @throws RuntimeException if a recognized parameter has bad numbers
+     */
+    private static EffectOperation compileParameter(String param) {
+        if (param.startsWith("VP:")) {
+            return new AddVictoryPoints(Integer.parseInt(param.substring(3)));
+        }
+        if (param.startsWith("COINS:")) {
+            return new AddCoins(Integer.parseInt(param.substring(6)));
+        }
+        if (param.startsWith("MIL:")) {
+            return new AddMilitary(Integer.parseInt(param.substring(4)));
+        }
+        if (param.startsWith("PRICE:")) {
+            String[] parts = param.substring(6).split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected PRICE:side:price");
+            }
+            int side = Integer.parseInt(parts[0]);
+            int price = Integer.parseInt(parts[1]);
+            return side >= 0 && side <= 2 ? new SetPrice(side, price) : null;
+        }
+        if (param.contains(":")) {
+            String[] parts = param.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected index:count");
+            }
+            int count = Integer.parseInt(parts[1]);
+            if (parts[0].contains("_")) {
+                String[] indices = parts[0].split("_");
+                Ressources pair = mapMutablePair(Integer.parseInt(indices[0]), Integer.parseInt(indices[1]));
+                return pair == null ? null : new AddResource(pair, count);
+            }
+            int index = Integer.parseInt(parts[0]);
+            if (index >= 0 && index < RESOURCE_ORDER.length) {
+                return new AddResource(RESOURCE_ORDER[index], count);
+            }
+            if (index >= SCIENCE_OFFSET && index < SCIENCE_OFFSET + SCIENCE_ORDER.length) {
+                return new AddScience(SCIENCE_ORDER[index - SCIENCE_OFFSET], count);
+            }
+            return null;
+        }
+        return KEYWORDS.get(param);
+    }
+
+    /**
+     * Map two resource indices to a mutable pair Ressources enum.
+     *
+     * @return the mutable pair Ressources, or null if invalid
+     */
+    private static Ressources mapMutablePair(int index1, int index2) {
+        // 0=STONE, 1=WOOD, 2=ORE, 3=BRICK
+        if ((index1 == 0 && index2 == 1) || (index1 == 1 && index2 == 0)) return Ressources.STONE_WOOD;
+        if ((index1 == 0 && index2 == 2) || (index1 == 2 && index2 == 0)) return Ressources.STONE_ORE;
+        if ((index1 == 0 && index2 == 3) || (index1 == 3 && index2 == 0)) return Ressources.STONE_BRICK;
+        if ((index1 == 1 && index2 == 2) || (index1 == 2 && index2 == 1)) return Ressources.WOOD_ORE;
+        if ((index1 == 1 && index2 == 3) || (index1 == 3 && index2 == 1)) return Ressources.WOOD_BRICK;
+        if ((index1 == 2 && index2 == 3) || (index1 == 3 && index2 == 2)) return Ressources.ORE_BRICK;
+        return null;
+    }
+
+    public String getEffectId() {
+        return effectId;
+    }
+
+    /**
+     * The parameter string this program was compiled from
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public List<EffectOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Unknown and malformed parameters found while compiling
+     */
+    public List<String> getProblems() {
+        return problems;
+    }
+
+    /**
+     * Whether the program can run: it has parameters and none of them is malformed
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    @Override
+    public String toString() {
+        return "EffectProgram{" + effectId + " = " + operations + (problems.isEmpty() ? "" : ", problems=" + problems) + "}";
+    }
+}
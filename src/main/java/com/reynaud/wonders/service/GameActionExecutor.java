@@ -0,0 +1,119 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.util.LogContext;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs the actions of each active game one at a time, in the order they were submitted.
+ * Every game with pending actions has a mailbox drained by its own virtual thread;
+ * the thread ends once the mailbox is empty and a new one starts with the next action.
+ * Games never wait on each other, and actions of one game are serialized without row locks.
+ * Each action runs inside {@link GameSessionRegistry#execute}, so it sees the in-memory session.
+ */
+@Service
+public class GameActionExecutor {
+
+    private static final Object NO_SESSION = new Object();
+
+    private final GameSessionRegistry gameSessions;
+    // A game has a mailbox exactly while its thread is running; only touched inside compute
+    private final Map<Long, Queue<Runnable>> mailboxes = new ConcurrentHashMap<>();
+
+    public GameActionExecutor(GameSessionRegistry gameSessions) {
+        this.gameSessions = gameSessions;
+    }
+
+    /**
+     * Queue an action of a game
+     *
+     * @return completed with the action's result, or exceptionally with what it threw
+     */
+    public <T> CompletableFuture<T> submit(Long gameId, Supplier<T> action) {
+        return enqueue(gameId, () -> gameSessions.execute(gameId, action));
+    }
+
+    /**
+     * Queue an action of a game and wait for its result.
+     * Games without a session (not started, finished or unknown) run the action on the
+     * calling thread instead, where the request's persistence context is still open.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T call(Long gameId, Supplier<T> action) {
+        if (gameId == null || gameSessions.open(gameId) == null) {
+            return action.get();
+        }
+        Object result = await(enqueue(gameId, () -> gameSessions.<Object>execute(gameId, action::get, () -> NO_SESSION)));
+        // The game ended while the action was waiting
+        return result == NO_SESSION ? action.get() : (T) result;
+    }
+
+    /**
+     * Number of games with actions waiting or running
+     */
+    public int getActiveGameCount() {
+        return mailboxes.size();
+    }
+
+    private <T> CompletableFuture<T> enqueue(Long gameId, Supplier<T> action) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        LogContext context = LogContext.current();
+        Runnable task = () -> {
+            try (LogContext.Scope scope = LogContext.attach(context)) {
+                future.complete(action.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+
+        boolean[] started = new boolean[1];
+        mailboxes.compute(gameId, (id, mailbox) -> {
+            Queue<Runnable> target = mailbox;
+            if (target == null) {
+                target = new ArrayDeque<>();
+                started[0] = true;
+            }
+            target.add(task);
+            return target;
+        });
+        if (started[0]) {
+            Thread.ofVirtual().name("game-" + gameId).start(() -> drain(gameId));
+        }
+        return future;
+    }
+
+    private void drain(Long gameId) {
+        Runnable[] next = new Runnable[1];
+        do {
+            // Removing the empty mailbox in the same step as polling means no action is left behind
+            mailboxes.computeIfPresent(gameId, (id, mailbox) -> {
+                next[0] = mailbox.poll();
+                return next[0] != null ? mailbox : null;
+            });
+            if (next[0] != null) {
+                next[0].run();
+            }
+        } while (next[0] != null);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
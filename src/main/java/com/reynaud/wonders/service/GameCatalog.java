@@ -0,0 +1,177 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.CardDAO;
+import com.reynaud.wonders.dao.WonderDAO;
+import com.reynaud.wonders.entity.CardEntity;
+import com.reynaud.wonders.entity.WonderEntity;
+import com.reynaud.wonders.model.Age;
+import com.reynaud.wonders.model.CardType;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Every card and wonder, loaded once the initial data is in place and kept read-only in memory.
+ * Decks are bucketed up front by age and player count, with the guilds kept apart,
+ * so dealing an age or assigning wonders never queries the database.
+ * The index is immutable; it is rebuilt only by {@link #load()}.
+ */
+@Service
+public class GameCatalog {
+
+    public static final int MIN_PLAYERS = 3;
+    public static final int MAX_PLAYERS = 7;
+
+    private final CardDAO cardDAO;
+    private final WonderDAO wonderDAO;
+    private final LoggingService loggingService;
+    private volatile Index index;
+
+    public GameCatalog(CardDAO cardDAO, WonderDAO wonderDAO, LoggingService loggingService) {
+        this.cardDAO = cardDAO;
+        this.wonderDAO = wonderDAO;
+        this.loggingService = loggingService;
+    }
+
+    /**
+     * Build the index from the cards and wonders tables.
+     * Runs at startup before anything else uses the catalog; the first lookup loads it if needed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void load() {
+        List<CardEntity> cards = List.copyOf(cardDAO.findAll());
+
+        Map<Long, CardEntity> byId = new HashMap<>();
+        Map<Age, List<CardEntity>> byAge = new EnumMap<>(Age.class);
+        for (CardEntity card : cards) {
+            byId.put(card.getId(), card);
+            byAge.computeIfAbsent(card.getAge(), age -> new ArrayList<>()).add(card);
+        }
+
+        // Guilds are not dealt by player count: Age III takes a random few of them, see getGuilds()
+        Map<Age, List<List<CardEntity>>> decks = new EnumMap<>(Age.class);
+        for (Map.Entry<Age, List<CardEntity>> entry : byAge.entrySet()) {
+            List<List<CardEntity>> byPlayerCount = new ArrayList<>();
+            for (int players = 0; players <= MAX_PLAYERS; players++) {
+                byPlayerCount.add(players < MIN_PLAYERS ? List.of() : filterDeck(entry.getValue(), players));
+            }
+            decks.put(entry.getKey(), List.copyOf(byPlayerCount));
+            entry.setValue(List.copyOf(entry.getValue()));
+        }
+        List<CardEntity> guilds = byAge.getOrDefault(Age.AGE_III, List.of()).stream()
+                .filter(card -> card.getType() == CardType.VIOLET)
+                .toList();
+
+        Map<Age, Map<CardType, List<CardEntity>>> byAgeAndType = new LinkedHashMap<>();
+        byAge.keySet().stream()
+                .sorted(Comparator.comparing(Age::ordinal))
+                .forEach(age -> byAgeAndType.put(age, Collections.unmodifiableMap(byAge.get(age).stream()
+                        .collect(Collectors.groupingBy(CardEntity::getType, LinkedHashMap::new, Collectors.toUnmodifiableList())))));
+
+        List<WonderEntity> wonders = List.copyOf(wonderDAO.findAll());
+        Map<String, List<WonderEntity>> wondersByName = wonders.stream()
+                .collect(Collectors.groupingBy(WonderEntity::getName, LinkedHashMap::new, Collectors.toUnmodifiableList()));
+
+        index = new Index(cards, Map.copyOf(byId), Collections.unmodifiableMap(byAge), Collections.unmodifiableMap(decks),
+                guilds, Collections.unmodifiableMap(byAgeAndType), wonders, Collections.unmodifiableMap(wondersByName));
+        loggingService.info("Game catalog loaded - Cards: " + cards.size() + ", Guilds: " + guilds.size() +
+                          ", Wonders: " + wonders.size() + ", WonderNames: " + wondersByName.size(), "GameCatalog.load");
+    }
+
+    private static List<CardEntity> filterDeck(List<CardEntity> ageCards, int players) {
+        return ageCards.stream()
+                .filter(card -> card.getType() != CardType.VIOLET)
+                .filter(card -> card.getMinPlayerCount() <= players)
+                .toList();
+    }
+
+    public List<CardEntity> getAllCards() {
+        return index().cards();
+    }
+
+    /**
+     * @return the card with this ID, or null if there is none
+     */
+    public CardEntity getCard(Long id) {
+        return id == null ? null : index().byId().get(id);
+    }
+
+    public List<CardEntity> getCardsByAge(Age age) {
+        return index().byAge().getOrDefault(age, List.of());
+    }
+
+    /**
+     * Cards grouped by age, in age order, then by type
+     */
+    public Map<Age, Map<CardType, List<CardEntity>>> getCardsByAgeAndType() {
+        return index().byAgeAndType();
+    }
+
+    /**
+     * The cards of an age used with this many players, guilds excluded
+     *
+     * @param age the age to deal
+     * @param playerCount the number of players in the game
+     */
+    public List<CardEntity> getDeck(Age age, int playerCount) {
+        Index current = index();
+        List<List<CardEntity>> byPlayerCount = current.decks().get(age);
+        if (byPlayerCount == null) {
+            return List.of();
+        }
+        if (playerCount >= MIN_PLAYERS && playerCount <= MAX_PLAYERS) {
+            return byPlayerCount.get(playerCount);
+        }
+        return filterDeck(current.byAge().get(age), playerCount);
+    }
+
+    /**
+     * The Age III guilds (violet cards), from which each game deals a random few
+     */
+    public List<CardEntity> getGuilds() {
+        return index().guilds();
+    }
+
+    public List<WonderEntity> getAllWonders() {
+        return index().wonders();
+    }
+
+    /**
+     * Wonders grouped by name, each with its faces (A and B)
+     */
+    public Map<String, List<WonderEntity>> getWondersByName() {
+        return index().wondersByName();
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    load();
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+
+    private record Index(List<CardEntity> cards, Map<Long, CardEntity> byId, Map<Age, List<CardEntity>> byAge,
+                         Map<Age, List<List<CardEntity>>> decks, List<CardEntity> guilds,
+                         Map<Age, Map<CardType, List<CardEntity>>> byAgeAndType,
+                         List<WonderEntity> wonders, Map<String, List<WonderEntity>> wondersByName) {
+    }
+}
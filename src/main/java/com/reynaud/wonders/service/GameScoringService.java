@@ -6,9 +6,8 @@ import com.reynaud.wonders.model.CardType;
 import com.reynaud.wonders.model.Science;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.EnumMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -21,54 +20,79 @@ public class GameScoringService {
         this.playerStateService = playerStateService;
     }
 
+    /**
+     * Science points of a set of symbols, each wildcard (MUTABLE) counted as the symbol that scores best
+     */
     public int calculateSciencePoints(Map<Science, Integer> scienceSymbols) {
-        int tablets = scienceSymbols.getOrDefault(Science.TABLET, 0);
-        int compasses = scienceSymbols.getOrDefault(Science.COMPASS, 0);
-        int gears = scienceSymbols.getOrDefault(Science.GEAR, 0);
-        int mutableSymbols = scienceSymbols.getOrDefault(Science.MUTABLE, 0);
-
-        ArrayDeque<int[]> states = new ArrayDeque<>();
-        states.push(new int[] {tablets, compasses, gears, mutableSymbols});
-
-        int bestScore = 0;
-
-        while (!states.isEmpty()) {
-            int[] state = states.pop();
-            int currentTablets = state[0];
-            int currentCompasses = state[1];
-            int currentGears = state[2];
-            int remainingMutableSymbols = state[3];
-
-            if (remainingMutableSymbols == 0) {
-                int score = currentTablets * currentTablets
-                        + currentCompasses * currentCompasses
-                        + currentGears * currentGears
-                        + 7 * Math.min(currentTablets, Math.min(currentCompasses, currentGears));
-                bestScore = Math.max(bestScore, score);
-                continue;
+        return scoreScience(scienceSymbols.getOrDefault(Science.TABLET, 0),
+                scienceSymbols.getOrDefault(Science.COMPASS, 0),
+                scienceSymbols.getOrDefault(Science.GEAR, 0),
+                scienceSymbols.getOrDefault(Science.MUTABLE, 0));
+    }
+
+    /**
+     * Science points of a set of symbols with 0, 1, 2... extra wildcards, all in one pass.
+     * scores[k] receives the points with k more wildcards than the symbols hold.
+     *
+     * @param scienceSymbols the symbols, wildcards (MUTABLE) included
+     * @param scores filled with the points for k = 0 to scores.length - 1 extra wildcards
+     */
+    public void calculateSciencePoints(Map<Science, Integer> scienceSymbols, int[] scores) {
+        scoreScience(scienceSymbols.getOrDefault(Science.TABLET, 0),
+                scienceSymbols.getOrDefault(Science.COMPASS, 0),
+                scienceSymbols.getOrDefault(Science.GEAR, 0),
+                scienceSymbols.getOrDefault(Science.MUTABLE, 0), scores);
+    }
+
+    /**
+     * Best score over every way to split the wildcards between the three symbols:
+     * the sum of the squares plus 7 per complete set
+     */
+    static int scoreScience(int tablets, int compasses, int gears, int wildcards) {
+        int best = 0;
+        for (int toTablets = 0; toTablets <= wildcards; toTablets++) {
+            for (int toCompasses = 0; toCompasses <= wildcards - toTablets; toCompasses++) {
+                int toGears = wildcards - toTablets - toCompasses;
+                best = Math.max(best, score(tablets + toTablets, compasses + toCompasses, gears + toGears));
             }
+        }
+        return best;
+    }
 
-            states.push(new int[] {currentTablets + 1, currentCompasses, currentGears, remainingMutableSymbols - 1});
-            states.push(new int[] {currentTablets, currentCompasses + 1, currentGears, remainingMutableSymbols - 1});
-            states.push(new int[] {currentTablets, currentCompasses, currentGears + 1, remainingMutableSymbols - 1});
+    /**
+     * {@link #scoreScience(int, int, int, int)} for wildcards + k, k = 0 to scores.length - 1.
+     * Every split of up to wildcards + scores.length - 1 wildcards is scored once and kept under its total.
+     */
+    static void scoreScience(int tablets, int compasses, int gears, int wildcards, int[] scores) {
+        Arrays.fill(scores, 0);
+        int maxWildcards = wildcards + scores.length - 1;
+        for (int toTablets = 0; toTablets <= maxWildcards; toTablets++) {
+            for (int toCompasses = 0; toCompasses <= maxWildcards - toTablets; toCompasses++) {
+                for (int toGears = Math.max(0, wildcards - toTablets - toCompasses); toGears <= maxWildcards - toTablets - toCompasses; toGears++) {
+                    int extra = toTablets + toCompasses + toGears - wildcards;
+                    scores[extra] = Math.max(scores[extra], score(tablets + toTablets, compasses + toCompasses, gears + toGears));
+                }
+            }
         }
+    }
 
-        return bestScore;
+    private static int score(int tablets, int compasses, int gears) {
+        return tablets * tablets + compasses * compasses + gears * gears
+                + 7 * Math.min(tablets, Math.min(compasses, gears));
     }
 
     public void applyBestCopiedGuild(PlayerStateEntity playerState) {
-        List<CardEntity> neighborGuilds = new ArrayList<>(playerState.getLeftNeighbor().getPlayedCards().stream()
-                .filter(card -> card.getType() == CardType.VIOLET)
-                .toList());
-        neighborGuilds.addAll(playerState.getRightNeighbor().getPlayedCards().stream()
-                .filter(card -> card.getType() == CardType.VIOLET)
-                .toList());
+        List<CardEntity> neighborGuilds = new ArrayList<>();
+        addGuilds(playerState.getLeftNeighbor(), neighborGuilds);
+        addGuilds(playerState.getRightNeighbor(), neighborGuilds);
 
         if (neighborGuilds.isEmpty()) {
             return;
         }
 
-        int currentSciencePoints = calculateSciencePoints(playerState.getScience());
+        // Science points now and with the Scientists Guild's wildcard
+        int[] sciencePoints = new int[2];
+        calculateSciencePoints(playerState.getScience(), sciencePoints);
         String bestGuildName = null;
         int bestGuildScore = Integer.MIN_VALUE;
 
@@ -94,12 +118,7 @@ public class GameScoringService {
                 case "Builders Guild" -> playerStateService.getWonderStageOrZero(playerState)
                         + playerStateService.getWonderStageOrZero(playerState.getLeftNeighbor())
                         + playerStateService.getWonderStageOrZero(playerState.getRightNeighbor());
-                case "Scientists Guild" -> {
-                    Map<Science, Integer> copiedScience = new EnumMap<>(Science.class);
-                    copiedScience.putAll(playerState.getScience());
-                    copiedScience.merge(Science.MUTABLE, 1, Integer::sum);
-                    yield calculateSciencePoints(copiedScience) - currentSciencePoints;
-                }
+                case "Scientists Guild" -> sciencePoints[1] - sciencePoints[0];
                 default -> Integer.MIN_VALUE;
             };
 
@@ -160,12 +179,21 @@ public class GameScoringService {
         }
     }
 
-    private int countCardsByType(PlayerStateEntity playerState, CardType type) {
-        if (playerState == null || playerState.getPlayedCards() == null) {
-            return 0;
+    /**
+     * Add the neighbor's guilds, skipping its played cards entirely when it has none
+     */
+    private void addGuilds(PlayerStateEntity neighbor, List<CardEntity> guilds) {
+        if (countCardsByType(neighbor, CardType.VIOLET) == 0) {
+            return;
+        }
+        for (CardEntity card : neighbor.getPlayedCards()) {
+            if (card.getType() == CardType.VIOLET) {
+                guilds.add(card);
+            }
         }
-        return (int) playerState.getPlayedCards().stream()
-                .filter(card -> card.getType() == type)
-                .count();
+    }
+
+    private int countCardsByType(PlayerStateEntity playerState, CardType type) {
+        return playerState == null ? 0 : playerState.getPlayedCardTypes().get(type);
     }
 }
@@ -22,11 +22,14 @@ public class GameService {
     private final GameDAO gameDAO;
     private final PlayerStateService playerStateService;
     private final LoggingService loggingService;
+    private final GameSessionRegistry gameSessions;
 
-    public GameService(GameDAO gameDAO, PlayerStateService playerStateService, LoggingService loggingService) {
+    public GameService(GameDAO gameDAO, PlayerStateService playerStateService, LoggingService loggingService,
+                       GameSessionRegistry gameSessions) {
         this.gameDAO = gameDAO;
         this.playerStateService = playerStateService;
         this.loggingService = loggingService;
+        this.gameSessions = gameSessions;
     }
 
     @Transactional
@@ -49,11 +52,21 @@ public class GameService {
 
     @Transactional
     public GameEntity updateGame(GameEntity game) {
+        GameSession session = gameSessions.get(game.getId());
+        if (session != null && session.holds(game)) {
+            // Written back with its players by the session registry
+            gameSessions.changed(session);
+            return game;
+        }
         return gameDAO.save(game);
     }
 
     @Transactional(readOnly = true)
     public GameEntity getGameById(Long id) {
+        GameSession session = gameSessions.get(id);
+        if (session != null) {
+            return session.getGame();
+        }
         return gameDAO.findById(id).orElse(null);
     }
 
@@ -120,6 +133,7 @@ public class GameService {
     @Transactional
     public void deleteGame(Long id) {
         loggingService.info("Deleting game - GameID: " + id, "GameService.deleteGame");
+        gameSessions.discard(id);
         gameDAO.deleteById(id);
         loggingService.info("Game deleted successfully - GameID: " + id, "GameService.deleteGame");
     }
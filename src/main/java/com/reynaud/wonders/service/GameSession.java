@@ -0,0 +1,166 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.GameEntity;
+import com.reynaud.wonders.entity.PlayerStateEntity;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory state of one active game: the game and its players, fully loaded and detached.
+ * Actions and reads run under the session lock and work on these objects directly;
+ * {@link GameSessionRegistry} writes them back to the database under a separate write lock,
+ * comparing them with the last snapshot written.
+ */
+public class GameSession {
+
+    private final GameEntity game;
+    private final List<PlayerStateEntity> players;
+    private final Map<Long, PlayerStateEntity> playersById = new HashMap<>();
+    private final Map<Long, PlayerStateEntity> playersByUserId = new HashMap<>();
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Always taken before the session lock, never while holding it
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Guarded by writeLock
+    private GameSnapshot saved;
+    // Guarded by lock
+    private boolean turnEnded;
+    private volatile boolean dirty;
+    private volatile long lastAccess = System.currentTimeMillis();
+
+    /**
+     * @param game the game, with its player states and every collection they use already loaded
+     */
+    public GameSession(GameEntity game) {
+        this.game = game;
+        this.players = game.getPlayerStates().stream()
+                .sorted(Comparator.comparing(PlayerStateEntity::getPosition))
+                .toList();
+        for (PlayerStateEntity player : players) {
+            playersById.put(player.getId(), player);
+            playersByUserId.put(player.getUser().getId(), player);
+        }
+        this.saved = GameSnapshot.capture(this);
+    }
+
+    public Long getGameId() {
+        return game.getId();
+    }
+
+    public GameEntity getGame() {
+        return game;
+    }
+
+    /**
+     * Players ordered by position
+     */
+    public List<PlayerStateEntity> getPlayers() {
+        return players;
+    }
+
+    public PlayerStateEntity getPlayer(Long playerStateId) {
+        return playersById.get(playerStateId);
+    }
+
+    public PlayerStateEntity getPlayerByUserId(Long userId) {
+        return playersByUserId.get(userId);
+    }
+
+    public PlayerStateEntity getPlayerByPosition(Integer position) {
+        return players.stream()
+                .filter(player -> player.getPosition().equals(position))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Whether the entity is this session's own instance, as opposed to a copy loaded elsewhere
+     */
+    public boolean holds(Object entity) {
+        return entity == game || (entity instanceof PlayerStateEntity player && playersById.get(player.getId()) == player);
+    }
+
+    /**
+     * Record that a player's state changed, so anything derived from it is recomputed
+     */
+    public void markChanged(PlayerStateEntity player) {
+        if (player != null) {
+            versions.merge(player.getId(), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Number of changes recorded for a player since the session was opened
+     */
+    public long getVersion(PlayerStateEntity player) {
+        return player == null ? 0L : versions.getOrDefault(player.getId(), 0L);
+    }
+
+    public void lock() {
+        lock.lock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    void lockWrites() {
+        writeLock.lock();
+    }
+
+    void unlockWrites() {
+        writeLock.unlock();
+    }
+
+    /**
+     * The state last written to the database, or loaded from it
+     */
+    GameSnapshot getSaved() {
+        return saved;
+    }
+
+    void setSaved(GameSnapshot saved) {
+        this.saved = saved;
+    }
+
+    void markTurnEnded() {
+        turnEnded = true;
+    }
+
+    /**
+     * Whether a turn ended since the last call
+     */
+    boolean takeTurnEnded() {
+        boolean ended = turnEnded;
+        turnEnded = false;
+        return ended;
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    void markClean() {
+        dirty = false;
+    }
+
+    /**
+     * Record that a player used the session, keeping it in memory
+     */
+    public void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+}
@@ -0,0 +1,285 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.GameEntity;
+import com.reynaud.wonders.entity.PlayerStateEntity;
+import com.reynaud.wonders.model.GameStatus;
+import com.reynaud.wonders.model.SessionDurability;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps active games in memory, keyed by game id, so player actions no longer reload
+ * and flush the whole game graph through the ORM on every request.
+ * A session is loaded once, fully and detached, on the first action of a game; services
+ * then read and change its entities in place. Writing back compares the session with the last
+ * snapshot written and updates only the changed columns and join tables, outside the session lock.
+ * With {@link SessionDurability#TURN_END} that happens once per turn, when the action that ended it
+ * completes; with {@link SessionDurability#PERIODIC} only on the background flush. An action that
+ * fails is undone from a snapshot taken before it ran. Finished games are written back and dropped
+ * at once, idle ones after a while.
+ */
+@Service
+public class GameSessionRegistry {
+
+    private static final String SOURCE = "GameSessionRegistry";
+
+    private final GameSessionWriter writer;
+    private final EntityManagerFactory entityManagerFactory;
+    private final LoggingService loggingService;
+    private final SessionDurability durability;
+    private final long idleMillis;
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+
+    public GameSessionRegistry(GameSessionWriter writer, EntityManagerFactory entityManagerFactory,
+                               LoggingService loggingService,
+                               @Value("${wonders.game.session.durability:TURN_END}") SessionDurability durability,
+                               @Value("${wonders.game.session.idle-minutes:30}") long idleMinutes) {
+        this.writer = writer;
+        this.entityManagerFactory = entityManagerFactory;
+        this.loggingService = loggingService;
+        this.durability = durability;
+        this.idleMillis = idleMinutes * 60_000;
+    }
+
+    /**
+     * Get the session of a game, loading it if the game is in progress
+     *
+     * @return the session, or null if the game does not exist, has no players yet or is over
+     */
+    public GameSession open(Long gameId) {
+        GameSession session = sessions.get(gameId);
+        if (session != null) {
+            return session;
+        }
+        GameEntity game = load(gameId);
+        if (game == null || isOver(game) || game.getPlayerStates().isEmpty()) {
+            return null;
+        }
+        return sessions.computeIfAbsent(gameId, id -> new GameSession(game));
+    }
+
+    /**
+     * Get the session of a game only if it is already in memory
+     */
+    public GameSession get(Long gameId) {
+        return gameId != null ? sessions.get(gameId) : null;
+    }
+
+    /**
+     * Run an action of a game under its session lock, so actions of one game never interleave.
+     * Games that cannot have a session run the action as is.
+     */
+    public <T> T execute(Long gameId, Supplier<T> action) {
+        return execute(gameId, action, action);
+    }
+
+    /**
+     * Run an action of a game under its session lock.
+     * If the action throws, the session is put back as it was before the action and stays in memory.
+     *
+     * @param withoutSession run instead when the game cannot have a session
+     */
+    public <T> T execute(Long gameId, Supplier<T> action, Supplier<T> withoutSession) {
+        if (gameId == null) {
+            return withoutSession.get();
+        }
+        while (true) {
+            GameSession session = open(gameId);
+            if (session == null) {
+                return withoutSession.get();
+            }
+            T result;
+            boolean over;
+            boolean write;
+            session.lock();
+            try {
+                if (sessions.get(gameId) != session) {
+                    // Evicted while we were waiting; load it again
+                    continue;
+                }
+                session.touch();
+                GameSnapshot before = GameSnapshot.capture(session);
+                try {
+                    result = action.get();
+                } catch (RuntimeException e) {
+                    // The action may have stopped halfway; nothing of it has been written
+                    before.restore(session);
+                    session.takeTurnEnded();
+                    session.getPlayers().forEach(session::markChanged);
+                    throw e;
+                }
+                over = isOver(session.getGame());
+                boolean turnEnded = session.takeTurnEnded();
+                write = session.isDirty() && (over || (durability == SessionDurability.TURN_END && turnEnded));
+            } finally {
+                session.unlock();
+            }
+            // Written after the session lock is released; the game's next action waits in its mailbox anyway
+            if ((!write || persist(session)) && over) {
+                sessions.remove(gameId, session);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Record that entities of a session were changed. Called instead of saving them.
+     */
+    public void changed(GameSession session) {
+        session.markDirty();
+    }
+
+    /**
+     * Record that the running action of a game ended a turn.
+     * With {@link SessionDurability#TURN_END} the session is written once that action completes.
+     */
+    public void turnEnded(Long gameId) {
+        GameSession session = get(gameId);
+        if (session != null) {
+            session.markTurnEnded();
+        }
+    }
+
+    /**
+     * Write what changed in a session since it was last written.
+     * The session lock is only held to copy its state, so its actions are not blocked by the database.
+     * On failure the session stays dirty and the next write includes these changes.
+     *
+     * @return whether the session is clean afterwards
+     */
+    public boolean persist(GameSession session) {
+        session.lockWrites();
+        try {
+            GameSnapshot current;
+            session.lock();
+            try {
+                if (!session.isDirty()) {
+                    return true;
+                }
+                current = GameSnapshot.capture(session);
+                session.markClean();
+            } finally {
+                session.unlock();
+            }
+            try {
+                writer.write(current.changesSince(session.getSaved()));
+            } catch (RuntimeException e) {
+                session.markDirty();
+                loggingService.error("Failed to persist game session - GameID: " + session.getGameId(), SOURCE, e);
+                return false;
+            }
+            session.setSaved(current);
+            return true;
+        } finally {
+            session.unlockWrites();
+        }
+    }
+
+    /**
+     * Write back dirty sessions in the background, and drop sessions that are idle or over.
+     * In {@link SessionDurability#TURN_END} mode only sessions about to be dropped are written here.
+     */
+    @Scheduled(fixedDelayString = "${wonders.game.session.flush-interval-ms:2000}")
+    public void flush() {
+        long idleSince = System.currentTimeMillis() - idleMillis;
+        for (GameSession session : List.copyOf(sessions.values())) {
+            boolean droppable;
+            session.lock();
+            try {
+                droppable = session.getLastAccess() <= idleSince || isOver(session.getGame());
+            } finally {
+                session.unlock();
+            }
+            boolean clean = durability == SessionDurability.PERIODIC || droppable
+                    ? persist(session)
+                    : !session.isDirty();
+            if (clean && droppable) {
+                session.lock();
+                try {
+                    if (!session.isDirty()) {
+                        sessions.remove(session.getGameId(), session);
+                    }
+                } finally {
+                    session.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop a session without writing it back, e.g. because the game is being deleted
+     */
+    public void discard(Long gameId) {
+        sessions.remove(gameId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sessions.values().forEach(this::persist);
+        sessions.clear();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public SessionDurability getDurability() {
+        return durability;
+    }
+
+    private static boolean isOver(GameEntity game) {
+        return game.getStatus() == GameStatus.FINISHED || game.getStatus() == GameStatus.CANCELLED;
+    }
+
+    /**
+     * Load a game and everything its actions touch in a private entity manager,
+     * so the graph is complete and detached once it is closed
+     */
+    private GameEntity load(Long gameId) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            GameEntity game = entityManager.find(GameEntity.class, gameId);
+            if (game == null) {
+                return null;
+            }
+            Hibernate.initialize(game.getUsers());
+            Hibernate.initialize(game.getAgeICards());
+            Hibernate.initialize(game.getAgeIICards());
+            Hibernate.initialize(game.getAgeIIICards());
+            Hibernate.initialize(game.getDiscard());
+            Hibernate.initialize(game.getWinner());
+            Hibernate.initialize(game.getPlayerStates());
+
+            Map<Long, PlayerStateEntity> players = new HashMap<>();
+            for (PlayerStateEntity player : game.getPlayerStates()) {
+                Hibernate.initialize(player.getUser());
+                Hibernate.initialize(player.getHand());
+                Hibernate.initialize(player.getPlayedCards());
+                Hibernate.initialize(player.getWonderCards());
+                Hibernate.initialize(player.getPendingEffects());
+                players.put(player.getId(), player);
+            }
+            // Neighbors may still be lazy proxies; point them at the session's own instances
+            for (PlayerStateEntity player : game.getPlayerStates()) {
+                player.setGame(game);
+                if (player.getLeftNeighbor() != null) {
+                    player.setLeftNeighbor(players.get(player.getLeftNeighbor().getId()));
+                }
+                if (player.getRightNeighbor() != null) {
+                    player.setRightNeighbor(players.get(player.getRightNeighbor().getId()));
+                }
+            }
+            return game;
+        }
+    }
+}
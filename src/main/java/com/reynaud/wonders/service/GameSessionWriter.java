@@ -0,0 +1,78 @@
+package com.reynaud.wonders.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the changes of a game session in one transaction, touching only what changed:
+ * an UPDATE of the changed columns of each changed row, and the rows of each changed join table.
+ * Nothing is loaded or merged, so the cost follows the size of the change, not of the game.
+ */
+@Service
+public class GameSessionWriter {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    public GameSessionWriter(EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Write the changes, all or nothing
+     */
+    void write(GameSnapshot.Changes changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            changes.rows().forEach(row -> update(entityManager, row));
+            changes.joinTables().forEach(joinTable -> replace(entityManager, joinTable));
+        });
+    }
+
+    /**
+     * Bulk update through JPQL, so attribute converters and entity references are bound as mapped
+     */
+    private static void update(EntityManager entityManager, GameSnapshot.RowUpdate row) {
+        String assignments = row.attributes().keySet().stream()
+                .map(name -> "e." + name + " = :" + name)
+                .collect(Collectors.joining(", "));
+        Query query = entityManager.createQuery("UPDATE " + row.entity() + " e SET " + assignments + " WHERE e.id = :id");
+        row.attributes().forEach(query::setParameter);
+        query.setParameter("id", row.id());
+        query.executeUpdate();
+    }
+
+    private static void replace(EntityManager entityManager, GameSnapshot.JoinTableUpdate joinTable) {
+        entityManager.createNativeQuery("DELETE FROM " + joinTable.table() + " WHERE " + joinTable.ownerColumn() + " = ?1")
+                .setParameter(1, joinTable.ownerId())
+                .executeUpdate();
+        List<Long> elementIds = joinTable.elementIds();
+        if (elementIds.isEmpty()) {
+            return;
+        }
+        boolean ordered = joinTable.orderColumn() != null;
+        String insert = "INSERT INTO " + joinTable.table() + " (" + joinTable.ownerColumn() + ", " + joinTable.elementColumn()
+                + (ordered ? ", " + joinTable.orderColumn() + ") VALUES (?1, ?2, ?3)" : ") VALUES (?1, ?2)");
+        for (int i = 0; i < elementIds.size(); i++) {
+            Query query = entityManager.createNativeQuery(insert)
+                    .setParameter(1, joinTable.ownerId())
+                    .setParameter(2, elementIds.get(i));
+            if (ordered) {
+                query.setParameter(3, i);
+            }
+            query.executeUpdate();
+        }
+    }
+}
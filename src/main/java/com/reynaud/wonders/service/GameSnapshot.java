@@ -0,0 +1,250 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.CardEntity;
+import com.reynaud.wonders.entity.EffectEntity;
+import com.reynaud.wonders.entity.GameEntity;
+import com.reynaud.wonders.entity.PlayerStateEntity;
+import com.reynaud.wonders.entity.UserEntity;
+import com.reynaud.wonders.model.CardTypeCounts;
+import com.reynaud.wonders.model.ResourceVector;
+import com.reynaud.wonders.model.Science;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copy of the persistent fields of a session's game and players.
+ * The registry takes one before each action, to put the session back if the action fails,
+ * and keeps the last one written, so only the rows, columns and join tables changed since are written.
+ */
+final class GameSnapshot {
+
+    static final String GAME_ENTITY = "GameEntity";
+    static final String PLAYER_ENTITY = "PlayerStateEntity";
+
+    private static final List<Attribute<GameEntity, ?>> GAME_ATTRIBUTES = List.of(
+            new Attribute<>("status", GameEntity::getStatus, GameEntity::setStatus),
+            new Attribute<>("currentAge", GameEntity::getCurrentAge, GameEntity::setCurrentAge),
+            new Attribute<>("currentTurn", GameEntity::getCurrentTurn, GameEntity::setCurrentTurn),
+            new Attribute<>("nbrPlayers", GameEntity::getNbrPlayers, GameEntity::setNbrPlayers),
+            new Attribute<>("startedAt", GameEntity::getStartedAt, GameEntity::setStartedAt),
+            new Attribute<>("finishedAt", GameEntity::getFinishedAt, GameEntity::setFinishedAt),
+            new Attribute<>("winner", GameEntity::getWinner, GameEntity::setWinner),
+            new Attribute<>("currentPlayerIndex", GameEntity::getCurrentPlayerIndex, GameEntity::setCurrentPlayerIndex));
+
+    private static final List<JoinTable<GameEntity, ?>> GAME_JOIN_TABLES = List.of(
+            new JoinTable<>("game_users", "game_id", "user_id", null, GameEntity::getUsers, UserEntity::getId),
+            new JoinTable<>("game_age_i_cards", "game_id", "card_id", null, GameEntity::getAgeICards, CardEntity::getId),
+            new JoinTable<>("game_age_ii_cards", "game_id", "card_id", null, GameEntity::getAgeIICards, CardEntity::getId),
+            new JoinTable<>("game_age_iii_cards", "game_id", "card_id", null, GameEntity::getAgeIIICards, CardEntity::getId),
+            new JoinTable<>("game_discard_cards", "game_id", "card_id", null, GameEntity::getDiscard, CardEntity::getId));
+
+    private static final List<Attribute<PlayerStateEntity, ?>> PLAYER_ATTRIBUTES = List.of(
+            new Attribute<>("coins", PlayerStateEntity::getCoins, PlayerStateEntity::setCoins),
+            new Attribute<>("militaryPoints", PlayerStateEntity::getMilitaryPoints, PlayerStateEntity::setMilitaryPoints),
+            new Attribute<>("victoryPoints", PlayerStateEntity::getVictoryPoints, PlayerStateEntity::setVictoryPoints),
+            new Attribute<>("wonderName", PlayerStateEntity::getWonderName, PlayerStateEntity::setWonderName),
+            new Attribute<>("wonder", PlayerStateEntity::getWonder, PlayerStateEntity::setWonder),
+            new Attribute<>("wonderStage", PlayerStateEntity::getWonderStage, PlayerStateEntity::setWonderStage),
+            new Attribute<>("playedCardTypes", PlayerStateEntity::getPlayedCardTypes, PlayerStateEntity::setPlayedCardTypes,
+                    CardTypeCounts::copy),
+            new Attribute<>("resources", PlayerStateEntity::getResources, PlayerStateEntity::setResources,
+                    ResourceVector::immutableCopy),
+            new Attribute<>("science", PlayerStateEntity::getScience, PlayerStateEntity::setScience, GameSnapshot::copyScience),
+            new Attribute<>("hasPlayedThisTurn", PlayerStateEntity::getHasPlayedThisTurn, PlayerStateEntity::setHasPlayedThisTurn),
+            new Attribute<>("leftBaseRessourcePriceMultiplier", PlayerStateEntity::getLeftBaseRessourcePriceMultiplier,
+                    PlayerStateEntity::setLeftBaseRessourcePriceMultiplier),
+            new Attribute<>("rightBaseRessourcePriceMultiplier", PlayerStateEntity::getRightBaseRessourcePriceMultiplier,
+                    PlayerStateEntity::setRightBaseRessourcePriceMultiplier),
+            new Attribute<>("leftAdvancedRessourcePriceMultiplier", PlayerStateEntity::getLeftAdvancedRessourcePriceMultiplier,
+                    PlayerStateEntity::setLeftAdvancedRessourcePriceMultiplier),
+            new Attribute<>("rightAdvancedRessourcePriceMultiplier", PlayerStateEntity::getRightAdvancedRessourcePriceMultiplier,
+                    PlayerStateEntity::setRightAdvancedRessourcePriceMultiplier),
+            new Attribute<>("leftNeighbor", PlayerStateEntity::getLeftNeighbor, PlayerStateEntity::setLeftNeighbor),
+            new Attribute<>("rightNeighbor", PlayerStateEntity::getRightNeighbor, PlayerStateEntity::setRightNeighbor));
+
+    private static final List<JoinTable<PlayerStateEntity, ?>> PLAYER_JOIN_TABLES = List.of(
+            new JoinTable<>("player_state_cards", "player_state_id", "card_id", null,
+                    PlayerStateEntity::getPlayedCards, CardEntity::getId),
+            new JoinTable<>("player_state_hand", "player_state_id", "card_id", null,
+                    PlayerStateEntity::getHand, CardEntity::getId),
+            new JoinTable<>("player_state_wonder_cards", "player_state_id", "card_id", "card_order",
+                    PlayerStateEntity::getWonderCards, CardEntity::getId),
+            new JoinTable<>("player_state_pending_effects", "player_state_id", "effect_id", null,
+                    PlayerStateEntity::getPendingEffects, EffectEntity::getId));
+
+    private final Long gameId;
+    private final EntityState game;
+    private final Map<Long, EntityState> players;
+
+    private GameSnapshot(Long gameId, EntityState game, Map<Long, EntityState> players) {
+        this.gameId = gameId;
+        this.game = game;
+        this.players = players;
+    }
+
+    /**
+     * Copy the current state of a session. The caller holds the session lock.
+     */
+    static GameSnapshot capture(GameSession session) {
+        Map<Long, EntityState> players = new LinkedHashMap<>();
+        for (PlayerStateEntity player : session.getPlayers()) {
+            players.put(player.getId(), EntityState.capture(player, PLAYER_ATTRIBUTES, PLAYER_JOIN_TABLES));
+        }
+        return new GameSnapshot(session.getGameId(),
+                EntityState.capture(session.getGame(), GAME_ATTRIBUTES, GAME_JOIN_TABLES), players);
+    }
+
+    /**
+     * Put the session's entities back in this state, in place. The caller holds the session lock.
+     */
+    void restore(GameSession session) {
+        game.restore(session.getGame(), GAME_ATTRIBUTES, GAME_JOIN_TABLES);
+        players.forEach((id, state) -> {
+            PlayerStateEntity player = session.getPlayer(id);
+            if (player != null) {
+                state.restore(player, PLAYER_ATTRIBUTES, PLAYER_JOIN_TABLES);
+            }
+        });
+    }
+
+    /**
+     * Columns and join tables that differ from an earlier snapshot of the same game
+     *
+     * @param saved the last snapshot written, or null to write everything
+     */
+    Changes changesSince(GameSnapshot saved) {
+        Changes changes = new Changes(new ArrayList<>(), new ArrayList<>());
+        game.compare(GAME_ENTITY, gameId, saved != null ? saved.game : null, GAME_ATTRIBUTES, GAME_JOIN_TABLES, changes);
+        players.forEach((id, state) -> state.compare(PLAYER_ENTITY, id, saved != null ? saved.players.get(id) : null,
+                PLAYER_ATTRIBUTES, PLAYER_JOIN_TABLES, changes));
+        return changes;
+    }
+
+    private static Map<Science, Integer> copyScience(Map<Science, Integer> science) {
+        Map<Science, Integer> copy = new EnumMap<>(Science.class);
+        copy.putAll(science);
+        return copy;
+    }
+
+    /**
+     * What to write for one game: column updates by row, then join tables to replace
+     */
+    record Changes(List<RowUpdate> rows, List<JoinTableUpdate> joinTables) {
+        boolean isEmpty() {
+            return rows.isEmpty() && joinTables.isEmpty();
+        }
+    }
+
+    /**
+     * New values of some attributes of one entity, keyed by attribute name
+     */
+    record RowUpdate(String entity, Long id, Map<String, Object> attributes) {
+    }
+
+    /**
+     * New content of one owner's rows in a join table, in list order
+     */
+    record JoinTableUpdate(String table, String ownerColumn, String elementColumn, String orderColumn,
+                           Long ownerId, List<Long> elementIds) {
+    }
+
+    /**
+     * A persistent field, copied on capture and on restore when its value is mutable
+     */
+    private record Attribute<E, V>(String name, Function<E, V> getter, BiConsumer<E, V> setter, UnaryOperator<V> copy) {
+
+        Attribute(String name, Function<E, V> getter, BiConsumer<E, V> setter) {
+            this(name, getter, setter, UnaryOperator.identity());
+        }
+
+        Object capture(E entity) {
+            V value = getter.apply(entity);
+            return value != null ? copy.apply(value) : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        void restore(E entity, Object value) {
+            setter.accept(entity, value != null ? copy.apply((V) value) : null);
+        }
+    }
+
+    /**
+     * A collection mapped to a join table; restored in place so the entity keeps its list
+     */
+    private record JoinTable<E, T>(String table, String ownerColumn, String elementColumn, String orderColumn,
+                                   Function<E, List<T>> getter, Function<T, Long> id) {
+
+        List<?> capture(E entity) {
+            List<T> elements = getter.apply(entity);
+            return elements != null ? Collections.unmodifiableList(new ArrayList<>(elements)) : List.of();
+        }
+
+        @SuppressWarnings("unchecked")
+        void restore(E entity, List<?> saved) {
+            List<T> elements = getter.apply(entity);
+            if (elements != null) {
+                elements.clear();
+                elements.addAll((List<T>) saved);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Long> ids(List<?> elements) {
+            return ((List<T>) elements).stream().map(id).toList();
+        }
+    }
+
+    private record EntityState(Object[] attributes, List<?>[] joinTables) {
+
+        static <E> EntityState capture(E entity, List<Attribute<E, ?>> attributes, List<JoinTable<E, ?>> joinTables) {
+            Object[] values = new Object[attributes.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = attributes.get(i).capture(entity);
+            }
+            List<?>[] elements = new List<?>[joinTables.size()];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = joinTables.get(i).capture(entity);
+            }
+            return new EntityState(values, elements);
+        }
+
+        <E> void restore(E entity, List<Attribute<E, ?>> attributes, List<JoinTable<E, ?>> joinTables) {
+            for (int i = 0; i < this.joinTables.length; i++) {
+                joinTables.get(i).restore(entity, this.joinTables[i]);
+            }
+            for (int i = 0; i < this.attributes.length; i++) {
+                attributes.get(i).restore(entity, this.attributes[i]);
+            }
+        }
+
+        <E> void compare(String entity, Long id, EntityState saved, List<Attribute<E, ?>> attributes,
+                         List<JoinTable<E, ?>> joinTables, Changes changes) {
+            Map<String, Object> changed = new LinkedHashMap<>();
+            for (int i = 0; i < this.attributes.length; i++) {
+                if (saved == null || !Objects.equals(this.attributes[i], saved.attributes[i])) {
+                    changed.put(attributes.get(i).name(), this.attributes[i]);
+                }
+            }
+            if (!changed.isEmpty()) {
+                changes.rows().add(new RowUpdate(entity, id, changed));
+            }
+            for (int i = 0; i < this.joinTables.length; i++) {
+                JoinTable<E, ?> joinTable = joinTables.get(i);
+                List<Long> ids = joinTable.ids(this.joinTables[i]);
+                if (saved == null || !ids.equals(joinTable.ids(saved.joinTables[i]))) {
+                    changes.joinTables().add(new JoinTableUpdate(joinTable.table(), joinTable.ownerColumn(),
+                            joinTable.elementColumn(), joinTable.orderColumn(), id, ids));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.LogEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Sink that keeps the most recent entries in memory.
+ * Meant for tests and local runs where nothing should reach the database or disk.
+ */
+@Component
+public class InMemoryLogSink implements LogSink {
+
+    public static final String NAME = "memory";
+
+    private final int capacity;
+    private final Deque<LogEntry> entries = new ArrayDeque<>();
+
+    public InMemoryLogSink(@Value("${wonders.logging.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void write(List<LogEntry> batch) {
+        for (LogEntry entry : batch) {
+            if (entries.size() == capacity) {
+                entries.removeFirst();
+            }
+            entries.addLast(entry);
+        }
+    }
+
+    /**
+     * Get the retained entries, oldest first
+     */
+    public synchronized List<LogEntry> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
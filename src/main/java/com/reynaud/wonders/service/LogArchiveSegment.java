@@ -0,0 +1,341 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable file holding archived log entries, oldest first.
+ * Entries are grouped in blocks that are deflated independently. A sparse index at the
+ * end of the file records the first timestamp and offset of each block, so a time-range
+ * read only inflates the blocks that can contain matching entries. The file is read
+ * through a read-only memory mapping kept for the lifetime of the segment.
+ *
+ * Layout: MAGIC, blocks, index (one record per block), then a fixed-size footer.
+ */
+public final class LogArchiveSegment {
+
+    static final String SUFFIX = ".seg";
+
+    private static final int MAGIC = 0x574C4F47; // "WLOG"
+    private static final int INDEX_RECORD_BYTES = 8 + 4 + 8 + 4 + 4 + 4;
+    private static final int FOOTER_BYTES = 8 + 4 + 4 + 8 + 4 + 8 + 4 + 4;
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final BlockIndex[] blocks;
+    private final int entryCount;
+    private final LocalDateTime minTimestamp;
+    private final LocalDateTime maxTimestamp;
+
+    private LogArchiveSegment(Path path, MappedByteBuffer buffer, BlockIndex[] blocks, int entryCount,
+                              LocalDateTime minTimestamp, LocalDateTime maxTimestamp) {
+        this.path = path;
+        this.buffer = buffer;
+        this.blocks = blocks;
+        this.entryCount = entryCount;
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+    }
+
+    /**
+     * Write entries to a new segment file. The file is written under a temporary name,
+     * forced to disk and then renamed, so a segment either exists completely or not at all.
+     *
+     * @param target the final path of the segment
+     * @param entries the entries, sorted oldest first, with messages and stack traces already resolved
+     * @param blockEntries the number of entries per compressed block
+     */
+    public static void write(Path target, List<LogEntry> entries, int blockEntries) throws IOException {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Cannot write an empty log segment");
+        }
+        Path partial = target.resolveSibling(target.getFileName() + ".tmp");
+        List<BlockIndex> index = new ArrayList<>();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            long offset = writeFully(channel, ByteBuffer.allocate(4).putInt(MAGIC).flip());
+            for (int from = 0; from < entries.size(); from += blockEntries) {
+                List<LogEntry> block = entries.subList(from, Math.min(from + blockEntries, entries.size()));
+                byte[] raw = encodeBlock(block);
+                byte[] compressed = deflate(deflater, raw);
+                LocalDateTime first = block.get(0).getTimestamp();
+                index.add(new BlockIndex(first, offset, compressed.length, raw.length, block.size()));
+                offset += writeFully(channel, ByteBuffer.wrap(compressed));
+            }
+
+            ByteBuffer tail = ByteBuffer.allocate(index.size() * INDEX_RECORD_BYTES + FOOTER_BYTES);
+            for (BlockIndex block : index) {
+                tail.putLong(block.firstTimestamp.toEpochSecond(ZoneOffset.UTC))
+                        .putInt(block.firstTimestamp.getNano())
+                        .putLong(block.offset)
+                        .putInt(block.length)
+                        .putInt(block.rawLength)
+                        .putInt(block.entryCount);
+            }
+            LocalDateTime min = entries.get(0).getTimestamp();
+            LocalDateTime max = entries.get(entries.size() - 1).getTimestamp();
+            tail.putLong(offset)
+                    .putInt(index.size())
+                    .putInt(entries.size())
+                    .putLong(min.toEpochSecond(ZoneOffset.UTC))
+                    .putInt(min.getNano())
+                    .putLong(max.toEpochSecond(ZoneOffset.UTC))
+                    .putInt(max.getNano())
+                    .putInt(MAGIC);
+            writeFully(channel, tail.flip());
+            channel.force(true);
+        } finally {
+            deflater.end();
+        }
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Map an existing segment and load its index
+     *
+     * @throws IOException if the file cannot be read or is not a complete segment
+     */
+    public static LogArchiveSegment open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < 4 + FOOTER_BYTES || buffer.getInt(0) != MAGIC
+                || buffer.getInt(buffer.capacity() - 4) != MAGIC) {
+            throw new IOException("Not a complete log segment: " + path);
+        }
+
+        int footer = buffer.capacity() - FOOTER_BYTES;
+        long indexOffset = buffer.getLong(footer);
+        int blockCount = buffer.getInt(footer + 8);
+        int entryCount = buffer.getInt(footer + 12);
+        LocalDateTime min = toTimestamp(buffer.getLong(footer + 16), buffer.getInt(footer + 24));
+        LocalDateTime max = toTimestamp(buffer.getLong(footer + 28), buffer.getInt(footer + 36));
+
+        BlockIndex[] blocks = new BlockIndex[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            int record = (int) indexOffset + i * INDEX_RECORD_BYTES;
+            blocks[i] = new BlockIndex(
+                    toTimestamp(buffer.getLong(record), buffer.getInt(record + 8)),
+                    buffer.getLong(record + 12),
+                    buffer.getInt(record + 20),
+                    buffer.getInt(record + 24),
+                    buffer.getInt(record + 28));
+        }
+        return new LogArchiveSegment(path, buffer, blocks, entryCount, min, max);
+    }
+
+    /**
+     * Collect matching entries newest first, starting at an upper time bound.
+     * Blocks starting after the bound are never inflated, and reading stops at the
+     * lower bound or once enough entries were found.
+     *
+     * @param upperBound entries after this time are skipped, or null for no bound
+     * @param lowerBound reading stops at entries at or before this time, or null for no bound
+     * @param filter the criteria an entry must match
+     * @param limit the maximum number of entries to collect
+     */
+    public List<LogEntry> readNewestFirst(LocalDateTime upperBound, LocalDateTime lowerBound,
+                                          Predicate<LogEntry> filter, int limit) {
+        List<LogEntry> found = new ArrayList<>();
+        for (int block = lastBlockStartingBefore(upperBound); block >= 0 && found.size() < limit; block--) {
+            List<LogEntry> entries = readBlock(block);
+            for (int i = entries.size() - 1; i >= 0 && found.size() < limit; i--) {
+                LogEntry entry = entries.get(i);
+                if (lowerBound != null && !entry.getTimestamp().isAfter(lowerBound)) {
+                    return found;
+                }
+                if ((upperBound == null || !entry.getTimestamp().isAfter(upperBound)) && filter.test(entry)) {
+                    found.add(entry);
+                }
+            }
+        }
+        return found;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public LocalDateTime getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public LocalDateTime getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    /**
+     * Index of the last block starting at or before the bound, by binary search
+     */
+    private int lastBlockStartingBefore(LocalDateTime bound) {
+        if (bound == null) {
+            return blocks.length - 1;
+        }
+        int low = 0;
+        int high = blocks.length - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (!blocks[mid].firstTimestamp.isAfter(bound)) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private List<LogEntry> readBlock(int block) {
+        BlockIndex index = blocks[block];
+        byte[] raw = new byte[index.rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice((int) index.offset, index.length));
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block " + block + " in log segment " + path, e);
+        } finally {
+            inflater.end();
+        }
+        try {
+            return decodeBlock(raw, index.entryCount);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt block " + block + " in log segment " + path, e);
+        }
+    }
+
+    private static byte[] encodeBlock(List<LogEntry> block) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(block.size() * 128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (LogEntry entry : block) {
+            out.writeLong(entry.getId());
+            out.writeLong(entry.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(entry.getTimestamp().getNano());
+            out.writeByte(entry.getLogLevel().ordinal());
+            out.writeBoolean(Boolean.TRUE.equals(entry.getReadByAdmin()));
+            writeString(out, entry.getSource());
+            writeString(out, entry.getMessage());
+            writeString(out, entry.getStackTrace());
+            writeString(out, entry.getStackFingerprint());
+            writeLong(out, entry.getGameId());
+            writeLong(out, entry.getPlayerStateId());
+            writeLong(out, entry.getUserId());
+            writeString(out, entry.getAction());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static List<LogEntry> decodeBlock(byte[] raw, int entryCount) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        List<LogEntry> entries = new ArrayList<>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+            LogEntry entry = new LogEntry();
+            entry.setId(in.readLong());
+            entry.setTimestamp(toTimestamp(in.readLong(), in.readInt()));
+            entry.setLogLevel(LEVELS[in.readByte()]);
+            entry.setReadByAdmin(in.readBoolean());
+            entry.setSource(readString(in));
+            entry.setMessage(readString(in));
+            entry.setStackTrace(readString(in));
+            entry.setStackFingerprint(readString(in));
+            entry.setGameId(readLong(in));
+            entry.setPlayerStateId(readLong(in));
+            entry.setUserId(readLong(in));
+            entry.setAction(readString(in));
+            entries.add(entry);
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer data) throws IOException {
+        long written = 0;
+        while (data.hasRemaining()) {
+            written += channel.write(data);
+        }
+        return written;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static LocalDateTime toTimestamp(long epochSecond, int nano) {
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private record BlockIndex(LocalDateTime firstTimestamp, long offset, int length, int rawLength, int entryCount) {
+    }
+}
@@ -0,0 +1,299 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.config.LogPersistenceConfig;
+import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.dao.LogSpecifications;
+import com.reynaud.wonders.dto.LogCursor;
+import com.reynaud.wonders.dto.LogFilter;
+import com.reynaud.wonders.entity.LogEntry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves old logs out of the logs table into compressed segment files, and searches them.
+ * Each archiving run copies entries older than the configured age into new segments,
+ * then deletes them from the table. Messages and stack traces are resolved first, so a
+ * segment does not depend on templates or stored traces that may be purged later.
+ * Archived entries are read-only: they keep their read flag and never show as unread.
+ */
+@Service
+public class LogArchiveService {
+
+    private static final String SEGMENT_PREFIX = "logs-";
+    private static final DateTimeFormatter SEGMENT_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final LogDAO logDAO;
+    private final LogTemplateService templateService;
+    private final LogStackTraceService stackTraceService;
+    private final LogStatistics statistics;
+    private final LogSearchService searchService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final Path directory;
+    private final int afterDays;
+    private final int keepDays;
+    private final int blockEntries;
+    private final int segmentEntries;
+    // Sorted by newest entry, newest segment first; replaced as a whole so readers never see a partial list
+    private volatile List<LogArchiveSegment> segments = List.of();
+
+    public LogArchiveService(LogDAO logDAO, LogTemplateService templateService, LogStackTraceService stackTraceService,
+                             LogStatistics statistics, LogSearchService searchService,
+                             @Qualifier(LogPersistenceConfig.LOGS) PlatformTransactionManager transactionManager,
+                             @Value("${wonders.logging.archive.directory:./data/archive}") String directory,
+                             @Value("${wonders.logging.archive.after-days:3}") int afterDays,
+                             @Value("${wonders.logging.archive.keep-days:180}") int keepDays,
+                             @Value("${wonders.logging.archive.block-entries:256}") int blockEntries,
+                             @Value("${wonders.logging.archive.segment-entries:20000}") int segmentEntries) {
+        this.logDAO = logDAO;
+        this.templateService = templateService;
+        this.stackTraceService = stackTraceService;
+        this.statistics = statistics;
+        this.searchService = searchService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.directory = Paths.get(directory);
+        this.afterDays = afterDays;
+        this.keepDays = keepDays;
+        this.blockEntries = blockEntries;
+        this.segmentEntries = segmentEntries;
+    }
+
+    /**
+     * Map the segments written by previous runs
+     */
+    @PostConstruct
+    public synchronized void loadSegments() {
+        segments = List.of();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<LogArchiveSegment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + LogArchiveSegment.SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    loaded.add(LogArchiveSegment.open(file));
+                } catch (IOException e) {
+                    System.err.println("Skipping unreadable log segment " + file + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list log segments in " + directory, e);
+        }
+        addSegments(loaded);
+    }
+
+    /**
+     * Move every log older than the archive age into new segments
+     *
+     * @return the number of logs archived
+     */
+    public long archive() {
+        if (afterDays <= 0) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        long archived = 0;
+        List<LogEntry> batch;
+        do {
+            batch = readOnlyTemplate.execute(status ->
+                    logDAO.findByTimestampBeforeOrderByTimestampAscIdAsc(cutoff, Limit.of(segmentEntries)));
+            if (!batch.isEmpty()) {
+                resolveText(batch);
+                LogArchiveSegment segment = writeSegment(batch);
+                deleteArchived(batch);
+                addSegments(List.of(segment));
+                archived += batch.size();
+            }
+        } while (batch.size() == segmentEntries);
+
+        if (archived > 0) {
+            statistics.reconcile();
+        }
+        return archived;
+    }
+
+    /**
+     * Delete whole segments whose newest entry is older than the archive retention
+     *
+     * @return the number of segments deleted
+     */
+    public synchronized int purgeSegments() {
+        if (keepDays <= 0) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(keepDays);
+        List<LogArchiveSegment> expired = segments.stream()
+                .filter(segment -> segment.getMaxTimestamp().isBefore(cutoff))
+                .toList();
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        segments = segments.stream().filter(segment -> !expired.contains(segment)).toList();
+
+        int deleted = 0;
+        for (LogArchiveSegment segment : expired) {
+            try {
+                // Readers still holding the mapping keep working; the space is freed once they are done
+                Files.deleteIfExists(segment.getPath());
+                deleted++;
+            } catch (IOException e) {
+                System.err.println("Failed to delete log segment " + segment.getPath() + ": " + e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Find archived logs matching the filter, newest first, continuing after the cursor
+     *
+     * @param limit the maximum number of entries to return
+     */
+    public List<LogEntry> find(LogFilter filter, LogCursor cursor, int limit) {
+        List<LogArchiveSegment> candidates = segments;
+        if (candidates.isEmpty() || (filter != null && Boolean.FALSE.equals(filter.getReadByAdmin()))) {
+            return List.of();
+        }
+        LocalDateTime upperBound = cursor != null ? cursor.getTimestamp() : null;
+        if (filter != null && filter.getUntil() != null && (upperBound == null || filter.getUntil().isBefore(upperBound))) {
+            upperBound = filter.getUntil();
+        }
+        LocalDateTime lowerBound = filter != null ? filter.getSince() : null;
+
+        List<LogEntry> found = new ArrayList<>();
+        for (LogArchiveSegment segment : candidates) {
+            if (found.size() >= limit && segment.getMaxTimestamp().isBefore(found.get(limit - 1).getTimestamp())) {
+                // Every remaining segment is older than what was already found
+                break;
+            }
+            if ((upperBound != null && segment.getMinTimestamp().isAfter(upperBound))
+                    || (lowerBound != null && !segment.getMaxTimestamp().isAfter(lowerBound))) {
+                continue;
+            }
+            found = merge(found, segment.readNewestFirst(upperBound, lowerBound,
+                    entry -> LogSpecifications.test(filter, cursor, entry), limit), limit);
+        }
+        return found;
+    }
+
+    /**
+     * Merge two lists of entries into one, newest first, dropping entries seen twice.
+     * An entry can be both in the table and in a segment if a run failed after writing its segment.
+     */
+    public static List<LogEntry> merge(List<LogEntry> first, List<LogEntry> second, int limit) {
+        List<LogEntry> all = new ArrayList<>(first.size() + second.size());
+        all.addAll(first);
+        all.addAll(second);
+        all.sort(LogSpecifications.KEYSET_ORDER);
+        Set<Long> seen = new HashSet<>();
+        List<LogEntry> merged = new ArrayList<>(Math.min(limit, all.size()));
+        for (LogEntry entry : all) {
+            if (merged.size() == limit) {
+                break;
+            }
+            if (seen.add(entry.getId())) {
+                merged.add(entry);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Whether a page of hot rows may have to be completed with archived entries
+     *
+     * @param filter the criteria of the page
+     * @param oldestNeeded the oldest hot row of a full page, or null when the hot rows ran out
+     */
+    public boolean mayContain(LogFilter filter, LogEntry oldestNeeded) {
+        LocalDateTime newest = getNewestTimestamp();
+        if (newest == null || (filter != null && Boolean.FALSE.equals(filter.getReadByAdmin()))) {
+            return false;
+        }
+        if (filter != null && filter.getSince() != null && !newest.isAfter(filter.getSince())) {
+            return false;
+        }
+        return oldestNeeded == null || !oldestNeeded.getTimestamp().isAfter(newest);
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public long getArchivedEntryCount() {
+        return segments.stream().mapToLong(LogArchiveSegment::getEntryCount).sum();
+    }
+
+    /**
+     * Timestamp of the newest archived entry, or null when nothing is archived
+     */
+    public LocalDateTime getNewestTimestamp() {
+        List<LogArchiveSegment> current = segments;
+        return current.isEmpty() ? null : current.get(0).getMaxTimestamp();
+    }
+
+    /**
+     * Render messages and attach stack traces on the detached entries
+     */
+    private void resolveText(List<LogEntry> entries) {
+        for (LogEntry entry : entries) {
+            entry.setMessage(templateService.render(entry));
+            entry.setStackTrace(stackTraceService.resolveStackTrace(entry));
+        }
+    }
+
+    private LogArchiveSegment writeSegment(List<LogEntry> batch) {
+        LogEntry first = batch.get(0);
+        LogEntry last = batch.get(batch.size() - 1);
+        // The id range keeps names unique even when two segments cover the same seconds
+        String name = SEGMENT_PREFIX + first.getTimestamp().format(SEGMENT_TIME) + "-" + last.getTimestamp().format(SEGMENT_TIME)
+                + "-" + first.getId() + "-" + last.getId() + LogArchiveSegment.SUFFIX;
+        Path target = directory.resolve(name);
+        try {
+            Files.createDirectories(directory);
+            LogArchiveSegment.write(target, batch, blockEntries);
+            return LogArchiveSegment.open(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write log segment " + target, e);
+        }
+    }
+
+    /**
+     * Remove archived entries from the table, once their segment is safely on disk.
+     * If this fails, the entries are archived again by the next run; readers ignore the duplicates.
+     */
+    private void deleteArchived(List<LogEntry> batch) {
+        List<Long> ids = batch.stream().map(LogEntry::getId).toList();
+        for (int from = 0; from < ids.size(); from += LoggingService.BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LoggingService.BULK_CHUNK_SIZE, ids.size()));
+            transactionTemplate.execute(status -> logDAO.deleteByIds(chunk));
+            searchService.remove(chunk);
+        }
+    }
+
+    private synchronized void addSegments(List<LogArchiveSegment> added) {
+        List<LogArchiveSegment> all = new ArrayList<>(segments);
+        all.addAll(added);
+        all.sort(Comparator.comparing(LogArchiveSegment::getMaxTimestamp).reversed());
+        segments = List.copyOf(all);
+    }
+}
@@ -0,0 +1,112 @@
+package com.reynaud.wonders.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reynaud.wonders.config.LogPersistenceConfig;
+import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams logs out of the table as gzipped newline-delimited JSON, oldest first.
+ * Rows are read through a forward-only database cursor and written straight to the
+ * caller's stream; each row is detached once written, so memory stays flat whatever
+ * the range. A slow reader simply slows the cursor down. Archived segments are not exported.
+ */
+@Service
+public class LogExportService {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final LogDAO logDAO;
+    private final LogTemplateService templateService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTemplate;
+
+    public LogExportService(LogDAO logDAO, LogTemplateService templateService,
+                            @Qualifier(LogPersistenceConfig.LOGS) EntityManagerFactory entityManagerFactory,
+                            @Qualifier(LogPersistenceConfig.LOGS) PlatformTransactionManager transactionManager) {
+        this.logDAO = logDAO;
+        this.templateService = templateService;
+        this.entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Write every log of the given levels in [since, until) to the output, gzipped.
+     * The output is finished but not closed.
+     *
+     * @param levels the levels to export, or null/empty for all
+     * @return the number of logs written
+     * @throws UncheckedIOException if the output fails, e.g. because the client went away
+     */
+    public long export(LocalDateTime since, LocalDateTime until, Collection<LogLevel> levels, OutputStream output) {
+        LocalDateTime from = since != null ? since : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime to = until != null ? until : LocalDateTime.now().plusYears(1);
+        Collection<LogLevel> exported = levels == null || levels.isEmpty() ? Arrays.asList(LogLevel.values()) : levels;
+
+        return readOnlyTemplate.execute(status -> {
+            try (Stream<LogEntry> rows = logDAO.streamForExport(from, to, exported)) {
+                GZIPOutputStream gzip = new GZIPOutputStream(output, BUFFER_SIZE);
+                OutputStream lines = new BufferedOutputStream(gzip, BUFFER_SIZE);
+                long written = 0;
+                for (Iterator<LogEntry> it = rows.iterator(); it.hasNext(); ) {
+                    LogEntry entry = it.next();
+                    lines.write(OBJECT_MAPPER.writeValueAsBytes(toRecord(entry)));
+                    lines.write('\n');
+                    entityManager.detach(entry);
+                    written++;
+                }
+                lines.flush();
+                gzip.finish();
+                return written;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Log export interrupted", e);
+            }
+        });
+    }
+
+    private Map<String, Object> toRecord(LogEntry entry) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", entry.getId());
+        record.put("timestamp", entry.getTimestamp().toString());
+        record.put("level", entry.getLogLevel().name());
+        record.put("source", entry.getSource());
+        record.put("message", templateService.render(entry));
+        record.put("readByAdmin", entry.getReadByAdmin());
+        putIfPresent(record, "gameId", entry.getGameId());
+        putIfPresent(record, "playerStateId", entry.getPlayerStateId());
+        putIfPresent(record, "userId", entry.getUserId());
+        putIfPresent(record, "action", entry.getAction());
+        putIfPresent(record, "stackFingerprint", entry.getStackFingerprint());
+        putIfPresent(record, "stackTrace", entry.getStackTrace());
+        return record;
+    }
+
+    private static void putIfPresent(Map<String, Object> record, String key, Object value) {
+        if (value != null) {
+            record.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.model.LogLevel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Deletes old logs according to a per-level retention policy, then moves what is left
+ * past the archive age into compressed segments (see {@link LogArchiveService}).
+ * Levels kept for less than the archive age are therefore never archived.
+ * Runs on the configured cron schedule and can also be triggered by an admin.
+ * A retention of 0 days or less keeps that level forever.
+ */
+@Service
+public class LogRetentionService {
+
+    private static final String SOURCE = "LogRetentionService";
+
+    private final LoggingService loggingService;
+    private final LogStackTraceService stackTraceService;
+    private final LogArchiveService archiveService;
+    private final Map<LogLevel, Integer> retentionDays = new EnumMap<>(LogLevel.class);
+
+    public LogRetentionService(LoggingService loggingService, LogStackTraceService stackTraceService,
+                               LogArchiveService archiveService,
+                               @Value("${wonders.logging.retention.debug-days:1}") int debugDays,
+                               @Value("${wonders.logging.retention.info-days:7}") int infoDays,
+                               @Value("${wonders.logging.retention.warning-days:30}") int warningDays,
+                               @Value("${wonders.logging.retention.error-days:90}") int errorDays,
+                               @Value("${wonders.logging.retention.critical-days:90}") int criticalDays) {
+        this.loggingService = loggingService;
+        this.stackTraceService = stackTraceService;
+        this.archiveService = archiveService;
+        retentionDays.put(LogLevel.DEBUG, debugDays);
+        retentionDays.put(LogLevel.INFO, infoDays);
+        retentionDays.put(LogLevel.WARNING, warningDays);
+        retentionDays.put(LogLevel.ERROR, errorDays);
+        retentionDays.put(LogLevel.CRITICAL, criticalDays);
+    }
+
+    /**
+     * Get the number of days each level is kept
+     */
+    public Map<LogLevel, Integer> getRetentionDays() {
+        return Collections.unmodifiableMap(retentionDays);
+    }
+
+    /**
+     * Apply the retention policy now
+     *
+     * @return the number of logs deleted per level
+     */
+    @Scheduled(cron = "${wonders.logging.retention.cron:0 30 3 * * *}")
+    public Map<LogLevel, Long> applyRetention() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<LogLevel, Long> deleted = new EnumMap<>(LogLevel.class);
+        long total = 0;
+
+        for (Map.Entry<LogLevel, Integer> policy : retentionDays.entrySet()) {
+            if (policy.getValue() <= 0) {
+                continue;
+            }
+            long count = loggingService.purgeLogs(policy.getKey(), now.minusDays(policy.getValue()));
+            deleted.put(policy.getKey(), count);
+            total += count;
+        }
+
+        // A stored trace is dropped once no level could still hold a log referencing it
+        int longestRetention = retentionDays.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        boolean anyKeptForever = retentionDays.values().stream().anyMatch(days -> days <= 0);
+        int tracesDeleted = anyKeptForever ? 0 : stackTraceService.purgeStackTraces(now.minusDays(longestRetention));
+
+        long archived = archiveService.archive();
+        int segmentsDeleted = archiveService.purgeSegments();
+
+        if (total > 0 || tracesDeleted > 0) {
+            loggingService.info("Retention removed {} logs {} and {} stack traces", SOURCE, total, deleted, tracesDeleted);
+        }
+        if (archived > 0 || segmentsDeleted > 0) {
+            loggingService.info("Retention archived {} logs and deleted {} expired archive segments", SOURCE, archived, segmentsDeleted);
+        }
+        return deleted;
+    }
+}
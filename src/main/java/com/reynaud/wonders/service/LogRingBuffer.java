@@ -0,0 +1,101 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.LogEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free buffer of the most recent log entries.
+ * Writers claim a sequence number and overwrite the oldest slot; readers poll
+ * with the last sequence they saw and never block writers. A reader that falls
+ * more than a full buffer behind simply misses the overwritten entries.
+ */
+@Component
+public class LogRingBuffer {
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public LogRingBuffer(@Value("${wonders.logging.stream.buffer-size:4096}") int requestedCapacity) {
+        // Round up to a power of two so the slot index is a mask instead of a modulo
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Add an entry, overwriting the oldest one once the buffer is full
+     *
+     * @return the sequence number assigned to the entry
+     */
+    public long publish(LogEntry entry) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set((int) (sequence & mask), new Slot(sequence, entry));
+        return sequence;
+    }
+
+    /**
+     * Sequence of the most recently claimed slot, or -1 when nothing was published
+     */
+    public long getLastSequence() {
+        return nextSequence.get() - 1;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Read entries published after the given sequence, oldest first.
+     * Stops at a slot that has been claimed but not yet written, so the caller
+     * can resume from the last returned sequence without skipping anything.
+     *
+     * @param afterSequence the last sequence already seen, -1 to read from the oldest retained entry
+     * @param max the maximum number of entries to return
+     */
+    public List<Slot> readAfter(long afterSequence, int max) {
+        long end = nextSequence.get();
+        long start = Math.max(afterSequence + 1, end - capacity);
+        List<Slot> result = new ArrayList<>((int) Math.min(max, Math.max(0, end - start)));
+
+        for (long sequence = start; sequence < end && result.size() < max; sequence++) {
+            Slot slot = slots.get((int) (sequence & mask));
+            if (slot == null || slot.getSequence() < sequence) {
+                break;
+            }
+            if (slot.getSequence() == sequence) {
+                result.add(slot);
+            }
+            // A higher sequence means the slot was already overwritten: skip it
+        }
+        return result;
+    }
+
+    /**
+     * A buffered entry together with its sequence number
+     */
+    public static final class Slot {
+        private final long sequence;
+        private final LogEntry entry;
+
+        Slot(long sequence, LogEntry entry) {
+            this.sequence = sequence;
+            this.entry = entry;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public LogEntry getEntry() {
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.config.LogPersistenceConfig;
+import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.dto.LogCursor;
+import com.reynaud.wonders.entity.LogEntry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the rendered text of stored logs.
+ * Each token maps to the sorted ids of the logs containing it; batches are added
+ * as soon as the database sink commits them, and the whole index is rebuilt at startup.
+ * Queries are words, all required, and "quoted phrases" that must appear as written.
+ * Deleted ids are removed chunk by chunk as purges and archiving delete them;
+ * lookups also skip any id no longer stored. Archived segments are not indexed.
+ */
+@Service
+public class LogSearchService {
+
+    static final int MIN_TOKEN_LENGTH = 2;
+    static final int MAX_TOKEN_LENGTH = 64;
+
+    private static final String REBUILD_SQL = "SELECT id, message, template_id, arguments FROM logs ORDER BY id";
+    private static final Sort ID_ORDER = Sort.by(Sort.Direction.DESC, "id");
+
+    private final LogDAO logDAO;
+    private final LogTemplateService templateService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<String, Postings> index = new HashMap<>();
+
+    public LogSearchService(LogDAO logDAO, LogTemplateService templateService,
+                            @Qualifier(LogPersistenceConfig.LOGS) JdbcTemplate jdbcTemplate) {
+        this.logDAO = logDAO;
+        this.templateService = templateService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Index every stored log, streaming the table in id order
+     */
+    @PostConstruct
+    public void rebuild() {
+        Map<String, Postings> rebuilt = new HashMap<>();
+        jdbcTemplate.query(REBUILD_SQL, (RowCallbackHandler) resultSet -> {
+            LogEntry entry = new LogEntry();
+            entry.setMessage(resultSet.getString("message"));
+            long templateId = resultSet.getLong("template_id");
+            entry.setTemplateId(resultSet.wasNull() ? null : templateId);
+            entry.setArguments(resultSet.getString("arguments"));
+            addTokens(rebuilt, resultSet.getLong("id"), templateService.render(entry));
+        });
+
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            index.putAll(rebuilt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add committed entries to the index. Entries without an id are skipped.
+     */
+    public void index(List<LogEntry> entries) {
+        Map<Long, String> texts = new HashMap<>();
+        for (LogEntry entry : entries) {
+            if (entry.getId() != null) {
+                texts.put(entry.getId(), templateService.render(entry));
+            }
+        }
+        if (texts.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            texts.forEach((id, text) -> addTokens(index, id, text));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find logs containing every word and phrase of the query, newest id first
+     *
+     * @param query words and "quoted phrases", matched case-insensitively
+     * @param cursor only logs with a lower id than the cursor are returned, may be null
+     * @param size the requested page size, capped at {@link LoggingService#MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException if the query has no searchable word
+     */
+    public Slice<LogEntry> search(String query, LogCursor cursor, int size) {
+        int limit = size <= 0 ? LoggingService.DEFAULT_PAGE_SIZE : Math.min(size, LoggingService.MAX_PAGE_SIZE);
+        List<String> phrases = parsePhrases(query);
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query has no searchable words: " + query);
+        }
+
+        List<LogEntry> rows = new ArrayList<>(limit + 1);
+        long below = cursor != null && cursor.getId() != null ? cursor.getId() : Long.MAX_VALUE;
+        while (rows.size() <= limit) {
+            long[] candidates = intersect(terms, below, limit + 1 - rows.size());
+            if (candidates.length == 0) {
+                break;
+            }
+            // Deleted logs are simply not found; phrases are checked on the rendered text
+            Map<Long, LogEntry> loaded = logDAO.findAllById(Arrays.stream(candidates).boxed().toList()).stream()
+                    .collect(Collectors.toMap(LogEntry::getId, Function.identity()));
+            for (long id : candidates) {
+                LogEntry entry = loaded.get(id);
+                if (entry != null && containsPhrases(templateService.render(entry), phrases)) {
+                    rows.add(entry);
+                }
+            }
+            below = candidates[candidates.length - 1];
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<LogEntry> content = hasNext ? rows.subList(0, limit) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, limit, ID_ORDER), hasNext);
+    }
+
+    /**
+     * Remove deleted logs from the index
+     */
+    public void remove(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        long[] removed = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+        lock.writeLock().lock();
+        try {
+            index.values().forEach(postings -> postings.removeAll(removed));
+            index.values().removeIf(postings -> postings.size == 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getTokenCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split text into lowercase words made of letters, digits and underscores.
+     * Single characters are dropped and long words are cut, so the index stays small.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && isWordChar(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Get the quoted parts of a query, lowercased. An unclosed quote runs to the end.
+     */
+    static List<String> parsePhrases(String query) {
+        List<String> phrases = new ArrayList<>();
+        if (query == null) {
+            return phrases;
+        }
+        int open = query.indexOf('"');
+        while (open >= 0) {
+            int close = query.indexOf('"', open + 1);
+            String phrase = query.substring(open + 1, close < 0 ? query.length() : close).trim();
+            if (!phrase.isEmpty()) {
+                phrases.add(phrase.toLowerCase(Locale.ROOT));
+            }
+            open = close < 0 ? -1 : query.indexOf('"', close + 1);
+        }
+        return phrases;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean containsPhrases(String text, List<String> phrases) {
+        if (phrases.isEmpty()) {
+            return true;
+        }
+        if (text == null) {
+            return false;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        return phrases.stream().allMatch(lower::contains);
+    }
+
+    private static void addTokens(Map<String, Postings> target, long id, String text) {
+        for (String token : new LinkedHashSet<>(tokenize(text))) {
+            target.computeIfAbsent(token, key -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Ids below the bound present in every term's postings, highest first.
+     * Walks the shortest list and probes the others by binary search.
+     */
+    private long[] intersect(Set<String> terms, long below, int max) {
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings postings = index.get(term);
+                if (postings == null) {
+                    return new long[0];
+                }
+                lists.add(postings);
+            }
+            lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+            Postings driver = lists.get(0);
+            long[] found = new long[Math.min(max, driver.size)];
+            int count = 0;
+            for (int i = driver.indexBelow(below); i >= 0 && count < found.length; i--) {
+                long id = driver.ids[i];
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++) {
+                    inAll = lists.get(j).contains(id);
+                }
+                if (inAll) {
+                    found[count++] = id;
+                }
+            }
+            return Arrays.copyOf(found, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sorted, growable list of log ids. Ids mostly arrive in increasing order, so adding is an append.
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        /**
+         * Index of the highest id strictly below the bound, or -1
+         */
+        int indexBelow(long bound) {
+            int position = Arrays.binarySearch(ids, 0, size, bound);
+            return (position >= 0 ? position : -position - 1) - 1;
+        }
+
+        /**
+         * Remove every id found in the sorted array, keeping the rest in order
+         */
+        void removeAll(long[] removed) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (Arrays.binarySearch(removed, ids[i]) < 0) {
+                    ids[kept++] = ids[i];
+                }
+            }
+            size = kept;
+        }
+
+        private void insertAt(int position, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.LogEntry;
+
+import java.util.List;
+
+/**
+ * Destination for persisted log entries.
+ * The log writer hands each batch to the sinks configured for each level
+ * (see {@link LogSinkRouter}), always from its own background thread.
+ */
+public interface LogSink {
+
+    /**
+     * Name used to select this sink in wonders.logging.sink.* properties
+     */
+    String getName();
+
+    /**
+     * Persist a batch of entries. Failures are reported by the sink and never thrown back to callers.
+     */
+    void write(List<LogEntry> entries);
+
+    /**
+     * Force buffered entries to durable storage
+     */
+    default void flush() {
+    }
+}
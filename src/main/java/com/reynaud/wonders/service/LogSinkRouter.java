@@ -0,0 +1,99 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends each log entry to the sinks configured for its level.
+ * Each level takes a comma-separated list of sink names; an empty list discards the level.
+ * A failing sink never prevents the others from receiving the batch.
+ */
+@Component
+public class LogSinkRouter {
+
+    private final Map<LogLevel, List<LogSink>> sinksByLevel = new EnumMap<>(LogLevel.class);
+    private final List<LogSink> allSinks;
+
+    public LogSinkRouter(List<LogSink> sinks,
+                         @Value("${wonders.logging.sink.debug:database}") String debugSinks,
+                         @Value("${wonders.logging.sink.info:database}") String infoSinks,
+                         @Value("${wonders.logging.sink.warning:database}") String warningSinks,
+                         @Value("${wonders.logging.sink.error:database}") String errorSinks,
+                         @Value("${wonders.logging.sink.critical:database}") String criticalSinks) {
+        this.allSinks = List.copyOf(sinks);
+        Map<String, LogSink> sinksByName = sinks.stream()
+                .collect(Collectors.toMap(LogSink::getName, Function.identity()));
+        sinksByLevel.put(LogLevel.DEBUG, resolve(LogLevel.DEBUG, debugSinks, sinksByName));
+        sinksByLevel.put(LogLevel.INFO, resolve(LogLevel.INFO, infoSinks, sinksByName));
+        sinksByLevel.put(LogLevel.WARNING, resolve(LogLevel.WARNING, warningSinks, sinksByName));
+        sinksByLevel.put(LogLevel.ERROR, resolve(LogLevel.ERROR, errorSinks, sinksByName));
+        sinksByLevel.put(LogLevel.CRITICAL, resolve(LogLevel.CRITICAL, criticalSinks, sinksByName));
+    }
+
+    /**
+     * Split a batch per sink, keeping the order of entries, and hand each sink its part
+     */
+    public void write(List<LogEntry> batch) {
+        Map<LogSink, List<LogEntry>> batchesBySink = new LinkedHashMap<>();
+        for (LogEntry entry : batch) {
+            for (LogSink sink : sinksByLevel.get(entry.getLogLevel())) {
+                batchesBySink.computeIfAbsent(sink, key -> new ArrayList<>(batch.size())).add(entry);
+            }
+        }
+        batchesBySink.forEach((sink, entries) -> {
+            try {
+                sink.write(entries);
+            } catch (RuntimeException e) {
+                System.err.println("Log sink '" + sink.getName() + "' failed on " + entries.size() + " entries: " + e.getMessage());
+            }
+        });
+    }
+
+    public void flush() {
+        for (LogSink sink : allSinks) {
+            try {
+                sink.flush();
+            } catch (RuntimeException e) {
+                System.err.println("Log sink '" + sink.getName() + "' failed to flush: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the names of the sinks used for each level
+     */
+    public Map<LogLevel, List<String>> getRouting() {
+        Map<LogLevel, List<String>> routing = new LinkedHashMap<>();
+        sinksByLevel.forEach((level, sinks) -> routing.put(level, sinks.stream().map(LogSink::getName).toList()));
+        return routing;
+    }
+
+    private static List<LogSink> resolve(LogLevel level, String names, Map<String, LogSink> sinksByName) {
+        List<LogSink> resolved = new ArrayList<>();
+        for (String name : names.split(",")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            LogSink sink = sinksByName.get(name.trim());
+            if (sink == null) {
+                throw new IllegalArgumentException("Unknown log sink '" + name.trim() + "' for " + level
+                        + ", available: " + sinksByName.keySet());
+            }
+            if (!resolved.contains(sink)) {
+                resolved.add(sink);
+            }
+        }
+        return Collections.unmodifiableList(resolved);
+    }
+}
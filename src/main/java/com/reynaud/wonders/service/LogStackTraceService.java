@@ -0,0 +1,238 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.config.LogPersistenceConfig;
+import com.reynaud.wonders.dao.LogStackTraceDAO;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.entity.LogStackTrace;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fingerprints stack traces and stores each distinct trace once.
+ * The fingerprint is a SHA-256 of the exception classes and frames (class and method,
+ * without line numbers or messages) along the cause chain, so the same failure
+ * repeated in a loop maps to a single row with a running count.
+ */
+@Service
+public class LogStackTraceService {
+
+    private static final int MAX_CAUSE_DEPTH = 16;
+    private static final int MAX_CACHED_TRACES = 1000;
+    private static final String MISSING_TRACE = "%s%n\t(stack trace not captured: the stored trace was deleted "
+            + "before these occurrences were written)";
+
+    private static final String UPDATE_SQL = "UPDATE log_stack_traces SET occurrence_count = occurrence_count + ?, "
+            + "last_seen = CASE WHEN last_seen < ? THEN ? ELSE last_seen END WHERE fingerprint = ?";
+    private static final String UPDATE_WITH_TRACE_SQL = "UPDATE log_stack_traces SET occurrence_count = occurrence_count + ?, "
+            + "last_seen = CASE WHEN last_seen < ? THEN ? ELSE last_seen END, exception_class = ?, stack_trace = ? "
+            + "WHERE fingerprint = ?";
+    private static final String INSERT_SQL = "INSERT INTO log_stack_traces "
+            + "(fingerprint, exception_class, stack_trace, first_seen, last_seen, occurrence_count) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final LogStackTraceDAO stackTraceDAO;
+    private final JdbcTemplate jdbcTemplate;
+    // Fingerprints already stored: callers skip rendering those traces
+    private final Set<String> knownFingerprints = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> cachedTraces = new ConcurrentHashMap<>();
+
+    public LogStackTraceService(LogStackTraceDAO stackTraceDAO, @Qualifier(LogPersistenceConfig.LOGS) JdbcTemplate jdbcTemplate) {
+        this.stackTraceDAO = stackTraceDAO;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void loadFingerprints() {
+        knownFingerprints.clear();
+        knownFingerprints.addAll(stackTraceDAO.findAllFingerprints());
+    }
+
+    /**
+     * Compute the fingerprint of a throwable and its causes
+     */
+    public static String fingerprint(Throwable throwable) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Throwable current = throwable;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH && seen.add(current); depth++) {
+            digest.update(current.getClass().getName().getBytes(StandardCharsets.UTF_8));
+            for (StackTraceElement frame : current.getStackTrace()) {
+                digest.update((byte) '|');
+                digest.update(frame.getClassName().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '.');
+                digest.update(frame.getMethodName().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            current = current.getCause();
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Attach a throwable to an entry: always by fingerprint, and with the
+     * rendered trace only if that fingerprint has not been stored yet
+     */
+    public void attach(LogEntry entry, Throwable throwable) {
+        String fingerprint = fingerprint(throwable);
+        entry.setStackFingerprint(fingerprint);
+        entry.setExceptionClass(throwable.getClass().getName());
+        if (!knownFingerprints.contains(fingerprint)) {
+            StringWriter sw = new StringWriter();
+            throwable.printStackTrace(new PrintWriter(sw));
+            entry.setStackTrace(sw.toString());
+        }
+    }
+
+    /**
+     * Insert new traces and bump the counts of known ones for a batch of entries.
+     * Runs inside the log writer's batch transaction.
+     * If the row of a fingerprint was deleted while entries without its text were queued,
+     * a placeholder row keeps their count and exception class; the next occurrence, rendered
+     * again since the fingerprint is no longer known, fills in the text.
+     */
+    public void recordOccurrences(List<LogEntry> entries) {
+        Map<String, Occurrences> byFingerprint = new LinkedHashMap<>();
+        for (LogEntry entry : entries) {
+            if (entry.getStackFingerprint() != null) {
+                byFingerprint.computeIfAbsent(entry.getStackFingerprint(), fp -> new Occurrences()).add(entry);
+            }
+        }
+
+        for (Map.Entry<String, Occurrences> group : byFingerprint.entrySet()) {
+            String fingerprint = group.getKey();
+            Occurrences occurrences = group.getValue();
+            Timestamp lastSeen = Timestamp.valueOf(occurrences.lastSeen);
+            int updated = occurrences.stackTrace != null
+                    ? jdbcTemplate.update(UPDATE_WITH_TRACE_SQL, occurrences.count, lastSeen, lastSeen,
+                            occurrences.exceptionClass, occurrences.stackTrace, fingerprint)
+                    : jdbcTemplate.update(UPDATE_SQL, occurrences.count, lastSeen, lastSeen, fingerprint);
+            if (updated > 0 && occurrences.stackTrace != null) {
+                // May have replaced a placeholder
+                cachedTraces.remove(fingerprint);
+            }
+            if (updated == 0) {
+                boolean placeholder = occurrences.stackTrace == null;
+                String stackTrace = placeholder
+                        ? String.format(MISSING_TRACE, Objects.requireNonNullElse(occurrences.exceptionClass, "Unknown exception"))
+                        : occurrences.stackTrace;
+                jdbcTemplate.update(INSERT_SQL, fingerprint, occurrences.exceptionClass, stackTrace,
+                        Timestamp.valueOf(occurrences.firstSeen), lastSeen, occurrences.count);
+                if (placeholder) {
+                    // Render the next occurrence so its text replaces the placeholder
+                    knownFingerprints.remove(fingerprint);
+                    continue;
+                }
+            }
+            knownFingerprints.add(fingerprint);
+        }
+    }
+
+    /**
+     * Get the full text of a stored trace
+     */
+    public String getStackTrace(String fingerprint) {
+        String trace = cachedTraces.get(fingerprint);
+        if (trace == null) {
+            trace = stackTraceDAO.findById(fingerprint).map(LogStackTrace::getStackTrace).orElse(null);
+            if (trace != null && cachedTraces.size() < MAX_CACHED_TRACES) {
+                cachedTraces.put(fingerprint, trace);
+            }
+        }
+        return trace;
+    }
+
+    /**
+     * Get the trace to show for an entry, whether stored inline or by fingerprint
+     */
+    public String resolveStackTrace(LogEntry entry) {
+        if (entry.getStackTrace() != null || entry.getStackFingerprint() == null) {
+            return entry.getStackTrace();
+        }
+        return getStackTrace(entry.getStackFingerprint());
+    }
+
+    /**
+     * Get error groups, most recently seen first
+     *
+     * @param since only groups seen after this time, or null for all
+     */
+    @Transactional(transactionManager = LogPersistenceConfig.TRANSACTION_MANAGER, readOnly = true)
+    public List<LogStackTrace> findGroups(LocalDateTime since, int limit) {
+        if (since == null) {
+            return stackTraceDAO.findAllByOrderByLastSeenDesc(Limit.of(limit));
+        }
+        return stackTraceDAO.findByLastSeenAfterOrderByLastSeenDesc(since, Limit.of(limit));
+    }
+
+    @Transactional(transactionManager = LogPersistenceConfig.TRANSACTION_MANAGER, readOnly = true)
+    public LogStackTrace findGroup(String fingerprint) {
+        return stackTraceDAO.findById(fingerprint).orElse(null);
+    }
+
+    /**
+     * Delete traces not seen since the cutoff
+     *
+     * @return the number of traces deleted
+     */
+    @Transactional(transactionManager = LogPersistenceConfig.TRANSACTION_MANAGER)
+    public int purgeStackTraces(LocalDateTime cutoff) {
+        int deleted = stackTraceDAO.deleteByLastSeenBefore(cutoff);
+        if (deleted > 0) {
+            cachedTraces.clear();
+            loadFingerprints();
+        }
+        return deleted;
+    }
+
+    private static final class Occurrences {
+        private long count;
+        private LocalDateTime firstSeen;
+        private LocalDateTime lastSeen;
+        private String exceptionClass;
+        private String stackTrace;
+
+        private void add(LogEntry entry) {
+            count++;
+            if (firstSeen == null || entry.getTimestamp().isBefore(firstSeen)) {
+                firstSeen = entry.getTimestamp();
+            }
+            if (lastSeen == null || entry.getTimestamp().isAfter(lastSeen)) {
+                lastSeen = entry.getTimestamp();
+            }
+            if (stackTrace == null && entry.getStackTrace() != null) {
+                stackTrace = entry.getStackTrace();
+                // First line of a printed trace is "<class>: <message>" or just "<class>"
+                String firstLine = stackTrace.lines().findFirst().orElse("");
+                int colon = firstLine.indexOf(':');
+                exceptionClass = colon < 0 ? firstLine.trim() : firstLine.substring(0, colon);
+            } else if (exceptionClass == null) {
+                exceptionClass = entry.getExceptionClass();
+            }
+        }
+    }
+}
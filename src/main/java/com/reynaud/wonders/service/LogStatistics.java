@@ -0,0 +1,216 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters over the logs table, kept up to date as batches are committed so that
+ * the unread badge and the dashboards never scan the table.
+ * Totals are kept per level and per source, and per level for each minute of a
+ * sliding window. Everything is recomputed from the database at startup and after
+ * each purge; in between, counts are exact except for batches committed while a
+ * recount is running.
+ */
+@Component
+public class LogStatistics {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+    private static final String NO_SOURCE = "(none)";
+
+    private final LogDAO logDAO;
+    private final int windowMinutes;
+    private final AtomicLong unreadCount = new AtomicLong();
+
+    // Guarded by this
+    private final long[] levelTotals = new long[LEVELS.length];
+    private final Map<String, Long> sourceTotals = new HashMap<>();
+    private final long[] bucketMinutes;
+    private final long[][] bucketCounts;
+
+    public LogStatistics(LogDAO logDAO, @Value("${wonders.logging.stats.window-minutes:1440}") int windowMinutes) {
+        this.logDAO = logDAO;
+        this.windowMinutes = Math.max(1, windowMinutes);
+        this.bucketMinutes = new long[this.windowMinutes];
+        this.bucketCounts = new long[this.windowMinutes][LEVELS.length];
+        Arrays.fill(bucketMinutes, -1);
+    }
+
+    /**
+     * Recount everything from the database
+     */
+    @PostConstruct
+    public synchronized void reconcile() {
+        Arrays.fill(levelTotals, 0);
+        sourceTotals.clear();
+        Arrays.fill(bucketMinutes, -1);
+        for (long[] counts : bucketCounts) {
+            Arrays.fill(counts, 0);
+        }
+
+        for (Object[] row : logDAO.countByLevelAndSource()) {
+            LogLevel level = (LogLevel) row[0];
+            long count = ((Number) row[2]).longValue();
+            levelTotals[level.ordinal()] += count;
+            sourceTotals.merge(sourceKey((String) row[1]), count, Long::sum);
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusMinutes(windowMinutes);
+        for (Object[] row : logDAO.countByLevelAndMinuteSince(since)) {
+            LocalDateTime minute = LocalDateTime.of(toLocalDate(row[1]),
+                    LocalTime.of(((Number) row[2]).intValue(), ((Number) row[3]).intValue()));
+            addToBucket(epochMinute(minute), (LogLevel) row[0], ((Number) row[4]).longValue());
+        }
+
+        unreadCount.set(logDAO.countByReadByAdminFalse());
+    }
+
+    /**
+     * Count a batch of entries that was just committed
+     */
+    public synchronized void record(List<LogEntry> entries) {
+        long unread = 0;
+        for (LogEntry entry : entries) {
+            LogLevel level = entry.getLogLevel();
+            levelTotals[level.ordinal()]++;
+            sourceTotals.merge(sourceKey(entry.getSource()), 1L, Long::sum);
+            addToBucket(epochMinute(entry.getTimestamp()), level, 1);
+            if (!Boolean.TRUE.equals(entry.getReadByAdmin())) {
+                unread++;
+            }
+        }
+        unreadCount.addAndGet(unread);
+    }
+
+    /**
+     * Account for logs that were just marked as read
+     */
+    public void markedRead(long count) {
+        unreadCount.accumulateAndGet(count, (current, marked) -> Math.max(0, current - marked));
+    }
+
+    public long getUnreadCount() {
+        return unreadCount.get();
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public synchronized Map<LogLevel, Long> getLevelTotals() {
+        Map<LogLevel, Long> totals = new EnumMap<>(LogLevel.class);
+        for (LogLevel level : LEVELS) {
+            totals.put(level, levelTotals[level.ordinal()]);
+        }
+        return totals;
+    }
+
+    /**
+     * Get the sources with the most logs, busiest first
+     */
+    public synchronized Map<String, Long> getTopSources(int limit) {
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(sourceTotals.entrySet());
+        sorted.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return top;
+    }
+
+    /**
+     * Get the number of logs per level for each of the last minutes, oldest first.
+     * Minutes without any log are included with zero counts.
+     */
+    public synchronized List<MinuteCount> getHistogram(int minutes) {
+        int span = Math.clamp(minutes, 1, windowMinutes);
+        long current = epochMinute(LocalDateTime.now());
+        List<MinuteCount> histogram = new ArrayList<>(span);
+        for (long minute = current - span + 1; minute <= current; minute++) {
+            int slot = slot(minute);
+            Map<LogLevel, Long> counts = new EnumMap<>(LogLevel.class);
+            boolean present = bucketMinutes[slot] == minute;
+            for (LogLevel level : LEVELS) {
+                counts.put(level, present ? bucketCounts[slot][level.ordinal()] : 0L);
+            }
+            histogram.add(new MinuteCount(LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC), counts));
+        }
+        return histogram;
+    }
+
+    private void addToBucket(long minute, LogLevel level, long count) {
+        int slot = slot(minute);
+        if (bucketMinutes[slot] != minute) {
+            if (bucketMinutes[slot] > minute) {
+                // Older than the window
+                return;
+            }
+            bucketMinutes[slot] = minute;
+            Arrays.fill(bucketCounts[slot], 0);
+        }
+        bucketCounts[slot][level.ordinal()] += count;
+    }
+
+    private int slot(long minute) {
+        return (int) Math.floorMod(minute, (long) windowMinutes);
+    }
+
+    // Timestamps are local date-times; treating them as UTC just numbers the minutes
+    private static long epochMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static String sourceKey(String source) {
+        return source != null ? source : NO_SOURCE;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    /**
+     * Number of logs per level in one minute
+     */
+    public static final class MinuteCount {
+        private final LocalDateTime minute;
+        private final Map<LogLevel, Long> counts;
+
+        MinuteCount(LocalDateTime minute, Map<LogLevel, Long> counts) {
+            this.minute = minute;
+            this.counts = Collections.unmodifiableMap(counts);
+        }
+
+        public LocalDateTime getMinute() {
+            return minute;
+        }
+
+        public Map<LogLevel, Long> getCounts() {
+            return counts;
+        }
+
+        public long getTotal() {
+            return counts.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
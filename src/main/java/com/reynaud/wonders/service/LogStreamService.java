@@ -0,0 +1,187 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.LogSpecifications;
+import com.reynaud.wonders.dto.LogEntryDTO;
+import com.reynaud.wonders.dto.LogFilter;
+import com.reynaud.wonders.entity.LogEntry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes new log entries to connected admins over Server-Sent Events.
+ * Subscribers read from {@link LogRingBuffer} at their own pace, so streaming
+ * costs no database queries and a slow client never slows down logging.
+ * The scheduled methods only wake subscribers; sending runs on a virtual thread per subscriber,
+ * so a stalled browser never holds up the shared task scheduler and the jobs on it.
+ */
+@Service
+public class LogStreamService {
+
+    private static final int MAX_EVENTS_PER_POLL = 500;
+
+    private final LogRingBuffer recentEntries;
+    private final LogTemplateService templateService;
+    private final LogStackTraceService stackTraceService;
+    private final long emitterTimeoutMs;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("log-stream-", 0).factory());
+
+    public LogStreamService(LogRingBuffer recentEntries, LogTemplateService templateService,
+                            LogStackTraceService stackTraceService,
+                            @Value("${wonders.logging.stream.timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.recentEntries = recentEntries;
+        this.templateService = templateService;
+        this.stackTraceService = stackTraceService;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    /**
+     * Open a stream of log entries matching the filter
+     *
+     * @param filter level and source criteria applied before sending
+     * @param lastSequence the last sequence the client received (from Last-Event-ID), or null
+     * @param replay how many buffered entries to send first when there is no lastSequence
+     */
+    public SseEmitter subscribe(LogFilter filter, Long lastSequence, int replay) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        long start = lastSequence != null
+                ? lastSequence
+                : recentEntries.getLastSequence() - Math.max(0, replay);
+        Subscription subscription = new Subscription(emitter, filter, start);
+
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+
+        wake(subscription);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Wake every subscriber to send the entries published since its last delivery
+     */
+    @Scheduled(fixedDelayString = "${wonders.logging.stream.poll-interval-ms:250}")
+    public void dispatch() {
+        for (Subscription subscription : subscriptions) {
+            wake(subscription);
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies
+     */
+    @Scheduled(fixedDelayString = "${wonders.logging.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            subscription.heartbeatDue = true;
+            wake(subscription);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Start a delivery for the subscriber unless one is already waiting to run.
+     * A subscriber stuck in a send therefore has at most one more delivery queued behind it.
+     */
+    private void wake(Subscription subscription) {
+        if (subscription.wakeQueued.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> deliver(subscription));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscription.wakeQueued.set(false);
+            }
+        }
+    }
+
+    private void deliver(Subscription subscription) {
+        // One delivery at a time per subscriber; the next one waits here
+        synchronized (subscription) {
+            subscription.wakeQueued.set(false);
+            try {
+                if (subscription.heartbeatDue) {
+                    subscription.heartbeatDue = false;
+                    subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                List<LogRingBuffer.Slot> slots = recentEntries.readAfter(subscription.lastSequence, MAX_EVENTS_PER_POLL);
+                for (LogRingBuffer.Slot slot : slots) {
+                    if (matches(subscription.filter, slot.getEntry())) {
+                        subscription.emitter.send(SseEmitter.event()
+                                .id(String.valueOf(slot.getSequence()))
+                                .name("log")
+                                .data(convertToDTO(slot.getEntry()), MediaType.APPLICATION_JSON));
+                    }
+                    subscription.lastSequence = slot.getSequence();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(subscription);
+            }
+        }
+    }
+
+    private void close(Subscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.emitter.complete();
+    }
+
+    /**
+     * Whether a live entry matches the subscription filter
+     */
+    static boolean matches(LogFilter filter, LogEntry entry) {
+        return LogSpecifications.test(filter, null, entry);
+    }
+
+    private LogEntryDTO convertToDTO(LogEntry log) {
+        LogEntryDTO dto = new LogEntryDTO();
+        dto.setId(log.getId());
+        dto.setTimestamp(log.getTimestamp());
+        dto.setLogLevel(log.getLogLevel());
+        dto.setMessage(templateService.render(log));
+        dto.setSource(log.getSource());
+        dto.setStackTrace(stackTraceService.resolveStackTrace(log));
+        dto.setStackFingerprint(log.getStackFingerprint());
+        dto.setReadByAdmin(log.getReadByAdmin());
+        dto.setGameId(log.getGameId());
+        dto.setPlayerStateId(log.getPlayerStateId());
+        dto.setUserId(log.getUserId());
+        dto.setAction(log.getAction());
+        return dto;
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final LogFilter filter;
+        private final AtomicBoolean wakeQueued = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        // Guarded by the subscription's monitor
+        private long lastSequence;
+
+        private Subscription(SseEmitter emitter, LogFilter filter, long lastSequence) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.lastSequence = lastSequence;
+        }
+    }
+}
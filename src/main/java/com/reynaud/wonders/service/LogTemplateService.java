@@ -0,0 +1,127 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.LogTemplateDAO;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.entity.LogTemplate;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns log message patterns and renders templated entries on demand.
+ * Templated entries are stored as a template id plus a compact argument string,
+ * and the full message is only built when an admin views it.
+ * All templates are cached in memory; there are a few hundred at most.
+ */
+@Service
+public class LogTemplateService {
+
+    private final LogTemplateDAO templateDAO;
+    private final Map<String, Long> idsByPattern = new ConcurrentHashMap<>();
+    private final Map<Long, String> patternsById = new ConcurrentHashMap<>();
+
+    public LogTemplateService(LogTemplateDAO templateDAO) {
+        this.templateDAO = templateDAO;
+    }
+
+    @PostConstruct
+    public void loadTemplates() {
+        for (LogTemplate template : templateDAO.findAll()) {
+            cache(template);
+        }
+    }
+
+    /**
+     * Get the id of a pattern, storing it on first use.
+     * Only the log writer calls this, outside its batch transaction.
+     */
+    public Long intern(String pattern) {
+        Long id = idsByPattern.get(pattern);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = idsByPattern.get(pattern);
+            if (id != null) {
+                return id;
+            }
+            LogTemplate template = templateDAO.findByPattern(pattern)
+                    .orElseGet(() -> templateDAO.save(new LogTemplate(pattern)));
+            cache(template);
+            return template.getId();
+        }
+    }
+
+    /**
+     * Get the text of an entry, rendering it from its template if needed
+     */
+    public String render(LogEntry entry) {
+        String pattern = entry.getMessageTemplate();
+        if (pattern == null && entry.getTemplateId() != null) {
+            pattern = getPattern(entry.getTemplateId());
+        }
+        if (pattern == null) {
+            return entry.getMessage();
+        }
+        return LoggingService.format(pattern, decodeArguments(entry.getArguments()));
+    }
+
+    public int getTemplateCount() {
+        return patternsById.size();
+    }
+
+    private String getPattern(Long id) {
+        String pattern = patternsById.get(id);
+        if (pattern == null) {
+            // Interned by another node since startup
+            pattern = templateDAO.findById(id).map(template -> {
+                cache(template);
+                return template.getPattern();
+            }).orElse(null);
+        }
+        return pattern;
+    }
+
+    private void cache(LogTemplate template) {
+        idsByPattern.put(template.getPattern(), template.getId());
+        patternsById.put(template.getId(), template.getPattern());
+    }
+
+    /**
+     * Encode arguments as length-prefixed strings ("5:Stone2:12"), so any character can appear in a value
+     */
+    public static String encodeArguments(Object[] args) {
+        if (args == null || args.length == 0) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Object arg : args) {
+            String value = String.valueOf(arg);
+            sb.append(value.length()).append(':').append(value);
+        }
+        return sb.toString();
+    }
+
+    public static Object[] decodeArguments(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return new Object[0];
+        }
+        List<String> values = new ArrayList<>();
+        int position = 0;
+        while (position < encoded.length()) {
+            int colon = encoded.indexOf(':', position);
+            if (colon < 0) {
+                break;
+            }
+            int length = Integer.parseInt(encoded, position, colon, 10);
+            int start = colon + 1;
+            values.add(encoded.substring(start, start + length));
+            position = start + length;
+        }
+        return values.toArray();
+    }
+}
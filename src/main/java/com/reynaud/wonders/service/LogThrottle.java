@@ -0,0 +1,192 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.model.LogLevel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-source sampling and rate limiting for {@link LoggingService}.
+ * A rule set on a source also covers the sources below it ("CardPlayManager" covers
+ * "CardPlayManager.canAffordCost"), and applies to every level up to its maxLevel.
+ * Each rule first samples messages, then lets the survivors through a token bucket
+ * shared by all sources it covers. Rejected messages are only counted, per source and level.
+ *
+ * Rules can be configured with wonders.logging.throttle.rules as a comma-separated list of
+ * source:maxLevel:perSecond:sampleRate, and changed at runtime.
+ */
+@Component
+public class LogThrottle {
+
+    private static final Rule NO_RULE = new Rule(LogLevel.DEBUG, 0, 0, 1.0);
+
+    private final Map<String, Rule> rules = new ConcurrentHashMap<>();
+    // Resolved rule per source (NO_RULE when none applies), so the hot path is a single lookup
+    private final Map<String, Rule> effectiveRules = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> droppedBySource = new ConcurrentHashMap<>();
+
+    public LogThrottle(@Value("${wonders.logging.throttle.rules:}") String configuredRules) {
+        for (String spec : configuredRules.split(",")) {
+            if (!spec.isBlank()) {
+                String[] parts = spec.trim().split(":");
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("Invalid log throttle rule '" + spec
+                            + "', expected source:maxLevel:perSecond:sampleRate");
+                }
+                double perSecond = Double.parseDouble(parts[2]);
+                setRule(parts[0], new Rule(LogLevel.valueOf(parts[1]), perSecond, perSecond, Double.parseDouble(parts[3])));
+            }
+        }
+    }
+
+    /**
+     * Decide whether a message passes sampling and rate limiting, counting it if not
+     */
+    public boolean tryAcquire(String source, LogLevel level) {
+        if (source == null || rules.isEmpty()) {
+            return true;
+        }
+        Rule rule = effectiveRules.computeIfAbsent(source, this::resolveRule);
+        if (rule == NO_RULE || !rule.maxLevel.isAtLeastAs(level)) {
+            return true;
+        }
+        if (rule.tryAcquire()) {
+            return true;
+        }
+        droppedBySource.computeIfAbsent(source + " " + level.name(), key -> new LongAdder()).increment();
+        return false;
+    }
+
+    /**
+     * Get and reset the number of rejected messages per "source LEVEL"
+     */
+    public Map<String, Long> drainDropped() {
+        Map<String, Long> dropped = new TreeMap<>();
+        droppedBySource.forEach((key, counter) -> {
+            long count = counter.sumThenReset();
+            if (count > 0) {
+                dropped.put(key, count);
+            }
+        });
+        return dropped;
+    }
+
+    /**
+     * Get the number of messages rejected since the last summary
+     */
+    public long getPendingDroppedCount() {
+        return droppedBySource.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Get the configured rules, sorted by source
+     */
+    public Map<String, Rule> getRules() {
+        return new TreeMap<>(rules);
+    }
+
+    public void setRule(String source, Rule rule) {
+        rules.put(source, rule);
+        effectiveRules.clear();
+    }
+
+    /**
+     * @return true if a rule was removed
+     */
+    public boolean clearRule(String source) {
+        boolean removed = rules.remove(source) != null;
+        effectiveRules.clear();
+        return removed;
+    }
+
+    private Rule resolveRule(String source) {
+        String current = source;
+        while (true) {
+            Rule rule = rules.get(current);
+            if (rule != null) {
+                return rule;
+            }
+            int lastDot = current.lastIndexOf('.');
+            if (lastDot < 0) {
+                return NO_RULE;
+            }
+            current = current.substring(0, lastDot);
+        }
+    }
+
+    /**
+     * Sampling rate and token bucket for one source.
+     * The bucket is tracked as a single theoretical arrival time (GCRA), updated with
+     * compare-and-set, so concurrent callers never block each other.
+     */
+    public static final class Rule {
+        private final LogLevel maxLevel;
+        private final double perSecond;
+        private final double burst;
+        private final double sampleRate;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * @param maxLevel the most severe level the rule applies to
+         * @param perSecond sustained messages per second, 0 or less for no rate limit
+         * @param burst messages allowed at once above the sustained rate
+         * @param sampleRate fraction of messages kept before rate limiting, between 0 and 1
+         */
+        public Rule(LogLevel maxLevel, double perSecond, double burst, double sampleRate) {
+            if (sampleRate < 0 || sampleRate > 1) {
+                throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + sampleRate);
+            }
+            this.maxLevel = maxLevel;
+            this.perSecond = perSecond;
+            this.burst = Math.max(1, burst);
+            this.sampleRate = sampleRate;
+            this.intervalNanos = perSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / perSecond) : 0;
+            this.toleranceNanos = (long) (intervalNanos * (this.burst - 1));
+        }
+
+        boolean tryAcquire() {
+            if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                return false;
+            }
+            if (intervalNanos == 0) {
+                return true;
+            }
+            while (true) {
+                long now = System.nanoTime();
+                long arrival = theoreticalArrival.get();
+                long next = (arrival == Long.MIN_VALUE || arrival - now < 0 ? now : arrival) + intervalNanos;
+                if (next - now > toleranceNanos + intervalNanos) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(arrival, next)) {
+                    return true;
+                }
+            }
+        }
+
+        public LogLevel getMaxLevel() {
+            return maxLevel;
+        }
+
+        public double getPerSecond() {
+            return perSecond;
+        }
+
+        public double getBurst() {
+            return burst;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+    }
+}
@@ -1,62 +1,156 @@
 package com.reynaud.wonders.service;
 
+import com.reynaud.wonders.config.LogPersistenceConfig;
 import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.dao.LogSpecifications;
+import com.reynaud.wonders.dto.LogCursor;
+import com.reynaud.wonders.dto.LogFilter;
 import com.reynaud.wonders.entity.LogEntry;
 import com.reynaud.wonders.model.LogLevel;
-import org.springframework.data.domain.Page;
+import com.reynaud.wonders.util.LogContext;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Service for managing application logs.
  * Provides methods for logging at different levels and retrieving logs.
+ * Writes are handed to {@link AsyncLogWriter} so callers never wait on log I/O,
+ * and published to {@link LogRingBuffer} so the live tail never touches the database.
+ *
+ * Each source can have its own minimum level, adjustable at runtime. A threshold set
+ * on "CardPlayManager" also applies to "CardPlayManager.canAffordCost" unless that
+ * source has its own. Use the {@link Supplier} or pattern overloads, or guard with
+ * {@link #isEnabled(LogLevel, String)}, so suppressed messages are never built.
+ * Enabled messages then go through {@link LogThrottle} sampling and rate limits; what it
+ * rejects is reported periodically as a single summary entry.
+ * Pattern overloads are stored as an interned template plus arguments (see {@link LogTemplateService}),
+ * and stack traces are stored once per fingerprint (see {@link LogStackTraceService}).
+ *
+ * Entries carry the game, player, user and action bound in {@link LogContext}.
+ *
+ * Bulk read-marking and deletion work in chunks of {@link #BULK_CHUNK_SIZE} rows,
+ * each committed on its own, so a large purge never holds locks for long.
  */
 @Service
 public class LoggingService {
 
     private final LogDAO logDAO;
-    private static final int DEFAULT_PAGE_SIZE = 50;
+    private final AsyncLogWriter logWriter;
+    private final LogRingBuffer recentEntries;
+    private final LogStackTraceService stackTraceService;
+    private final LogThrottle throttle;
+    private final LogStatistics statistics;
+    private final LogArchiveService archiveService;
+    private final LogSearchService searchService;
+    private final TransactionTemplate transactionTemplate;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int BULK_CHUNK_SIZE = 1000;
 
-    public LoggingService(LogDAO logDAO) {
+    private final Map<String, LogLevel> sourceThresholds = new ConcurrentHashMap<>();
+    // Resolved level per source, so the hot path is a single map lookup
+    private final Map<String, LogLevel> effectiveLevels = new ConcurrentHashMap<>();
+    private volatile LogLevel defaultLevel;
+
+    public LoggingService(LogDAO logDAO, AsyncLogWriter logWriter, LogRingBuffer recentEntries,
+                          LogStackTraceService stackTraceService, LogThrottle throttle, LogStatistics statistics,
+                          LogArchiveService archiveService, LogSearchService searchService,
+                          @Qualifier(LogPersistenceConfig.LOGS) PlatformTransactionManager transactionManager,
+                          @Value("${wonders.logging.min-level:DEBUG}") LogLevel defaultLevel) {
         this.logDAO = logDAO;
+        this.logWriter = logWriter;
+        this.recentEntries = recentEntries;
+        this.stackTraceService = stackTraceService;
+        this.throttle = throttle;
+        this.statistics = statistics;
+        this.archiveService = archiveService;
+        this.searchService = searchService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultLevel = defaultLevel != null ? defaultLevel : LogLevel.DEBUG;
     }
 
     /**
      * Log a debug message
      */
-    @Transactional
     public void debug(String message, String source) {
         log(LogLevel.DEBUG, message, source, null);
     }
 
+    /**
+     * Log a debug message built only if DEBUG is enabled for the source
+     */
+    public void debug(Supplier<String> message, String source) {
+        logSupplied(LogLevel.DEBUG, message, source);
+    }
+
+    /**
+     * Log a debug message with {} placeholders, formatted only if DEBUG is enabled for the source
+     */
+    public void debug(String pattern, String source, Object... args) {
+        logFormatted(LogLevel.DEBUG, pattern, source, args);
+    }
+
     /**
      * Log an info message
      */
-    @Transactional
     public void info(String message, String source) {
         log(LogLevel.INFO, message, source, null);
     }
 
+    /**
+     * Log an info message built only if INFO is enabled for the source
+     */
+    public void info(Supplier<String> message, String source) {
+        logSupplied(LogLevel.INFO, message, source);
+    }
+
+    /**
+     * Log an info message with {} placeholders
+     */
+    public void info(String pattern, String source, Object... args) {
+        logFormatted(LogLevel.INFO, pattern, source, args);
+    }
+
     /**
      * Log a warning message
      */
-    @Transactional
     public void warning(String message, String source) {
         log(LogLevel.WARNING, message, source, null);
     }
 
+    /**
+     * Log a warning message built only if WARNING is enabled for the source
+     */
+    public void warning(Supplier<String> message, String source) {
+        logSupplied(LogLevel.WARNING, message, source);
+    }
+
+    /**
+     * Log a warning message with {} placeholders
+     */
+    public void warning(String pattern, String source, Object... args) {
+        logFormatted(LogLevel.WARNING, pattern, source, args);
+    }
+
     /**
      * Log an error message
      */
-    @Transactional
     public void error(String message, String source) {
         log(LogLevel.ERROR, message, source, null);
     }
@@ -64,7 +158,6 @@ public class LoggingService {
     /**
      * Log an error message with exception
      */
-    @Transactional
     public void error(String message, String source, Throwable throwable) {
         log(LogLevel.ERROR, message, source, throwable);
     }
@@ -72,7 +165,6 @@ public class LoggingService {
     /**
      * Log a critical message
      */
-    @Transactional
     public void critical(String message, String source) {
         log(LogLevel.CRITICAL, message, source, null);
     }
@@ -80,113 +172,296 @@ public class LoggingService {
     /**
      * Log a critical message with exception
      */
-    @Transactional
     public void critical(String message, String source, Throwable throwable) {
         log(LogLevel.CRITICAL, message, source, throwable);
     }
 
     /**
-     * Internal method to create and save log entries
+     * Check whether a message at the given level from the given source would be recorded
      */
-    private void log(LogLevel level, String message, String source, Throwable throwable) {
-        LogEntry logEntry = new LogEntry(level, message, source);
-        
-        if (throwable != null) {
-            StringWriter sw = new StringWriter();
-            PrintWriter pw = new PrintWriter(sw);
-            throwable.printStackTrace(pw);
-            logEntry.setStackTrace(sw.toString());
+    public boolean isEnabled(LogLevel level, String source) {
+        return level.isAtLeastAs(getEffectiveLevel(source));
+    }
+
+    /**
+     * Get the minimum level applied to a source, taking parent sources and the default into account
+     */
+    public LogLevel getEffectiveLevel(String source) {
+        if (source == null) {
+            return defaultLevel;
         }
-        
-        logDAO.save(logEntry);
+        return effectiveLevels.computeIfAbsent(source, this::resolveLevel);
+    }
+
+    public LogLevel getDefaultLevel() {
+        return defaultLevel;
+    }
+
+    public void setDefaultLevel(LogLevel level) {
+        this.defaultLevel = level;
+        effectiveLevels.clear();
     }
 
     /**
-     * Get all logs with pagination
+     * Get the explicitly configured source thresholds, sorted by source
      */
-    @Transactional(readOnly = true)
-    public Page<LogEntry> getAllLogs(int page) {
-        Pageable pageable = PageRequest.of(page - 1, DEFAULT_PAGE_SIZE);
-        return logDAO.findAllByOrderByTimestampDesc(pageable);
+    public Map<String, LogLevel> getSourceThresholds() {
+        return new TreeMap<>(sourceThresholds);
     }
 
     /**
-     * Get logs by level
+     * Set the minimum level for a source (and the sources below it)
      */
-    @Transactional(readOnly = true)
-    public Page<LogEntry> getLogsByLevel(LogLevel level, int page) {
-        Pageable pageable = PageRequest.of(page - 1, DEFAULT_PAGE_SIZE);
-        List<LogLevel> levels = Arrays.asList(level);
-        return logDAO.findByLogLevelIn(levels, pageable);
+    public void setSourceThreshold(String source, LogLevel level) {
+        sourceThresholds.put(source, level);
+        effectiveLevels.clear();
     }
 
     /**
-     * Get logs by source
+     * Remove the threshold for a source, falling back to its parent or the default
+     *
+     * @return true if a threshold was removed
      */
-    @Transactional(readOnly = true)
-    public Page<LogEntry> getLogsBySource(String source, int page) {
-        Pageable pageable = PageRequest.of(page - 1, DEFAULT_PAGE_SIZE);
-        return logDAO.findBySourceOrderByTimestampDesc(source, pageable);
+    public boolean clearSourceThreshold(String source) {
+        boolean removed = sourceThresholds.remove(source) != null;
+        effectiveLevels.clear();
+        return removed;
     }
 
     /**
-     * Get unread logs
+     * Get the sampling and rate-limit rules, sorted by source
      */
-    @Transactional(readOnly = true)
-    public List<LogEntry> getUnreadLogs() {
-        return logDAO.findByReadByAdminFalseOrderByTimestampDesc();
+    public Map<String, LogThrottle.Rule> getThrottleRules() {
+        return throttle.getRules();
     }
 
     /**
-     * Get count of unread logs
+     * Sample and rate-limit a source (and the sources below it)
      */
-    @Transactional(readOnly = true)
-    public long getUnreadLogsCount() {
-        return logDAO.countByReadByAdminFalse();
+    public void setThrottleRule(String source, LogThrottle.Rule rule) {
+        throttle.setRule(source, rule);
+    }
+
+    /**
+     * @return true if a rule was removed
+     */
+    public boolean clearThrottleRule(String source) {
+        return throttle.clearRule(source);
+    }
+
+    /**
+     * Get the number of messages dropped by throttling since the last summary
+     */
+    public long getPendingThrottledCount() {
+        return throttle.getPendingDroppedCount();
+    }
+
+    /**
+     * Write one entry summarizing what throttling dropped since the last run
+     */
+    @Scheduled(fixedDelayString = "${wonders.logging.throttle.summary-interval-ms:60000}")
+    public void emitThrottleSummary() {
+        Map<String, Long> dropped = throttle.drainDropped();
+        if (!dropped.isEmpty()) {
+            long total = dropped.values().stream().mapToLong(Long::longValue).sum();
+            write(LogLevel.WARNING, "Log throttling - Dropped " + total + " entries " + dropped, "LoggingService", null);
+        }
+    }
+
+    private LogLevel resolveLevel(String source) {
+        String current = source;
+        while (true) {
+            LogLevel level = sourceThresholds.get(current);
+            if (level != null) {
+                return level;
+            }
+            int lastDot = current.lastIndexOf('.');
+            if (lastDot < 0) {
+                return defaultLevel;
+            }
+            current = current.substring(0, lastDot);
+        }
+    }
+
+    private void logSupplied(LogLevel level, Supplier<String> message, String source) {
+        if (isEnabled(level, source) && throttle.tryAcquire(source, level)) {
+            write(level, message.get(), source, null);
+        }
+    }
+
+    private void logFormatted(LogLevel level, String pattern, String source, Object[] args) {
+        if (isEnabled(level, source) && throttle.tryAcquire(source, level)) {
+            // Stored as template + arguments and rendered only when viewed
+            LogEntry logEntry = createEntry(level, "", source);
+            logEntry.setMessageTemplate(pattern);
+            logEntry.setArguments(LogTemplateService.encodeArguments(args));
+            submit(logEntry);
+        }
     }
 
     /**
-     * Get recent logs (since specified time)
+     * Internal method to check the threshold and throttle, then queue the entry
      */
-    @Transactional(readOnly = true)
-    public List<LogEntry> getRecentLogs(LocalDateTime since) {
-        return logDAO.findByTimestampAfterOrderByTimestampDesc(since);
+    private void log(LogLevel level, String message, String source, Throwable throwable) {
+        if (isEnabled(level, source) && throttle.tryAcquire(source, level)) {
+            write(level, message, source, throwable);
+        }
+    }
+
+    /**
+     * Internal method to create log entries, queue them for writing and publish them to the live tail
+     */
+    private void write(LogLevel level, String message, String source, Throwable throwable) {
+        LogEntry logEntry = createEntry(level, message, source);
+        
+        if (throwable != null) {
+            stackTraceService.attach(logEntry, throwable);
+        }
+        
+        submit(logEntry);
+    }
+
+    private LogEntry createEntry(LogLevel level, String message, String source) {
+        LogEntry logEntry = new LogEntry(level, message, source);
+
+        LogContext context = LogContext.current();
+        if (context != null) {
+            logEntry.setGameId(context.getGameId());
+            logEntry.setPlayerStateId(context.getPlayerStateId());
+            logEntry.setUserId(context.getUserId());
+            logEntry.setAction(context.getAction());
+        }
+        return logEntry;
+    }
+
+    private void submit(LogEntry logEntry) {
+        logWriter.submit(logEntry);
+        recentEntries.publish(logEntry);
+    }
+
+    /**
+     * Replace each {} in the pattern with the next argument
+     */
+    static String format(String pattern, Object[] args) {
+        if (args == null || args.length == 0) {
+            return pattern;
+        }
+        StringBuilder sb = new StringBuilder(pattern.length() + 16 * args.length);
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while (argIndex < args.length && (placeholder = pattern.indexOf("{}", start)) >= 0) {
+            sb.append(pattern, start, placeholder).append(args[argIndex++]);
+            start = placeholder + 2;
+        }
+        sb.append(pattern, start, pattern.length());
+        return sb.toString();
+    }
+
+    /**
+     * Get one page of logs matching the filter, newest first.
+     * Paging is keyset-based: pass the cursor of the last entry of the previous page.
+     * Archived logs are merged in when the page reaches back to the archived time range.
+     *
+     * @param filter the criteria to apply, may be null
+     * @param cursor the position to continue after, or null for the newest entries
+     * @param size the requested page size, capped at {@link #MAX_PAGE_SIZE}
+     * @return the page, with hasNext() telling whether older entries remain
+     */
+    @Transactional(transactionManager = LogPersistenceConfig.TRANSACTION_MANAGER, readOnly = true)
+    public Slice<LogEntry> findLogs(LogFilter filter, LogCursor cursor, int size) {
+        int limit = clampPageSize(size);
+        // Fetch one extra row to know whether there is a next page without counting
+        List<LogEntry> rows = logDAO.findBy(LogSpecifications.matching(filter, cursor),
+                query -> query.sortBy(LogSpecifications.KEYSET_SORT).limit(limit + 1).all());
+        if (archiveService.mayContain(filter, rows.size() > limit ? rows.get(limit) : null)) {
+            rows = LogArchiveService.merge(rows, archiveService.find(filter, cursor, limit + 1), limit + 1);
+        }
+        boolean hasNext = rows.size() > limit;
+        List<LogEntry> content = hasNext ? rows.subList(0, limit) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, limit, LogSpecifications.KEYSET_SORT), hasNext);
+    }
+
+    /**
+     * Get count of unread logs, from the in-memory counters
+     */
+    public long getUnreadLogsCount() {
+        return statistics.getUnreadCount();
+    }
+
+    private int clampPageSize(int size) {
+        if (size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
     }
 
     /**
      * Mark specific logs as read
      */
-    @Transactional
     public void markAsRead(List<Long> logIds) {
-        for (Long id : logIds) {
-            logDAO.findById(id).ifPresent(log -> {
-                log.setReadByAdmin(true);
-                logDAO.save(log);
-            });
+        for (int from = 0; from < logIds.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = logIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, logIds.size()));
+            int marked = transactionTemplate.execute(status -> logDAO.markReadByIds(chunk));
+            statistics.markedRead(marked);
         }
     }
 
     /**
-     * Mark all logs as read
+     * Mark all logs as read. Logs written while this runs are left unread.
+     *
+     * @return the number of logs marked
      */
-    @Transactional
-    public void markAllAsRead() {
-        List<LogEntry> unreadLogs = getUnreadLogs();
-        for (LogEntry log : unreadLogs) {
-            log.setReadByAdmin(true);
-            logDAO.save(log);
+    public long markAllAsRead() {
+        Long maxId = logDAO.findMaxId();
+        if (maxId == null) {
+            return 0;
         }
+        long marked = 0;
+        List<Long> ids;
+        do {
+            ids = logDAO.findUnreadIdsUpTo(maxId, Limit.of(BULK_CHUNK_SIZE));
+            if (!ids.isEmpty()) {
+                List<Long> chunk = ids;
+                int chunkMarked = transactionTemplate.execute(status -> logDAO.markReadByIds(chunk));
+                statistics.markedRead(chunkMarked);
+                marked += chunkMarked;
+            }
+        } while (ids.size() == BULK_CHUNK_SIZE);
+        return marked;
     }
 
     /**
      * Clear old logs (older than specified days)
      */
-    @Transactional
     public long clearOldLogs(int days) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
-        List<LogEntry> oldLogs = logDAO.findByTimestampBeforeOrderByTimestampDesc(cutoffDate);
-        long count = oldLogs.size();
-        logDAO.deleteAll(oldLogs);
-        return count;
+        return purgeLogs(null, LocalDateTime.now().minusDays(days));
+    }
+
+    /**
+     * Delete logs older than the cutoff, chunk by chunk.
+     * Each deleted chunk is removed from the search index; statistics are recounted afterwards.
+     *
+     * @param level the level to purge, or null for every level
+     * @param cutoff logs strictly older than this are deleted
+     * @return the number of logs deleted
+     */
+    public long purgeLogs(LogLevel level, LocalDateTime cutoff) {
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            ids = level == null
+                    ? logDAO.findIdsBefore(cutoff, Limit.of(BULK_CHUNK_SIZE))
+                    : logDAO.findIdsByLevelBefore(level, cutoff, Limit.of(BULK_CHUNK_SIZE));
+            if (!ids.isEmpty()) {
+                List<Long> chunk = ids;
+                deleted += transactionTemplate.execute(status -> logDAO.deleteByIds(chunk));
+                searchService.remove(chunk);
+            }
+        } while (ids.size() == BULK_CHUNK_SIZE);
+        if (deleted > 0) {
+            statistics.reconcile();
+        }
+        return deleted;
     }
 }
@@ -16,10 +16,12 @@ public class PlayerStateService {
 
     private final PlayerStateDAO playerStateDAO;
     private final LoggingService loggingService;
+    private final GameSessionRegistry gameSessions;
 
-    public PlayerStateService(PlayerStateDAO playerStateDAO, LoggingService loggingService) {
+    public PlayerStateService(PlayerStateDAO playerStateDAO, LoggingService loggingService, GameSessionRegistry gameSessions) {
         this.playerStateDAO = playerStateDAO;
         this.loggingService = loggingService;
+        this.gameSessions = gameSessions;
     }
 
     @Transactional
@@ -34,6 +36,16 @@ public class PlayerStateService {
     @Transactional
     public PlayerStateEntity updatePlayerState(PlayerStateEntity playerState) {
         loggingService.debug("Updating player state - PlayerStateID: " + playerState.getId() + ", Username: " + playerState.getUser().getUsername() + ", GameID: " + playerState.getGame().getId(), "PlayerStateService.updatePlayerState");
+        GameSession session = gameSessions.get(playerState.getGame().getId());
+        if (session != null && session.holds(playerState)) {
+            // Written back with the rest of the game by the session registry
+            gameSessions.changed(session);
+            // Neighbors may have been paid coins by this player
+            session.markChanged(playerState);
+            session.markChanged(playerState.getLeftNeighbor());
+            session.markChanged(playerState.getRightNeighbor());
+            return playerState;
+        }
         return playerStateDAO.save(playerState);
     }
 
@@ -44,6 +56,10 @@ public class PlayerStateService {
 
     @Transactional(readOnly = true)
     public List<PlayerStateEntity> getPlayerStatesByGameId(Long gameId) {
+        GameSession session = gameSessions.get(gameId);
+        if (session != null) {
+            return session.getPlayers();
+        }
         return playerStateDAO.findByGameId(gameId);
     }
 
@@ -54,16 +70,24 @@ public class PlayerStateService {
 
     @Transactional(readOnly = true)
     public PlayerStateEntity getPlayerStateByGameIdAndUserId(Long gameId, Long userId) {
+        GameSession session = gameSessions.get(gameId);
+        if (session != null) {
+            return session.getPlayerByUserId(userId);
+        }
         return playerStateDAO.findByGameIdAndUserId(gameId, userId);
     }
 
     @Transactional(readOnly = true)
     public PlayerStateEntity getPlayerStateByGameIdAndPosition(Long gameId, Integer position) {
+        GameSession session = gameSessions.get(gameId);
+        if (session != null) {
+            return session.getPlayerByPosition(position);
+        }
         return playerStateDAO.findByGameIdAndPosition(gameId, position);
     }
 
     public boolean allPlayersHavePlayedThisTurn(Long gameId) {
-        return playerStateDAO.findByGameId(gameId).stream()
+        return getPlayerStatesByGameId(gameId).stream()
                 .allMatch(PlayerStateEntity::getHasPlayedThisTurn);
     }
 
@@ -116,7 +140,7 @@ public class PlayerStateService {
         dto.setPlayedCardIds(entity.getPlayedCards().stream()
                 .map(card -> card.getId())
                 .collect(Collectors.toList()));
-        dto.setResources(entity.getResources());
+        dto.setResources(entity.getResources().toMap());
         dto.setScience(entity.getScience());
         dto.setHasPlayedThisTurn(entity.getHasPlayedThisTurn());
         dto.setLeftBaseRessourcePriceMultiplier(entity.getLeftBaseRessourcePriceMultiplier());
@@ -0,0 +1,240 @@
+package com.reynaud.wonders.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reynaud.wonders.entity.LogEntry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only sink writing one JSON object per line to rolling segment files.
+ * A segment is closed once it reaches the size limit or has been open for the rotation
+ * interval; closed segments are gzipped in the background. Every start opens a new
+ * segment, and segments left uncompressed by a previous run are compressed then.
+ * Nothing is opened until the first entry is routed here.
+ */
+@Component
+public class RollingFileLogSink implements LogSink {
+
+    public static final String NAME = "file";
+    static final String SEGMENT_PREFIX = "wonders-log-";
+    static final String SEGMENT_SUFFIX = ".ndjson";
+    static final String COMPRESSED_SUFFIX = ".gz";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final DateTimeFormatter SEGMENT_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final LogTemplateService templateService;
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final long rotateIntervalMs;
+    private final boolean compress;
+    private final ExecutorService compressor;
+
+    private FileChannel channel;
+    private Path segment;
+    private long segmentBytes;
+    private long segmentOpenedAt;
+    private int segmentCount;
+
+    public RollingFileLogSink(LogTemplateService templateService,
+                              @Value("${wonders.logging.file.directory:./data/logs}") String directory,
+                              @Value("${wonders.logging.file.max-segment-bytes:67108864}") long maxSegmentBytes,
+                              @Value("${wonders.logging.file.rotate-interval-ms:3600000}") long rotateIntervalMs,
+                              @Value("${wonders.logging.file.compress:true}") boolean compress) {
+        this.templateService = templateService;
+        this.directory = Paths.get(directory);
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.rotateIntervalMs = rotateIntervalMs;
+        this.compress = compress;
+        this.compressor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-segment-compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void write(List<LogEntry> entries) {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(entries.size() * 256);
+        for (LogEntry entry : entries) {
+            try {
+                lines.writeBytes(OBJECT_MAPPER.writeValueAsBytes(toRecord(entry)));
+                lines.write('\n');
+            } catch (JsonProcessingException e) {
+                System.err.println("Failed to serialize log entry: " + e.getMessage());
+            }
+        }
+
+        try {
+            if (channel == null || shouldRotate(lines.size())) {
+                rotate();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                segmentBytes += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            // The logging pipeline cannot log its own failures
+            System.err.println("Failed to write " + entries.size() + " log entries to " + segment + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("Failed to flush log segment " + segment + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Close the current segment and wait for pending compressions
+     */
+    @PreDestroy
+    public void close() {
+        synchronized (this) {
+            closeSegment();
+        }
+        compressor.shutdown();
+        try {
+            if (!compressor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Log segments still compressing after " + SHUTDOWN_TIMEOUT_SECONDS + " s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the segment currently written to, or null before the first write
+     */
+    public synchronized Path getCurrentSegment() {
+        return segment;
+    }
+
+    private boolean shouldRotate(int pendingBytes) {
+        if (segmentBytes == 0) {
+            return false;
+        }
+        return segmentBytes + pendingBytes > maxSegmentBytes
+                || System.currentTimeMillis() - segmentOpenedAt >= rotateIntervalMs;
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+        if (segmentCount == 0) {
+            Files.createDirectories(directory);
+            compressLeftovers();
+        }
+        String name = SEGMENT_PREFIX + LocalDateTime.now().format(SEGMENT_TIME) + "-" + segmentCount++ + SEGMENT_SUFFIX;
+        segment = directory.resolve(name);
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentBytes = 0;
+        segmentOpenedAt = System.currentTimeMillis();
+    }
+
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        Path closed = segment;
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close log segment " + closed + ": " + e.getMessage());
+        }
+        channel = null;
+        if (compress && segmentBytes > 0) {
+            compressor.execute(() -> compressSegment(closed));
+        }
+    }
+
+    /**
+     * Queue compression of segments a previous run did not get to
+     */
+    private void compressLeftovers() throws IOException {
+        if (!compress) {
+            return;
+        }
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path leftover : leftovers) {
+                compressor.execute(() -> compressSegment(leftover));
+            }
+        }
+    }
+
+    /**
+     * Gzip a closed segment next to the original, then remove the original.
+     * The archive is written under a temporary name so a partial file is never mistaken for a complete one.
+     */
+    static void compressSegment(Path source) {
+        Path target = source.resolveSibling(source.getFileName() + COMPRESSED_SUFFIX);
+        Path partial = source.resolveSibling(source.getFileName() + COMPRESSED_SUFFIX + ".tmp");
+        try {
+            try (InputStream in = Files.newInputStream(source);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial))) {
+                in.transferTo(out);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(source);
+        } catch (IOException e) {
+            System.err.println("Failed to compress log segment " + source + ": " + e.getMessage());
+        }
+    }
+
+    private Map<String, Object> toRecord(LogEntry entry) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("timestamp", entry.getTimestamp().toString());
+        record.put("level", entry.getLogLevel().name());
+        record.put("source", entry.getSource());
+        record.put("message", templateService.render(entry));
+        putIfPresent(record, "gameId", entry.getGameId());
+        putIfPresent(record, "playerStateId", entry.getPlayerStateId());
+        putIfPresent(record, "userId", entry.getUserId());
+        putIfPresent(record, "action", entry.getAction());
+        putIfPresent(record, "stackFingerprint", entry.getStackFingerprint());
+        putIfPresent(record, "stackTrace", entry.getStackTrace());
+        return record;
+    }
+
+    private static void putIfPresent(Map<String, Object> record, String key, Object value) {
+        if (value != null) {
+            record.put(key, value);
+        }
+    }
+}
@@ -5,8 +5,11 @@ import com.reynaud.wonders.dto.WonderDTO;
 import com.reynaud.wonders.entity.GameEntity;
 import com.reynaud.wonders.entity.PlayerStateEntity;
 import com.reynaud.wonders.entity.WonderEntity;
+import com.reynaud.wonders.model.ResourceVector;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -21,11 +24,16 @@ public class WonderService {
     private final WonderDAO wonderDAO;
     private final PlayerStateService playerStateService;
     private final LoggingService loggingService;
+    private final GameCatalog gameCatalog;
+    private final EffectCatalog effectCatalog;
 
-    public WonderService(WonderDAO wonderDAO, PlayerStateService playerStateService, LoggingService loggingService) {
+    public WonderService(WonderDAO wonderDAO, PlayerStateService playerStateService, LoggingService loggingService,
+                         GameCatalog gameCatalog, EffectCatalog effectCatalog) {
         this.wonderDAO = wonderDAO;
         this.playerStateService = playerStateService;
         this.loggingService = loggingService;
+        this.gameCatalog = gameCatalog;
+        this.effectCatalog = effectCatalog;
     }
 
     @Transactional(readOnly = true)
@@ -55,17 +63,44 @@ public class WonderService {
 
     @Transactional
     public WonderEntity createWonder(WonderEntity wonder) {
-        return wonderDAO.save(wonder);
+        WonderEntity saved = wonderDAO.save(wonder);
+        reloadCatalogsAfterCommit();
+        return saved;
     }
 
     @Transactional
     public WonderEntity updateWonder(WonderEntity wonder) {
-        return wonderDAO.save(wonder);
+        WonderEntity saved = wonderDAO.save(wonder);
+        reloadCatalogsAfterCommit();
+        return saved;
     }
 
     @Transactional
     public void deleteWonder(Long id) {
         wonderDAO.deleteById(id);
+        reloadCatalogsAfterCommit();
+    }
+
+    /**
+     * Rebuild the game catalog, then the effect catalog from it, once the change is committed.
+     * A rolled back change leaves both as they were.
+     */
+    private void reloadCatalogsAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reloadCatalogs();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reloadCatalogs();
+            }
+        });
+    }
+
+    private void reloadCatalogs() {
+        gameCatalog.load();
+        effectCatalog.load();
     }
 
     // Conversion methods
@@ -78,8 +113,10 @@ public class WonderService {
         dto.setId(entity.getId());
         dto.setName(entity.getName());
         dto.setFace(entity.getFace());
-        dto.setStartingResources(entity.getStartingResources());
-        dto.setStageCosts(entity.getStageCosts());
+        dto.setStartingResources(entity.getStartingResources().toMap());
+        dto.setStageCosts(entity.getStageCosts().stream()
+                .map(ResourceVector::toMap)
+                .collect(Collectors.toList()));
         dto.setNumberOfStages(entity.getNumberOfStages());
         dto.setImage(entity.getImage());
 
@@ -101,8 +138,10 @@ public class WonderService {
         entity.setId(dto.getId());
         entity.setName(dto.getName());
         entity.setFace(dto.getFace());
-        entity.setStartingResources(dto.getStartingResources());
-        entity.setStageCosts(dto.getStageCosts());
+        entity.setStartingResources(ResourceVector.of(dto.getStartingResources()));
+        entity.setStageCosts(dto.getStageCosts() == null ? null : dto.getStageCosts().stream()
+                .map(ResourceVector::of)
+                .collect(Collectors.toList()));
         entity.setNumberOfStages(dto.getNumberOfStages());
         entity.setImage(dto.getImage());
 
@@ -125,10 +164,8 @@ public class WonderService {
 
         loggingService.debug("Found players for wonder assignment - GameID: " + game.getId() + ", PlayerCount: " + playerStates.size(), "WonderService.handleGameCreation");
 
-        List<WonderEntity> allWonders = getAllWonders();
-        // Group by name to get pairs (A and B sides)
-        Map<String, List<WonderEntity>> wondersByName = allWonders.stream()
-                .collect(Collectors.groupingBy(WonderEntity::getName));
+        // Pairs of faces (A and B sides) by name
+        Map<String, List<WonderEntity>> wondersByName = gameCatalog.getWondersByName();
         
         List<String> wonderNames = new ArrayList<>(wondersByName.keySet());
         Collections.shuffle(wonderNames);
@@ -0,0 +1,114 @@
+package com.reynaud.wonders.util;
+
+/**
+ * Game-scoped context attached to every log entry written on the current thread.
+ * Controllers bind it once the game and player are known, and nested scopes
+ * (such as end-of-turn processing) add to it without losing the outer values.
+ * {@link com.reynaud.wonders.config.LogContextInterceptor} clears it after each request.
+ */
+public final class LogContext {
+
+    private static final ThreadLocal<LogContext> CURRENT = new ThreadLocal<>();
+
+    private final Long gameId;
+    private final Long playerStateId;
+    private final Long userId;
+    private final String action;
+
+    private LogContext(Long gameId, Long playerStateId, Long userId, String action) {
+        this.gameId = gameId;
+        this.playerStateId = playerStateId;
+        this.userId = userId;
+        this.action = action;
+    }
+
+    /**
+     * Get the context of the current thread, or null if none is bound
+     */
+    public static LogContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind a context for the rest of the current request.
+     * Null values are inherited from the context already bound.
+     */
+    public static void bind(Long gameId, Long playerStateId, Long userId, String action) {
+        CURRENT.set(merge(CURRENT.get(), gameId, playerStateId, userId, action));
+    }
+
+    /**
+     * Bind a context until the returned scope is closed, then restore the previous one.
+     * Null values are inherited from the context already bound.
+     */
+    public static Scope open(Long gameId, Long playerStateId, Long userId, String action) {
+        LogContext previous = CURRENT.get();
+        CURRENT.set(merge(previous, gameId, playerStateId, userId, action));
+        return new Scope(previous);
+    }
+
+    /**
+     * Bind a context captured on another thread until the returned scope is closed.
+     * Used to carry the caller's context over to the thread that runs its work.
+     */
+    public static Scope attach(LogContext context) {
+        LogContext previous = CURRENT.get();
+        if (context == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+        return new Scope(previous);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    private static LogContext merge(LogContext parent, Long gameId, Long playerStateId, Long userId, String action) {
+        if (parent == null) {
+            return new LogContext(gameId, playerStateId, userId, action);
+        }
+        return new LogContext(
+                gameId != null ? gameId : parent.gameId,
+                playerStateId != null ? playerStateId : parent.playerStateId,
+                userId != null ? userId : parent.userId,
+                action != null ? action : parent.action);
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public Long getPlayerStateId() {
+        return playerStateId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * Restores the previously bound context when closed
+     */
+    public static final class Scope implements AutoCloseable {
+        private final LogContext previous;
+
+        private Scope(LogContext previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
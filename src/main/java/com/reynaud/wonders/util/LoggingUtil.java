@@ -1,9 +1,12 @@
 package com.reynaud.wonders.util;
 
+import com.reynaud.wonders.model.LogLevel;
 import com.reynaud.wonders.service.LoggingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.function.Supplier;
+
 /**
  * Helper class to use logging service more easily across the application
  * Inject LoggingUtil into your services and use its convenient methods
@@ -27,18 +30,54 @@ public class LoggingUtil {
         }
     }
 
+    public static void debug(Supplier<String> message, String source) {
+        if (loggingService != null) {
+            loggingService.debug(message, source);
+        }
+    }
+
+    public static void debug(String pattern, String source, Object... args) {
+        if (loggingService != null) {
+            loggingService.debug(pattern, source, args);
+        }
+    }
+
     public static void info(String message, String source) {
         if (loggingService != null) {
             loggingService.info(message, source);
         }
     }
 
+    public static void info(Supplier<String> message, String source) {
+        if (loggingService != null) {
+            loggingService.info(message, source);
+        }
+    }
+
+    public static void info(String pattern, String source, Object... args) {
+        if (loggingService != null) {
+            loggingService.info(pattern, source, args);
+        }
+    }
+
     public static void warning(String message, String source) {
         if (loggingService != null) {
             loggingService.warning(message, source);
         }
     }
 
+    public static void warning(Supplier<String> message, String source) {
+        if (loggingService != null) {
+            loggingService.warning(message, source);
+        }
+    }
+
+    public static void warning(String pattern, String source, Object... args) {
+        if (loggingService != null) {
+            loggingService.warning(pattern, source, args);
+        }
+    }
+
     public static void error(String message, String source) {
         if (loggingService != null) {
             loggingService.error(message, source);
@@ -62,4 +101,8 @@ public class LoggingUtil {
             loggingService.critical(message, source, throwable);
         }
     }
+
+    public static boolean isEnabled(LogLevel level, String source) {
+        return loggingService != null && loggingService.isEnabled(level, source);
+    }
 }
@@ -1,20 +1,34 @@
 package com.reynaud.wonders.controller;
 
+import com.reynaud.wonders.dto.LogCursor;
+import com.reynaud.wonders.dto.LogFilter;
 import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.entity.LogStackTrace;
 import com.reynaud.wonders.model.LogLevel;
+import com.reynaud.wonders.service.AsyncLogWriter;
+import com.reynaud.wonders.service.LogExportService;
+import com.reynaud.wonders.service.LogRetentionService;
+import com.reynaud.wonders.service.LogSearchService;
+import com.reynaud.wonders.service.LogStatistics;
+import com.reynaud.wonders.service.LogStackTraceService;
+import com.reynaud.wonders.service.LogStreamService;
+import com.reynaud.wonders.service.LogTemplateService;
 import com.reynaud.wonders.service.LoggingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -22,6 +36,9 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @DisplayName("LogController Tests")
@@ -30,6 +47,30 @@ class LogControllerTest {
     @Mock
     private LoggingService loggingService;
 
+    @Mock
+    private AsyncLogWriter logWriter;
+
+    @Mock
+    private LogRetentionService retentionService;
+
+    @Mock
+    private LogStreamService streamService;
+
+    @Mock
+    private LogTemplateService templateService;
+
+    @Mock
+    private LogStackTraceService stackTraceService;
+
+    @Mock
+    private LogStatistics statistics;
+
+    @Mock
+    private LogSearchService searchService;
+
+    @Mock
+    private LogExportService exportService;
+
     @Mock
     private Authentication authentication;
 
@@ -43,22 +84,93 @@ class LogControllerTest {
     }
 
     @Test
-    @DisplayName("Should retrieve all logs with pagination")
+    @DisplayName("Should retrieve all logs with a next cursor")
     void testGetAllLogs() {
         LogEntry log1 = new LogEntry(LogLevel.INFO, "Message 1", "Source1");
-        log1.setId(1L);
+        log1.setId(2L);
         LogEntry log2 = new LogEntry(LogLevel.ERROR, "Message 2", "Source2");
-        log2.setId(2L);
-        Page<LogEntry> mockPage = new PageImpl<>(Arrays.asList(log1, log2), PageRequest.of(0, 50), 2);
+        log2.setId(1L);
+        Slice<LogEntry> mockSlice = new SliceImpl<>(Arrays.asList(log1, log2), PageRequest.of(0, 2), true);
 
-        when(loggingService.getAllLogs(1)).thenReturn(mockPage);
+        when(loggingService.findLogs(any(LogFilter.class), isNull(), eq(2))).thenReturn(mockSlice);
 
-        ResponseEntity<Map<String, Object>> response = logController.getAllLogs(1, null, null, authentication);
+        ResponseEntity<Map<String, Object>> response = logController.getAllLogs(null, 2, null, null, null, null, null, 0, authentication);
 
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().containsKey("page"));
         assertTrue(response.getBody().containsKey("logs"));
-        verify(loggingService, times(1)).getAllLogs(1);
+        assertEquals(true, response.getBody().get("hasMore"));
+        assertEquals(LogCursor.after(log2).encode(), response.getBody().get("nextCursor"));
+    }
+
+    @Test
+    @DisplayName("Should push exclusions into the query filter")
+    void testGetAllLogsWithExclusions() {
+        when(loggingService.findLogs(any(LogFilter.class), any(), anyInt())).thenReturn(new SliceImpl<>(List.of()));
+
+        logController.getAllLogs(null, 50, null, null, List.of(LogLevel.DEBUG), List.of(" MyService "), null, 0, authentication);
+
+        ArgumentCaptor<LogFilter> captor = ArgumentCaptor.forClass(LogFilter.class);
+        verify(loggingService, times(1)).findLogs(captor.capture(), isNull(), eq(50));
+        assertEquals(List.of(LogLevel.DEBUG), captor.getValue().getExcludedLevels());
+        assertEquals(List.of("MyService"), captor.getValue().getExcludedSources());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void testGetAllLogsBadCursor() {
+        ResponseEntity<Map<String, Object>> response = logController.getAllLogs("garbage", 50, null, null, null, null, null, 0, authentication);
+
+        assertEquals(400, response.getStatusCode().value());
+        verify(loggingService, never()).findLogs(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should search log messages with a keyset cursor")
+    void testSearchLogs() {
+        LogEntry match = new LogEntry(LogLevel.INFO, "Alice built the Great Library", "Source");
+        match.setId(9L);
+        when(searchService.search(eq("alice \"great library\""), isNull(), eq(1)))
+                .thenReturn(new SliceImpl<>(List.of(match), PageRequest.of(0, 1), true));
+
+        ResponseEntity<Map<String, Object>> response = logController.searchLogs("alice \"great library\"", null, 1, authentication);
+
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().get("count"));
+        assertEquals(LogCursor.after(match).encode(), response.getBody().get("nextCursor"));
+    }
+
+    @Test
+    @DisplayName("Should reject a search without searchable words")
+    void testSearchLogsBadQuery() {
+        when(searchService.search(eq("!"), any(), anyInt())).thenThrow(new IllegalArgumentException("No words"));
+
+        ResponseEntity<Map<String, Object>> response = logController.searchLogs("!", null, 50, authentication);
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    @DisplayName("Should stream an export as a gzip attachment")
+    void testExportLogs() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        logController.exportLogs(null, null, List.of(LogLevel.ERROR), response);
+
+        assertEquals("application/gzip", response.getContentType());
+        assertTrue(response.getHeader("Content-Disposition").endsWith(".ndjson.gz\""));
+        verify(exportService).export(isNull(), isNull(), eq(List.of(LogLevel.ERROR)), eq(response.getOutputStream()));
+    }
+
+    @Test
+    @DisplayName("Should reject an export with an empty range")
+    void testExportLogsBadRange() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        LocalDateTime since = LocalDateTime.of(2026, 1, 2, 0, 0);
+
+        logController.exportLogs(since, since.minusDays(1), null, response);
+
+        assertEquals(400, response.getStatus());
+        verifyNoInteractions(exportService);
     }
 
     @Test
@@ -66,15 +178,16 @@ class LogControllerTest {
     void testGetLogsByLevel() {
         LogEntry errorLog = new LogEntry(LogLevel.ERROR, "Error message", "Source");
         errorLog.setId(1L);
-        Page<LogEntry> mockPage = new PageImpl<>(Arrays.asList(errorLog), PageRequest.of(0, 50), 1);
 
-        when(loggingService.getLogsByLevel(LogLevel.ERROR, 1)).thenReturn(mockPage);
+        when(loggingService.findLogs(any(LogFilter.class), any(), anyInt())).thenReturn(new SliceImpl<>(List.of(errorLog)));
 
-        ResponseEntity<Map<String, Object>> response = logController.getLogsByLevel(LogLevel.ERROR, 1, null, null, authentication);
+        ResponseEntity<Map<String, Object>> response = logController.getLogsByLevel(LogLevel.ERROR, null, 50, null, null, authentication);
 
         assertNotNull(response.getBody());
         assertTrue(response.getBody().containsKey("logs"));
-        verify(loggingService, times(1)).getLogsByLevel(LogLevel.ERROR, 1);
+        ArgumentCaptor<LogFilter> captor = ArgumentCaptor.forClass(LogFilter.class);
+        verify(loggingService, times(1)).findLogs(captor.capture(), any(), anyInt());
+        assertEquals(List.of(LogLevel.ERROR), captor.getValue().getLevels());
     }
 
     @Test
@@ -82,45 +195,96 @@ class LogControllerTest {
     void testGetLogsBySource() {
         LogEntry log = new LogEntry(LogLevel.INFO, "Test", "GameService");
         log.setId(1L);
-        Page<LogEntry> mockPage = new PageImpl<>(Arrays.asList(log), PageRequest.of(0, 50), 1);
 
-        when(loggingService.getLogsBySource("GameService", 1)).thenReturn(mockPage);
+        when(loggingService.findLogs(any(LogFilter.class), any(), anyInt())).thenReturn(new SliceImpl<>(List.of(log)));
 
-        ResponseEntity<Map<String, Object>> response = logController.getLogsBySource("GameService", 1, null, null, authentication);
+        ResponseEntity<Map<String, Object>> response = logController.getLogsBySource("GameService", null, 50, null, null, authentication);
 
         assertNotNull(response.getBody());
         assertTrue(response.getBody().containsKey("logs"));
-        verify(loggingService, times(1)).getLogsBySource("GameService", 1);
+        ArgumentCaptor<LogFilter> captor = ArgumentCaptor.forClass(LogFilter.class);
+        verify(loggingService, times(1)).findLogs(captor.capture(), any(), anyInt());
+        assertEquals(List.of("GameService"), captor.getValue().getSources());
     }
 
     @Test
     @DisplayName("Should retrieve unread logs")
     void testGetUnreadLogs() {
         LogEntry unreadLog = new LogEntry(LogLevel.WARNING, "Unread", "Source");
+        unreadLog.setId(1L);
         unreadLog.setReadByAdmin(false);
 
-        when(loggingService.getUnreadLogs()).thenReturn(Arrays.asList(unreadLog));
+        when(loggingService.findLogs(any(LogFilter.class), any(), anyInt())).thenReturn(new SliceImpl<>(List.of(unreadLog)));
+        when(loggingService.getUnreadLogsCount()).thenReturn(1L);
 
-        ResponseEntity<Map<String, Object>> response = logController.getUnreadLogs(null, null, authentication);
+        ResponseEntity<Map<String, Object>> response = logController.getUnreadLogs(null, 50, null, null, authentication);
 
         assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().get("totalUnread"));
-        verify(loggingService, times(1)).getUnreadLogs();
+        assertEquals(1L, response.getBody().get("totalUnread"));
+        ArgumentCaptor<LogFilter> captor = ArgumentCaptor.forClass(LogFilter.class);
+        verify(loggingService, times(1)).findLogs(captor.capture(), any(), anyInt());
+        assertEquals(false, captor.getValue().getReadByAdmin());
     }
 
     @Test
     @DisplayName("Should retrieve recent logs")
     void testGetRecentLogs() {
         LogEntry recentLog = new LogEntry(LogLevel.INFO, "Recent", "Source");
+        recentLog.setId(1L);
 
-        when(loggingService.getRecentLogs(any(LocalDateTime.class)))
-                .thenReturn(Arrays.asList(recentLog));
+        when(loggingService.findLogs(any(LogFilter.class), any(), anyInt())).thenReturn(new SliceImpl<>(List.of(recentLog)));
 
-        ResponseEntity<Map<String, Object>> response = logController.getRecentLogs(30, null, null, authentication);
+        ResponseEntity<Map<String, Object>> response = logController.getRecentLogs(30, null, 50, null, null, authentication);
 
         assertNotNull(response.getBody());
         assertEquals(30, response.getBody().get("sinceMintuesAgo"));
-        verify(loggingService, times(1)).getRecentLogs(any(LocalDateTime.class));
+        ArgumentCaptor<LogFilter> captor = ArgumentCaptor.forClass(LogFilter.class);
+        verify(loggingService, times(1)).findLogs(captor.capture(), any(), anyInt());
+        assertNotNull(captor.getValue().getSince());
+    }
+
+    @Test
+    @DisplayName("Should retrieve logs for one game")
+    void testGetLogsByGame() {
+        when(loggingService.findLogs(any(LogFilter.class), isNull(), eq(50)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        ResponseEntity<Map<String, Object>> response = logController.getLogsByGame(
+                12L, 40L, null, null, 50, null, null, authentication);
+
+        assertNotNull(response.getBody());
+        assertEquals(12L, response.getBody().get("gameId"));
+        ArgumentCaptor<LogFilter> captor = ArgumentCaptor.forClass(LogFilter.class);
+        verify(loggingService, times(1)).findLogs(captor.capture(), isNull(), eq(50));
+        assertEquals(12L, captor.getValue().getGameId());
+        assertEquals(40L, captor.getValue().getPlayerStateId());
+    }
+
+    @Test
+    @DisplayName("Should list errors grouped by fingerprint")
+    void testGetErrorGroups() {
+        LogStackTrace group = new LogStackTrace();
+        group.setFingerprint("abc123");
+        group.setExceptionClass("java.lang.IllegalStateException");
+        group.setOccurrenceCount(4200L);
+        when(stackTraceService.findGroups(isNull(), eq(50))).thenReturn(List.of(group));
+
+        ResponseEntity<Map<String, Object>> response = logController.getErrorGroups(0, 50, authentication);
+
+        assertNotNull(response.getBody());
+        List<?> groups = (List<?>) response.getBody().get("groups");
+        assertEquals(1, groups.size());
+        assertEquals(4200L, ((Map<?, ?>) groups.get(0)).get("occurrences"));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for an unknown error group")
+    void testGetUnknownErrorGroup() {
+        when(stackTraceService.findGroup("missing")).thenReturn(null);
+
+        ResponseEntity<Map<String, Object>> response = logController.getErrorGroup("missing", null, 50, authentication);
+
+        assertEquals(404, response.getStatusCode().value());
     }
 
     @Test
@@ -138,9 +302,12 @@ class LogControllerTest {
     @Test
     @DisplayName("Should mark all logs as read")
     void testMarkAllAsRead() {
+        when(loggingService.markAllAsRead()).thenReturn(4L);
+
         ResponseEntity<Map<String, Object>> response = logController.markAllAsRead(authentication);
 
         assertNotNull(response.getBody());
+        assertEquals(4L, response.getBody().get("logsMarked"));
         verify(loggingService, times(1)).markAllAsRead();
     }
 
@@ -168,6 +335,32 @@ class LogControllerTest {
         verify(loggingService, times(1)).clearOldLogs(30);
     }
 
+    @Test
+    @DisplayName("Should open a live stream with the requested filters")
+    void testStreamLogs() {
+        logController.streamLogs(List.of(LogLevel.ERROR), null, null, List.of("Noisy", " "), 0, 41L);
+
+        ArgumentCaptor<LogFilter> captor = ArgumentCaptor.forClass(LogFilter.class);
+        verify(streamService, times(1)).subscribe(captor.capture(), eq(41L), eq(0));
+        assertEquals(List.of(LogLevel.ERROR), captor.getValue().getLevels());
+        assertEquals(List.of("Noisy"), captor.getValue().getExcludedSources());
+    }
+
+    @Test
+    @DisplayName("Should run the retention policy on demand")
+    void testRunRetention() {
+        Map<LogLevel, Long> deleted = new java.util.EnumMap<>(LogLevel.class);
+        deleted.put(LogLevel.DEBUG, 7L);
+        deleted.put(LogLevel.INFO, 3L);
+        when(retentionService.applyRetention()).thenReturn(deleted);
+
+        ResponseEntity<Map<String, Object>> response = logController.runRetention(authentication);
+
+        assertNotNull(response.getBody());
+        assertEquals(10L, response.getBody().get("totalDeleted"));
+        verify(retentionService, times(1)).applyRetention();
+    }
+
     @Test
     @DisplayName("Should health check endpoint")
     void testHealth() {
@@ -177,4 +370,30 @@ class LogControllerTest {
         assertEquals("UP", response.getBody().get("status"));
         assertEquals("admin_user", response.getBody().get("admin"));
     }
+
+    @Test
+    @DisplayName("Should set a source log level")
+    void testSetLogLevel() {
+        ResponseEntity<Map<String, Object>> response = logController.setLogLevel("CardPlayManager.canAffordCost", LogLevel.INFO, authentication);
+
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().containsKey("sourceLevels"));
+        verify(loggingService, times(1)).setSourceThreshold("CardPlayManager.canAffordCost", LogLevel.INFO);
+        verify(loggingService, never()).setDefaultLevel(any());
+    }
+
+    @Test
+    @DisplayName("Should serve the histogram from the in-memory counters")
+    void testGetHistogram() {
+        when(statistics.getHistogram(30)).thenReturn(List.of());
+        when(statistics.getUnreadCount()).thenReturn(3L);
+
+        ResponseEntity<Map<String, Object>> response = logController.getHistogram(30, 10, authentication);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(3L, response.getBody().get("unreadCount"));
+        verify(statistics).getTopSources(10);
+        verify(loggingService, never()).findLogs(any(), any(), anyInt());
+        assertEquals(400, logController.getHistogram(0, 10, authentication).getStatusCode().value());
+    }
 }
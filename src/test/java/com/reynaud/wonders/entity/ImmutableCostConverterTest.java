@@ -0,0 +1,34 @@
+package com.reynaud.wonders.entity;
+
+import com.reynaud.wonders.model.ResourceVector;
+import com.reynaud.wonders.model.Ressources;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ImmutableCostConverter Tests")
+class ImmutableCostConverterTest {
+
+    @Test
+    @DisplayName("Should load fixed costs immutable and player resources mutable")
+    void testMutability() {
+        ResourceVector cost = new ImmutableCostConverter().convertToEntityAttribute("{\"WOOD\":2}");
+        ResourceVector resources = new RessourceCostConverter().convertToEntityAttribute("{\"WOOD\":2}");
+
+        assertEquals(2, cost.get(Ressources.WOOD));
+        assertFalse(cost.isMutable());
+        assertThrows(UnsupportedOperationException.class, () -> cost.add(Ressources.WOOD, 1));
+        assertTrue(resources.isMutable());
+        assertEquals(cost, resources);
+    }
+
+    @Test
+    @DisplayName("Should load an empty column as an immutable empty cost")
+    void testEmpty() {
+        ResourceVector cost = new ImmutableCostConverter().convertToEntityAttribute(null);
+
+        assertTrue(cost.isEmpty());
+        assertFalse(cost.isMutable());
+    }
+}
@@ -0,0 +1,132 @@
+package com.reynaud.wonders.manager;
+
+import com.reynaud.wonders.entity.CardEntity;
+import com.reynaud.wonders.entity.GameEntity;
+import com.reynaud.wonders.entity.PlayerStateEntity;
+import com.reynaud.wonders.entity.UserEntity;
+import com.reynaud.wonders.model.Age;
+import com.reynaud.wonders.model.CardPlayability;
+import com.reynaud.wonders.model.PurchasePlan;
+import com.reynaud.wonders.model.ResourceVector;
+import com.reynaud.wonders.service.GameSession;
+import com.reynaud.wonders.service.GameSessionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PlayabilityManager Tests")
+class PlayabilityManagerTest {
+
+    @Mock
+    private CardPlayManager cardPlayManager;
+
+    @Mock
+    private WonderBuildManager wonderBuildManager;
+
+    @Mock
+    private GameSessionRegistry gameSessions;
+
+    private PlayabilityManager playabilityManager;
+    private GameEntity game;
+    private GameSession session;
+    private List<PlayerStateEntity> players;
+    private CardEntity card;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        playabilityManager = new PlayabilityManager(cardPlayManager, wonderBuildManager, gameSessions);
+
+        game = new GameEntity();
+        game.setId(1L);
+        game.setCurrentAge(Age.AGE_I);
+        players = new ArrayList<>();
+        for (int position = 0; position < 4; position++) {
+            UserEntity user = new UserEntity();
+            user.setId(100L + position);
+            PlayerStateEntity player = new PlayerStateEntity(game, user, position);
+            player.setId(10L + position);
+            players.add(player);
+        }
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).setLeftNeighbor(players.get((i + 1) % players.size()));
+            players.get(i).setRightNeighbor(players.get((i + players.size() - 1) % players.size()));
+        }
+        game.setPlayerStates(players);
+        session = new GameSession(game);
+
+        card = new CardEntity();
+        card.setId(5L);
+        card.setCoinCost(0);
+        card.setCost(ResourceVector.empty());
+        players.get(0).setHand(new ArrayList<>(List.of(card)));
+
+        when(gameSessions.get(1L)).thenReturn(session);
+        when(cardPlayManager.canPlayCard(any(), any())).thenReturn(true);
+        when(cardPlayManager.planPurchase(any(), any())).thenReturn(
+                new PurchasePlan(true, ResourceVector.EMPTY, ResourceVector.EMPTY, ResourceVector.EMPTY,
+                        ResourceVector.EMPTY, ResourceVector.EMPTY, 2, 1));
+        when(wonderBuildManager.canBuildWonderWithCard(any())).thenReturn(false);
+    }
+
+    @Test
+    @DisplayName("Should compute the hand once while nothing changes")
+    void testCachedWhilePolling() {
+        Map<Long, CardPlayability> first = playabilityManager.getPlayability(game, players.get(0));
+        Map<Long, CardPlayability> second = playabilityManager.getPlayability(game, players.get(0));
+
+        assertSame(first, second);
+        assertTrue(first.get(5L).isPlayable());
+        assertEquals(3, first.get(5L).getPlayCost());
+        assertFalse(first.get(5L).isBuildable());
+        verify(cardPlayManager, times(1)).canPlayCard(players.get(0), card);
+    }
+
+    @Test
+    @DisplayName("Should recompute when the player or a neighbor changes, not when someone further away does")
+    void testInvalidatedByVersions() {
+        PlayerStateEntity player = players.get(0);
+        Map<Long, CardPlayability> first = playabilityManager.getPlayability(game, player);
+
+        session.markChanged(players.get(2));
+        assertSame(first, playabilityManager.getPlayability(game, player));
+
+        session.markChanged(player.getLeftNeighbor());
+        Map<Long, CardPlayability> second = playabilityManager.getPlayability(game, player);
+        assertNotSame(first, second);
+
+        session.markChanged(player);
+        assertNotSame(second, playabilityManager.getPlayability(game, player));
+        verify(cardPlayManager, times(3)).canPlayCard(player, card);
+    }
+
+    @Test
+    @DisplayName("Should recompute when the age changes")
+    void testInvalidatedByAge() {
+        Map<Long, CardPlayability> first = playabilityManager.getPlayability(game, players.get(0));
+        game.setCurrentAge(Age.AGE_II);
+
+        assertNotSame(first, playabilityManager.getPlayability(game, players.get(0)));
+    }
+
+    @Test
+    @DisplayName("Should compute every time for games without a session")
+    void testWithoutSession() {
+        when(gameSessions.get(1L)).thenReturn(null);
+
+        playabilityManager.getPlayability(game, players.get(0));
+        playabilityManager.getPlayability(game, players.get(0));
+
+        verify(cardPlayManager, times(2)).canPlayCard(players.get(0), card);
+    }
+}
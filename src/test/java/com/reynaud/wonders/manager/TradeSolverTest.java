@@ -0,0 +1,118 @@
+package com.reynaud.wonders.manager;
+
+import com.reynaud.wonders.model.PurchasePlan;
+import com.reynaud.wonders.model.ResourceVector;
+import com.reynaud.wonders.model.Ressources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TradeSolver Tests")
+class TradeSolverTest {
+
+    private TradeSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        solver = new TradeSolver();
+    }
+
+    private static ResourceVector vector(Object... resourcesAndCounts) {
+        ResourceVector vector = ResourceVector.empty();
+        for (int i = 0; i < resourcesAndCounts.length; i += 2) {
+            vector.set((Ressources) resourcesAndCounts[i], (Integer) resourcesAndCounts[i + 1]);
+        }
+        return vector;
+    }
+
+    private PurchasePlan plan(ResourceVector cost, ResourceVector own, ResourceVector left, ResourceVector right,
+                              int leftPrice, int rightPrice) {
+        return solver.plan(cost, own, left, right, leftPrice, rightPrice, leftPrice, rightPrice);
+    }
+
+    @Test
+    @DisplayName("Should cover a cost with own resources for free")
+    void testOwnResources() {
+        PurchasePlan plan = plan(vector(Ressources.WOOD, 2), vector(Ressources.WOOD, 3), vector(), vector(), 2, 2);
+
+        assertTrue(plan.isAffordable(0));
+        assertEquals(0, plan.getTotalCost());
+        assertEquals(2, plan.getFromOwn().get(Ressources.WOOD));
+    }
+
+    @Test
+    @DisplayName("Should buy from the cheaper neighbor first and the rest from the other")
+    void testAsymmetricPrices() {
+        PurchasePlan plan = plan(vector(Ressources.WOOD, 2), vector(),
+                vector(Ressources.WOOD, 2), vector(Ressources.WOOD, 1), 2, 1);
+
+        assertEquals(1, plan.getBoughtFromRight().get(Ressources.WOOD));
+        assertEquals(1, plan.getBoughtFromLeft().get(Ressources.WOOD));
+        assertEquals(1, plan.getCoinsToRight());
+        assertEquals(2, plan.getCoinsToLeft());
+        assertEquals(3, plan.getTotalCost());
+        assertFalse(plan.isAffordable(2));
+        assertTrue(plan.isAffordable(3));
+    }
+
+    @Test
+    @DisplayName("Should spend a mutable pair where it saves the most coins")
+    void testPairAgainstPrices() {
+        // Greedy would spend the pair on stone and buy wood at 2; using it on wood and buying stone at 1 is cheaper
+        PurchasePlan plan = plan(vector(Ressources.STONE, 1, Ressources.WOOD, 1), vector(Ressources.STONE_WOOD, 1),
+                vector(Ressources.STONE, 1), vector(Ressources.WOOD, 1), 1, 2);
+
+        assertEquals(1, plan.getTotalCost());
+        assertEquals(1, plan.getFromPairs().get(Ressources.WOOD));
+        assertEquals(1, plan.getBoughtFromLeft().get(Ressources.STONE));
+        assertTrue(plan.getBoughtFromRight().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should combine own pairs and wildcards so both are used")
+    void testPairAndWildcard() {
+        PurchasePlan plan = plan(vector(Ressources.STONE, 1, Ressources.ORE, 1),
+                vector(Ressources.STONE_WOOD, 1, Ressources.MUTABLE_BASE, 1), vector(), vector(), 2, 2);
+
+        assertTrue(plan.isAffordable(0));
+        assertEquals(1, plan.getFromPairs().get(Ressources.STONE));
+        assertEquals(1, plan.getFromWildcards().get(Ressources.ORE));
+    }
+
+    @Test
+    @DisplayName("Should sell only one option of a neighbor's pair")
+    void testNeighborPair() {
+        PurchasePlan plan = plan(vector(Ressources.STONE, 1, Ressources.WOOD, 1), vector(),
+                vector(Ressources.STONE_WOOD, 1), vector(Ressources.WOOD, 1), 1, 2);
+
+        assertEquals(1, plan.getBoughtFromLeft().get(Ressources.STONE));
+        assertEquals(1, plan.getBoughtFromRight().get(Ressources.WOOD));
+        assertEquals(3, plan.getTotalCost());
+    }
+
+    @Test
+    @DisplayName("Should report a cost nobody can supply as infeasible")
+    void testInfeasible() {
+        // Neighbor wildcards cannot be bought
+        PurchasePlan plan = plan(vector(Ressources.GLASS, 1), vector(Ressources.MUTABLE_BASE, 1),
+                vector(Ressources.MUTABLE_ADVANCED, 1), vector(Ressources.PAPER, 2), 1, 1);
+
+        assertFalse(plan.isFeasible());
+        assertFalse(plan.isAffordable(100));
+    }
+
+    @Test
+    @DisplayName("Should reuse the plan of identical inputs")
+    void testCache() {
+        PurchasePlan first = plan(vector(Ressources.ORE, 1), vector(), vector(Ressources.ORE, 1), vector(), 2, 2);
+        PurchasePlan second = plan(vector(Ressources.ORE, 1), vector(), vector(Ressources.ORE, 1), vector(), 2, 2);
+        PurchasePlan otherPrice = plan(vector(Ressources.ORE, 1), vector(), vector(Ressources.ORE, 1), vector(), 1, 2);
+
+        assertSame(first, second);
+        assertNotSame(first, otherPrice);
+        assertEquals(1, otherPrice.getTotalCost());
+        assertEquals(2, solver.getCachedPlanCount());
+    }
+}
@@ -0,0 +1,41 @@
+package com.reynaud.wonders.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CardTypeCounts Tests")
+class CardTypeCountsTest {
+
+    @Test
+    @DisplayName("Should count cards by type and sum several types")
+    void testCounts() {
+        CardTypeCounts counts = CardTypeCounts.empty()
+                .add(CardType.BROWN)
+                .add(CardType.BROWN)
+                .add(CardType.GREY)
+                .add(CardType.VIOLET);
+
+        assertEquals(2, counts.get(CardType.BROWN));
+        assertEquals(0, counts.get(CardType.BLUE));
+        assertEquals(4, counts.get(List.of(CardType.BROWN, CardType.GREY, CardType.VIOLET)));
+        assertEquals(4, counts.total());
+    }
+
+    @Test
+    @DisplayName("Should convert to and from maps, keeping only non-zero counts")
+    void testMapConversion() {
+        CardTypeCounts counts = CardTypeCounts.of(Map.of(CardType.RED, 2, CardType.GREEN, 1));
+
+        assertEquals(Map.of(CardType.RED, 2, CardType.GREEN, 1), counts.toMap());
+        assertEquals(counts, CardTypeCounts.of(counts.toMap()));
+
+        CardTypeCounts copy = counts.copy().add(CardType.RED);
+        assertEquals(2, counts.get(CardType.RED));
+        assertEquals(3, copy.get(CardType.RED));
+    }
+}
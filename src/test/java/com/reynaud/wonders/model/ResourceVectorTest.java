@@ -0,0 +1,75 @@
+package com.reynaud.wonders.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ResourceVector Tests")
+class ResourceVectorTest {
+
+    @Test
+    @DisplayName("Should convert to and from maps, keeping only non-zero counts")
+    void testMapConversion() {
+        Map<Ressources, Integer> map = new EnumMap<>(Ressources.class);
+        map.put(Ressources.WOOD, 2);
+        map.put(Ressources.GLASS, 1);
+        map.put(Ressources.ORE, 0);
+        map.put(Ressources.PAPER, null);
+
+        ResourceVector vector = ResourceVector.of(map);
+
+        assertEquals(2, vector.get(Ressources.WOOD));
+        assertEquals(0, vector.get(Ressources.PAPER));
+        assertEquals(Map.of(Ressources.WOOD, 2, Ressources.GLASS, 1), vector.toMap());
+        assertTrue(ResourceVector.of(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should add, subtract and compare vectors")
+    void testArithmetic() {
+        ResourceVector owned = ResourceVector.empty().add(Ressources.STONE, 2).add(Ressources.TEXTILE, 1);
+        ResourceVector cost = ResourceVector.empty().add(Ressources.STONE, 2);
+
+        assertTrue(owned.dominates(cost));
+        assertFalse(cost.dominates(owned));
+
+        owned.subtract(cost).add(cost).add(cost);
+        assertEquals(4, owned.get(Ressources.STONE));
+        assertEquals(5, owned.sum());
+        assertEquals(4, owned.sumBase());
+        assertEquals(1, owned.sumAdvanced());
+    }
+
+    @Test
+    @DisplayName("Should compute what is missing to cover a cost")
+    void testDeficit() {
+        ResourceVector owned = ResourceVector.empty().add(Ressources.WOOD, 1).add(Ressources.PAPER, 3);
+        ResourceVector cost = ResourceVector.empty().add(Ressources.WOOD, 3).add(Ressources.PAPER, 1).add(Ressources.GLASS, 1);
+        ResourceVector target = ResourceVector.empty().add(Ressources.ORE, 9);
+
+        assertSame(target, owned.deficit(cost, target));
+
+        assertEquals(Map.of(Ressources.WOOD, 2, Ressources.GLASS, 1), target.toMap());
+    }
+
+    @Test
+    @DisplayName("Should refuse to modify an immutable vector")
+    void testImmutable() {
+        ResourceVector mutable = ResourceVector.empty().add(Ressources.BRICK, 1);
+        ResourceVector frozen = mutable.immutableCopy();
+
+        assertThrows(UnsupportedOperationException.class, () -> frozen.add(Ressources.BRICK, 1));
+        assertThrows(UnsupportedOperationException.class, () -> ResourceVector.EMPTY.clear());
+        assertSame(frozen, frozen.immutableCopy());
+        assertEquals(mutable, frozen);
+        assertEquals(mutable.hashCode(), frozen.hashCode());
+
+        ResourceVector copy = frozen.mutableCopy().add(Ressources.BRICK, 1);
+        assertEquals(2, copy.get(Ressources.BRICK));
+        assertEquals(1, frozen.get(Ressources.BRICK));
+    }
+}
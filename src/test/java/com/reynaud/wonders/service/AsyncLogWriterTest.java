@@ -0,0 +1,75 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AsyncLogWriter Tests")
+class AsyncLogWriterTest {
+
+    @Mock
+    private LogSinkRouter sinkRouter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @DisplayName("Should drain queued entries on shutdown")
+    @SuppressWarnings("unchecked")
+    void testDrainOnShutdown() {
+        AsyncLogWriter writer = new AsyncLogWriter(sinkRouter, 100, 10, 50, 5000);
+        writer.start();
+
+        for (int i = 0; i < 25; i++) {
+            assertTrue(writer.submit(new LogEntry(LogLevel.INFO, "Message " + i, "Source")));
+        }
+        writer.shutdown();
+
+        ArgumentCaptor<List<LogEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sinkRouter, atLeastOnce()).write(captor.capture());
+        int written = captor.getAllValues().stream().mapToInt(List::size).sum();
+        assertEquals(25, written);
+        assertTrue(captor.getAllValues().stream().allMatch(batch -> batch.size() <= 10));
+        assertEquals(0, writer.getQueueSize());
+        verify(sinkRouter).flush();
+    }
+
+    @Test
+    @DisplayName("Should write entries inline once the writer is stopped")
+    void testWriteInlineAfterShutdown() {
+        AsyncLogWriter writer = new AsyncLogWriter(sinkRouter, 2, 10, 50, 5000);
+        writer.start();
+        writer.shutdown();
+
+        assertTrue(writer.submit(new LogEntry(LogLevel.DEBUG, "Late entry", "Source")));
+        verify(sinkRouter, times(1)).write(anyList());
+    }
+
+    @Test
+    @DisplayName("Should route batches through real sinks per level")
+    void testRoutesPerLevel() {
+        InMemoryLogSink debugSink = new InMemoryLogSink(100);
+        LogSink otherSink = mock(LogSink.class);
+        when(otherSink.getName()).thenReturn("other");
+        LogSinkRouter router = new LogSinkRouter(List.of(debugSink, otherSink), "memory", "other", "other", "other", "other");
+        AsyncLogWriter writer = new AsyncLogWriter(router, 2, 10, 50, 5000);
+
+        writer.submit(new LogEntry(LogLevel.DEBUG, "Step", "Source"));
+
+        assertEquals(1, debugSink.getEntries().size());
+        verify(otherSink, never()).write(anyList());
+    }
+}
@@ -0,0 +1,137 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DatabaseLogSink Tests")
+class DatabaseLogSinkTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private LogTemplateService templateService;
+
+    @Mock
+    private LogStackTraceService stackTraceService;
+
+    @Mock
+    private LogStatistics statistics;
+
+    @Mock
+    private LogSearchService searchService;
+
+    @InjectMocks
+    private DatabaseLogSink sink;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @DisplayName("Should insert a batch in one statement")
+    void testWriteBatch() {
+        List<LogEntry> entries = List.of(
+                new LogEntry(LogLevel.INFO, "First", "Source"),
+                new LogEntry(LogLevel.ERROR, "Second", "Source"));
+
+        sink.write(entries);
+
+        ArgumentCaptor<BatchPreparedStatementSetter> captor = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(any(PreparedStatementCreator.class), captor.capture(), any(KeyHolder.class));
+        assertEquals(2, captor.getValue().getBatchSize());
+        assertEquals("ERROR", DatabaseLogSink.toRow(entries.get(1))[1]);
+        verify(stackTraceService).recordOccurrences(argThat(written -> written.size() == 2));
+        assertEquals(List.of("First", "Second"), recorded().stream().map(LogEntry::getMessage).toList());
+    }
+
+    @Test
+    @DisplayName("Should put generated ids on the copies it indexes, never on the published entries")
+    void testAssignGeneratedIds() {
+        doAnswer(invocation -> {
+            KeyHolder keys = invocation.getArgument(2);
+            keys.getKeyList().add(Map.of("id", 41L));
+            keys.getKeyList().add(Map.of("id", 42L));
+            return new int[] {1, 1};
+        }).when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        List<LogEntry> entries = List.of(
+                new LogEntry(LogLevel.INFO, "First", "Source"),
+                new LogEntry(LogLevel.INFO, "Second", "Source"));
+
+        sink.write(entries);
+
+        assertEquals(List.of(41L, 42L), recorded().stream().map(LogEntry::getId).toList());
+        verify(searchService).index(recorded());
+        assertNull(entries.get(0).getId());
+        assertNull(entries.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Should write templated entries as a template id and arguments")
+    void testWriteTemplatedEntry() {
+        when(templateService.intern("Coins: {}")).thenReturn(3L);
+
+        LogEntry entry = templated();
+        sink.write(List.of(entry));
+
+        Object[] row = DatabaseLogSink.toRow(recorded().get(0));
+        assertEquals(3L, row[10]);
+        assertEquals("1:7", row[11]);
+        assertNull(entry.getTemplateId());
+        assertEquals("Coins: {}", entry.getMessageTemplate());
+    }
+
+    @Test
+    @DisplayName("Should store the rendered text when a template cannot be interned, leaving the published entry alone")
+    void testTemplateFallback() {
+        when(templateService.intern("Coins: {}")).thenThrow(new DataAccessResourceFailureException("Database down"));
+        when(templateService.render(any(LogEntry.class))).thenReturn("Coins: 7");
+
+        LogEntry entry = templated();
+        sink.write(List.of(entry));
+
+        Object[] row = DatabaseLogSink.toRow(recorded().get(0));
+        assertEquals("Coins: 7", row[2]);
+        assertNull(row[11]);
+        assertEquals("Coins: {}", entry.getMessageTemplate());
+        assertEquals("1:7", entry.getArguments());
+    }
+
+    private static LogEntry templated() {
+        LogEntry entry = new LogEntry(LogLevel.INFO, "", "Source");
+        entry.setMessageTemplate("Coins: {}");
+        entry.setArguments(LogTemplateService.encodeArguments(new Object[] {7}));
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LogEntry> recorded() {
+        ArgumentCaptor<List<LogEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statistics).record(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,101 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.EffectDAO;
+import com.reynaud.wonders.entity.CardEntity;
+import com.reynaud.wonders.entity.EffectEntity;
+import com.reynaud.wonders.entity.WonderEntity;
+import com.reynaud.wonders.model.EffectTiming;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("EffectCatalog Tests")
+class EffectCatalogTest {
+
+    @Mock
+    private EffectDAO effectDAO;
+
+    @Mock
+    private GameCatalog gameCatalog;
+
+    @Mock
+    private LoggingService loggingService;
+
+    private EffectCatalog effectCatalog;
+    private EffectEntity lumberYard;
+    private EffectEntity gizahStage2;
+    private CardEntity lumberYardCard;
+    private CardEntity unknownCard;
+    private WonderEntity gizah;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        effectCatalog = new EffectCatalog(effectDAO, gameCatalog, loggingService);
+
+        lumberYard = effect("LUMBER_YARD_WOOD_1");
+        gizahStage2 = effect("GIZAH_A_STAGE_2_VP_5");
+        lumberYardCard = card(1L, "Lumber Yard");
+        unknownCard = card(2L, "Unknown Card");
+        gizah = new WonderEntity("Gizah", "A", 3);
+        gizah.setId(30L);
+
+        when(effectDAO.findAll()).thenReturn(List.of(lumberYard, gizahStage2));
+        when(gameCatalog.getAllCards()).thenReturn(List.of(lumberYardCard, unknownCard));
+        when(gameCatalog.getAllWonders()).thenReturn(List.of(gizah));
+    }
+
+    private static EffectEntity effect(String effectId) {
+        EffectEntity effect = new EffectEntity();
+        effect.setEffectId(effectId);
+        effect.setTiming(EffectTiming.IMMEDIATE);
+        return effect;
+    }
+
+    private static CardEntity card(Long id, String name) {
+        CardEntity card = new CardEntity();
+        card.setId(id);
+        card.setName(name);
+        return card;
+    }
+
+    @Test
+    @DisplayName("Should bind cards to their effect by card id")
+    void testCardEffect() {
+        effectCatalog.load();
+
+        assertSame(lumberYard, effectCatalog.getCardEffect(lumberYardCard));
+        assertNull(effectCatalog.getCardEffect(unknownCard));
+        assertSame(lumberYard, effectCatalog.getEffect("LUMBER_YARD_WOOD_1"));
+    }
+
+    @Test
+    @DisplayName("Should bind wonder stages to their effect by wonder id and stage")
+    void testWonderStageEffect() {
+        effectCatalog.load();
+
+        assertSame(gizahStage2, effectCatalog.getWonderStageEffect(gizah, 2));
+        // Stage 1's effect is not in the effects table
+        assertNull(effectCatalog.getWonderStageEffect(gizah, 1));
+        assertNull(effectCatalog.getWonderStageEffect(gizah, 4));
+    }
+
+    @Test
+    @DisplayName("Should load once, on first use if not loaded at startup")
+    void testLoadedOnce() {
+        effectCatalog.getCardEffect(lumberYardCard);
+        effectCatalog.getWonderStageEffect(gizah, 2);
+        effectCatalog.getEffect("LUMBER_YARD_WOOD_1");
+
+        verify(effectDAO, times(1)).findAll();
+        verify(gameCatalog, times(1)).getAllCards();
+        verify(effectDAO, never()).findByEffectId(anyString());
+    }
+}
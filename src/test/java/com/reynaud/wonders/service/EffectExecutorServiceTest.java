@@ -0,0 +1,130 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.CardEntity;
+import com.reynaud.wonders.entity.EffectEntity;
+import com.reynaud.wonders.entity.PlayerStateEntity;
+import com.reynaud.wonders.entity.UserEntity;
+import com.reynaud.wonders.model.CardType;
+import com.reynaud.wonders.model.EffectTiming;
+import com.reynaud.wonders.model.Ressources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("EffectExecutorService Tests")
+class EffectExecutorServiceTest {
+
+    @Mock
+    private EffectCatalog effectCatalog;
+
+    @Mock
+    private PlayerStateService playerStateService;
+
+    @Mock
+    private GameScoringService gameScoringService;
+
+    @Mock
+    private LoggingService loggingService;
+
+    private EffectExecutorService effectExecutor;
+    private PlayerStateEntity player;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        effectExecutor = new EffectExecutorService(effectCatalog, playerStateService, gameScoringService, loggingService);
+        UserEntity user = new UserEntity();
+        user.setUsername("alice");
+        player = new PlayerStateEntity();
+        player.setUser(user);
+        player.setCoins(0);
+        player.setVictoryPoints(0);
+        player.setMilitaryPoints(0);
+    }
+
+    private static EffectEntity effect(String effectId, String parameters) {
+        EffectEntity effect = new EffectEntity();
+        effect.setEffectId(effectId);
+        effect.setTiming(EffectTiming.IMMEDIATE);
+        effect.setParameters(parameters);
+        return effect;
+    }
+
+    @Test
+    @DisplayName("Should apply every operation of an effect")
+    void testApplyEffect() {
+        assertTrue(effectExecutor.applyEffect(player, effect("STAGE", "VP:3|COINS:4|MIL:1|0_1:1")));
+
+        assertEquals(3, player.getVictoryPoints());
+        assertEquals(4, player.getCoins());
+        assertEquals(1, player.getMilitaryPoints());
+        assertEquals(1, player.getResources().get(Ressources.STONE_WOOD));
+    }
+
+    @Test
+    @DisplayName("Should pay per card from the played card type counts of the player and neighbors")
+    void testCoinsPerCard() {
+        PlayerStateEntity left = new PlayerStateEntity();
+        PlayerStateEntity right = new PlayerStateEntity();
+        player.setLeftNeighbor(left);
+        player.setRightNeighbor(right);
+        player.addPlayedCard(card(CardType.BROWN));
+        player.addPlayedCard(card(CardType.YELLOW));
+        left.addPlayedCard(card(CardType.BROWN));
+        left.addPlayedCard(card(CardType.BROWN));
+        right.addPlayedCard(card(CardType.GREY));
+
+        assertTrue(effectExecutor.applyEffect(player, effect("VINEYARD", "VINEYARD")));
+
+        assertEquals(3, player.getCoins());
+        assertEquals(2, left.getPlayedCardTypes().get(CardType.BROWN));
+    }
+
+    private static CardEntity card(CardType type) {
+        CardEntity card = new CardEntity();
+        card.setType(type);
+        return card;
+    }
+
+    @Test
+    @DisplayName("Should compile an effect once and recompile when its parameters change")
+    void testProgramCache() {
+        EffectEntity effect = effect("COINS", "COINS:3");
+        EffectProgram program = effectExecutor.getProgram(effect);
+
+        assertSame(program, effectExecutor.getProgram(effect));
+
+        effect.setParameters("COINS:5");
+        assertNotSame(program, effectExecutor.getProgram(effect));
+    }
+
+    @Test
+    @DisplayName("Should apply nothing from an effect with a malformed parameter")
+    void testInvalidEffect() {
+        assertFalse(effectExecutor.applyEffect(player, effect("BROKEN", "COINS:2|VP:x")));
+
+        assertEquals(0, player.getCoins());
+    }
+
+    @Test
+    @DisplayName("Should report the effects with unknown or malformed parameters")
+    void testValidateEffects() {
+        when(effectCatalog.getAllEffects()).thenReturn(List.of(
+                effect("GOOD", "VP:2"),
+                effect("UNKNOWN", "VP:1|TELEPORT"),
+                effect("BROKEN", "MIL:two")));
+
+        Map<String, List<String>> report = effectExecutor.validateEffects();
+
+        assertEquals(List.of("UNKNOWN", "BROKEN"), List.copyOf(report.keySet()));
+        verify(loggingService, times(2)).warning(anyString(), eq("EffectExecutorService.getProgram"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.model.CardType;
+import com.reynaud.wonders.model.Ressources;
+import com.reynaud.wonders.model.Science;
+import com.reynaud.wonders.service.EffectOperation.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EffectProgram Tests")
+class EffectProgramTest {
+
+    @Test
+    @DisplayName("Should compile numeric parameters in order")
+    void testNumericParameters() {
+        EffectProgram program = EffectProgram.compile("STAGE", "VP:3|COINS:4|MIL:1|PRICE:2:1");
+
+        assertTrue(program.isValid());
+        assertTrue(program.getProblems().isEmpty());
+        assertEquals(List.of(new AddVictoryPoints(3), new AddCoins(4), new AddMilitary(1), new SetPrice(2, 1)),
+                program.getOperations());
+    }
+
+    @Test
+    @DisplayName("Should compile resources, mutable pairs and science by index")
+    void testIndexedParameters() {
+        assertEquals(List.of(new AddResource(Ressources.BRICK, 2)), EffectProgram.compile("E", "3:2").getOperations());
+        assertEquals(List.of(new AddResource(Ressources.ORE_BRICK, 1)), EffectProgram.compile("E", "2_3:1").getOperations());
+        assertEquals(List.of(new AddResource(Ressources.MUTABLE_ADVANCED, 1)), EffectProgram.compile("E", "8:1").getOperations());
+        assertEquals(List.of(new AddScience(Science.GEAR, 1)), EffectProgram.compile("E", "11:1").getOperations());
+    }
+
+    @Test
+    @DisplayName("Should compile keywords, including markers handled by the game flow")
+    void testKeywords() {
+        EffectProgram program = EffectProgram.compile("E", "BUILD_FROM_DISCARD|VP:2");
+        assertEquals(List.of(new Marker("BUILD_FROM_DISCARD"), new AddVictoryPoints(2)), program.getOperations());
+
+        assertEquals(List.of(new CoinsPerCard(CardType.BROWN, 1, true, true)),
+                EffectProgram.compile("E", "VINEYARD").getOperations());
+        assertEquals(List.of(new VictoryPointsPerCard(List.of(CardType.GREY), 2, false, true)),
+                EffectProgram.compile("E", "CRAFTSMENS_GUILD").getOperations());
+    }
+
+    @Test
+    @DisplayName("Should report unknown parameters and skip them")
+    void testUnknownParameters() {
+        EffectProgram program = EffectProgram.compile("E", "VP:1|TELEPORT|0_0:1|20:1");
+
+        assertTrue(program.isValid());
+        assertEquals(List.of(new AddVictoryPoints(1)), program.getOperations());
+        assertEquals(3, program.getProblems().size());
+        assertTrue(program.getProblems().get(0).contains("TELEPORT"));
+    }
+
+    @Test
+    @DisplayName("Should mark programs with malformed or missing parameters as invalid")
+    void testMalformedParameters() {
+        EffectProgram program = EffectProgram.compile("E", "VP:x|COINS:2");
+
+        assertFalse(program.isValid());
+        assertEquals(1, program.getProblems().size());
+        assertFalse(EffectProgram.compile("E", "PRICE:1").isValid());
+        assertFalse(EffectProgram.compile("E", null).isValid());
+    }
+}
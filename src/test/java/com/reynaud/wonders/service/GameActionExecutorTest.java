@@ -0,0 +1,131 @@
+package com.reynaud.wonders.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("GameActionExecutor Tests")
+class GameActionExecutorTest {
+
+    @Mock
+    private GameSessionRegistry gameSessions;
+
+    @Mock
+    private GameSession session;
+
+    private GameActionExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = new GameActionExecutor(gameSessions);
+        when(gameSessions.open(anyLong())).thenReturn(session);
+        when(gameSessions.execute(anyLong(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(gameSessions.execute(anyLong(), any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    @Test
+    @DisplayName("Should run the actions of a game one at a time, in submission order")
+    void testSameGameOrdering() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            int index = i;
+            futures.add(executor.submit(1L, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(index);
+                running.decrementAndGet();
+                return index;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, maxRunning.get());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, order.get(i));
+            assertEquals(i, futures.get(i).get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should run different games in parallel")
+    void testGamesRunInParallel() throws Exception {
+        CountDownLatch secondGameRan = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> first = executor.submit(1L, () -> {
+            try {
+                // Only returns true if game 2 is not stuck behind game 1
+                return secondGameRan.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        executor.submit(2L, () -> {
+            secondGameRan.countDown();
+            return null;
+        });
+
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should reply with the result on a virtual thread and rethrow failures to the caller")
+    void testCall() {
+        assertTrue(executor.call(1L, () -> Thread.currentThread().isVirtual()));
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> executor.call(1L, () -> { throw new IllegalStateException("Invalid move"); }));
+        assertEquals("Invalid move", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should run actions of games without a session on the calling thread")
+    void testCallWithoutSession() {
+        when(gameSessions.open(3L)).thenReturn(null);
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, executor.call(3L, Thread::currentThread));
+        assertSame(caller, executor.call(null, Thread::currentThread));
+        verify(gameSessions, never()).execute(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the calling thread when the game ended while the action waited")
+    void testCallAfterGameEnded() {
+        doAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get())
+                .when(gameSessions).execute(anyLong(), any(), any());
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, executor.call(1L, Thread::currentThread));
+    }
+
+    @Test
+    @DisplayName("Should drop a game's mailbox once it is drained")
+    void testMailboxRemoved() throws Exception {
+        executor.submit(1L, () -> null).get(5, TimeUnit.SECONDS);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getActiveGameCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, executor.getActiveGameCount());
+    }
+}
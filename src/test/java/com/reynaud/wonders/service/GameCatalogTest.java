@@ -0,0 +1,113 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.CardDAO;
+import com.reynaud.wonders.dao.WonderDAO;
+import com.reynaud.wonders.entity.CardEntity;
+import com.reynaud.wonders.entity.WonderEntity;
+import com.reynaud.wonders.model.Age;
+import com.reynaud.wonders.model.CardType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("GameCatalog Tests")
+class GameCatalogTest {
+
+    @Mock
+    private CardDAO cardDAO;
+
+    @Mock
+    private WonderDAO wonderDAO;
+
+    @Mock
+    private LoggingService loggingService;
+
+    private GameCatalog gameCatalog;
+    private CardEntity altar;
+    private CardEntity stonePit;
+    private CardEntity palace;
+    private CardEntity workersGuild;
+    private CardEntity spiesGuild;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        gameCatalog = new GameCatalog(cardDAO, wonderDAO, loggingService);
+
+        altar = card(1L, "Altar", CardType.BLUE, Age.AGE_I, 3);
+        stonePit = card(2L, "Stone Pit", CardType.BROWN, Age.AGE_I, 5);
+        palace = card(3L, "Palace", CardType.BLUE, Age.AGE_III, 3);
+        workersGuild = card(4L, "Workers Guild", CardType.VIOLET, Age.AGE_III, 3);
+        spiesGuild = card(5L, "Spies Guild", CardType.VIOLET, Age.AGE_III, 3);
+
+        when(cardDAO.findAll()).thenReturn(List.of(altar, stonePit, palace, workersGuild, spiesGuild));
+        when(wonderDAO.findAll()).thenReturn(List.of(
+                wonder(10L, "Gizah", "A"), wonder(11L, "Gizah", "B"), wonder(12L, "Rhodes", "A")));
+    }
+
+    private static CardEntity card(Long id, String name, CardType type, Age age, int minPlayerCount) {
+        CardEntity card = new CardEntity();
+        card.setId(id);
+        card.setName(name);
+        card.setType(type);
+        card.setAge(age);
+        card.setMinPlayerCount(minPlayerCount);
+        return card;
+    }
+
+    private static WonderEntity wonder(Long id, String name, String face) {
+        WonderEntity wonder = new WonderEntity(name, face, 3);
+        wonder.setId(id);
+        return wonder;
+    }
+
+    @Test
+    @DisplayName("Should bucket each age's deck by player count")
+    void testDeckByPlayerCount() {
+        assertEquals(List.of(altar), gameCatalog.getDeck(Age.AGE_I, 3));
+        assertEquals(List.of(altar), gameCatalog.getDeck(Age.AGE_I, 4));
+        assertEquals(List.of(altar, stonePit), gameCatalog.getDeck(Age.AGE_I, 5));
+        assertEquals(List.of(altar, stonePit), gameCatalog.getDeck(Age.AGE_I, 7));
+        assertTrue(gameCatalog.getDeck(Age.AGE_II, 3).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the guilds out of the Age III deck")
+    void testGuildsKeptApart() {
+        assertEquals(List.of(palace), gameCatalog.getDeck(Age.AGE_III, 3));
+        assertEquals(List.of(workersGuild, spiesGuild), gameCatalog.getGuilds());
+    }
+
+    @Test
+    @DisplayName("Should group cards by age and type, and wonders by name")
+    void testGroupings() {
+        Map<Age, Map<CardType, List<CardEntity>>> byAgeAndType = gameCatalog.getCardsByAgeAndType();
+        assertEquals(List.of(Age.AGE_I, Age.AGE_III), List.copyOf(byAgeAndType.keySet()));
+        assertEquals(List.of(workersGuild, spiesGuild), byAgeAndType.get(Age.AGE_III).get(CardType.VIOLET));
+
+        Map<String, List<WonderEntity>> wonders = gameCatalog.getWondersByName();
+        assertEquals(2, wonders.get("Gizah").size());
+        assertEquals(1, wonders.get("Rhodes").size());
+        assertSame(palace, gameCatalog.getCard(3L));
+    }
+
+    @Test
+    @DisplayName("Should load the tables once and hand out read-only lists")
+    void testLoadedOnce() {
+        gameCatalog.getDeck(Age.AGE_I, 3);
+        gameCatalog.getGuilds();
+        gameCatalog.getWondersByName();
+
+        verify(cardDAO, times(1)).findAll();
+        verify(wonderDAO, times(1)).findAll();
+        assertThrows(UnsupportedOperationException.class, () -> gameCatalog.getDeck(Age.AGE_I, 3).add(stonePit));
+    }
+}
@@ -0,0 +1,78 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.model.Science;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameScoringService Tests")
+class GameScoringServiceTest {
+
+    @Mock
+    private PlayerStateService playerStateService;
+
+    private GameScoringService gameScoringService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        gameScoringService = new GameScoringService(playerStateService);
+    }
+
+    /**
+     * Every wildcard tried on every symbol, one at a time
+     */
+    private static int bruteForce(int tablets, int compasses, int gears, int wildcards) {
+        if (wildcards == 0) {
+            return tablets * tablets + compasses * compasses + gears * gears
+                    + 7 * Math.min(tablets, Math.min(compasses, gears));
+        }
+        return Math.max(bruteForce(tablets + 1, compasses, gears, wildcards - 1),
+                Math.max(bruteForce(tablets, compasses + 1, gears, wildcards - 1),
+                        bruteForce(tablets, compasses, gears + 1, wildcards - 1)));
+    }
+
+    @Test
+    @DisplayName("Should score symbols with and without wildcards")
+    void testSciencePoints() {
+        assertEquals(0, gameScoringService.calculateSciencePoints(Map.of()));
+        // 3 tablets, 1 compass, 1 gear: 9 + 1 + 1 + 7
+        assertEquals(18, gameScoringService.calculateSciencePoints(
+                Map.of(Science.TABLET, 3, Science.COMPASS, 1, Science.GEAR, 1)));
+        // The wildcard completes a set (4 + 1 + 1 + 7) rather than a third tablet (9 + 1)
+        assertEquals(13, gameScoringService.calculateSciencePoints(
+                Map.of(Science.TABLET, 2, Science.COMPASS, 1, Science.MUTABLE, 1)));
+    }
+
+    @Test
+    @DisplayName("Should match trying every wildcard on every symbol")
+    void testMatchesBruteForce() {
+        for (int tablets = 0; tablets <= 4; tablets++) {
+            for (int compasses = 0; compasses <= 4; compasses++) {
+                for (int gears = 0; gears <= 4; gears++) {
+                    for (int wildcards = 0; wildcards <= 3; wildcards++) {
+                        assertEquals(bruteForce(tablets, compasses, gears, wildcards),
+                                GameScoringService.scoreScience(tablets, compasses, gears, wildcards));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should score every number of extra wildcards in one call")
+    void testExtraWildcards() {
+        int[] scores = new int[4];
+        gameScoringService.calculateSciencePoints(Map.of(Science.TABLET, 2, Science.GEAR, 1, Science.MUTABLE, 1), scores);
+
+        for (int extra = 0; extra < scores.length; extra++) {
+            assertEquals(bruteForce(2, 0, 1, 1 + extra), scores[extra]);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.CardEntity;
+import com.reynaud.wonders.entity.GameEntity;
+import com.reynaud.wonders.entity.PlayerStateEntity;
+import com.reynaud.wonders.entity.UserEntity;
+import com.reynaud.wonders.model.CardType;
+import com.reynaud.wonders.model.GameStatus;
+import com.reynaud.wonders.model.Ressources;
+import com.reynaud.wonders.model.SessionDurability;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("GameSessionRegistry Tests")
+class GameSessionRegistryTest {
+
+    private static final long GAME_ID = 7L;
+
+    @Mock
+    private GameSessionWriter writer;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private LoggingService loggingService;
+
+    private GameEntity game;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        game = newGame();
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.find(GameEntity.class, GAME_ID)).thenReturn(game);
+    }
+
+    @Test
+    @DisplayName("Should load a game once and serve its players from memory")
+    void testOpen() {
+        GameSessionRegistry registry = registry(SessionDurability.TURN_END);
+
+        GameSession session = registry.open(GAME_ID);
+
+        assertSame(session, registry.open(GAME_ID));
+        assertSame(session, registry.get(GAME_ID));
+        assertEquals(List.of(0, 1, 2), session.getPlayers().stream().map(PlayerStateEntity::getPosition).toList());
+        assertSame(session.getPlayerByPosition(1), session.getPlayerByPosition(0).getRightNeighbor());
+        assertSame(session.getPlayerByPosition(2), session.getPlayerByUserId(102L));
+        verify(entityManagerFactory, times(1)).createEntityManager();
+    }
+
+    @Test
+    @DisplayName("Should not keep finished games in memory")
+    void testOpenFinishedGame() {
+        game.setStatus(GameStatus.FINISHED);
+        GameSessionRegistry registry = registry(SessionDurability.TURN_END);
+
+        assertNull(registry.open(GAME_ID));
+        assertEquals("done", registry.execute(GAME_ID, () -> "done"));
+        assertEquals(0, registry.getSessionCount());
+    }
+
+    @Test
+    @DisplayName("Should write only the changed fields, once, when a turn ends in turn-end mode")
+    void testTurnEndDurability() {
+        GameSessionRegistry registry = registry(SessionDurability.TURN_END);
+
+        registry.execute(GAME_ID, () -> {
+            GameSession session = registry.get(GAME_ID);
+            session.getPlayerByPosition(0).setCoins(5);
+            registry.changed(session);
+            return null;
+        });
+        verify(writer, never()).write(any());
+
+        registry.execute(GAME_ID, () -> {
+            GameSession session = registry.get(GAME_ID);
+            session.getPlayerByPosition(1).getHand().clear();
+            registry.changed(session);
+            registry.turnEnded(GAME_ID);
+            return null;
+        });
+
+        GameSnapshot.Changes changes = written();
+        assertEquals(List.of(new GameSnapshot.RowUpdate(GameSnapshot.PLAYER_ENTITY, 10L, Map.of("coins", 5))), changes.rows());
+        assertEquals(1, changes.joinTables().size());
+        assertEquals("player_state_hand", changes.joinTables().get(0).table());
+        assertEquals(11L, changes.joinTables().get(0).ownerId());
+        assertEquals(List.of(), changes.joinTables().get(0).elementIds());
+        assertFalse(registry.get(GAME_ID).isDirty());
+    }
+
+    @Test
+    @DisplayName("Should leave changes to the background flush in periodic mode, even at the end of a turn")
+    void testPeriodicDurability() {
+        GameSessionRegistry registry = registry(SessionDurability.PERIODIC);
+
+        registry.execute(GAME_ID, () -> {
+            registry.get(GAME_ID).getPlayerByPosition(2).setVictoryPoints(3);
+            registry.changed(registry.get(GAME_ID));
+            registry.turnEnded(GAME_ID);
+            return null;
+        });
+        verify(writer, never()).write(any());
+
+        registry.flush();
+
+        assertEquals(List.of(new GameSnapshot.RowUpdate(GameSnapshot.PLAYER_ENTITY, 12L, Map.of("victoryPoints", 3))),
+                written().rows());
+        assertEquals(1, registry.getSessionCount());
+
+        registry.flush();
+        verify(writer, times(1)).write(any());
+    }
+
+    @Test
+    @DisplayName("Should not block the game's actions while the flush writes")
+    void testFlushOutsideSessionLock() {
+        GameSessionRegistry registry = registry(SessionDurability.PERIODIC);
+        registry.changed(registry.open(GAME_ID));
+        doAnswer(invocation -> {
+            CompletableFuture<String> action = CompletableFuture.supplyAsync(() -> registry.execute(GAME_ID, () -> "ran"));
+            assertEquals("ran", action.get(5, TimeUnit.SECONDS));
+            return null;
+        }).when(writer).write(any());
+
+        registry.flush();
+
+        verify(writer).write(any());
+    }
+
+    @Test
+    @DisplayName("Should write back and drop a game as soon as it ends")
+    void testGameOver() {
+        GameSessionRegistry registry = registry(SessionDurability.PERIODIC);
+
+        registry.execute(GAME_ID, () -> {
+            game.setStatus(GameStatus.FINISHED);
+            registry.changed(registry.get(GAME_ID));
+            return null;
+        });
+
+        assertEquals(List.of(new GameSnapshot.RowUpdate(GameSnapshot.GAME_ENTITY, GAME_ID, Map.of("status", GameStatus.FINISHED))),
+                written().rows());
+        assertNull(registry.get(GAME_ID));
+    }
+
+    @Test
+    @DisplayName("Should keep a session dirty when writing it back fails, and write the changes next time")
+    void testPersistFailure() {
+        GameSessionRegistry registry = registry(SessionDurability.PERIODIC);
+        GameSession session = registry.open(GAME_ID);
+        session.getPlayerByPosition(0).setCoins(4);
+        registry.changed(session);
+        doThrow(new IllegalStateException("Database down")).doNothing().when(writer).write(any());
+
+        assertFalse(registry.persist(session));
+
+        assertTrue(session.isDirty());
+        verify(loggingService).error(anyString(), eq("GameSessionRegistry"), any(IllegalStateException.class));
+
+        assertTrue(registry.persist(session));
+        ArgumentCaptor<GameSnapshot.Changes> changes = ArgumentCaptor.forClass(GameSnapshot.Changes.class);
+        verify(writer, times(2)).write(changes.capture());
+        assertEquals(changes.getAllValues().get(0), changes.getAllValues().get(1));
+        assertFalse(session.isDirty());
+    }
+
+    @Test
+    @DisplayName("Should undo a failed action in memory and keep the session")
+    void testActionFailure() {
+        GameSessionRegistry registry = registry(SessionDurability.TURN_END);
+        GameSession session = registry.open(GAME_ID);
+        PlayerStateEntity player = session.getPlayerByPosition(0);
+        List<CardEntity> hand = player.getHand();
+
+        assertThrows(IllegalStateException.class, () -> registry.execute(GAME_ID, () -> {
+            player.setCoins(99);
+            player.getResources().add(Ressources.WOOD, 2);
+            player.addPlayedCard(hand.remove(0));
+            registry.changed(session);
+            registry.turnEnded(GAME_ID);
+            throw new IllegalStateException("Invalid move");
+        }));
+
+        assertSame(session, registry.get(GAME_ID));
+        assertEquals(3, player.getCoins());
+        assertEquals(0, player.getResources().get(Ressources.WOOD));
+        assertSame(hand, player.getHand());
+        assertEquals(1, hand.size());
+        assertTrue(player.getPlayedCards().isEmpty());
+        assertEquals(0, player.getPlayedCardTypes().total());
+        verify(writer, never()).write(any());
+
+        // Nothing of the action is left to write
+        assertTrue(registry.persist(session));
+        assertTrue(written().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should drop sessions left idle once they are written back")
+    void testIdleEviction() {
+        GameSessionRegistry registry = new GameSessionRegistry(writer, entityManagerFactory, loggingService,
+                SessionDurability.TURN_END, 0);
+        GameSession session = registry.open(GAME_ID);
+        session.getPlayerByPosition(0).setCoins(1);
+        registry.changed(session);
+
+        registry.flush();
+
+        assertEquals(1, written().rows().size());
+        assertEquals(0, registry.getSessionCount());
+    }
+
+    private GameSnapshot.Changes written() {
+        ArgumentCaptor<GameSnapshot.Changes> changes = ArgumentCaptor.forClass(GameSnapshot.Changes.class);
+        verify(writer, atLeastOnce()).write(changes.capture());
+        return changes.getValue();
+    }
+
+    private GameSessionRegistry registry(SessionDurability durability) {
+        return new GameSessionRegistry(writer, entityManagerFactory, loggingService, durability, 30);
+    }
+
+    private static GameEntity newGame() {
+        GameEntity game = new GameEntity();
+        game.setId(GAME_ID);
+        game.setStatus(GameStatus.PLAYING);
+        List<PlayerStateEntity> players = new ArrayList<>();
+        for (int position = 2; position >= 0; position--) {
+            UserEntity user = new UserEntity();
+            user.setId(100L + position);
+            PlayerStateEntity player = new PlayerStateEntity(game, user, position);
+            player.setId(10L + position);
+            CardEntity card = new CardEntity();
+            card.setId(20L + position);
+            card.setType(CardType.BROWN);
+            player.getHand().add(card);
+            players.add(player);
+        }
+        for (PlayerStateEntity player : players) {
+            int position = player.getPosition();
+            player.setRightNeighbor(players.get(2 - (position + 1) % 3));
+            player.setLeftNeighbor(players.get(2 - (position + 2) % 3));
+        }
+        game.setPlayerStates(players);
+        return game;
+    }
+}
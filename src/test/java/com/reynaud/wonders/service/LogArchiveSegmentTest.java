@@ -0,0 +1,92 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LogArchiveSegment Tests")
+class LogArchiveSegmentTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 1, 12, 0, 0, 123_456_789);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read back every field of archived entries")
+    void testRoundTrip() throws IOException {
+        Path file = directory.resolve("logs-test.seg");
+        LogEntry error = entry(1, START, LogLevel.ERROR);
+        error.setStackTrace("java.lang.IllegalStateException: boom\n\tat Foo.bar(Foo.java:1)");
+        error.setStackFingerprint("abc123");
+        error.setGameId(7L);
+        error.setAction("play");
+        error.setReadByAdmin(true);
+
+        LogArchiveSegment.write(file, List.of(error), 16);
+        LogArchiveSegment segment = LogArchiveSegment.open(file);
+
+        LogEntry read = segment.readNewestFirst(null, null, e -> true, 10).get(0);
+        assertEquals(1L, read.getId());
+        assertEquals(START, read.getTimestamp());
+        assertEquals(LogLevel.ERROR, read.getLogLevel());
+        assertEquals("Message 1", read.getMessage());
+        assertEquals(error.getStackTrace(), read.getStackTrace());
+        assertEquals("abc123", read.getStackFingerprint());
+        assertEquals(7L, read.getGameId());
+        assertNull(read.getUserId());
+        assertEquals("play", read.getAction());
+        assertTrue(read.getReadByAdmin());
+        assertFalse(Files.exists(directory.resolve("logs-test.seg.tmp")));
+    }
+
+    @Test
+    @DisplayName("Should read a time range newest first across blocks")
+    void testRangeAcrossBlocks() throws IOException {
+        Path file = directory.resolve("logs-range.seg");
+        List<LogEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entries.add(entry(i + 1, START.plusMinutes(i), i % 2 == 0 ? LogLevel.INFO : LogLevel.WARNING));
+        }
+        LogArchiveSegment.write(file, entries, 8);
+        LogArchiveSegment segment = LogArchiveSegment.open(file);
+
+        assertEquals(100, segment.getEntryCount());
+        assertEquals(START, segment.getMinTimestamp());
+        assertEquals(START.plusMinutes(99), segment.getMaxTimestamp());
+
+        List<LogEntry> page = segment.readNewestFirst(START.plusMinutes(50), START.plusMinutes(10),
+                e -> e.getLogLevel() == LogLevel.WARNING, 5);
+        assertEquals(List.of(50L, 48L, 46L, 44L, 42L), page.stream().map(LogEntry::getId).toList());
+
+        List<LogEntry> bounded = segment.readNewestFirst(START.plusMinutes(15), START.plusMinutes(10), e -> true, 100);
+        assertEquals(List.of(16L, 15L, 14L, 13L, 12L), bounded.stream().map(LogEntry::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should refuse incomplete files")
+    void testRejectIncomplete() throws IOException {
+        Path file = directory.resolve("logs-broken.seg");
+        Files.write(file, new byte[] {1, 2, 3});
+
+        assertThrows(IOException.class, () -> LogArchiveSegment.open(file));
+    }
+
+    private static LogEntry entry(long id, LocalDateTime timestamp, LogLevel level) {
+        LogEntry entry = new LogEntry(level, "Message " + id, "Source");
+        entry.setId(id);
+        entry.setTimestamp(timestamp);
+        return entry;
+    }
+}
@@ -0,0 +1,127 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.dto.LogCursor;
+import com.reynaud.wonders.dto.LogFilter;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LogArchiveService Tests")
+class LogArchiveServiceTest {
+
+    @Mock
+    private LogDAO logDAO;
+
+    @Mock
+    private LogTemplateService templateService;
+
+    @Mock
+    private LogStackTraceService stackTraceService;
+
+    @Mock
+    private LogStatistics statistics;
+
+    @Mock
+    private LogSearchService searchService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private LogArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(templateService.render(any(LogEntry.class))).thenAnswer(invocation -> "Rendered " + invocation.<LogEntry>getArgument(0).getId());
+        archiveService = new LogArchiveService(logDAO, templateService, stackTraceService, statistics, searchService, transactionManager,
+                directory.toString(), 3, 180, 2, 100);
+    }
+
+    @Test
+    @DisplayName("Should move old logs into a segment and delete them from the table")
+    void testArchive() {
+        LocalDateTime old = LocalDateTime.now().minusDays(10);
+        List<LogEntry> rows = List.of(entry(1, old, LogLevel.INFO), entry(2, old.plusSeconds(1), LogLevel.ERROR),
+                entry(3, old.plusSeconds(2), LogLevel.WARNING));
+        when(logDAO.findByTimestampBeforeOrderByTimestampAscIdAsc(any(LocalDateTime.class), any(Limit.class))).thenReturn(rows);
+
+        assertEquals(3, archiveService.archive());
+
+        verify(logDAO).deleteByIds(List.of(1L, 2L, 3L));
+        verify(statistics).reconcile();
+        verify(searchService).remove(List.of(1L, 2L, 3L));
+        assertEquals(1, archiveService.getSegmentCount());
+        assertEquals(old.plusSeconds(2), archiveService.getNewestTimestamp());
+
+        List<LogEntry> found = archiveService.find(new LogFilter(), null, 10);
+        assertEquals(List.of(3L, 2L, 1L), found.stream().map(LogEntry::getId).toList());
+        assertEquals("Rendered 2", found.get(1).getMessage());
+
+        LogFilter errors = new LogFilter();
+        errors.setLevels(List.of(LogLevel.ERROR));
+        assertEquals(1, archiveService.find(errors, null, 10).size());
+        assertEquals(List.of(1L), archiveService.find(null, LogCursor.after(found.get(1)), 10).stream().map(LogEntry::getId).toList());
+
+        LogFilter unread = new LogFilter();
+        unread.setReadByAdmin(false);
+        assertTrue(archiveService.find(unread, null, 10).isEmpty());
+
+        // Segments are found again after a restart
+        archiveService.loadSegments();
+        assertEquals(3, archiveService.getArchivedEntryCount());
+    }
+
+    @Test
+    @DisplayName("Should only be consulted when a page reaches the archived range")
+    void testMayContain() {
+        LocalDateTime old = LocalDateTime.now().minusDays(10);
+        when(logDAO.findByTimestampBeforeOrderByTimestampAscIdAsc(any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of(entry(1, old, LogLevel.INFO)));
+
+        assertFalse(archiveService.mayContain(null, null));
+        archiveService.archive();
+
+        assertTrue(archiveService.mayContain(null, null));
+        assertFalse(archiveService.mayContain(null, entry(5, LocalDateTime.now(), LogLevel.INFO)));
+        assertTrue(archiveService.mayContain(null, entry(5, old, LogLevel.INFO)));
+    }
+
+    @Test
+    @DisplayName("Should drop duplicates when merging table and archive results")
+    void testMerge() {
+        LocalDateTime now = LocalDateTime.now();
+        List<LogEntry> merged = LogArchiveService.merge(
+                List.of(entry(4, now, LogLevel.INFO), entry(2, now.minusMinutes(2), LogLevel.INFO)),
+                List.of(entry(3, now.minusMinutes(1), LogLevel.INFO), entry(2, now.minusMinutes(2), LogLevel.INFO),
+                        entry(1, now.minusMinutes(3), LogLevel.INFO)),
+                3);
+
+        assertEquals(List.of(4L, 3L, 2L), merged.stream().map(LogEntry::getId).toList());
+    }
+
+    private static LogEntry entry(long id, LocalDateTime timestamp, LogLevel level) {
+        LogEntry entry = new LogEntry(level, "Message " + id, "Source");
+        entry.setId(id);
+        entry.setTimestamp(timestamp);
+        return entry;
+    }
+}
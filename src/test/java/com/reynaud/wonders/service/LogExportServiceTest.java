@@ -0,0 +1,127 @@
+package com.reynaud.wonders.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LogExportService Tests")
+class LogExportServiceTest {
+
+    @Mock
+    private LogDAO logDAO;
+
+    @Mock
+    private LogTemplateService templateService;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LogExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(templateService.render(any(LogEntry.class))).thenAnswer(invocation -> ((LogEntry) invocation.getArgument(0)).getMessage());
+        exportService = new LogExportService(logDAO, templateService, entityManagerFactory, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should write one gzipped JSON line per log")
+    void testExport() throws IOException {
+        LogEntry first = entry(1L, LogLevel.INFO, "Game 12 started");
+        LogEntry second = entry(2L, LogLevel.ERROR, "Trade failed");
+        second.setGameId(12L);
+        when(logDAO.streamForExport(any(LocalDateTime.class), any(LocalDateTime.class), any())).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long written = exportService.export(null, null, null, output);
+
+        assertEquals(2, written);
+        List<String> lines = readLines(output.toByteArray());
+        assertEquals(2, lines.size());
+        JsonNode last = new ObjectMapper().readTree(lines.get(1));
+        assertEquals(2L, last.get("id").asLong());
+        assertEquals("ERROR", last.get("level").asText());
+        assertEquals("Trade failed", last.get("message").asText());
+        assertEquals(12L, last.get("gameId").asLong());
+        assertFalse(last.has("userId"));
+        verify(logDAO).streamForExport(any(LocalDateTime.class), any(LocalDateTime.class), eq(Arrays.asList(LogLevel.values())));
+    }
+
+    @Test
+    @DisplayName("Should pass the range and levels to the query")
+    void testExportFilters() throws IOException {
+        LocalDateTime since = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime until = since.plusDays(1);
+        when(logDAO.streamForExport(since, until, List.of(LogLevel.WARNING))).thenReturn(Stream.empty());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.export(since, until, List.of(LogLevel.WARNING), output));
+        assertTrue(readLines(output.toByteArray()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should close the cursor when the client goes away")
+    void testExportClientGone() {
+        Stream<LogEntry> rows = Stream.of(entry(1L, LogLevel.INFO, "Message"));
+        boolean[] closed = {false};
+        when(logDAO.streamForExport(any(), any(), any())).thenReturn(rows.onClose(() -> closed[0] = true));
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> exportService.export(null, null, null, broken));
+        assertTrue(closed[0]);
+    }
+
+    private static LogEntry entry(long id, LogLevel level, String message) {
+        LogEntry entry = new LogEntry(level, message, "Source");
+        entry.setId(id);
+        return entry;
+    }
+
+    private static List<String> readLines(byte[] gzipped) throws IOException {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            String text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            return text.isEmpty() ? List.of() : List.of(text.split("\n"));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dto.LogFilter;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LogRingBuffer Tests")
+class LogRingBufferTest {
+
+    @Test
+    @DisplayName("Should return entries published after a sequence, oldest first")
+    void testReadAfter() {
+        LogRingBuffer buffer = new LogRingBuffer(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.publish(new LogEntry(LogLevel.INFO, "Message " + i, "Source"));
+        }
+
+        List<LogRingBuffer.Slot> slots = buffer.readAfter(1, 10);
+
+        assertEquals(3, slots.size());
+        assertEquals(2, slots.get(0).getSequence());
+        assertEquals("Message 4", slots.get(2).getEntry().getMessage());
+        assertEquals(4, buffer.getLastSequence());
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recent entries once full")
+    void testOverwriteOldest() {
+        LogRingBuffer buffer = new LogRingBuffer(4);
+        for (int i = 0; i < 10; i++) {
+            buffer.publish(new LogEntry(LogLevel.DEBUG, "Message " + i, "Source"));
+        }
+
+        List<LogRingBuffer.Slot> slots = buffer.readAfter(-1, 100);
+
+        assertEquals(buffer.getCapacity(), slots.size());
+        assertEquals("Message 9", slots.get(slots.size() - 1).getEntry().getMessage());
+        assertEquals(10 - buffer.getCapacity(), slots.get(0).getSequence());
+    }
+
+    @Test
+    @DisplayName("Should apply level and source filters in memory")
+    void testStreamFilterMatches() {
+        LogFilter filter = new LogFilter();
+        filter.setLevels(List.of(LogLevel.ERROR, LogLevel.CRITICAL));
+        filter.setExcludedSources(List.of("Noisy"));
+
+        assertTrue(LogStreamService.matches(filter, new LogEntry(LogLevel.ERROR, "Boom", "GameService")));
+        assertTrue(LogStreamService.matches(filter, new LogEntry(LogLevel.CRITICAL, "Boom", null)));
+        assertFalse(LogStreamService.matches(filter, new LogEntry(LogLevel.INFO, "Hello", "GameService")));
+        assertFalse(LogStreamService.matches(filter, new LogEntry(LogLevel.ERROR, "Boom", "Noisy")));
+        // Excluded sources ignore case
+        assertFalse(LogStreamService.matches(filter, new LogEntry(LogLevel.ERROR, "Boom", "NOISY")));
+    }
+}
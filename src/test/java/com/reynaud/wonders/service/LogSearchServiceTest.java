@@ -0,0 +1,135 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.dto.LogCursor;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LogSearchService Tests")
+class LogSearchServiceTest {
+
+    @Mock
+    private LogDAO logDAO;
+
+    @Mock
+    private LogTemplateService templateService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LogSearchService searchService;
+    private final Map<Long, LogEntry> stored = new HashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchService = new LogSearchService(logDAO, templateService, jdbcTemplate);
+        when(templateService.render(any(LogEntry.class))).thenAnswer(invocation -> ((LogEntry) invocation.getArgument(0)).getMessage());
+        when(logDAO.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<LogEntry> found = new ArrayList<>();
+            for (Long id : (Iterable<Long>) invocation.getArgument(0)) {
+                if (stored.containsKey(id)) {
+                    found.add(stored.get(id));
+                }
+            }
+            return found;
+        });
+    }
+
+    @Test
+    @DisplayName("Should split text into lowercase words of two characters or more")
+    void testTokenize() {
+        assertEquals(List.of("player", "alice_42", "bought", "stone"),
+                LogSearchService.tokenize("Player alice_42 bought 1 Stone!"));
+        assertEquals(List.of("great library"), LogSearchService.parsePhrases("built \"Great Library\" twice"));
+    }
+
+    @Test
+    @DisplayName("Should require every word of the query")
+    void testAndQuery() {
+        store(1, "Alice bought Stone from Bob");
+        store(2, "Alice played Great Library");
+        store(3, "Bob bought Wood from Alice");
+
+        Slice<LogEntry> result = searchService.search("alice BOUGHT", null, 10);
+
+        assertEquals(List.of(3L, 1L), ids(result));
+        assertFalse(result.hasNext());
+        assertTrue(searchService.search("alice nowhere", null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match quoted phrases as written")
+    void testPhraseQuery() {
+        store(1, "Bought from Alice Stone");
+        store(2, "Alice Stone bought");
+
+        assertEquals(List.of(2L), ids(searchService.search("\"alice stone bought\"", null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should page through matches with a cursor, skipping deleted logs")
+    void testPaging() {
+        for (long id = 1; id <= 5; id++) {
+            store(id, "Turn ended for game 12");
+        }
+        stored.remove(4L);
+
+        Slice<LogEntry> first = searchService.search("turn ended", null, 2);
+        assertEquals(List.of(5L, 3L), ids(first));
+        assertTrue(first.hasNext());
+
+        LogCursor cursor = LogCursor.after(first.getContent().get(1));
+        Slice<LogEntry> second = searchService.search("turn ended", cursor, 2);
+        assertEquals(List.of(2L, 1L), ids(second));
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    @DisplayName("Should remove deleted ids from the middle of the range")
+    void testRemove() {
+        store(1, "Turn ended Alpha");
+        store(2, "Turn ended Beta");
+        store(3, "Turn ended Gamma");
+
+        searchService.remove(List.of(2L));
+
+        assertEquals(List.of(3L, 1L), ids(searchService.search("turn", null, 10)));
+        assertEquals(4, searchService.getTokenCount());
+    }
+
+    @Test
+    @DisplayName("Should reject queries without searchable words")
+    void testBlankQuery() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("a !", null, 10));
+    }
+
+    private void store(long id, String message) {
+        LogEntry entry = new LogEntry(LogLevel.INFO, message, "Source");
+        entry.setId(id);
+        stored.put(id, entry);
+        searchService.index(List.of(entry));
+    }
+
+    private static List<Long> ids(Slice<LogEntry> slice) {
+        return slice.getContent().stream().map(LogEntry::getId).toList();
+    }
+}
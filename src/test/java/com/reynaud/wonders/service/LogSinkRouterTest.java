@@ -0,0 +1,57 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LogSinkRouter Tests")
+class LogSinkRouterTest {
+
+    @Test
+    @DisplayName("Should split a batch per level and keep entry order")
+    void testRouteByLevel() {
+        InMemoryLogSink memory = new InMemoryLogSink(100);
+        LogSink database = mock(LogSink.class);
+        when(database.getName()).thenReturn("database");
+        LogSinkRouter router = new LogSinkRouter(List.of(memory, database), "memory", "database", "database,memory", "database", "");
+
+        LogEntry debug = new LogEntry(LogLevel.DEBUG, "Step", "Source");
+        LogEntry info = new LogEntry(LogLevel.INFO, "Info", "Source");
+        LogEntry warning = new LogEntry(LogLevel.WARNING, "Warning", "Source");
+        LogEntry critical = new LogEntry(LogLevel.CRITICAL, "Discarded", "Source");
+        router.write(List.of(debug, info, warning, critical));
+
+        assertEquals(List.of(debug, warning), memory.getEntries());
+        verify(database).write(List.of(info, warning));
+        assertEquals(List.of(), router.getRouting().get(LogLevel.CRITICAL));
+    }
+
+    @Test
+    @DisplayName("Should keep writing to other sinks when one fails")
+    void testFailingSinkIsolated() {
+        InMemoryLogSink memory = new InMemoryLogSink(100);
+        LogSink broken = mock(LogSink.class);
+        when(broken.getName()).thenReturn("broken");
+        doThrow(new IllegalStateException("disk full")).when(broken).write(anyList());
+        LogSinkRouter router = new LogSinkRouter(List.of(broken, memory), "broken,memory", "memory", "memory", "memory", "memory");
+
+        router.write(List.of(new LogEntry(LogLevel.DEBUG, "Step", "Source")));
+
+        assertEquals(1, memory.getEntries().size());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown sink names")
+    void testUnknownSink() {
+        List<LogSink> sinks = List.of(new InMemoryLogSink(100));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LogSinkRouter(sinks, "kafka", "memory", "memory", "memory", "memory"));
+    }
+}
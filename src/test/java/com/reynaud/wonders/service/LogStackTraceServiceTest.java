@@ -0,0 +1,124 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.LogStackTraceDAO;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LogStackTraceService Tests")
+class LogStackTraceServiceTest {
+
+    @Mock
+    private LogStackTraceDAO stackTraceDAO;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LogStackTraceService stackTraceService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static RuntimeException failAt(int value) {
+        return new RuntimeException("Failed for " + value);
+    }
+
+    @Test
+    @DisplayName("Should give the same fingerprint to the same failure with different messages")
+    void testFingerprintIgnoresMessage() {
+        String first = LogStackTraceService.fingerprint(failAt(1));
+        String second = LogStackTraceService.fingerprint(failAt(2));
+        String other = LogStackTraceService.fingerprint(new IllegalStateException("Failed for 1"));
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(64, first.length());
+    }
+
+    @Test
+    @DisplayName("Should render the trace only until the fingerprint is stored")
+    void testAttachSkipsKnownTraces() {
+        RuntimeException failure = failAt(1);
+        LogEntry first = new LogEntry(LogLevel.ERROR, "Effect failed", "EffectExecutorService");
+        stackTraceService.attach(first, failure);
+
+        assertNotNull(first.getStackTrace());
+        when(jdbcTemplate.update(startsWith("UPDATE"), any(Object[].class))).thenReturn(0);
+        stackTraceService.recordOccurrences(List.of(first));
+        verify(jdbcTemplate, times(1)).update(startsWith("INSERT"), any(Object[].class));
+
+        LogEntry repeat = new LogEntry(LogLevel.ERROR, "Effect failed", "EffectExecutorService");
+        stackTraceService.attach(repeat, failure);
+
+        assertEquals(first.getStackFingerprint(), repeat.getStackFingerprint());
+        assertNull(repeat.getStackTrace());
+    }
+
+    @Test
+    @DisplayName("Should count repeated traces with one update per fingerprint")
+    void testRecordOccurrencesGroupsBatch() {
+        RuntimeException failure = failAt(1);
+        LogEntry a = new LogEntry(LogLevel.ERROR, "Effect failed", "Source");
+        LogEntry b = new LogEntry(LogLevel.ERROR, "Effect failed", "Source");
+        stackTraceService.attach(a, failure);
+        stackTraceService.attach(b, failure);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        stackTraceService.recordOccurrences(List.of(a, b));
+
+        verify(jdbcTemplate, times(1)).update(startsWith("UPDATE"), any(Object[].class));
+        verify(jdbcTemplate, never()).update(startsWith("INSERT"), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should store a placeholder for occurrences whose trace was deleted, then fill it in")
+    void testDeletedTraceKeepsOccurrences() {
+        RuntimeException failure = failAt(1);
+        LogEntry first = new LogEntry(LogLevel.ERROR, "Effect failed", "Source");
+        stackTraceService.attach(first, failure);
+        when(jdbcTemplate.update(startsWith("UPDATE"), any(Object[].class))).thenReturn(0);
+        stackTraceService.recordOccurrences(List.of(first));
+
+        // Queued without text while a purge deleted the row
+        LogEntry queued = new LogEntry(LogLevel.ERROR, "Effect failed", "Source");
+        stackTraceService.attach(queued, failure);
+        assertNull(queued.getStackTrace());
+        stackTraceService.recordOccurrences(List.of(queued));
+
+        ArgumentCaptor<Object[]> insert = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(startsWith("INSERT"), insert.capture());
+        Object[] placeholder = insert.getAllValues().get(1);
+        assertEquals(queued.getStackFingerprint(), placeholder[0]);
+        assertEquals("java.lang.RuntimeException", placeholder[1]);
+        assertTrue(((String) placeholder[2]).startsWith("java.lang.RuntimeException"));
+        assertEquals(1L, placeholder[5]);
+
+        // The next occurrence is rendered again and its text replaces the placeholder
+        LogEntry next = new LogEntry(LogLevel.ERROR, "Effect failed", "Source");
+        stackTraceService.attach(next, failure);
+        assertNotNull(next.getStackTrace());
+        when(jdbcTemplate.update(startsWith("UPDATE"), any(Object[].class))).thenReturn(1);
+        stackTraceService.recordOccurrences(List.of(next));
+        // Once for the first occurrence, once for this one
+        verify(jdbcTemplate, times(2)).update(contains("stack_trace = ?"), any(Object[].class));
+    }
+}
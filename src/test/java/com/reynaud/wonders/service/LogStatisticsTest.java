@@ -0,0 +1,88 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LogStatistics Tests")
+class LogStatisticsTest {
+
+    @Mock
+    private LogDAO logDAO;
+
+    private LogStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        statistics = new LogStatistics(logDAO, 60);
+    }
+
+    @Test
+    @DisplayName("Should load totals and minute buckets from the database")
+    void testReconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        when(logDAO.countByLevelAndSource()).thenReturn(List.of(
+                new Object[] {LogLevel.INFO, "TurnManager", 7L},
+                new Object[] {LogLevel.ERROR, "CardPlayManager", 2L},
+                new Object[] {LogLevel.INFO, null, 1L}));
+        when(logDAO.countByLevelAndMinuteSince(any(LocalDateTime.class))).thenReturn(List.<Object[]>of(
+                new Object[] {LogLevel.INFO, now.toLocalDate(), now.getHour(), now.getMinute(), 4L}));
+        when(logDAO.countByReadByAdminFalse()).thenReturn(6L);
+
+        statistics.reconcile();
+
+        assertEquals(8L, statistics.getLevelTotals().get(LogLevel.INFO));
+        assertEquals(Map.of("TurnManager", 7L, "CardPlayManager", 2L, "(none)", 1L), statistics.getTopSources(10));
+        assertEquals(6L, statistics.getUnreadCount());
+        List<LogStatistics.MinuteCount> histogram = statistics.getHistogram(5);
+        assertEquals(5, histogram.size());
+        assertEquals(4L, histogram.get(4).getCounts().get(LogLevel.INFO));
+        assertEquals(0L, histogram.get(0).getTotal());
+    }
+
+    @Test
+    @DisplayName("Should count committed batches and read marks without querying")
+    void testRecordAndMarkRead() {
+        LogEntry read = new LogEntry(LogLevel.WARNING, "Seen", "TurnManager");
+        read.setReadByAdmin(true);
+        statistics.record(List.of(
+                new LogEntry(LogLevel.WARNING, "First", "TurnManager"),
+                new LogEntry(LogLevel.ERROR, "Second", "CardPlayManager"),
+                read));
+
+        assertEquals(2L, statistics.getUnreadCount());
+        assertEquals(2L, statistics.getLevelTotals().get(LogLevel.WARNING));
+        assertEquals("TurnManager", statistics.getTopSources(1).keySet().iterator().next());
+        assertEquals(3L, statistics.getHistogram(1).get(0).getTotal());
+
+        statistics.markedRead(5);
+        assertEquals(0L, statistics.getUnreadCount());
+        verifyNoInteractions(logDAO);
+    }
+
+    @Test
+    @DisplayName("Should ignore entries older than the window")
+    void testOldEntriesOutsideWindow() {
+        LogEntry old = new LogEntry(LogLevel.INFO, "Old", "Source");
+        old.setTimestamp(LocalDateTime.now().minusHours(3));
+        statistics.record(List.of(new LogEntry(LogLevel.INFO, "Now", "Source"), old));
+
+        long inWindow = statistics.getHistogram(60).stream().mapToLong(LogStatistics.MinuteCount::getTotal).sum();
+        assertEquals(1L, inWindow);
+        assertEquals(2L, statistics.getLevelTotals().get(LogLevel.INFO));
+    }
+}
@@ -0,0 +1,72 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.LogTemplateDAO;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.entity.LogTemplate;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LogTemplateService Tests")
+class LogTemplateServiceTest {
+
+    @Mock
+    private LogTemplateDAO templateDAO;
+
+    @InjectMocks
+    private LogTemplateService templateService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @DisplayName("Should round-trip arguments containing separators")
+    void testEncodeDecodeArguments() {
+        String encoded = LogTemplateService.encodeArguments(new Object[] {"a:b", 12, null, ""});
+
+        assertArrayEquals(new Object[] {"a:b", "12", "null", ""}, LogTemplateService.decodeArguments(encoded));
+        assertNull(LogTemplateService.encodeArguments(new Object[0]));
+    }
+
+    @Test
+    @DisplayName("Should store a pattern once and reuse its id")
+    void testInternCachesTemplate() {
+        LogTemplate saved = new LogTemplate("Resource: {}");
+        saved.setId(9L);
+        when(templateDAO.findByPattern("Resource: {}")).thenReturn(Optional.empty());
+        when(templateDAO.save(any(LogTemplate.class))).thenReturn(saved);
+
+        assertEquals(9L, templateService.intern("Resource: {}"));
+        assertEquals(9L, templateService.intern("Resource: {}"));
+        verify(templateDAO, times(1)).save(any(LogTemplate.class));
+    }
+
+    @Test
+    @DisplayName("Should render a stored entry from its template id")
+    void testRenderFromTemplateId() {
+        LogTemplate template = new LogTemplate("Buy plan - Resource: {}, Cost: {}");
+        template.setId(4L);
+        when(templateDAO.findAll()).thenReturn(List.of(template));
+        templateService.loadTemplates();
+
+        LogEntry entry = new LogEntry(LogLevel.DEBUG, "", "CardPlayManager");
+        entry.setTemplateId(4L);
+        entry.setArguments(LogTemplateService.encodeArguments(new Object[] {"WOOD", 2}));
+
+        assertEquals("Buy plan - Resource: WOOD, Cost: 2", templateService.render(entry));
+        assertEquals("Plain", templateService.render(new LogEntry(LogLevel.INFO, "Plain", "Source")));
+    }
+}
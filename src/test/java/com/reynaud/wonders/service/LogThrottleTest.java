@@ -0,0 +1,56 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LogThrottle Tests")
+class LogThrottleTest {
+
+    @Test
+    @DisplayName("Should allow a burst then drop and count the rest")
+    void testRateLimit() {
+        LogThrottle throttle = new LogThrottle("CardPlayManager:DEBUG:0.001:1.0");
+        throttle.setRule("CardPlayManager", new LogThrottle.Rule(LogLevel.DEBUG, 0.001, 5, 1.0));
+
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (throttle.tryAcquire("CardPlayManager.canAffordCost", LogLevel.DEBUG)) {
+                accepted++;
+            }
+        }
+
+        assertEquals(5, accepted);
+        Map<String, Long> dropped = throttle.drainDropped();
+        assertEquals(15L, dropped.get("CardPlayManager.canAffordCost DEBUG"));
+        assertTrue(throttle.drainDropped().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should leave levels above the rule and other sources untouched")
+    void testRuleScope() {
+        LogThrottle throttle = new LogThrottle("");
+        throttle.setRule("CardPlayManager", new LogThrottle.Rule(LogLevel.DEBUG, 0, 0, 0.0));
+
+        assertFalse(throttle.tryAcquire("CardPlayManager.payCost", LogLevel.DEBUG));
+        assertTrue(throttle.tryAcquire("CardPlayManager.payCost", LogLevel.INFO));
+        assertTrue(throttle.tryAcquire("TurnManager", LogLevel.DEBUG));
+
+        assertTrue(throttle.clearRule("CardPlayManager"));
+        assertTrue(throttle.tryAcquire("CardPlayManager.payCost", LogLevel.DEBUG));
+    }
+
+    @Test
+    @DisplayName("Should parse configured rules and reject malformed ones")
+    void testParseRules() {
+        LogThrottle throttle = new LogThrottle("CardPlayManager.canAffordCost:DEBUG:100:0.25, EffectExecutorService:INFO:50:1.0");
+
+        assertEquals(2, throttle.getRules().size());
+        assertEquals(0.25, throttle.getRules().get("CardPlayManager.canAffordCost").getSampleRate());
+        assertThrows(IllegalArgumentException.class, () -> new LogThrottle("CardPlayManager:DEBUG"));
+    }
+}
@@ -1,23 +1,36 @@
 package com.reynaud.wonders.service;
 
 import com.reynaud.wonders.dao.LogDAO;
+import com.reynaud.wonders.dto.LogCursor;
+import com.reynaud.wonders.dto.LogFilter;
 import com.reynaud.wonders.entity.LogEntry;
 import com.reynaud.wonders.model.LogLevel;
+import com.reynaud.wonders.util.LogContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @DisplayName("LoggingService Tests")
@@ -26,12 +39,37 @@ class LoggingServiceTest {
     @Mock
     private LogDAO logDAO;
 
+    @Mock
+    private AsyncLogWriter logWriter;
+
+    @Mock
+    private LogRingBuffer recentEntries;
+
+    @Mock
+    private LogStackTraceService stackTraceService;
+
+    @Mock
+    private LogThrottle throttle;
+
+    @Mock
+    private LogStatistics statistics;
+
+    @Mock
+    private LogArchiveService archiveService;
+
+    @Mock
+    private LogSearchService searchService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private LoggingService loggingService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(throttle.tryAcquire(any(), any())).thenReturn(true);
     }
 
     @Test
@@ -42,7 +80,9 @@ class LoggingServiceTest {
 
         loggingService.info(message, source);
 
-        verify(logDAO, times(1)).save(any(LogEntry.class));
+        verify(logWriter, times(1)).submit(any(LogEntry.class));
+        verify(recentEntries, times(1)).publish(any(LogEntry.class));
+        verify(logDAO, never()).save(any(LogEntry.class));
     }
 
     @Test
@@ -54,75 +94,148 @@ class LoggingServiceTest {
 
         loggingService.error(message, source, exception);
 
-        verify(logDAO, times(1)).save(any(LogEntry.class));
+        ArgumentCaptor<LogEntry> captor = ArgumentCaptor.forClass(LogEntry.class);
+        verify(logWriter, times(1)).submit(captor.capture());
+        verify(stackTraceService, times(1)).attach(captor.getValue(), exception);
     }
 
     @Test
-    @DisplayName("Should retrieve all logs with pagination")
-    void testGetAllLogs() {
+    @DisplayName("Should attach the bound game context and restore the outer one")
+    void testLogContextAttached() {
+        LogContext.bind(12L, 40L, 7L, "play");
+        try {
+            try (LogContext.Scope scope = LogContext.open(null, null, null, "end-of-turn")) {
+                loggingService.info("Rotating hands", "TurnManager");
+            }
+            loggingService.info("Card action successful", "GameStateApiController");
+        } finally {
+            LogContext.clear();
+        }
+
+        ArgumentCaptor<LogEntry> captor = ArgumentCaptor.forClass(LogEntry.class);
+        verify(logWriter, times(2)).submit(captor.capture());
+        LogEntry nested = captor.getAllValues().get(0);
+        assertEquals(12L, nested.getGameId());
+        assertEquals(40L, nested.getPlayerStateId());
+        assertEquals(7L, nested.getUserId());
+        assertEquals("end-of-turn", nested.getAction());
+        assertEquals("play", captor.getAllValues().get(1).getAction());
+    }
+
+    @Test
+    @DisplayName("Should retrieve a keyset page and detect more rows")
+    @SuppressWarnings("unchecked")
+    void testFindLogsHasNext() {
         LogEntry log1 = new LogEntry(LogLevel.INFO, "Message 1", "Source1");
         LogEntry log2 = new LogEntry(LogLevel.ERROR, "Message 2", "Source2");
-        Page<LogEntry> mockPage = new PageImpl<>(Arrays.asList(log1, log2), PageRequest.of(0, 50), 2);
+        LogEntry log3 = new LogEntry(LogLevel.ERROR, "Message 3", "Source2");
 
-        when(logDAO.findAllByOrderByTimestampDesc(any())).thenReturn(mockPage);
+        when(logDAO.findBy(any(Specification.class), any())).thenReturn(Arrays.asList(log1, log2, log3));
 
-        Page<LogEntry> result = loggingService.getAllLogs(1);
+        Slice<LogEntry> result = loggingService.findLogs(new LogFilter(), null, 2);
 
-        assertEquals(2, result.getTotalElements());
-        verify(logDAO, times(1)).findAllByOrderByTimestampDesc(any());
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.hasNext());
+        verify(logDAO, times(1)).findBy(any(Specification.class), any());
     }
 
     @Test
-    @DisplayName("Should retrieve logs by level")
-    void testGetLogsByLevel() {
-        LogEntry errorLog = new LogEntry(LogLevel.ERROR, "Error message", "Source");
-        Page<LogEntry> mockPage = new PageImpl<>(Arrays.asList(errorLog), PageRequest.of(0, 50), 1);
+    @DisplayName("Should complete a page with archived logs")
+    @SuppressWarnings("unchecked")
+    void testFindLogsMergesArchive() {
+        LogEntry hot = new LogEntry(LogLevel.INFO, "Hot", "Source");
+        hot.setId(10L);
+        LogEntry archived = new LogEntry(LogLevel.INFO, "Archived", "Source");
+        archived.setId(3L);
+        archived.setTimestamp(hot.getTimestamp().minusDays(5));
+        LogEntry duplicate = new LogEntry(LogLevel.INFO, "Hot", "Source");
+        duplicate.setId(10L);
+        duplicate.setTimestamp(hot.getTimestamp());
+
+        when(logDAO.findBy(any(Specification.class), any())).thenReturn(List.of(hot));
+        when(archiveService.mayContain(any(LogFilter.class), isNull())).thenReturn(true);
+        when(archiveService.find(any(LogFilter.class), isNull(), eq(3))).thenReturn(List.of(duplicate, archived));
+
+        Slice<LogEntry> result = loggingService.findLogs(new LogFilter(), null, 2);
+
+        assertEquals(List.of(10L, 3L), result.getContent().stream().map(LogEntry::getId).toList());
+        assertFalse(result.hasNext());
+    }
 
-        when(logDAO.findByLogLevelIn(any(), any())).thenReturn(mockPage);
+    @Test
+    @DisplayName("Should cap the page size")
+    @SuppressWarnings("unchecked")
+    void testFindLogsCapsPageSize() {
+        when(logDAO.findBy(any(Specification.class), any())).thenReturn(List.of());
 
-        Page<LogEntry> result = loggingService.getLogsByLevel(LogLevel.ERROR, 1);
+        Slice<LogEntry> result = loggingService.findLogs(new LogFilter(), null, 100000);
 
-        assertEquals(1, result.getTotalElements());
-        verify(logDAO, times(1)).findByLogLevelIn(any(), any());
+        assertEquals(LoggingService.MAX_PAGE_SIZE, result.getSize());
+        assertFalse(result.hasNext());
     }
 
     @Test
-    @DisplayName("Should retrieve unread logs")
-    void testGetUnreadLogs() {
-        LogEntry unreadLog = new LogEntry(LogLevel.WARNING, "Unread message", "Source");
-        unreadLog.setReadByAdmin(false);
-
-        when(logDAO.findByReadByAdminFalseOrderByTimestampDesc())
-                .thenReturn(Arrays.asList(unreadLog));
+    @DisplayName("Should round-trip a log cursor")
+    void testLogCursorEncoding() {
+        LogEntry log = new LogEntry(LogLevel.INFO, "Message", "Source");
+        log.setId(42L);
 
-        List<LogEntry> result = loggingService.getUnreadLogs();
+        LogCursor cursor = LogCursor.decode(LogCursor.after(log).encode());
 
-        assertEquals(1, result.size());
-        assertFalse(result.get(0).getReadByAdmin());
+        assertEquals(log.getTimestamp(), cursor.getTimestamp());
+        assertEquals(42L, cursor.getId());
+        assertNull(LogCursor.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> LogCursor.decode("not-a-cursor"));
     }
 
     @Test
-    @DisplayName("Should count unread logs")
+    @DisplayName("Should count unread logs from the in-memory counters")
     void testGetUnreadLogsCount() {
-        when(logDAO.countByReadByAdminFalse()).thenReturn(5L);
+        when(statistics.getUnreadCount()).thenReturn(5L);
 
         long count = loggingService.getUnreadLogsCount();
 
         assertEquals(5L, count);
+        verify(logDAO, never()).countByReadByAdminFalse();
     }
 
     @Test
-    @DisplayName("Should mark logs as read")
+    @DisplayName("Should mark logs as read with a bulk update")
     void testMarkAsRead() {
-        LogEntry log = new LogEntry(LogLevel.INFO, "Test", "Source");
-        log.setId(1L);
+        loggingService.markAsRead(Arrays.asList(1L));
 
-        when(logDAO.findById(1L)).thenReturn(java.util.Optional.of(log));
+        verify(logDAO, times(1)).markReadByIds(List.of(1L));
+        verify(logDAO, never()).save(any(LogEntry.class));
+        verify(statistics).markedRead(0);
+    }
 
-        loggingService.markAsRead(Arrays.asList(1L));
+    @Test
+    @DisplayName("Should purge old logs in chunks until none remain")
+    void testPurgeLogsInChunks() {
+        List<Long> fullChunk = LongStream.rangeClosed(1, LoggingService.BULK_CHUNK_SIZE).boxed().toList();
+        List<Long> lastChunk = List.of(5000L, 5001L);
+        when(logDAO.findIdsByLevelBefore(eq(LogLevel.DEBUG), any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(fullChunk, lastChunk);
+        when(logDAO.deleteByIds(fullChunk)).thenReturn(fullChunk.size());
+        when(logDAO.deleteByIds(lastChunk)).thenReturn(lastChunk.size());
+
+        long deleted = loggingService.purgeLogs(LogLevel.DEBUG, LocalDateTime.now().minusDays(1));
+
+        assertEquals(LoggingService.BULK_CHUNK_SIZE + 2L, deleted);
+        verify(logDAO, times(2)).deleteByIds(anyList());
+        verify(statistics, times(1)).reconcile();
+        verify(searchService).remove(fullChunk);
+        verify(searchService).remove(lastChunk);
+        verify(logDAO, never()).deleteAll(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Should not mark anything when there are no logs")
+    void testMarkAllAsReadEmptyTable() {
+        when(logDAO.findMaxId()).thenReturn(null);
 
-        assertTrue(log.getReadByAdmin());
-        verify(logDAO, times(1)).save(log);
+        assertEquals(0, loggingService.markAllAsRead());
+        verify(logDAO, never()).markReadByIds(anyList());
     }
 
     @Test
@@ -133,4 +246,69 @@ class LoggingServiceTest {
         assertFalse(LogLevel.DEBUG.isAtLeastAs(LogLevel.ERROR));
         assertFalse(LogLevel.INFO.isAtLeastAs(LogLevel.WARNING));
     }
+
+    @Test
+    @DisplayName("Should not build suppressed messages")
+    void testSupplierNotInvokedBelowThreshold() {
+        loggingService.setSourceThreshold("CardPlayManager.canAffordCost", LogLevel.INFO);
+        AtomicInteger calls = new AtomicInteger();
+
+        loggingService.debug(() -> "Expensive " + calls.incrementAndGet(), "CardPlayManager.canAffordCost");
+
+        assertEquals(0, calls.get());
+        verify(logWriter, never()).submit(any(LogEntry.class));
+    }
+
+    @Test
+    @DisplayName("Should apply parent source thresholds and allow overrides")
+    void testSourceThresholdResolution() {
+        loggingService.setSourceThreshold("CardPlayManager", LogLevel.WARNING);
+        loggingService.setSourceThreshold("CardPlayManager.payCost", LogLevel.DEBUG);
+
+        assertFalse(loggingService.isEnabled(LogLevel.INFO, "CardPlayManager.canAffordCost"));
+        assertTrue(loggingService.isEnabled(LogLevel.DEBUG, "CardPlayManager.payCost"));
+        assertTrue(loggingService.isEnabled(LogLevel.DEBUG, "TurnManager.handleEndOfTurn"));
+
+        assertTrue(loggingService.clearSourceThreshold("CardPlayManager"));
+        assertTrue(loggingService.isEnabled(LogLevel.INFO, "CardPlayManager.canAffordCost"));
+    }
+
+    @Test
+    @DisplayName("Should keep pattern and arguments instead of formatting")
+    void testPatternFormatting() {
+        loggingService.info("Player: {}, Coins: {}", "TestSource", "bob", 7);
+
+        ArgumentCaptor<LogEntry> captor = ArgumentCaptor.forClass(LogEntry.class);
+        verify(logWriter, times(1)).submit(captor.capture());
+        LogEntry entry = captor.getValue();
+        assertEquals("", entry.getMessage());
+        assertEquals("Player: {}, Coins: {}", entry.getMessageTemplate());
+        assertEquals("Player: bob, Coins: 7",
+                LoggingService.format(entry.getMessageTemplate(), LogTemplateService.decodeArguments(entry.getArguments())));
+    }
+
+    @Test
+    @DisplayName("Should not build throttled messages")
+    void testThrottledMessageNotBuilt() {
+        when(throttle.tryAcquire("CardPlayManager.canAffordCost", LogLevel.DEBUG)).thenReturn(false);
+        AtomicInteger calls = new AtomicInteger();
+
+        loggingService.debug(() -> "Step3 - " + calls.incrementAndGet(), "CardPlayManager.canAffordCost");
+
+        assertEquals(0, calls.get());
+        verify(logWriter, never()).submit(any(LogEntry.class));
+    }
+
+    @Test
+    @DisplayName("Should write one summary entry for throttled messages")
+    void testThrottleSummary() {
+        when(throttle.drainDropped()).thenReturn(Map.of("CardPlayManager.canAffordCost DEBUG", 1200L));
+
+        loggingService.emitThrottleSummary();
+
+        ArgumentCaptor<LogEntry> captor = ArgumentCaptor.forClass(LogEntry.class);
+        verify(logWriter, times(1)).submit(captor.capture());
+        assertEquals(LogLevel.WARNING, captor.getValue().getLogLevel());
+        assertTrue(captor.getValue().getMessage().contains("1200"));
+    }
 }
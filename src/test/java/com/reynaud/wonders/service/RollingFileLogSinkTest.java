@@ -0,0 +1,100 @@
+package com.reynaud.wonders.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reynaud.wonders.entity.LogEntry;
+import com.reynaud.wonders.model.LogLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RollingFileLogSink Tests")
+class RollingFileLogSinkTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Mock
+    private LogTemplateService templateService;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(templateService.render(any(LogEntry.class))).thenAnswer(invocation -> invocation.<LogEntry>getArgument(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void testWriteNdjson() throws IOException {
+        RollingFileLogSink sink = new RollingFileLogSink(templateService, directory.toString(), 1 << 20, 3_600_000, false);
+        LogEntry entry = new LogEntry(LogLevel.DEBUG, "Player \"A\" pays 3", "CardPlayManager");
+        entry.setGameId(12L);
+
+        sink.write(List.of(entry, new LogEntry(LogLevel.DEBUG, "Second", "CardPlayManager")));
+        Path segment = sink.getCurrentSegment();
+        sink.close();
+
+        List<String> lines = Files.readAllLines(segment, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        JsonNode first = OBJECT_MAPPER.readTree(lines.get(0));
+        assertEquals("DEBUG", first.get("level").asText());
+        assertEquals("Player \"A\" pays 3", first.get("message").asText());
+        assertEquals(12L, first.get("gameId").asLong());
+        assertFalse(first.has("userId"));
+    }
+
+    @Test
+    @DisplayName("Should rotate by size and gzip closed segments")
+    void testRotateAndCompress() throws IOException {
+        RollingFileLogSink sink = new RollingFileLogSink(templateService, directory.toString(), 100, 3_600_000, true);
+
+        for (int i = 0; i < 3; i++) {
+            sink.write(List.of(new LogEntry(LogLevel.DEBUG, "Entry number " + i + " with enough text to fill a segment", "Source")));
+        }
+        sink.close();
+
+        List<Path> archives;
+        try (Stream<Path> files = Files.list(directory)) {
+            archives = files.sorted().toList();
+        }
+        assertEquals(3, archives.size());
+        List<String> lines = new ArrayList<>();
+        for (Path archive : archives) {
+            assertTrue(archive.getFileName().toString().endsWith(".ndjson.gz"));
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+                lines.addAll(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList());
+            }
+        }
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).contains("Entry number 2"));
+    }
+
+    @Test
+    @DisplayName("Should not create any file until something is written")
+    void testLazyOpen() throws IOException {
+        RollingFileLogSink sink = new RollingFileLogSink(templateService, directory.resolve("logs").toString(), 100, 3_600_000, true);
+        sink.close();
+
+        assertNull(sink.getCurrentSegment());
+        assertFalse(Files.exists(directory.resolve("logs")));
+    }
+}
@@ -0,0 +1,79 @@
+package com.reynaud.wonders.service;
+
+import com.reynaud.wonders.dao.WonderDAO;
+import com.reynaud.wonders.entity.WonderEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.*;
+
+@DisplayName("WonderService Tests")
+class WonderServiceTest {
+
+    @Mock
+    private WonderDAO wonderDAO;
+
+    @Mock
+    private PlayerStateService playerStateService;
+
+    @Mock
+    private LoggingService loggingService;
+
+    @Mock
+    private GameCatalog gameCatalog;
+
+    @Mock
+    private EffectCatalog effectCatalog;
+
+    private WonderService wonderService;
+    private WonderEntity wonder;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        wonderService = new WonderService(wonderDAO, playerStateService, loggingService, gameCatalog, effectCatalog);
+        wonder = new WonderEntity("Gizah", "A", 3);
+        when(wonderDAO.save(wonder)).thenReturn(wonder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reload the game catalog and then the effect catalog only after the change commits")
+    void testReloadAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        wonderService.createWonder(wonder);
+        verifyNoInteractions(gameCatalog, effectCatalog);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        InOrder order = inOrder(gameCatalog, effectCatalog);
+        order.verify(gameCatalog).load();
+        order.verify(effectCatalog).load();
+    }
+
+    @Test
+    @DisplayName("Should not reload the catalogs when the change rolls back")
+    void testNoReloadOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        wonderService.deleteWonder(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(gameCatalog, effectCatalog);
+    }
+}